@@ -0,0 +1,83 @@
+package com.enterprise.sentinel.domain.model;
+
+import com.enterprise.sentinel.service.analysis.DetectionClassRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Zone matching for one detection against every zone, as the alert engine
+ * does: on class ids with per-zone bitsets (hot path) and on class names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeofenceZoneBenchmark {
+
+    private static final List<String> CLASSES = List.of(
+            "person", "bicycle", "car", "motorcycle", "bus", "truck", "dog", "backpack", "handbag", "suitcase");
+
+    @Param({"10", "100", "1000"})
+    public int zones;
+
+    private GeofenceZone[] zoneArray;
+    private BitSet[] triggerClassIds;
+    private int classId;
+    private String className;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        DetectionClassRegistry registry = new DetectionClassRegistry();
+        registry.registerAll(CLASSES);
+        zoneArray = new GeofenceZone[zones];
+        triggerClassIds = new BitSet[zones];
+        for (int i = 0; i < zones; i++) {
+            // One to three trigger classes per zone
+            String triggers = String.join(",", CLASSES.get(random.nextInt(CLASSES.size())),
+                    CLASSES.get(random.nextInt(CLASSES.size())), CLASSES.get(random.nextInt(CLASSES.size())));
+            zoneArray[i] = new GeofenceZone("Z" + i, "Zone " + i, triggers, 0.3 + random.nextDouble() * 0.5, "HIGH");
+            triggerClassIds[i] = registry.maskOf(zoneArray[i].getTriggerClasses());
+        }
+        className = "truck";
+        classId = registry.idOf(className);
+    }
+
+    @Benchmark
+    public int shouldTriggerAlertByClassId() {
+        int triggered = 0;
+        for (int i = 0; i < zoneArray.length; i++) {
+            if (zoneArray[i].shouldTriggerAlert(classId, 0.7, triggerClassIds[i])) {
+                triggered++;
+            }
+        }
+        return triggered;
+    }
+
+    @Benchmark
+    public int shouldTriggerAlertByClassName() {
+        int triggered = 0;
+        for (GeofenceZone zone : zoneArray) {
+            if (zone.shouldTriggerAlert(className, 0.7)) {
+                triggered++;
+            }
+        }
+        return triggered;
+    }
+}
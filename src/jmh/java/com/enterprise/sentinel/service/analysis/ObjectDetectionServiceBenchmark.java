@@ -0,0 +1,75 @@
+package com.enterprise.sentinel.service.analysis;
+
+import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.modality.cv.output.Rectangle;
+import com.enterprise.sentinel.config.ExecutionModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IoU of the service-side NMS on box pairs with a mix of overlaps
+ * (the service is created without loading a model).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectDetectionServiceBenchmark {
+
+    private static final int PAIRS = 1024;
+
+    private ExecutionModel executionModel;
+    private ObjectDetectionService service;
+    private DetectedObjects.DetectedObject[] first;
+    private DetectedObjects.DetectedObject[] second;
+
+    @Setup
+    public void setUp() {
+        executionModel = ExecutionModel.platform(1);
+        service = new ObjectDetectionService(executionModel, null, null, ""); // IoU needs no model
+        Random random = new Random(42);
+        first = new DetectedObjects.DetectedObject[PAIRS];
+        second = new DetectedObjects.DetectedObject[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            double x = random.nextDouble() * 0.8;
+            double y = random.nextDouble() * 0.8;
+            first[i] = box(x, y);
+            // Neighbours from overlapping to disjoint
+            second[i] = box(x + random.nextDouble() * 0.2, y + random.nextDouble() * 0.2);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        executionModel.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public double computeIntersectionOverUnion() {
+        double sum = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            sum += service.computeIntersectionOverUnion(first[i], second[i]);
+        }
+        return sum;
+    }
+
+    private static DetectedObjects.DetectedObject box(double x, double y) {
+        return new DetectedObjects.DetectedObject("person", 0.9, new Rectangle(x, y, 0.1, 0.2));
+    }
+}
@@ -0,0 +1,139 @@
+package com.enterprise.sentinel.service.analysis;
+
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import ai.djl.modality.cv.output.DetectedObjects;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * YOLOv8 pre- and post-processing without a model: resize + normalize of a
+ * synthetic frame, decoding of a synthetic [1, 84, 8400] output, and NMS
+ * over the candidates that decoding keeps.
+ *
+ * {@code candidates} is the number of anchors above the confidence threshold;
+ * they are placed in clusters of overlapping boxes, as around real objects.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class YoloV8TranslatorBenchmark {
+
+    private static final int ANCHORS = 8400;
+    private static final int CLASSES = 80;
+    private static final int CLUSTER = 8;
+
+    @Benchmark
+    public FloatBuffer processInput(Frame state) {
+        return state.translator.preprocess(state.frame);
+    }
+
+    @Benchmark
+    public DetectedObjects processOutput(Output state) {
+        return state.translator.decode(state.output);
+    }
+
+    /**
+     * NMS sorts and drains its input, so each call works on a copy (included in the time).
+     */
+    @Benchmark
+    public List<YoloV8Translator.IntermediateResult> nms(Output state) {
+        return state.translator.nms(new ArrayList<>(state.boxes));
+    }
+
+    /**
+     * A frame of random pixels (resize and normalize cost does not depend on content).
+     */
+    @State(Scope.Benchmark)
+    public static class Frame {
+
+        @Param({"1920x1080", "640x640"})
+        public String frameSize;
+
+        private YoloV8Translator translator;
+        private Image frame;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(42);
+            translator = translator();
+            String[] size = frameSize.split("x");
+            BufferedImage image = new BufferedImage(Integer.parseInt(size[0]), Integer.parseInt(size[1]),
+                    BufferedImage.TYPE_INT_RGB);
+            for (int y = 0; y < image.getHeight(); y++) {
+                for (int x = 0; x < image.getWidth(); x++) {
+                    image.setRGB(x, y, random.nextInt());
+                }
+            }
+            frame = ImageFactory.getInstance().fromImage(image);
+        }
+    }
+
+    /**
+     * Background scores below the threshold, then clusters of confident boxes.
+     */
+    @State(Scope.Benchmark)
+    public static class Output {
+
+        @Param({"16", "256"})
+        public int candidates;
+
+        private YoloV8Translator translator;
+        private float[] output;
+        private List<YoloV8Translator.IntermediateResult> boxes;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(42);
+            translator = translator();
+            output = new float[(4 + CLASSES) * ANCHORS];
+            for (int i = 4 * ANCHORS; i < output.length; i++) {
+                output[i] = random.nextFloat() * 0.1f;
+            }
+            boxes = new ArrayList<>();
+            for (int k = 0; k < candidates; k++) {
+                int anchor = (k * 7919) % ANCHORS; // Distinct anchors (7919 is coprime with 8400)
+                int cluster = k / CLUSTER;
+                float cx = 40 + (cluster * 97) % 560 + random.nextFloat() * 8;
+                float cy = 40 + (cluster * 61) % 560 + random.nextFloat() * 8;
+                float w = 48 + random.nextFloat() * 8;
+                float h = 96 + random.nextFloat() * 8;
+                int classId = cluster % CLASSES;
+                float score = 0.5f + random.nextFloat() * 0.5f;
+                output[anchor] = cx;
+                output[ANCHORS + anchor] = cy;
+                output[2 * ANCHORS + anchor] = w;
+                output[3 * ANCHORS + anchor] = h;
+                output[(4 + classId) * ANCHORS + anchor] = score;
+                boxes.add(new YoloV8Translator.IntermediateResult(classId, score,
+                        (cx - w / 2) / 640, (cy - h / 2) / 640, w / 640, h / 640));
+            }
+        }
+    }
+
+    private static YoloV8Translator translator() {
+        List<String> classNames = new ArrayList<>();
+        for (int c = 0; c < CLASSES; c++) {
+            classNames.add("class" + c);
+        }
+        return new YoloV8Translator(classNames, 0.5f, 0.45f);
+    }
+}
@@ -0,0 +1,60 @@
+package com.enterprise.sentinel.service.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Column encryption round trip (entity load/save) for short paths and longer payloads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttributeEncryptorBenchmark {
+
+    @Param({"64", "1024"})
+    public int length;
+
+    private AttributeEncryptor encryptor;
+    private String plain;
+    private String encrypted;
+
+    @Setup
+    public void setUp() {
+        encryptor = new AttributeEncryptor();
+        ReflectionTestUtils.setField(encryptor, "secretKeyProperty", "x/A?D(G+KbPeShVmYq3t6w9z$B&E)H@M");
+        encryptor.init();
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(26)));
+        }
+        plain = builder.toString();
+        encrypted = encryptor.convertToDatabaseColumn(plain);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryptor.convertToDatabaseColumn(plain);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return encryptor.convertToEntityAttribute(encrypted);
+    }
+}
@@ -3,16 +3,28 @@ package com.enterprise.sentinel;
 import com.enterprise.sentinel.client.SentinelFxApplication;
 import javafx.application.Application;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.util.Arrays;
+
 @SpringBootApplication
 @EnableAsync
 @EnableScheduling
 public class SentinelApplication {
 
+    private static final String HEADLESS_FLAG = "--headless";
+
     public static void main(String[] args) {
+        if (Arrays.asList(args).contains(HEADLESS_FLAG) || Boolean.getBoolean("sentinel.headless")) {
+            // Server node: no JavaFX/VLC; streams are decoded by HeadlessIngestionEngine
+            new SpringApplicationBuilder(SentinelApplication.class)
+                    .headless(true)
+                    .run(args);
+            return;
+        }
         // Launch JavaFX (which will boot Spring)
         Application.launch(SentinelFxApplication.class, args);
     }
-}
\ No newline at end of file
+}
@@ -4,26 +4,43 @@ import com.enterprise.sentinel.domain.model.SecurityAlert;
 import com.enterprise.sentinel.domain.repository.SecurityAlertRepository;
 import com.enterprise.sentinel.service.analysis.AlertEngine;
 import com.enterprise.sentinel.service.analysis.AnalyticsService;
+import com.enterprise.sentinel.service.analysis.DwellEngine;
+import com.enterprise.sentinel.service.ingestion.AlertClipService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.support.WindowIterator;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.BiFunction;
 
 /**
  * REST API for security alerts and analytics.
  * Provides endpoints for:
- * - Real-time alert monitoring
+ * - Real-time alert monitoring (keyset-paginated lists, NDJSON export)
  * - Alert acknowledgment
+ * - Pre/post-roll footage of an alert (MPEG-TS clip)
  * - Analytics queries (heatmaps, dwell time, compliance)
  */
 @Slf4j
@@ -35,6 +52,12 @@ public class AlertController {
     private final AlertEngine alertEngine;
     private final AnalyticsService analyticsService;
     private final SecurityAlertRepository securityAlertRepository;
+    private final AlertClipService alertClipService;
+    private final ObjectMapper objectMapper;
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_BATCH_SIZE = 500;
 
     // ====== ALERT ENDPOINTS ======
 
@@ -57,41 +80,93 @@ public class AlertController {
     }
 
     /**
-     * Get all alerts for a specific geofence zone.
+     * Get alerts for a specific geofence zone (keyset-paginated, newest first).
+     * Query params:
+     * - cursor: nextCursor from the previous page (omit for the first page)
+     * - limit: page size (default: 20, max: 100)
      */
     @GetMapping("/zone/{zoneId}")
-    public ResponseEntity<List<SecurityAlert>> getAlertsByZone(@PathVariable UUID zoneId) {
-        List<SecurityAlert> alerts = securityAlertRepository
-                .findByGeofenceZoneIdOrderByCreatedAtDesc(zoneId);
-        
-        log.info("Retrieved {} alerts for zone {}", alerts.size(), zoneId);
-        return ResponseEntity.ok(alerts);
+    public ResponseEntity<?> getAlertsByZone(
+            @PathVariable UUID zoneId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        return page(cursor, limit, (position, pageLimit) -> securityAlertRepository
+                .findByGeofenceZoneIdOrderByCreatedAtDescIdDesc(zoneId, position, pageLimit));
     }
 
     /**
-     * Get alerts by severity level.
+     * Get alerts by severity level (keyset-paginated, newest first).
      * Severity: CRITICAL, HIGH, MEDIUM, LOW
      */
     @GetMapping("/severity/{severity}")
-    public ResponseEntity<List<SecurityAlert>> getAlertsBySeverity(@PathVariable String severity) {
-        List<SecurityAlert> alerts = securityAlertRepository
-                .findBySeverityOrderByCreatedAtDesc(severity);
-        
-        return ResponseEntity.ok(alerts);
+    public ResponseEntity<?> getAlertsBySeverity(
+            @PathVariable String severity,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        String level = severity.toUpperCase(Locale.ROOT);
+        return page(cursor, limit, (position, pageLimit) -> securityAlertRepository
+                .findBySeverityOrderByCreatedAtDescIdDesc(level, position, pageLimit));
     }
 
     /**
-     * Get alerts in a specific time range.
+     * Get alerts in a specific time range (keyset-paginated, newest first).
      */
     @GetMapping("/timerange")
-    public ResponseEntity<List<SecurityAlert>> getAlertsByTimeRange(
+    public ResponseEntity<?> getAlertsByTimeRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
-        
-        List<SecurityAlert> alerts = securityAlertRepository.findByTimeRange(start, end);
-        log.info("Retrieved {} alerts between {} and {}", alerts.size(), start, end);
-        
-        return ResponseEntity.ok(alerts);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        return page(cursor, limit, (position, pageLimit) -> securityAlertRepository
+                .findByCreatedAtBetweenOrderByCreatedAtDescIdDesc(start, end, position, pageLimit));
+    }
+
+    /**
+     * Export alerts in a time range as newline-delimited JSON (one alert per line).
+     * Rows are read in keyset batches and written as they arrive, so memory use
+     * stays flat no matter how many alerts match.
+     * Query params:
+     * - severity: optional severity filter
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportAlerts(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String severity) {
+
+        String level = severity != null ? severity.toUpperCase(Locale.ROOT) : null;
+        Limit batch = Limit.of(EXPORT_BATCH_SIZE);
+
+        WindowIterator<SecurityAlert> alerts = WindowIterator.of((ScrollPosition position) -> level == null
+                        ? securityAlertRepository.findByCreatedAtBetweenOrderByCreatedAtDescIdDesc(
+                                start, end, position, batch)
+                        : securityAlertRepository.findBySeverityAndCreatedAtBetweenOrderByCreatedAtDescIdDesc(
+                                level, start, end, position, batch))
+                .startingAt(ScrollPosition.keyset());
+
+        StreamingResponseBody body = out -> {
+            long written = 0;
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(new SerializedString("\n"));
+                while (alerts.hasNext()) {
+                    objectMapper.writeValue(generator, alerts.next());
+                    if (++written % EXPORT_BATCH_SIZE == 0) {
+                        generator.flush();
+                    }
+                }
+                if (written > 0) {
+                    generator.writeRaw('\n');
+                }
+            }
+            log.info("Exported {} alerts between {} and {}", written, start, end);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
     }
 
     /**
@@ -105,12 +180,15 @@ public class AlertController {
     }
 
     /**
-     * Get critical alerts requiring immediate attention.
+     * Get critical alerts requiring immediate attention (keyset-paginated, newest first).
      */
     @GetMapping("/critical")
-    public ResponseEntity<List<SecurityAlert>> getCriticalAlerts() {
-        List<SecurityAlert> critical = alertEngine.getCriticalUnacknowledgedAlerts();
-        return ResponseEntity.ok(critical);
+    public ResponseEntity<?> getCriticalAlerts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        return page(cursor, limit, (position, pageLimit) ->
+                alertEngine.getCriticalUnacknowledgedAlerts(position, pageLimit.max()));
     }
 
     /**
@@ -148,6 +226,22 @@ public class AlertController {
         }
     }
 
+    /**
+     * Footage around an alert (pre-roll to post-roll) as MPEG-TS.
+     * Available once the post-roll has been recorded; 404 before that or if
+     * the camera was not being recorded.
+     */
+    @GetMapping("/{alertId}/clip")
+    public ResponseEntity<?> getAlertClip(@PathVariable UUID alertId) {
+        return alertClipService.findClip(alertId)
+                .filter(clip -> Files.exists(Path.of(clip.getStoragePath())))
+                .<ResponseEntity<?>>map(clip -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType("video/mp2t"))
+                        .body(new FileSystemResource(clip.getStoragePath())))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "No clip for alert")));
+    }
+
     // ====== ANALYTICS ENDPOINTS ======
 
     /**
@@ -173,21 +267,43 @@ public class AlertController {
     }
 
     /**
-     * Calculate dwell time for objects in a zone.
+     * Dwell time per tracked object for stays that ended in a time window.
+     * Query params:
+     * - objectClass: object class (e.g., "person")
+     * - zoneCode: geofence zone code (omit for all zones)
      */
     @GetMapping("/analytics/dwell-time")
     public ResponseEntity<Map<String, Long>> getDwellTime(
             @RequestParam String objectClass,
-            @RequestParam String zoneCoordinates,
+            @RequestParam(required = false) String zoneCode,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
         
         Map<String, Long> dwellTimes = analyticsService.calculateDwellTime(
-                objectClass, zoneCoordinates, start, end);
+                objectClass, zoneCode, start, end);
         
         return ResponseEntity.ok(dwellTimes);
     }
 
+    /**
+     * Dwell count, mean and p50/p90/p99 for a zone.
+     */
+    @GetMapping("/analytics/dwell-time/stats")
+    public ResponseEntity<?> getDwellStats(@RequestParam String zoneCode) {
+        return analyticsService.getDwellStats(zoneCode)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "No dwell data for zone")));
+    }
+
+    /**
+     * Dwell-time histogram for a zone (non-empty buckets only).
+     */
+    @GetMapping("/analytics/dwell-time/histogram")
+    public ResponseEntity<List<DwellEngine.HistogramBucket>> getDwellHistogram(@RequestParam String zoneCode) {
+        return ResponseEntity.ok(analyticsService.getDwellHistogram(zoneCode));
+    }
+
     /**
      * Analyze PPE compliance.
      */
@@ -208,10 +324,10 @@ public class AlertController {
             @RequestBody ComplianceReportRequest request) {
         
         List<Map<String, Object>> violations = analyticsService.generateComplianceReport(
-                request.getRestrictedClasses(),
-                request.getRestrictedZones(),
-                request.getStartTime(),
-                request.getEndTime()
+                request.restrictedClasses(),
+                request.restrictedZones(),
+                request.startTime(),
+                request.endTime()
         );
         
         log.info("Generated compliance report: {} violations found", violations.size());
@@ -242,6 +358,26 @@ public class AlertController {
         return ResponseEntity.ok(confidence);
     }
 
+    // ====== HELPER METHODS ======
+
+    /**
+     * Run a keyset query for one page and wrap it with the next cursor.
+     * Malformed cursors are rejected with 400 instead of silently restarting at page one.
+     */
+    private ResponseEntity<?> page(String cursor, int limit,
+                                   BiFunction<ScrollPosition, Limit, Window<SecurityAlert>> query) {
+        ScrollPosition position;
+        try {
+            position = AlertCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid cursor"));
+        }
+
+        Limit pageLimit = Limit.of(Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        return ResponseEntity.ok(CursorPage.of(query.apply(position, pageLimit)));
+    }
+
     /**
      * Request body for compliance report.
      */
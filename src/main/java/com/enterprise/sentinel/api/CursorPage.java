@@ -0,0 +1,25 @@
+package com.enterprise.sentinel.api;
+
+import com.enterprise.sentinel.domain.model.SecurityAlert;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated alert query.
+ * Pass {@code nextCursor} back as the {@code cursor} query param to fetch the next page;
+ * it is null when there are no more rows.
+ */
+public record CursorPage(
+        List<SecurityAlert> items,
+        String nextCursor,
+        boolean hasNext
+) {
+
+    public static CursorPage of(Window<SecurityAlert> window) {
+        String next = window.hasNext() && !window.isEmpty()
+                ? AlertCursor.encode(window.positionAt(window.size() - 1))
+                : null;
+        return new CursorPage(window.getContent(), next, next != null);
+    }
+}
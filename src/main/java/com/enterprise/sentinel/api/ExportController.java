@@ -0,0 +1,85 @@
+package com.enterprise.sentinel.api;
+
+import com.enterprise.sentinel.service.export.DetectionExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST API for offline data exports.
+ * Writes columnar files to the export directory instead of returning rows,
+ * so bulk consumers read files rather than querying the production database.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/exports")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private static final DateTimeFormatter JOB_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmm");
+    private static final String JOB_NAME_PATTERN = "[A-Za-z0-9_-]+";
+
+    private final DetectionExportService detectionExportService;
+
+    /**
+     * Export detections in [start, end) to Arrow files partitioned by day, camera and hour.
+     * The export runs in the background (202 with the job name); poll
+     * {@code GET /detections/{job}} for its outcome. Re-running the same job
+     * resumes from its last committed slice; a range ending before that, or an
+     * invalid job name, is rejected (400), and a job already running gives 409.
+     * Query params:
+     * - job: export job name, letters, digits, '_' and '-' (default: derived from the range)
+     */
+    @PostMapping("/detections")
+    public ResponseEntity<?> exportDetections(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String job) {
+
+        if (job != null && !job.matches(JOB_NAME_PATTERN)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "job may only contain letters, digits, '_' and '-'"));
+        }
+        String jobName = job != null
+                ? job
+                : "range-" + JOB_NAME_FORMAT.format(start) + "-" + JOB_NAME_FORMAT.format(end);
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(detectionExportService.submit(jobName, start, end));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Detection export {} could not be queued: {}", jobName, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Export failed", "job", jobName));
+        }
+    }
+
+    /**
+     * Exports queued since startup and their outcome.
+     */
+    @GetMapping("/detections")
+    public ResponseEntity<List<DetectionExportService.RunStatus>> getDetectionExports() {
+        return ResponseEntity.ok(detectionExportService.getRunStatuses());
+    }
+
+    /**
+     * State of one export job: rows and files once it completed, the error if it failed.
+     */
+    @GetMapping("/detections/{job}")
+    public ResponseEntity<?> getDetectionExport(@PathVariable String job) {
+        return detectionExportService.getRunStatus(job)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Job not found")));
+    }
+}
@@ -0,0 +1,229 @@
+package com.enterprise.sentinel.api;
+
+import com.enterprise.sentinel.service.analysis.StaticSceneCache;
+import com.enterprise.sentinel.service.analysis.VideoProcessor;
+import com.enterprise.sentinel.service.ingestion.DecodePolicy;
+import com.enterprise.sentinel.service.ingestion.HeadlessIngestionEngine;
+import com.enterprise.sentinel.service.ingestion.OfflineAnalysisService;
+import com.enterprise.sentinel.service.ingestion.StreamHealth;
+import com.enterprise.sentinel.service.ingestion.StreamSupervisor;
+import com.enterprise.sentinel.service.metrics.LatencyTracker;
+import com.enterprise.sentinel.service.model.ModelDescriptor;
+import com.enterprise.sentinel.service.model.ModelRegistry;
+import com.enterprise.sentinel.service.model.ModelRouter;
+import com.enterprise.sentinel.service.pipeline.StageStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * REST API for headless stream ingestion and offline analysis of recordings.
+ * Starts and stops server-side decode workers; no desktop player is involved.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/ingestion")
+@RequiredArgsConstructor
+public class IngestionController {
+
+    private final HeadlessIngestionEngine ingestionEngine;
+    private final OfflineAnalysisService offlineAnalysisService;
+    private final StreamSupervisor streamSupervisor;
+    private final VideoProcessor videoProcessor;
+    private final LatencyTracker latencyTracker;
+    private final ModelRegistry modelRegistry;
+    private final ModelRouter modelRouter;
+    private final StaticSceneCache staticSceneCache;
+
+    /**
+     * Start analyzing a live stream or a recorded file.
+     * Exactly one of {@code url} or {@code file} must be set.
+     */
+    @PostMapping("/streams")
+    public ResponseEntity<?> startStream(@RequestBody StartStreamRequest request) {
+        boolean hasUrl = request.url() != null && !request.url().isBlank();
+        boolean hasFile = request.file() != null && !request.file().isBlank();
+        if (hasUrl == hasFile) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Provide either url or file"));
+        }
+        if (request.model() != null && !modelRegistry.isLoaded(request.model())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Unknown model: " + request.model()));
+        }
+        try {
+            UUID cameraId = hasUrl
+                    ? ingestionEngine.startStream(request.url(), request.intervalMs(),
+                            request.decodePolicy(), request.downscale())
+                    : ingestionEngine.startFile(new File(request.file()), request.intervalMs(),
+                            request.decodePolicy(), request.downscale());
+            if (request.model() != null) {
+                modelRouter.assign(cameraId, request.model());
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("cameraId", cameraId));
+        } catch (IllegalArgumentException | FileNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Failed to start stream: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to start stream"));
+        }
+    }
+
+    /**
+     * Detection models currently serving (id, version, labels), for checking a hot swap.
+     */
+    @GetMapping("/models")
+    public ResponseEntity<List<ModelDescriptor>> getModels() {
+        return ResponseEntity.ok(modelRegistry.getModels());
+    }
+
+    /**
+     * Decode counters and decode CPU for every running stream.
+     */
+    @GetMapping("/streams")
+    public ResponseEntity<List<HeadlessIngestionEngine.StreamStatus>> getStreams() {
+        return ResponseEntity.ok(ingestionEngine.getStatuses());
+    }
+
+    /**
+     * Connection health of every camera connection (decode and recording):
+     * state, FPS, bitrate, decode errors, lag and reconnects.
+     */
+    @GetMapping("/health")
+    public ResponseEntity<List<StreamHealth.Snapshot>> getHealth() {
+        return ResponseEntity.ok(streamSupervisor.getHealth());
+    }
+
+    /**
+     * Detection pipeline stages in order: queue depth, throughput, wait and
+     * service time, utilization. The bottleneck is the stage near full
+     * utilization with a queue backed up in front of it.
+     */
+    @GetMapping("/pipeline")
+    public ResponseEntity<List<StageStats>> getPipeline() {
+        return ResponseEntity.ok(videoProcessor.getPipelineStats());
+    }
+
+    /**
+     * Stationary objects per camera (box, first and last seen) whose detections
+     * are currently not persisted or alerted on.
+     */
+    @GetMapping("/static-objects")
+    public ResponseEntity<List<StaticSceneCache.StaticObject>> getStaticObjects() {
+        return ResponseEntity.ok(staticSceneCache.getStaticObjects());
+    }
+
+    /**
+     * Per-frame latency percentiles (p50/p99/p999, ms) per pipeline step and
+     * per camera, from capture to alert.
+     */
+    @GetMapping("/latency")
+    public ResponseEntity<LatencyTracker.LatencyReport> getLatency() {
+        return ResponseEntity.ok(latencyTracker.getReport());
+    }
+
+    /**
+     * Start a new latency measurement window.
+     */
+    @DeleteMapping("/latency")
+    public ResponseEntity<Void> resetLatency() {
+        latencyTracker.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Stop a stream.
+     */
+    @DeleteMapping("/streams/{cameraId}")
+    public ResponseEntity<?> stopStream(@PathVariable UUID cameraId) {
+        if (!ingestionEngine.stop(cameraId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Stream not found"));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Analyze a recorded file faster than realtime.
+     * Submitting a file with an unfinished job resumes it from its checkpoint.
+     */
+    @PostMapping("/offline-jobs")
+    public ResponseEntity<?> startOfflineJob(@RequestBody OfflineJobRequest request) {
+        if (request.file() == null || request.file().isBlank()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "file is required"));
+        }
+        try {
+            UUID jobId = offlineAnalysisService.start(new File(request.file()), request.intervalMs());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("jobId", jobId));
+        } catch (IllegalArgumentException | FileNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Failed to start offline analysis: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to start offline analysis"));
+        }
+    }
+
+    /**
+     * Progress and throughput of every offline job since startup.
+     */
+    @GetMapping("/offline-jobs")
+    public ResponseEntity<List<OfflineAnalysisService.JobStatus>> getOfflineJobs() {
+        return ResponseEntity.ok(offlineAnalysisService.getStatuses());
+    }
+
+    /**
+     * Progress and throughput of one offline job.
+     */
+    @GetMapping("/offline-jobs/{jobId}")
+    public ResponseEntity<?> getOfflineJob(@PathVariable UUID jobId) {
+        return offlineAnalysisService.getStatus(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Job not found")));
+    }
+
+    /**
+     * Stop an offline job; it can be resumed by submitting the file again.
+     */
+    @DeleteMapping("/offline-jobs/{jobId}")
+    public ResponseEntity<?> stopOfflineJob(@PathVariable UUID jobId) {
+        if (!offlineAnalysisService.stop(jobId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Job not running"));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Request body for starting a stream.
+     * {@code decodePolicy}, {@code downscale} and {@code model} (a loaded model id,
+     * instead of the routing rules) are optional per-camera overrides.
+     */
+    public record StartStreamRequest(
+            String url,
+            String file,
+            Long intervalMs,
+            DecodePolicy decodePolicy,
+            Boolean downscale,
+            String model
+    ) {}
+
+    /**
+     * Request body for offline analysis of a recorded file.
+     */
+    public record OfflineJobRequest(
+            String file,
+            Long intervalMs
+    ) {}
+}
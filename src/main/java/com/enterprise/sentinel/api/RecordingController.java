@@ -0,0 +1,128 @@
+package com.enterprise.sentinel.api;
+
+import com.enterprise.sentinel.service.ingestion.StreamRecorder;
+import com.enterprise.sentinel.service.storage.SegmentStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * REST API for continuous camera recording into the segment store.
+ *
+ * Recordings are MPEG-TS, stored as encrypted per-GOP records; playback
+ * ({@code /stream}) starts at the keyframe at or before {@code from}.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/recordings")
+@RequiredArgsConstructor
+public class RecordingController {
+
+    private static final MediaType MPEG_TS = MediaType.parseMediaType("video/mp2t");
+
+    private final StreamRecorder streamRecorder;
+    private final SegmentStore segmentStore;
+
+    /**
+     * Start recording a registered camera.
+     */
+    @PostMapping("/{cameraId}")
+    public ResponseEntity<?> startRecording(@PathVariable UUID cameraId) {
+        try {
+            streamRecorder.start(cameraId);
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("cameraId", cameraId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Camera not found"));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{cameraId}")
+    public ResponseEntity<?> stopRecording(@PathVariable UUID cameraId) {
+        if (!streamRecorder.stop(cameraId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Camera is not being recorded"));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping
+    public List<StreamRecorder.RecordingStatus> getRecordings() {
+        return streamRecorder.getStatuses();
+    }
+
+    /**
+     * Stored extent of a camera's recording (segments, bytes, first/last timestamp).
+     */
+    @GetMapping("/{cameraId}")
+    public ResponseEntity<?> getRecording(@PathVariable UUID cameraId) {
+        return segmentStore.getStats(cameraId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "No recording for camera")));
+    }
+
+    /**
+     * Resolve a time to its playback keyframe.
+     *
+     * @param at Epoch milliseconds
+     */
+    @GetMapping("/{cameraId}/seek")
+    public ResponseEntity<?> seek(@PathVariable UUID cameraId, @RequestParam long at) {
+        try {
+            long startNanos = System.nanoTime();
+            Optional<SegmentStore.SeekResult> result = segmentStore.seek(cameraId, at);
+            long lookupMicros = (System.nanoTime() - startNanos) / 1000;
+            return result
+                    .<ResponseEntity<?>>map(seek -> ResponseEntity.ok(Map.of(
+                            "segment", seek.segment(),
+                            "record", seek.record(),
+                            "keyframeTimestampMs", seek.keyframeTimestampMs(),
+                            "lookupMicros", lookupMicros)))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(Map.of("error", "No recording for camera")));
+        } catch (Exception e) {
+            log.error("Seek failed for camera {} at {}: {}", cameraId, at, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Seek failed"));
+        }
+    }
+
+    /**
+     * Stream the recording between two times as MPEG-TS.
+     *
+     * @param from Epoch milliseconds; playback starts at the keyframe at or before it
+     * @param to Epoch milliseconds (default: end of recording)
+     */
+    @GetMapping("/{cameraId}/stream")
+    public ResponseEntity<?> stream(@PathVariable UUID cameraId,
+                                    @RequestParam long from,
+                                    @RequestParam(required = false) Long to) {
+        try {
+            Optional<InputStream> content = segmentStore.openStream(cameraId, from, to != null ? to : Long.MAX_VALUE);
+            if (content.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "No recording for camera"));
+            }
+            StreamingResponseBody body = output -> {
+                try (InputStream input = content.get()) {
+                    input.transferTo(output);
+                }
+            };
+            return ResponseEntity.ok().contentType(MPEG_TS).body(body);
+        } catch (Exception e) {
+            log.error("Failed to open recording of camera {}: {}", cameraId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to open recording"));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.enterprise.sentinel.api;
+
+import com.enterprise.sentinel.service.ingestion.ChunkedUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * REST API for resumable chunked video uploads.
+ * Chunk bodies are raw bytes (not multipart), streamed straight to disk,
+ * so uploads are not bound by the multipart size limit or held in memory.
+ *
+ * Protocol:
+ * 1. POST /api/v1/uploads {filename, size, sha256?} -> uploadId
+ * 2. PUT /api/v1/uploads/{id}?offset=N with the chunk as the body (any order, retries allowed)
+ * 3. GET /api/v1/uploads/{id} -> nextOffset to resume after a failure
+ * The response to the last chunk carries the videoId and checksum.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/uploads")
+@RequiredArgsConstructor
+public class UploadController {
+
+    private final ChunkedUploadService uploadService;
+
+    /**
+     * Start an upload. If {@code sha256} matches stored content, the existing
+     * video is returned (state DUPLICATE) and nothing needs to be sent.
+     */
+    @PostMapping
+    public ResponseEntity<?> createUpload(@RequestBody CreateUploadRequest request) {
+        try {
+            ChunkedUploadService.UploadStatus status =
+                    uploadService.create(request.filename(), request.size(), request.sha256());
+            HttpStatus code = status.uploadId() == null ? HttpStatus.OK : HttpStatus.CREATED;
+            return ResponseEntity.status(code).body(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Failed to create upload: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to create upload"));
+        }
+    }
+
+    /**
+     * Write one chunk at {@code offset}. Content-Length is required.
+     */
+    @PutMapping(value = "/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> writeChunk(@PathVariable UUID uploadId,
+                                        @RequestParam long offset,
+                                        HttpServletRequest request) {
+        long length = request.getContentLengthLong();
+        if (length < 0) {
+            return ResponseEntity.status(HttpStatus.LENGTH_REQUIRED)
+                    .body(Map.of("error", "Content-Length is required"));
+        }
+        try {
+            return ResponseEntity.ok(uploadService.writeChunk(uploadId, offset, length, request.getInputStream()));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Upload not found"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Failed to write chunk of upload {} at {}: {}", uploadId, offset, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to write chunk"));
+        }
+    }
+
+    /**
+     * Progress of an upload, including where to resume.
+     */
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<?> getUpload(@PathVariable UUID uploadId) {
+        return uploadService.getStatus(uploadId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Upload not found")));
+    }
+
+    /**
+     * Abort an upload and delete the received data.
+     */
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<?> abortUpload(@PathVariable UUID uploadId) {
+        try {
+            if (!uploadService.abort(uploadId)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Upload not found"));
+            }
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            log.error("Failed to abort upload {}: {}", uploadId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to abort upload"));
+        }
+    }
+
+    /**
+     * Request body for starting an upload.
+     */
+    public record CreateUploadRequest(
+            String filename,
+            long size,
+            String sha256
+    ) {}
+}
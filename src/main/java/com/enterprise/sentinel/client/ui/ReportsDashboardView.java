@@ -1,5 +1,6 @@
 package com.enterprise.sentinel.client.ui;
 
+import com.enterprise.sentinel.config.ExecutionModel;
 import com.enterprise.sentinel.domain.model.SecurityAlert;
 import com.enterprise.sentinel.service.analysis.AlertNotificationService;
 import com.enterprise.sentinel.service.analysis.AnalyticsService;
@@ -14,6 +15,7 @@ import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
@@ -24,6 +26,9 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Reports Dashboard View - JavaFX UI component for displaying security alerts and analytics.
@@ -42,11 +47,12 @@ public class ReportsDashboardView {
 
     private final AlertNotificationService alertNotificationService;
     private final AnalyticsService analyticsService;
+    private final ExecutionModel executionModel;
 
     private TabPane tabPane;
     private Label alertCountLabel;
     private ListView<String> liveAlertsListView;
-    private Timer refreshTimer;
+    private ScheduledExecutorService refreshTimer;
 
     /**
      * Build the complete dashboard UI.
@@ -274,17 +280,17 @@ public class ReportsDashboardView {
 
         TableColumn<Map<String, String>, String> timeCol = new TableColumn<>("Time");
         timeCol.setCellValueFactory(data -> javafx.beans.binding.Bindings.createStringBinding(
-                () -> data.getValue().get("time"), data.getValue()));
+                () -> data.getValue().get("time")));
         timeCol.setPrefWidth(150);
 
         TableColumn<Map<String, String>, String> classCol = new TableColumn<>("Object Class");
         classCol.setCellValueFactory(data -> javafx.beans.binding.Bindings.createStringBinding(
-                () -> data.getValue().get("class"), data.getValue()));
+                () -> data.getValue().get("class")));
         classCol.setPrefWidth(100);
 
         TableColumn<Map<String, String>, String> zoneCol = new TableColumn<>("Zone");
         zoneCol.setCellValueFactory(data -> javafx.beans.binding.Bindings.createStringBinding(
-                () -> data.getValue().get("zone"), data.getValue()));
+                () -> data.getValue().get("zone")));
         zoneCol.setPrefWidth(100);
 
         violationTable.getColumns().addAll(timeCol, classCol, zoneCol);
@@ -376,12 +382,13 @@ public class ReportsDashboardView {
      * Refresh all tabs with latest data.
      */
     private void refreshAllTabs() {
-        Platform.runLater(this::refreshLiveAlerts);
+        // Queries run off the FX thread; refreshLiveAlerts hands the results back to it
+        executionModel.io().execute(this::refreshLiveAlerts);
         log.info("Dashboard refreshed");
     }
 
     /**
-     * Refresh live alerts from queue.
+     * Refresh live alerts from queue (background thread).
      */
     private void refreshLiveAlerts() {
         List<SecurityAlert> recentAlerts = alertNotificationService.getRecentAlerts(50);
@@ -419,13 +426,10 @@ public class ReportsDashboardView {
      * Start background refresh timer (every 30 seconds).
      */
     private void startRefreshTimer() {
-        refreshTimer = new Timer("DashboardRefreshTimer", true);
-        refreshTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                refreshLiveAlerts();
-            }
-        }, 10000, 30000); // Start after 10s, repeat every 30s
+        refreshTimer = Executors.newSingleThreadScheduledExecutor(
+                executionModel.newThreadFactory("sentinel-dashboard-"));
+        refreshTimer.scheduleAtFixedRate(this::refreshLiveAlerts,
+                10, 30, TimeUnit.SECONDS); // Start after 10s, repeat every 30s
     }
 
     /**
@@ -433,7 +437,7 @@ public class ReportsDashboardView {
      */
     public void stopRefreshTimer() {
         if (refreshTimer != null) {
-            refreshTimer.cancel();
+            refreshTimer.shutdownNow();
         }
     }
 
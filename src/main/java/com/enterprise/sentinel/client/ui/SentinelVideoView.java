@@ -39,6 +39,7 @@ public class SentinelVideoView extends StackPane {
     private final Canvas overlayCanvas;
     private final MediaPlayerFactory mediaPlayerFactory;
     private final EmbeddedMediaPlayer mediaPlayer;
+    private final JavaFxVideoSurface videoSurface;
     
     private Consumer<WritableImage> frameListener;
 
@@ -71,7 +72,7 @@ public class SentinelVideoView extends StackPane {
         this.mediaPlayer = mediaPlayerFactory.mediaPlayers().newEmbeddedMediaPlayer();
 
         // 4. Setup Video Surface with Hook (UI-01: Bridge)
-        JavaFxVideoSurface videoSurface = new JavaFxVideoSurface(image -> {
+        this.videoSurface = new JavaFxVideoSurface(image -> {
             // ATOMIC: Update image on FX thread
             this.imageView.setImage(image);
             
@@ -89,6 +90,14 @@ public class SentinelVideoView extends StackPane {
         this.frameListener = listener;
     }
 
+    public long getRenderedFrameCount() {
+        return videoSurface.getFrameCount();
+    }
+
+    public long getDroppedFrameCount() {
+        return videoSurface.getDroppedFrameCount();
+    }
+
     /**
      * Phase 2: UI-02 Overlay Mapper
      * 
@@ -2,6 +2,7 @@ package com.enterprise.sentinel.client.ui;
 
 import com.enterprise.sentinel.client.StageReadyEvent;
 import com.enterprise.sentinel.service.ingestion.FileIngestionService;
+import com.enterprise.sentinel.service.metrics.SentinelMetrics;
 import com.enterprise.sentinel.service.security.AuditLogger;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
@@ -24,11 +25,14 @@ public class StageInitializer implements ApplicationListener<StageReadyEvent> {
     private final FileIngestionService fileIngestionService;
     private final VideoProcessor videoProcessor;
     private final AuditLogger auditLogger;
+    private final SentinelMetrics metrics;
 
-    public StageInitializer(FileIngestionService fileIngestionService, VideoProcessor videoProcessor, AuditLogger auditLogger) {
+    public StageInitializer(FileIngestionService fileIngestionService, VideoProcessor videoProcessor,
+                            AuditLogger auditLogger, SentinelMetrics metrics) {
         this.fileIngestionService = fileIngestionService;
         this.videoProcessor = videoProcessor;
         this.auditLogger = auditLogger;
+        this.metrics = metrics;
     }
 
     @Override
@@ -45,6 +49,8 @@ public class StageInitializer implements ApplicationListener<StageReadyEvent> {
         //wiring start
         videoProcessor.setVideoView(videoView); // Allow processor to draw on view
         videoView.setOnFrameReady(videoProcessor::processFrame); // Feed frames to processor
+        metrics.bindRenderer(videoView, SentinelVideoView::getRenderedFrameCount,
+                SentinelVideoView::getDroppedFrameCount); // Export render counters
         
         //wiring end
         // 3. Menu Bar (Top)
@@ -33,8 +33,25 @@ public class JavaFxVideoSurface extends CallbackVideoSurface {
 
     private static final Logger LOGGER = Logger.getLogger(JavaFxVideoSurface.class.getName());
 
+    private final JavaFxRenderCallback renderCallback;
+
     public JavaFxVideoSurface(Consumer<WritableImage> imageConsumer) {
-        super(new JavaFxBufferFormatCallback(), new JavaFxRenderCallback(imageConsumer), true, VideoSurfaceAdapters.getVideoSurfaceAdapter());
+        this(new JavaFxRenderCallback(imageConsumer));
+    }
+
+    private JavaFxVideoSurface(JavaFxRenderCallback renderCallback) {
+        super(new JavaFxBufferFormatCallback(), renderCallback, true, VideoSurfaceAdapters.getVideoSurfaceAdapter());
+        this.renderCallback = renderCallback;
+    }
+
+    // METRICS: Frames displayed and dropped by the render callback
+
+    public long getFrameCount() {
+        return renderCallback.getFrameCount();
+    }
+
+    public long getDroppedFrameCount() {
+        return renderCallback.getDroppedFrameCount();
     }
 
     private static class JavaFxBufferFormatCallback implements BufferFormatCallback {
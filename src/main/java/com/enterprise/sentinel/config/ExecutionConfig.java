@@ -0,0 +1,42 @@
+package com.enterprise.sentinel.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Wires the {@link ExecutionModel} into Spring:
+ * - {@code @Async} methods (alert dispatch) run on its I/O executor; audit
+ *   writes are queued there by AuditLogger itself
+ * - In virtual mode Tomcat handles each request on its own virtual thread;
+ *   in platform mode Tomcat keeps its own pool ({@code server.tomcat.threads.max})
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class ExecutionConfig implements AsyncConfigurer {
+
+    private final ExecutionModel executionModel;
+
+    @Override
+    public Executor getAsyncExecutor() {
+        // @Async work sees the caller's user
+        return new DelegatingSecurityContextExecutor(executionModel.io());
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> requestExecutorCustomizer() {
+        return protocolHandler -> {
+            if (executionModel.isVirtual()) {
+                protocolHandler.setExecutor(executionModel.newIoExecutor("sentinel-http-"));
+                log.info("HTTP requests run on virtual threads");
+            }
+        };
+    }
+}
@@ -0,0 +1,252 @@
+package com.enterprise.sentinel.config;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Threads for blocking I/O: REST handlers, audit writes, alert dispatch and
+ * camera supervision.
+ *
+ * {@code app.execution.mode}:
+ * - platform (default): a bounded pool of {@code io-threads} platform threads
+ * - virtual: one virtual thread per task, so thousands of requests waiting on
+ *   JPA or the network cost no pool slots. Needs a Java 21+ runtime; on older
+ *   runtimes the mode falls back to platform threads with a warning.
+ *   {@code spring.threads.virtual.enabled=true} selects it as well.
+ *
+ * CPU-bound inference never runs here; it keeps its fixed platform pool
+ * (VideoProcessor), since virtual threads add nothing to work that does not block.
+ *
+ * Pinning: a virtual thread that blocks inside {@code synchronized} or a
+ * native call holds its carrier thread. In virtual mode the JFR event
+ * {@code jdk.VirtualThreadPinned} is streamed and every pin longer than
+ * {@code pinning-threshold-ms} is counted and logged with its stack top
+ * (0 disables). FFmpeg reads are native and hold their carrier while they
+ * block without being reported; the JDK's carrier pool
+ * ({@code -Djdk.virtualThreadScheduler.parallelism}) bounds how many
+ * camera reads can block at once.
+ */
+@Slf4j
+@Component
+public class ExecutionModel {
+
+    public static final String PLATFORM = "platform";
+    public static final String VIRTUAL = "virtual";
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final boolean virtual;
+    private final int ioThreads;
+    private final ExecutorService ioExecutor;
+    private final AtomicLong pinnedEvents = new AtomicLong();
+    private volatile String lastPinnedFrame;
+    private AutoCloseable pinningStream;
+
+    public ExecutionModel(@Value("${app.execution.mode:platform}") String mode,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean springVirtual,
+                          @Value("${app.execution.io-threads:64}") int ioThreads,
+                          @Value("${app.execution.pinning-threshold-ms:20}") long pinningThresholdMs) {
+        boolean requested = VIRTUAL.equalsIgnoreCase(mode) || springVirtual;
+        if (!requested && !PLATFORM.equalsIgnoreCase(mode)) {
+            throw new IllegalArgumentException("Unknown app.execution.mode: " + mode + " (platform | virtual)");
+        }
+        if (requested && !virtualThreadsSupported()) {
+            log.warn("Virtual threads need Java 21+ (running {}); using {} platform I/O threads",
+                    Runtime.version().feature(), ioThreads);
+        }
+        this.virtual = requested && virtualThreadsSupported();
+        this.ioThreads = ioThreads;
+        this.ioExecutor = newIoExecutor("sentinel-io-");
+        if (virtual && pinningThresholdMs > 0) {
+            startPinningMonitor(pinningThresholdMs);
+        }
+        log.info("Execution mode: {}", virtual ? VIRTUAL : PLATFORM + " (" + ioThreads + " I/O threads)");
+    }
+
+    /**
+     * Platform mode with {@code ioThreads} threads, for tests and tools.
+     */
+    public static ExecutionModel platform(int ioThreads) {
+        return new ExecutionModel(PLATFORM, false, ioThreads, 0);
+    }
+
+    public static boolean virtualThreadsSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Whether the calling thread is a virtual thread (always false before Java 21).
+     */
+    public static boolean isVirtualThread() {
+        return VirtualThreads.isVirtual(Thread.currentThread());
+    }
+
+    /**
+     * Shared executor for blocking I/O tasks (audit writes, alert dispatch, UI queries).
+     */
+    public ExecutorService io() {
+        return ioExecutor;
+    }
+
+    /**
+     * A new executor for blocking tasks: one virtual thread per task, or a
+     * pool of {@code io-threads} platform threads that shrinks when idle.
+     * The caller owns (and shuts down) the executor.
+     */
+    public ExecutorService newIoExecutor(String namePrefix) {
+        if (virtual) {
+            return VirtualThreads.perTaskExecutor(newThreadFactory(namePrefix));
+        }
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(ioThreads, ioThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), newThreadFactory(namePrefix));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Threads for blocking work: virtual in virtual mode, daemon platform threads otherwise.
+     */
+    public ThreadFactory newThreadFactory(String namePrefix) {
+        if (virtual) {
+            return VirtualThreads.factory(namePrefix);
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public long getPinnedEvents() {
+        return pinnedEvents.get();
+    }
+
+    /**
+     * Innermost application frame of the last reported pin, or null.
+     */
+    public String getLastPinnedFrame() {
+        return lastPinnedFrame;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        ioExecutor.shutdown();
+        // Audit writes are already drained (AuditLogger is destroyed first); other queued I/O gets a moment
+        if (!ioExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+            ioExecutor.shutdownNow();
+        }
+        if (pinningStream != null) {
+            try {
+                pinningStream.close();
+            } catch (Exception e) {
+                log.debug("Error closing pinning monitor: {}", e.getMessage());
+            }
+        }
+    }
+
+    // ====== HELPER METHODS ======
+
+    private void startPinningMonitor(long thresholdMs) {
+        try {
+            RecordingStream stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+            stream.onEvent(PINNED_EVENT, event -> {
+                pinnedEvents.incrementAndGet();
+                String frame = topFrame(event);
+                lastPinnedFrame = frame;
+                log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), frame);
+            });
+            stream.startAsync();
+            pinningStream = stream;
+            log.info("Pinning monitor: reporting pins over {} ms", thresholdMs);
+        } catch (Exception | LinkageError e) {
+            log.warn("Pinning monitor unavailable: {}", e.getMessage());
+        }
+    }
+
+    private static String topFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return "JDK internal";
+    }
+
+    /**
+     * {@code Thread.ofVirtual()} and the thread-per-task executor via
+     * reflection: the code base targets Java 17
+     * and must run there, while Java 21+ runtimes get real virtual threads.
+     */
+    private static final class VirtualThreads {
+
+        // Thread.isVirtual(), or null on runtimes without it
+        private static final Method IS_VIRTUAL = isVirtualMethod();
+
+        static boolean isVirtual(Thread thread) {
+            if (IS_VIRTUAL == null) {
+                return false;
+            }
+            try {
+                return (Boolean) IS_VIRTUAL.invoke(thread);
+            } catch (ReflectiveOperationException e) {
+                return false;
+            }
+        }
+
+        private static Method isVirtualMethod() {
+            try {
+                return Thread.class.getMethod("isVirtual");
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        static ThreadFactory factory(String namePrefix) {
+            try {
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+                builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 1L);
+                Method factory = builderType.getMethod("factory");
+                return (ThreadFactory) factory.invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Virtual threads are not available", e);
+            }
+        }
+
+        static ExecutorService perTaskExecutor(ThreadFactory factory) {
+            try {
+                return (ExecutorService) Executors.class
+                        .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                        .invoke(null, factory);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Virtual threads are not available", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.enterprise.sentinel.domain.model;
+
+import com.enterprise.sentinel.service.security.AttributeEncryptor;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Footage around a security alert: pre-roll to post-roll, cut from the
+ * camera's in-memory packet ring (MPEG-TS, not re-encoded).
+ * Alerts of one camera that fire within the same window share a clip file.
+ */
+@Entity
+@Table(name = "alert_clips", indexes = {
+    @Index(name = "idx_clip_alert", columnList = "alert_id", unique = true),
+    @Index(name = "idx_clip_camera_start", columnList = "camera_id, start_ms")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertClip {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "alert_id", nullable = false)
+    private UUID alertId;
+
+    @Column(name = "camera_id", nullable = false)
+    private UUID cameraId;
+
+    @Convert(converter = AttributeEncryptor.class)
+    @Column(name = "storage_path", nullable = false, length = 1024)
+    private String storagePath;
+
+    @Column(name = "start_ms", nullable = false)
+    private long startMs; // Epoch ms of the first keyframe in the clip
+
+    @Column(name = "end_ms", nullable = false)
+    private long endMs; // Epoch ms of the last GOP start in the clip
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,29 @@
+package com.enterprise.sentinel.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Durable label of a detection class id (see DetectionClassRegistry).
+ * The ids stored in detection_events, security_alerts and dwell_intervals
+ * refer to this table, so they keep their meaning across restarts and
+ * whatever order models and zones register their labels in.
+ */
+@Entity
+@Table(name = "detection_classes")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DetectionClass {
+
+    @Id
+    @Column(name = "id", columnDefinition = "smallint")
+    private short id;
+
+    @Column(name = "label_key", nullable = false, unique = true, length = 128)
+    private String labelKey; // Trimmed, lower case: labels match case-insensitively
+
+    @Column(name = "label", nullable = false, length = 128)
+    private String label; // As first registered
+}
@@ -14,7 +14,9 @@ import java.util.UUID;
 @Table(name = "detection_events", indexes = {
     @Index(name = "idx_event_video_time", columnList = "video_id, timestamp_ms"),
     @Index(name = "idx_event_class", columnList = "detected_class"),
-    @Index(name = "idx_event_confidence", columnList = "confidence")
+    @Index(name = "idx_event_class_id_time", columnList = "class_id, created_at"),
+    @Index(name = "idx_event_confidence", columnList = "confidence"),
+    @Index(name = "idx_event_created_at", columnList = "created_at")
 })
 @Getter
 @Setter
@@ -40,6 +42,10 @@ public class DetectionEvent {
     @Column(name = "detected_class", nullable = false)
     private String detectedClass;
 
+    // Registry id of detectedClass (see DetectionClassRegistry); null on rows written before ids existed
+    @Column(name = "class_id", columnDefinition = "smallint")
+    private Short classId;
+
     @Column(name = "confidence", nullable = false)
     private Double confidence;
 
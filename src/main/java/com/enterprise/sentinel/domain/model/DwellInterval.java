@@ -0,0 +1,55 @@
+package com.enterprise.sentinel.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One continuous stay of a tracked object inside a geofence zone.
+ * Written by DwellEngine when the track leaves the zone or stops being seen.
+ */
+@Entity
+@Table(name = "dwell_intervals", indexes = {
+    @Index(name = "idx_dwell_zone_exit", columnList = "zone_id, exited_at"),
+    @Index(name = "idx_dwell_class_exit", columnList = "class_id, exited_at")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DwellInterval {
+
+    public static final String EXIT = "EXIT";
+    public static final String TIMEOUT = "TIMEOUT";
+    public static final String SHUTDOWN = "SHUTDOWN";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "zone_id", nullable = false)
+    private UUID zoneId;
+
+    @Column(name = "video_id")
+    private UUID videoId;
+
+    @Column(name = "track_id", nullable = false)
+    private long trackId;
+
+    @Column(name = "class_id", columnDefinition = "smallint", nullable = false)
+    private short classId;
+
+    @Column(name = "entered_at", nullable = false)
+    private LocalDateTime enteredAt;
+
+    @Column(name = "exited_at", nullable = false)
+    private LocalDateTime exitedAt;
+
+    @Column(name = "duration_ms", nullable = false)
+    private long durationMs;
+
+    @Column(name = "exit_reason", nullable = false, length = 10)
+    private String exitReason; // EXIT (left the zone), TIMEOUT (track lost) or SHUTDOWN (still open at stop)
+}
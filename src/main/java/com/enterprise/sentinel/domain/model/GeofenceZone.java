@@ -1,10 +1,15 @@
 package com.enterprise.sentinel.domain.model;
 
 import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -17,6 +22,8 @@ import java.util.UUID;
     @Index(name = "idx_zone_code", columnList = "zone_code", unique = true),
     @Index(name = "idx_zone_enabled", columnList = "enabled")
 })
+@Builder
+@AllArgsConstructor
 public class GeofenceZone {
 
     @Id
@@ -33,11 +40,12 @@ public class GeofenceZone {
     private String description;
 
     @Column(nullable = false)
-    private String triggerClass; // e.g., "person", "weapon", "unknown_individual"
+    private String triggerClass; // e.g., "person", "weapon", or a comma-separated list "person,car"
 
     @Column(nullable = false)
     private double confidenceThreshold; // Minimum confidence to trigger (0.0-1.0)
 
+    @Builder.Default
     @Column(nullable = false)
     private boolean enabled = true;
 
@@ -47,6 +55,23 @@ public class GeofenceZone {
     @Column(length = 500)
     private String alertMessage; // Custom alert message template
 
+    // Optional region of the frame, normalized [0,1]; null means the whole frame
+    @Column(name = "region_x")
+    private Double regionX;
+
+    @Column(name = "region_y")
+    private Double regionY;
+
+    @Column(name = "region_width")
+    private Double regionWidth;
+
+    @Column(name = "region_height")
+    private Double regionHeight;
+
+    // Optional camera (video source) the zone belongs to; null means every camera
+    @Column(name = "camera_id")
+    private UUID cameraId;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -90,6 +115,21 @@ public class GeofenceZone {
         return triggerClass;
     }
 
+    /**
+     * Individual labels of {@link #triggerClass}, which may list several comma-separated classes.
+     */
+    public List<String> getTriggerClasses() {
+        List<String> classes = new ArrayList<>();
+        if (triggerClass != null) {
+            for (String label : triggerClass.split(",")) {
+                if (!label.isBlank()) {
+                    classes.add(label.trim());
+                }
+            }
+        }
+        return classes;
+    }
+
     public double getConfidenceThreshold() {
         return confidenceThreshold;
     }
@@ -106,6 +146,30 @@ public class GeofenceZone {
         return alertMessage;
     }
 
+    public Double getRegionX() {
+        return regionX;
+    }
+
+    public Double getRegionY() {
+        return regionY;
+    }
+
+    public Double getRegionWidth() {
+        return regionWidth;
+    }
+
+    public Double getRegionHeight() {
+        return regionHeight;
+    }
+
+    public UUID getCameraId() {
+        return cameraId;
+    }
+
+    public boolean hasRegion() {
+        return regionX != null && regionY != null && regionWidth != null && regionHeight != null;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -114,16 +178,67 @@ public class GeofenceZone {
         return updatedAt;
     }
 
+    // ===== Setters =====
+
+    /**
+     * Restrict the zone to a region of the frame (normalized [0,1] top-left, width, height).
+     */
+    public void setRegion(double x, double y, double width, double height) {
+        this.regionX = x;
+        this.regionY = y;
+        this.regionWidth = width;
+        this.regionHeight = height;
+    }
+
+    /**
+     * Bind the zone to one camera (null: every camera).
+     */
+    public void setCameraId(UUID cameraId) {
+        this.cameraId = cameraId;
+    }
+
     // ===== Business Logic =====
 
+    /**
+     * Whether the zone watches this camera (always true for a zone without a camera).
+     */
+    public boolean appliesTo(UUID cameraId) {
+        return this.cameraId == null || this.cameraId.equals(cameraId);
+    }
+
+    /**
+     * Whether a normalized point lies in the zone's region (always true without a region).
+     */
+    public boolean containsPoint(double x, double y) {
+        if (!hasRegion()) {
+            return true;
+        }
+        return x >= regionX && x <= regionX + regionWidth
+                && y >= regionY && y <= regionY + regionHeight;
+    }
+
     /**
      * Determines if a detection should trigger an alert in this zone.
      */
     public boolean shouldTriggerAlert(String detectedClass, double confidence) {
-        if (!enabled) {
+        if (!enabled || detectedClass == null) {
+            return false;
+        }
+        return getTriggerClasses().stream().anyMatch(detectedClass::equalsIgnoreCase)
+                && confidence >= confidenceThreshold;
+    }
+
+    /**
+     * Hot-path variant of {@link #shouldTriggerAlert(String, double)} on class ids.
+     *
+     * @param classId Registry id of the detected class
+     * @param triggerClassIds Registry ids of {@link #getTriggerClasses()}, resolved once per zone
+     */
+    public boolean shouldTriggerAlert(int classId, double confidence, BitSet triggerClassIds) {
+        if (!enabled || classId < 0) {
             return false;
         }
-        return detectedClass.equalsIgnoreCase(triggerClass) && confidence >= confidenceThreshold;
+        return triggerClassIds.get(classId) && confidence >= confidenceThreshold;
     }
 
     @Override
@@ -1,9 +1,12 @@
 package com.enterprise.sentinel.domain.model;
 
 import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.UUID;
 
 /**
@@ -14,8 +17,14 @@ import java.util.UUID;
 @Table(name = "security_alerts", indexes = {
     @Index(name = "idx_alert_zone_time", columnList = "geofence_zone_id, created_at DESC"),
     @Index(name = "idx_alert_severity", columnList = "severity"),
-    @Index(name = "idx_alert_acknowledged", columnList = "acknowledged")
+    @Index(name = "idx_alert_acknowledged", columnList = "acknowledged"),
+    // Keyset scrolling indexes: (created_at, id) is the cursor
+    @Index(name = "idx_alert_time_id", columnList = "created_at DESC, id DESC"),
+    @Index(name = "idx_alert_zone_time_id", columnList = "geofence_zone_id, created_at DESC, id DESC"),
+    @Index(name = "idx_alert_severity_time_id", columnList = "severity, created_at DESC, id DESC")
 })
+@Builder
+@AllArgsConstructor
 public class SecurityAlert {
 
     @Id
@@ -31,15 +40,19 @@ public class SecurityAlert {
     @Column(nullable = false)
     private String detectedClass; // What was detected (e.g., "weapon", "unknown_individual")
 
+    @Column(name = "class_id", columnDefinition = "smallint")
+    private Short classId; // Registry id of detectedClass
+
     @Column(nullable = false)
     private double confidence; // Confidence score of detection
 
     @Column(nullable = false)
-    private String severity; // CRITICAL, HIGH, MEDIUM, LOW
+    private String severity; // CRITICAL, HIGH, MEDIUM, LOW (stored upper case)
 
     @Column(length = 1000)
     private String alertMessage; // Full alert message
 
+    @Builder.Default
     @Column(nullable = false)
     private boolean acknowledged = false;
 
@@ -68,6 +81,17 @@ public class SecurityAlert {
         this.alertMessage = alertMessage;
     }
 
+    /**
+     * Severity is compared exactly in SQL, so it is stored upper case whatever the zone says.
+     */
+    @PrePersist
+    @PreUpdate
+    protected void normalizeSeverity() {
+        if (severity != null) {
+            severity = severity.trim().toUpperCase(Locale.ROOT);
+        }
+    }
+
     // ===== Getters =====
 
     public UUID getId() {
@@ -86,6 +110,10 @@ public class SecurityAlert {
         return detectedClass;
     }
 
+    public Short getClassId() {
+        return classId;
+    }
+
     public double getConfidence() {
         return confidence;
     }
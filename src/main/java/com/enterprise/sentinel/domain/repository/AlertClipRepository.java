@@ -0,0 +1,12 @@
+package com.enterprise.sentinel.domain.repository;
+
+import com.enterprise.sentinel.domain.model.AlertClip;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface AlertClipRepository extends JpaRepository<AlertClip, UUID> {
+
+    Optional<AlertClip> findByAlertId(UUID alertId);
+}
@@ -0,0 +1,26 @@
+package com.enterprise.sentinel.domain.repository;
+
+import com.enterprise.sentinel.domain.model.DetectionClass;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface DetectionClassRepository extends JpaRepository<DetectionClass, Short> {
+
+    /**
+     * Claim an id for a label. A plain insert (not a merge), so an id or label
+     * another instance claimed first fails with a constraint violation instead
+     * of being overwritten.
+     *
+     * Runs in its own transaction: callers are often inside one (alert
+     * evaluation), and a lost race must neither abort nor roll back theirs.
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO detection_classes (id, label_key, label) VALUES (:id, :labelKey, :label)",
+           nativeQuery = true)
+    void insert(@Param("id") short id, @Param("labelKey") String labelKey, @Param("label") String label);
+}
@@ -1,11 +1,20 @@
 package com.enterprise.sentinel.domain.repository;
 
 import com.enterprise.sentinel.domain.model.DetectionEvent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface DetectionEventRepository extends JpaRepository<DetectionEvent, UUID> {
     
@@ -16,4 +25,62 @@ public interface DetectionEventRepository extends JpaRepository<DetectionEvent,
            "AND inference_data ->> 'class' = :objLabel", nativeQuery = true)
     List<DetectionEvent> findObjectsByClass(@Param("vid") UUID videoId, 
                                             @Param("objLabel") String label);
-}
\ No newline at end of file
+
+    /**
+     * Find all detections created within a time range (analytics queries).
+     */
+    @Query("SELECT e FROM DetectionEvent e WHERE e.createdAt BETWEEN :start AND :end ORDER BY e.createdAt")
+    List<DetectionEvent> findByTimeRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Find detections of the given classes created within a time range.
+     * Served by idx_event_class_id_time, so only the requested classes are read.
+     */
+    @Query("SELECT e FROM DetectionEvent e WHERE e.classId IN :classIds " +
+           "AND e.createdAt BETWEEN :start AND :end ORDER BY e.createdAt")
+    List<DetectionEvent> findByClassIdsAndTimeRange(@Param("classIds") Collection<Short> classIds,
+                                                    @Param("start") LocalDateTime start,
+                                                    @Param("end") LocalDateTime end);
+
+    /**
+     * Labels of rows written before class ids existed (class_id is null).
+     */
+    @Query("SELECT DISTINCT e.detectedClass FROM DetectionEvent e WHERE e.classId IS NULL")
+    List<String> findLabelsWithoutClassId();
+
+    /**
+     * Set the class id of rows with this exact label that have none.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DetectionEvent e SET e.classId = :classId WHERE e.classId IS NULL AND e.detectedClass = :label")
+    int backfillClassId(@Param("label") String label, @Param("classId") short classId);
+
+    /**
+     * Stream detections created in [start, end) through a server-side cursor.
+     * Rows are fetched in chunks instead of materialising the whole result set;
+     * callers must consume the stream inside a read-only transaction, close it,
+     * and detach entities they are done with to keep memory bounded.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM DetectionEvent e WHERE e.createdAt >= :start AND e.createdAt < :end " +
+           "ORDER BY e.createdAt, e.id")
+    Stream<DetectionEvent> streamByCreatedAtRange(@Param("start") LocalDateTime start,
+                                                  @Param("end") LocalDateTime end);
+
+    /**
+     * Delete a video's detections with media timestamps in [fromMs, toMs).
+     * Used by offline analysis to drop results past the last checkpoint before
+     * re-analyzing that range, so a resumed job does not duplicate detections.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DetectionEvent e WHERE e.videoId = :videoId " +
+           "AND e.timestampMs >= :fromMs AND e.timestampMs < :toMs")
+    int deleteByVideoIdAndTimestampRange(@Param("videoId") UUID videoId,
+                                         @Param("fromMs") long fromMs,
+                                         @Param("toMs") long toMs);
+}
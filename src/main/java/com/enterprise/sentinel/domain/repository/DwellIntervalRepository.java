@@ -0,0 +1,39 @@
+package com.enterprise.sentinel.domain.repository;
+
+import com.enterprise.sentinel.domain.model.DwellInterval;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface DwellIntervalRepository extends JpaRepository<DwellInterval, UUID> {
+
+    /**
+     * Intervals of one class that ended within a time range.
+     */
+    List<DwellInterval> findByClassIdAndExitedAtBetween(short classId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Intervals of one class in one zone that ended within a time range.
+     */
+    List<DwellInterval> findByZoneIdAndClassIdAndExitedAtBetween(UUID zoneId, short classId,
+                                                                 LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Stream intervals that ended after {@code since} (histogram warm-up on startup).
+     * Must be consumed inside a read-only transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d FROM DwellInterval d WHERE d.exitedAt >= :since")
+    Stream<DwellInterval> streamByExitedAtAfter(@Param("since") LocalDateTime since);
+}
@@ -1,12 +1,17 @@
 package com.enterprise.sentinel.domain.repository;
 
 import com.enterprise.sentinel.domain.model.SecurityAlert;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -41,6 +46,46 @@ public interface SecurityAlertRepository extends JpaRepository<SecurityAlert, UU
     @Query("SELECT a FROM SecurityAlert a WHERE a.createdAt BETWEEN :start AND :end ORDER BY a.createdAt DESC")
     List<SecurityAlert> findByTimeRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
+    // ====== Keyset (cursor) scrolling on (created_at, id) ======
+    // Each call touches at most `limit` rows regardless of how deep the cursor is,
+    // unlike OFFSET paging which rescans every skipped row.
+
+    /**
+     * Scroll alerts for a zone, newest first.
+     */
+    Window<SecurityAlert> findByGeofenceZoneIdOrderByCreatedAtDescIdDesc(
+            UUID geofenceZoneId, ScrollPosition position, Limit limit);
+
+    /**
+     * Scroll alerts of a severity level, newest first.
+     */
+    Window<SecurityAlert> findBySeverityOrderByCreatedAtDescIdDesc(
+            String severity, ScrollPosition position, Limit limit);
+
+    /**
+     * Scroll unacknowledged alerts of a severity level, newest first.
+     * Severity is filtered in SQL so only matching rows leave the database.
+     */
+    Window<SecurityAlert> findBySeverityAndAcknowledgedFalseOrderByCreatedAtDescIdDesc(
+            String severity, ScrollPosition position, Limit limit);
+
+    /**
+     * Scroll alerts created within a time range, newest first.
+     */
+    Window<SecurityAlert> findByCreatedAtBetweenOrderByCreatedAtDescIdDesc(
+            LocalDateTime start, LocalDateTime end, ScrollPosition position, Limit limit);
+
+    /**
+     * Scroll alerts of a severity level created within a time range, newest first.
+     */
+    Window<SecurityAlert> findBySeverityAndCreatedAtBetweenOrderByCreatedAtDescIdDesc(
+            String severity, LocalDateTime start, LocalDateTime end, ScrollPosition position, Limit limit);
+
+    /**
+     * Find all unacknowledged alerts of a severity level, newest first.
+     */
+    List<SecurityAlert> findBySeverityAndAcknowledgedFalseOrderByCreatedAtDesc(String severity);
+
     /**
      * Count unacknowledged alerts by zone.
      */
@@ -50,4 +95,14 @@ public interface SecurityAlertRepository extends JpaRepository<SecurityAlert, UU
      * Count total alerts by severity.
      */
     long countBySeverity(String severity);
+
+    /**
+     * Upper-case severities stored before they were normalized on save,
+     * so the exact severity filters above match them.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE SecurityAlert a SET a.severity = UPPER(TRIM(a.severity)) " +
+           "WHERE a.severity <> UPPER(TRIM(a.severity))")
+    int normalizeSeverities();
 }
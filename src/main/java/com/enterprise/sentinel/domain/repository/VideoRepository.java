@@ -2,8 +2,15 @@ package com.enterprise.sentinel.domain.repository;
 
 import com.enterprise.sentinel.domain.model.Video;
 import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
 import java.util.UUID;
 
 public interface VideoRepository extends JpaRepository<Video, UUID> {
-    // Standard CRUD
-}
\ No newline at end of file
+
+    /**
+     * Find a previously registered source by its content/stream hash
+     * (re-submitting a file resumes its analysis instead of duplicating it).
+     */
+    Optional<Video> findFirstByChecksumAndSourceType(String checksum, Video.SourceType sourceType);
+}
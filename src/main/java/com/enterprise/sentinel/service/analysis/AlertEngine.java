@@ -7,17 +7,33 @@ import com.enterprise.sentinel.domain.repository.GeofenceZoneRepository;
 import com.enterprise.sentinel.domain.repository.SecurityAlertRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * AlertEngine evaluates detected objects against geofence zones and alert rules.
  * Implements non-blocking alert dispatch with event publishing for decoupled notification handling.
+ *
+ * Zone matching runs on class ids: each zone's trigger classes are resolved to a
+ * bitset once (and again only after the zone is edited), so evaluating a detection
+ * is a bit test instead of a string comparison per zone.
  */
 @Slf4j
 @Service
@@ -25,9 +41,15 @@ import java.util.concurrent.LinkedBlockingQueue;
 @Transactional
 public class AlertEngine {
 
+    private static final String CRITICAL = "CRITICAL";
+
     private final GeofenceZoneRepository geofenceZoneRepository;
     private final SecurityAlertRepository securityAlertRepository;
     private final ApplicationEventPublisher eventPublisher;
+    private final DetectionClassRegistry classRegistry;
+
+    // Trigger class ids per zone, re-resolved when the zone's updatedAt changes
+    private final Map<UUID, ZoneTrigger> zoneTriggers = new ConcurrentHashMap<>();
 
     /**
      * Process a detection event and evaluate against all enabled geofence zones.
@@ -37,56 +59,95 @@ public class AlertEngine {
      * @return true if alert was created, false otherwise
      */
     public boolean processDetection(DetectionEvent detectionEvent) {
+        List<SecurityAlert> alerts = evaluate(detectionEvent);
+        alerts.forEach(this::raise);
+        return !alerts.isEmpty();
+    }
+
+    /**
+     * Rules step: the alerts a persisted detection triggers, not yet saved.
+     */
+    public List<SecurityAlert> evaluate(DetectionEvent detectionEvent) {
         if (detectionEvent == null || detectionEvent.getInferenceData() == null) {
-            return false;
+            return List.of();
         }
 
         List<GeofenceZone> activeZones = geofenceZoneRepository.findByEnabledTrueOrderByZoneName();
-        boolean alertCreated = false;
+        int classId = resolveClassId(detectionEvent);
+        UUID cameraId = detectionEvent.getVideo() != null
+                ? detectionEvent.getVideo().getId() : detectionEvent.getVideoId();
+        List<SecurityAlert> alerts = new ArrayList<>();
 
         for (GeofenceZone zone : activeZones) {
-            if (shouldTriggerAlert(zone, detectionEvent)) {
-                SecurityAlert alert = createAlert(zone, detectionEvent);
-                securityAlertRepository.save(alert);
-                
-                log.info("Alert triggered: zone={}, detectedClass={}, severity={}, alertId={}",
-                        zone.getZoneCode(), detectionEvent.getDetectedClass(), 
-                        zone.getSeverity(), alert.getId());
-
-                // Publish event for async notification handling
-                eventPublisher.publishEvent(new SecurityAlertEvent(alert));
-                alertCreated = true;
+            if (zone.appliesTo(cameraId) && shouldTriggerAlert(zone, classId, detectionEvent.getConfidence())) {
+                alerts.add(createAlert(zone, detectionEvent, classId));
             }
         }
+        return alerts;
+    }
 
-        return alertCreated;
+    /**
+     * Notify step: persist an alert from {@link #evaluate} and publish it.
+     */
+    public void raise(SecurityAlert alert) {
+        securityAlertRepository.save(alert);
+
+        log.info("Alert triggered: zoneId={}, detectedClass={}, severity={}, alertId={}",
+                alert.getGeofenceZoneId(), alert.getDetectedClass(),
+                alert.getSeverity(), alert.getId());
+
+        // Publish event for async notification handling
+        eventPublisher.publishEvent(new SecurityAlertEvent(alert));
     }
 
     /**
      * Evaluate if detection meets zone trigger criteria.
      * Checks:
      * 1. Zone is enabled
-     * 2. Detected class matches zone trigger class
+     * 2. Detected class id is in the zone's trigger class set
      * 3. Detection confidence meets or exceeds zone threshold
      */
-    private boolean shouldTriggerAlert(GeofenceZone zone, DetectionEvent detectionEvent) {
+    private boolean shouldTriggerAlert(GeofenceZone zone, int classId, double confidence) {
         if (!zone.isEnabled()) {
             return false;
         }
+        return zone.shouldTriggerAlert(classId, confidence, triggerClassIds(zone));
+    }
 
-        String detectedClass = detectionEvent.getDetectedClass();
-        double confidence = detectionEvent.getConfidence();
+    /**
+     * Class id carried by the detection; events saved without one are resolved by label.
+     */
+    private int resolveClassId(DetectionEvent detectionEvent) {
+        Short classId = detectionEvent.getClassId();
+        if (classId != null) {
+            return classId;
+        }
+        return classRegistry.register(detectionEvent.getDetectedClass());
+    }
 
-        return zone.shouldTriggerAlert(detectedClass, confidence);
+    private BitSet triggerClassIds(GeofenceZone zone) {
+        if (zone.getId() == null) {
+            return classRegistry.maskOf(zone.getTriggerClasses());
+        }
+        ZoneTrigger cached = zoneTriggers.get(zone.getId());
+        if (cached != null && Objects.equals(cached.updatedAt(), zone.getUpdatedAt())) {
+            return cached.classIds();
+        }
+        BitSet classIds = classRegistry.maskOf(zone.getTriggerClasses());
+        zoneTriggers.put(zone.getId(), new ZoneTrigger(zone.getUpdatedAt(), classIds));
+        return classIds;
     }
 
     /**
      * Create a SecurityAlert entity from zone and detection.
      */
-    private SecurityAlert createAlert(GeofenceZone zone, DetectionEvent detectionEvent) {
+    private SecurityAlert createAlert(GeofenceZone zone, DetectionEvent detectionEvent, int classId) {
         return SecurityAlert.builder()
                 .geofenceZoneId(zone.getId())
                 .detectionEventId(detectionEvent.getId())
+                .detectedClass(detectionEvent.getDetectedClass())
+                .classId((short) classId)
+                .confidence(detectionEvent.getConfidence())
                 .severity(zone.getSeverity())
                 .alertMessage(zone.getAlertMessage())
                 .acknowledged(false)
@@ -123,13 +184,39 @@ public class AlertEngine {
                 .orElse(0L);
     }
 
+    /**
+     * Upper-case severities of alerts saved before severities were normalized,
+     * so the critical queries below (exact match, indexed) find them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void normalizeStoredSeverities() {
+        int updated = securityAlertRepository.normalizeSeverities();
+        if (updated > 0) {
+            log.info("Normalized severity of {} stored alerts", updated);
+        }
+    }
+
     /**
      * Get critical alerts requiring immediate attention.
+     * Severity is filtered by the database, not in memory.
      */
+    @Transactional(readOnly = true)
     public List<SecurityAlert> getCriticalUnacknowledgedAlerts() {
-        return securityAlertRepository.findByAcknowledgedFalseOrderByCreatedAtDesc()
-                .stream()
-                .filter(alert -> "CRITICAL".equalsIgnoreCase(alert.getSeverity()))
-                .toList();
+        return securityAlertRepository.findBySeverityAndAcknowledgedFalseOrderByCreatedAtDesc(CRITICAL);
+    }
+
+    /**
+     * Get one page of critical unacknowledged alerts, newest first.
+     *
+     * @param position Keyset position after the last row of the previous page
+     * @param limit Maximum rows to return
+     */
+    @Transactional(readOnly = true)
+    public Window<SecurityAlert> getCriticalUnacknowledgedAlerts(ScrollPosition position, int limit) {
+        return securityAlertRepository.findBySeverityAndAcknowledgedFalseOrderByCreatedAtDescIdDesc(
+                CRITICAL, position, Limit.of(limit));
+    }
+
+    private record ZoneTrigger(LocalDateTime updatedAt, BitSet classIds) {
     }
 }
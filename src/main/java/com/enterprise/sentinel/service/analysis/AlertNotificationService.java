@@ -5,6 +5,7 @@ import com.enterprise.sentinel.service.security.AuditLogger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -30,8 +31,10 @@ public class AlertNotificationService {
 
     /**
      * Listen for SecurityAlertEvent and dispatch notifications.
-     * Triggered when AlertEngine publishes a new alert.
+     * Triggered when AlertEngine publishes a new alert; runs on the I/O
+     * executor so the detection thread does not wait for the dispatch.
      */
+    @Async
     @EventListener
     public void onSecurityAlert(SecurityAlertEvent event) {
         SecurityAlert alert = event.getAlert();
@@ -70,6 +73,13 @@ public class AlertNotificationService {
                 .toList();
     }
 
+    /**
+     * Number of recent alerts held for the UI (at most 1000).
+     */
+    public int getQueueSize() {
+        return alertQueue.size();
+    }
+
     /**
      * Get current queue size (real-time indicator).
      */
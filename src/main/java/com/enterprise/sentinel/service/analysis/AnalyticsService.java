@@ -1,12 +1,19 @@
 package com.enterprise.sentinel.service.analysis;
 
 import com.enterprise.sentinel.domain.model.DetectionEvent;
+import com.enterprise.sentinel.domain.model.DwellInterval;
+import com.enterprise.sentinel.domain.model.GeofenceZone;
 import com.enterprise.sentinel.domain.repository.DetectionEventRepository;
+import com.enterprise.sentinel.domain.repository.DwellIntervalRepository;
+import com.enterprise.sentinel.domain.repository.GeofenceZoneRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -16,9 +23,17 @@ import java.util.stream.Collectors;
  * 
  * Capabilities:
  * 1. Heatmaps: Spatial distribution of detections in zones
- * 2. Dwell Time: Time spent by objects in specific zones
+ * 2. Dwell Time: Time spent by objects in specific zones (from {@link DwellEngine})
  * 3. PPE Detection: Presence/absence of protective equipment
  * 4. Compliance Reports: Objects in restricted zones
+ *
+ * Windows that fit in {@link RecentDetectionStore} (typically the last hour)
+ * are answered from memory; anything older falls back to the database.
+ * Class-filtered database queries select by class id (idx_event_class_id_time);
+ * rows written before class ids existed get theirs at startup.
+ * The compliance report gives the same answer on both paths: classes match
+ * through the registry (case-insensitive), detections are placed by capture
+ * time, and only detections with a bounding box count.
  */
 @Slf4j
 @Service
@@ -26,7 +41,15 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class AnalyticsService {
 
+    // How long after capture a detection may be persisted (pipeline backlog)
+    private static final Duration MAX_PERSIST_LAG = Duration.ofMinutes(10);
+
     private final DetectionEventRepository detectionEventRepository;
+    private final RecentDetectionStore recentDetectionStore;
+    private final DetectionClassRegistry classRegistry;
+    private final DwellIntervalRepository dwellIntervalRepository;
+    private final GeofenceZoneRepository geofenceZoneRepository;
+    private final DwellEngine dwellEngine;
 
     /**
      * Generate heatmap data for a detection class in a time window.
@@ -42,13 +65,15 @@ public class AnalyticsService {
                                                  LocalDateTime startTime, 
                                                  LocalDateTime endTime, 
                                                  int gridSize) {
-        List<DetectionEvent> events = detectionEventRepository
-                .findByTimeRange(startTime, endTime);
-
         Map<String, Integer> heatmap = new HashMap<>();
+        int classId = classRegistry.idOf(detectedClass);
+        if (classId == DetectionClassRegistry.UNKNOWN) {
+            return heatmap;
+        }
+        List<DetectionEvent> events = detectionEventRepository
+                .findByClassIdsAndTimeRange(List.of((short) classId), startTime, endTime);
 
         events.stream()
-                .filter(e -> detectedClass.equalsIgnoreCase(e.getDetectedClass()))
                 .filter(e -> e.getConfidence() > 0.6) // Only high-confidence detections
                 .forEach(event -> {
                     String gridCell = extractGridCell(event, gridSize);
@@ -60,46 +85,64 @@ public class AnalyticsService {
     }
 
     /**
-     * Calculate dwell time for objects in a specific zone.
-     * Dwell time = time from first detection to last detection in zone.
-     * 
+     * Dwell intervals of a class that ended in a time window, from the dwell table.
+     * Intervals are produced incrementally by {@link DwellEngine}; no detection events are scanned.
+     *
      * @param detectedClass The object class to track
-     * @param zoneCoordinates Bounding box of the zone
+     * @param zoneCode Geofence zone code, or null for all zones
      * @param startTime Start of analysis period
      * @param endTime End of analysis period
-     * @return Map of object track IDs to dwell time in milliseconds
+     * @return Map of "camera_track_zone" keys to total dwell time in milliseconds
      */
     public Map<String, Long> calculateDwellTime(String detectedClass,
-                                               String zoneCoordinates,
+                                               String zoneCode,
                                                LocalDateTime startTime,
                                                LocalDateTime endTime) {
-        List<DetectionEvent> events = detectionEventRepository
-                .findByTimeRange(startTime, endTime);
+        int classId = classRegistry.idOf(detectedClass);
+        if (classId == DetectionClassRegistry.UNKNOWN) {
+            return Map.of();
+        }
 
-        Map<String, Long> dwellTimes = new HashMap<>();
+        List<DwellInterval> intervals;
+        if (zoneCode == null || zoneCode.isBlank()) {
+            intervals = dwellIntervalRepository.findByClassIdAndExitedAtBetween(
+                    (short) classId, startTime, endTime);
+        } else {
+            Optional<GeofenceZone> zone = geofenceZoneRepository.findByZoneCode(zoneCode);
+            if (zone.isEmpty()) {
+                return Map.of();
+            }
+            intervals = dwellIntervalRepository.findByZoneIdAndClassIdAndExitedAtBetween(
+                    zone.get().getId(), (short) classId, startTime, endTime);
+        }
 
-        // Group detections by track (simplified: group by similar coordinates over time)
-        Map<String, List<Long>> trackTimestamps = new HashMap<>();
+        // Re-entries of the same track into the same zone add up
+        Map<String, Long> dwellTimes = new HashMap<>();
+        for (DwellInterval interval : intervals) {
+            String camera = interval.getVideoId() != null ? interval.getVideoId().toString() : "unknown";
+            String trackKey = camera + "_" + interval.getTrackId() + "_" + interval.getZoneId();
+            dwellTimes.merge(trackKey, interval.getDurationMs(), Long::sum);
+        }
 
-        events.stream()
-                .filter(e -> detectedClass.equalsIgnoreCase(e.getDetectedClass()))
-                .filter(e -> isInZone(e, zoneCoordinates))
-                .forEach(event -> {
-                    String trackId = generateTrackId(event, detectedClass);
-                    trackTimestamps.computeIfAbsent(trackId, k -> new ArrayList<>())
-                            .add(event.getTimestampMs());
-                });
+        log.info("Calculated dwell times for {}: {} tracks analyzed", detectedClass, dwellTimes.size());
+        return dwellTimes;
+    }
 
-        // Calculate dwell time per track
-        trackTimestamps.forEach((trackId, timestamps) -> {
-            if (!timestamps.isEmpty()) {
-                long dwell = Collections.max(timestamps) - Collections.min(timestamps);
-                dwellTimes.put(trackId, dwell);
-            }
-        });
+    /**
+     * Dwell count, mean and percentiles for a zone, from the engine's histogram.
+     */
+    public Optional<DwellEngine.DwellStats> getDwellStats(String zoneCode) {
+        return geofenceZoneRepository.findByZoneCode(zoneCode)
+                .flatMap(zone -> dwellEngine.getStats(zone.getId()));
+    }
 
-        log.info("Calculated dwell times for {}: {} tracks analyzed", detectedClass, trackTimestamps.size());
-        return dwellTimes;
+    /**
+     * Dwell-time histogram buckets for a zone.
+     */
+    public List<DwellEngine.HistogramBucket> getDwellHistogram(String zoneCode) {
+        return geofenceZoneRepository.findByZoneCode(zoneCode)
+                .map(zone -> dwellEngine.getHistogram(zone.getId()))
+                .orElse(List.of());
     }
 
     /**
@@ -111,22 +154,47 @@ public class AnalyticsService {
      * @return PPE statistics: total persons, with helmet, with vest, compliance %
      */
     public Map<String, Object> analyzePPECompliance(LocalDateTime startTime, LocalDateTime endTime) {
-        List<DetectionEvent> events = detectionEventRepository
-                .findByTimeRange(startTime, endTime);
-
-        long totalPersons = events.stream()
-                .filter(e -> "person".equalsIgnoreCase(e.getDetectedClass()))
-                .count();
-
-        // Future: Use a separate PPE detection model or multi-class detection
-        // For now, placeholder logic
-        long withHelmet = events.stream()
-                .filter(e -> "helmet".equalsIgnoreCase(e.getDetectedClass()))
-                .count();
-
-        long withVest = events.stream()
-                .filter(e -> "safety_vest".equalsIgnoreCase(e.getDetectedClass()))
-                .count();
+        long totalPersons;
+        long withHelmet;
+        long withVest;
+
+        int person = classRegistry.idOf("person");
+        int helmet = classRegistry.idOf("helmet");
+        int vest = classRegistry.idOf("safety_vest");
+        if (recentDetectionStore.covers(startTime, endTime)) {
+            long[] counts = new long[3];
+            recentDetectionStore.scan(startTime, endTime, (ts, classId, confidence, bbox) -> {
+                if (classId == person) counts[0]++;
+                else if (classId == helmet) counts[1]++;
+                else if (classId == vest) counts[2]++;
+            });
+            totalPersons = counts[0];
+            withHelmet = counts[1];
+            withVest = counts[2];
+        } else {
+            List<Short> classIds = new ArrayList<>();
+            for (int classId : new int[] {person, helmet, vest}) {
+                if (classId != DetectionClassRegistry.UNKNOWN) {
+                    classIds.add((short) classId);
+                }
+            }
+            List<DetectionEvent> events = classIds.isEmpty() ? List.of()
+                    : detectionEventRepository.findByClassIdsAndTimeRange(classIds, startTime, endTime);
+
+            totalPersons = events.stream()
+                    .filter(e -> classIdOf(e) == person)
+                    .count();
+
+            // Future: Use a separate PPE detection model or multi-class detection
+            // For now, placeholder logic
+            withHelmet = events.stream()
+                    .filter(e -> classIdOf(e) == helmet)
+                    .count();
+
+            withVest = events.stream()
+                    .filter(e -> classIdOf(e) == vest)
+                    .count();
+        }
 
         double complianceRate = totalPersons > 0 
                 ? (double) withHelmet / totalPersons * 100 
@@ -160,27 +228,72 @@ public class AnalyticsService {
             LocalDateTime startTime,
             LocalDateTime endTime) {
 
+        if (recentDetectionStore.covers(startTime, endTime)) {
+            return complianceReportFromStore(restrictedClasses, restrictedZones, startTime, endTime);
+        }
+
+        List<Map<String, Object>> violations = new ArrayList<>();
+        if (restrictedZones.isEmpty()) {
+            return violations;
+        }
+        BitSet restricted = restrictedMask(restrictedClasses);
+        if (restricted.isEmpty()) {
+            return violations;
+        }
+        List<Short> classIds = restricted.stream().mapToObj(classId -> (short) classId).toList();
+        long startMs = recentDetectionStore.toEpochMs(startTime);
+        long endMs = recentDetectionStore.toEpochMs(endTime);
+
+        // Rows captured at the end of the window may be created a little later
         List<DetectionEvent> events = detectionEventRepository
-                .findByTimeRange(startTime, endTime);
+                .findByClassIdsAndTimeRange(classIds, startTime, endTime.plus(MAX_PERSIST_LAG));
+        for (DetectionEvent e : events) {
+            long capturedMs = capturedAtMs(e);
+            if (restricted.get(classIdOf(e)) && isInRestrictedZone(e, restrictedZones)
+                    && capturedMs >= startMs && capturedMs <= endMs) {
+                violations.add(violation(recentDetectionStore.toLocalDateTime(capturedMs),
+                        classRegistry.nameOf(classIdOf(e)), e.getConfidence(), identifyZone(e, restrictedZones)));
+            }
+        }
+        return violations;
+    }
 
-        return events.stream()
-                .filter(e -> restrictedClasses.contains(e.getDetectedClass()))
-                .filter(e -> isInRestrictedZone(e, restrictedZones))
-                .map(e -> {
-                    Map<String, Object> violation = new HashMap<>();
-                    violation.put("timestamp", e.getCreatedAt());
-                    violation.put("detectedClass", e.getDetectedClass());
-                    violation.put("confidence", e.getConfidence());
-                    violation.put("zone", identifyZone(e, restrictedZones));
-                    return violation;
-                })
-                .collect(Collectors.toList());
+    /**
+     * Give rows written before class ids existed the id of their label, so
+     * the class-id queries above find them. A no-op (an index lookup) once done.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillClassIds() {
+        int updated = 0;
+        for (String label : detectionEventRepository.findLabelsWithoutClassId()) {
+            updated += detectionEventRepository.backfillClassId(label, (short) classRegistry.register(label));
+        }
+        if (updated > 0) {
+            log.info("Backfilled class ids of {} detection events", updated);
+        }
     }
 
     /**
      * Get detection frequency statistics by class.
      */
     public Map<String, Long> getDetectionFrequency(LocalDateTime startTime, LocalDateTime endTime) {
+        if (recentDetectionStore.covers(startTime, endTime)) {
+            long[] counts = new long[classRegistry.size()];
+            recentDetectionStore.scan(startTime, endTime, (ts, classId, confidence, bbox) -> {
+                if (classId < counts.length) {
+                    counts[classId]++;
+                }
+            });
+            Map<String, Long> frequency = new HashMap<>();
+            for (int classId = 0; classId < counts.length; classId++) {
+                if (counts[classId] > 0) {
+                    frequency.put(classRegistry.nameOf(classId), counts[classId]);
+                }
+            }
+            return frequency;
+        }
+
         List<DetectionEvent> events = detectionEventRepository
                 .findByTimeRange(startTime, endTime);
 
@@ -195,6 +308,25 @@ public class AnalyticsService {
      * Get average confidence per detection class.
      */
     public Map<String, Double> getAverageConfidence(LocalDateTime startTime, LocalDateTime endTime) {
+        if (recentDetectionStore.covers(startTime, endTime)) {
+            int classCount = classRegistry.size();
+            long[] counts = new long[classCount];
+            double[] sums = new double[classCount];
+            recentDetectionStore.scan(startTime, endTime, (ts, classId, confidence, bbox) -> {
+                if (classId < classCount) {
+                    counts[classId]++;
+                    sums[classId] += confidence;
+                }
+            });
+            Map<String, Double> averages = new HashMap<>();
+            for (int classId = 0; classId < classCount; classId++) {
+                if (counts[classId] > 0) {
+                    averages.put(classRegistry.nameOf(classId), sums[classId] / counts[classId]);
+                }
+            }
+            return averages;
+        }
+
         List<DetectionEvent> events = detectionEventRepository
                 .findByTimeRange(startTime, endTime);
 
@@ -207,6 +339,72 @@ public class AnalyticsService {
 
     // ====== HELPER METHODS ======
 
+    private List<Map<String, Object>> complianceReportFromStore(List<String> restrictedClasses,
+                                                                List<String> restrictedZones,
+                                                                LocalDateTime startTime,
+                                                                LocalDateTime endTime) {
+        List<Map<String, Object>> violations = new ArrayList<>();
+        if (restrictedZones.isEmpty()) {
+            return violations;
+        }
+
+        BitSet restricted = restrictedMask(restrictedClasses);
+        String zone = identifyZone(null, restrictedZones);
+        recentDetectionStore.scan(startTime, endTime, (ts, classId, confidence, bbox) -> {
+            if (restricted.get(classId) && bbox != RecentDetectionStore.NO_BBOX) {
+                violations.add(violation(recentDetectionStore.toLocalDateTime(ts),
+                        classRegistry.nameOf(classId), confidence, zone));
+            }
+        });
+        return violations;
+    }
+
+    /**
+     * Registered ids of the restricted classes (case-insensitive); unknown labels match nothing.
+     */
+    private BitSet restrictedMask(List<String> restrictedClasses) {
+        BitSet restricted = new BitSet();
+        for (String restrictedClass : restrictedClasses) {
+            int classId = classRegistry.idOf(restrictedClass);
+            if (classId != DetectionClassRegistry.UNKNOWN) {
+                restricted.set(classId);
+            }
+        }
+        return restricted;
+    }
+
+    private static Map<String, Object> violation(LocalDateTime timestamp, String detectedClass,
+                                                 double confidence, String zone) {
+        Map<String, Object> violation = new HashMap<>();
+        violation.put("timestamp", timestamp);
+        violation.put("detectedClass", detectedClass);
+        violation.put("confidence", confidence);
+        violation.put("zone", zone);
+        return violation;
+    }
+
+    /**
+     * Registry id of a persisted detection; a row not backfilled yet resolves its label.
+     */
+    private int classIdOf(DetectionEvent event) {
+        return event.getClassId() != null ? event.getClassId() : classRegistry.idOf(event.getDetectedClass());
+    }
+
+    /**
+     * Wall-clock capture time, as the hot store records it. Rows without one
+     * (offline analysis stores media positions; older rows may have none)
+     * fall back to their creation time.
+     */
+    private long capturedAtMs(DetectionEvent event) {
+        Long timestampMs = event.getTimestampMs();
+        if (event.getCreatedAt() == null) {
+            return timestampMs != null ? timestampMs : Long.MIN_VALUE;
+        }
+        long createdMs = recentDetectionStore.toEpochMs(event.getCreatedAt());
+        return timestampMs != null && Math.abs(createdMs - timestampMs) <= MAX_PERSIST_LAG.toMillis()
+                ? timestampMs : createdMs;
+    }
+
     private String extractGridCell(DetectionEvent event, int gridSize) {
         // Parse bounding box from boundingBox or inferenceData
         // Simplified: extract center coordinates and map to grid
@@ -230,24 +428,9 @@ public class AnalyticsService {
         return "0_0";
     }
 
-    private String generateTrackId(DetectionEvent event, String className) {
-        // Simplified tracking: use video + approximate spatial position
-        String videoId = event.getVideoId() != null ? event.getVideoId().toString() : "unknown";
-        String position = event.getBoundingBox() != null 
-                ? event.getBoundingBox().substring(0, Math.min(10, event.getBoundingBox().length())) 
-                : "0";
-        return videoId + "_" + position + "_" + className;
-    }
-
-    private boolean isInZone(DetectionEvent event, String zoneCoordinates) {
-        // Simplified: check if detection bounding box overlaps with zone
-        // In production: implement proper rectangle intersection
-        return event.getBoundingBox() != null && zoneCoordinates != null;
-    }
-
     private boolean isInRestrictedZone(DetectionEvent event, List<String> restrictedZones) {
-        // Simplified: check if detection is in any restricted zone
-        return event.getBoundingBox() != null && !restrictedZones.isEmpty();
+        // Simplified: any placed detection (one with a box) is in the restricted zones
+        return event.getBoundingBox() != null && !event.getBoundingBox().isBlank() && !restrictedZones.isEmpty();
     }
 
     private String identifyZone(DetectionEvent event, List<String> zones) {
@@ -0,0 +1,213 @@
+package com.enterprise.sentinel.service.analysis;
+
+import com.enterprise.sentinel.domain.model.DetectionClass;
+import com.enterprise.sentinel.domain.repository.DetectionClassRepository;
+import com.enterprise.sentinel.service.model.ModelDescriptor;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps detection class labels to dense int ids.
+ *
+ * Ids are durable: the mapping lives in the detection_classes table, loaded
+ * at startup, and every new label is inserted there before its id is used.
+ * Ids stored in detection_events, security_alerts and dwell_intervals
+ * therefore mean the same class after a restart, whatever order models and
+ * zones register their labels in. An empty table is seeded with the COCO
+ * labels, so the default model's ids follow its output order ("person" = 0);
+ * other labels (zone trigger classes, PPE labels, other models) are appended
+ * on first use. Instances sharing a database settle conflicting claims
+ * through the table's constraints; each claim commits on its own, so a lost
+ * race leaves the caller's transaction usable.
+ *
+ * Labels are matched case-insensitively, like the string comparisons they replace.
+ * Ids fit in a smallint so they can be stored as-is in detection_events.class_id.
+ *
+ * Thread Safety: lookups are lock-free; registration is serialized.
+ */
+@Slf4j
+@Service
+public class DetectionClassRegistry {
+
+    /** Id returned for labels that were never registered. */
+    public static final int UNKNOWN = -1;
+
+    private static final int MAX_CLAIM_ATTEMPTS = 5;
+
+    private final DetectionClassRepository repository; // Null: in memory only (unit tests, tools)
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[0];
+
+    /**
+     * In-memory registry: ids follow registration order and are not kept.
+     */
+    public DetectionClassRegistry() {
+        this(null);
+    }
+
+    @Autowired
+    public DetectionClassRegistry(DetectionClassRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Load the persisted mapping; seed the COCO labels into an empty table.
+     */
+    @PostConstruct
+    public synchronized void load() {
+        if (repository == null) {
+            return;
+        }
+        List<DetectionClass> rows = repository.findAll();
+        if (rows.isEmpty()) {
+            ModelDescriptor.COCO_CLASSES.forEach(this::register);
+            log.info("Class registry: seeded {} COCO labels", names.length);
+            return;
+        }
+        install(rows);
+        log.info("Class registry: {} labels loaded", rows.size());
+    }
+
+    /**
+     * Register the labels of a model, in output order.
+     * Already-registered labels keep their id; lock-free once all are known.
+     *
+     * @return id of each label, indexed like {@code labels}
+     */
+    public int[] registerAll(List<String> labels) {
+        int[] result = new int[labels.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = register(labels.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Id for a label, registering it if needed.
+     */
+    public int register(String label) {
+        if (label == null) {
+            throw new IllegalArgumentException("Class label is required");
+        }
+        int id = idOf(label);
+        if (id != UNKNOWN) {
+            return id;
+        }
+        synchronized (this) {
+            String key = normalize(label);
+            Integer existing = ids.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            return claim(key, label);
+        }
+    }
+
+    /**
+     * Id for a label, or {@link #UNKNOWN} if it has never been registered.
+     * Model labels are already lower case, so the common path is a single map lookup.
+     */
+    public int idOf(String label) {
+        if (label == null) {
+            return UNKNOWN;
+        }
+        Integer id = ids.get(label);
+        if (id == null) {
+            id = ids.get(normalize(label));
+        }
+        return id != null ? id : UNKNOWN;
+    }
+
+    /**
+     * Label for an id, as first registered.
+     *
+     * @throws IllegalArgumentException if the id is not registered
+     */
+    public String nameOf(int id) {
+        String[] snapshot = names;
+        if (id < 0 || id >= snapshot.length || snapshot[id] == null) {
+            throw new IllegalArgumentException("Unknown class id: " + id);
+        }
+        return snapshot[id];
+    }
+
+    /**
+     * Bitset of the registered ids of {@code labels}, registering unknown labels.
+     */
+    public BitSet maskOf(Iterable<String> labels) {
+        BitSet mask = new BitSet();
+        for (String label : labels) {
+            mask.set(register(label));
+        }
+        return mask;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Next free id for a new label, persisted first. Caller holds the monitor.
+     */
+    private int claim(String key, String label) {
+        for (int attempt = 1; ; attempt++) {
+            int id = names.length;
+            if (id >= Short.MAX_VALUE) {
+                throw new IllegalStateException("Too many distinct detection classes");
+            }
+            if (repository != null) {
+                try {
+                    repository.insert((short) id, key, label);
+                } catch (DataIntegrityViolationException e) {
+                    // Another instance claimed this id or label first: take over its table and look again
+                    if (attempt >= MAX_CLAIM_ATTEMPTS) {
+                        throw new IllegalStateException("Could not register detection class " + label, e);
+                    }
+                    install(repository.findAll());
+                    Integer claimed = ids.get(key);
+                    if (claimed != null) {
+                        return claimed;
+                    }
+                    continue;
+                }
+            }
+            String[] grown = Arrays.copyOf(names, id + 1);
+            grown[id] = label;
+            names = grown;
+            ids.put(key, id);
+            return id;
+        }
+    }
+
+    /**
+     * Take over persisted rows (a superset of what this instance registered). Caller holds the monitor.
+     */
+    private void install(List<DetectionClass> rows) {
+        int size = names.length;
+        for (DetectionClass row : rows) {
+            size = Math.max(size, row.getId() + 1);
+        }
+        String[] grown = Arrays.copyOf(names, size);
+        for (DetectionClass row : rows) {
+            grown[row.getId()] = row.getLabel();
+        }
+        names = grown;
+        for (DetectionClass row : rows) {
+            ids.put(row.getLabelKey(), (int) row.getId());
+        }
+    }
+
+    private static String normalize(String label) {
+        return label.trim().toLowerCase(Locale.ROOT);
+    }
+}
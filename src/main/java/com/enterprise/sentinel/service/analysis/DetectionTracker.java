@@ -0,0 +1,137 @@
+package com.enterprise.sentinel.service.analysis;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Greedy IoU tracker: gives detections of the same class that overlap across
+ * consecutive frames of one camera the same track id.
+ *
+ * Tracks live in parallel primitive arrays per camera and expire after
+ * {@code timeoutMs} without a match. Good enough for dwell accounting at
+ * the throttled inference rate; not a re-identification tracker.
+ *
+ * Thread Safety: none; {@link DwellEngine} serializes access.
+ */
+final class DetectionTracker {
+
+    private static final int INITIAL_TRACKS = 16;
+
+    private final double minIou;
+    private final long timeoutMs;
+    private final Map<UUID, TrackTable> cameras = new HashMap<>();
+    private final TrackTable unassigned = new TrackTable();
+    private long nextTrackId = 1;
+
+    DetectionTracker(double minIou, long timeoutMs) {
+        this.minIou = minIou;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Match a detection to an existing track or start a new one.
+     * A track is matched at most once per timestamp, so two boxes in one frame never share an id.
+     *
+     * @return track id (always > 0)
+     */
+    long assign(UUID cameraId, int classId, long timestampMs, float x, float y, float width, float height) {
+        TrackTable table = cameraId == null ? unassigned : cameras.computeIfAbsent(cameraId, id -> new TrackTable());
+        table.expire(timestampMs - timeoutMs);
+
+        int best = -1;
+        double bestIou = minIou;
+        for (int i = 0; i < table.size; i++) {
+            if (table.classes[i] != classId || table.lastSeen[i] == timestampMs) {
+                continue;
+            }
+            double iou = iou(table.xs[i], table.ys[i], table.ws[i], table.hs[i], x, y, width, height);
+            if (iou >= bestIou) {
+                bestIou = iou;
+                best = i;
+            }
+        }
+
+        if (best < 0) {
+            best = table.add(nextTrackId++, classId);
+        }
+        table.update(best, timestampMs, x, y, width, height);
+        return table.ids[best];
+    }
+
+    int getActiveTrackCount() {
+        int count = unassigned.size;
+        for (TrackTable table : cameras.values()) {
+            count += table.size;
+        }
+        return count;
+    }
+
+    static double iou(float ax, float ay, float aw, float ah, float bx, float by, float bw, float bh) {
+        float interW = Math.min(ax + aw, bx + bw) - Math.max(ax, bx);
+        float interH = Math.min(ay + ah, by + bh) - Math.max(ay, by);
+        if (interW <= 0 || interH <= 0) {
+            return 0.0;
+        }
+        double inter = (double) interW * interH;
+        double union = (double) aw * ah + (double) bw * bh - inter;
+        return union > 0 ? inter / union : 0.0;
+    }
+
+    /**
+     * Active tracks of one camera as parallel arrays (unordered; removal swaps in the last entry).
+     */
+    private static final class TrackTable {
+        long[] ids = new long[INITIAL_TRACKS];
+        int[] classes = new int[INITIAL_TRACKS];
+        long[] lastSeen = new long[INITIAL_TRACKS];
+        float[] xs = new float[INITIAL_TRACKS];
+        float[] ys = new float[INITIAL_TRACKS];
+        float[] ws = new float[INITIAL_TRACKS];
+        float[] hs = new float[INITIAL_TRACKS];
+        int size;
+
+        int add(long id, int classId) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                classes = Arrays.copyOf(classes, capacity);
+                lastSeen = Arrays.copyOf(lastSeen, capacity);
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+                ws = Arrays.copyOf(ws, capacity);
+                hs = Arrays.copyOf(hs, capacity);
+            }
+            ids[size] = id;
+            classes[size] = classId;
+            return size++;
+        }
+
+        void update(int i, long timestampMs, float x, float y, float width, float height) {
+            lastSeen[i] = timestampMs;
+            xs[i] = x;
+            ys[i] = y;
+            ws[i] = width;
+            hs[i] = height;
+        }
+
+        void expire(long olderThanMs) {
+            int i = 0;
+            while (i < size) {
+                if (lastSeen[i] < olderThanMs) {
+                    int last = --size;
+                    ids[i] = ids[last];
+                    classes[i] = classes[last];
+                    lastSeen[i] = lastSeen[last];
+                    xs[i] = xs[last];
+                    ys[i] = ys[last];
+                    ws[i] = ws[last];
+                    hs[i] = hs[last];
+                } else {
+                    i++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package com.enterprise.sentinel.service.analysis;
+
+import com.enterprise.sentinel.domain.model.DwellInterval;
+import com.enterprise.sentinel.domain.model.GeofenceZone;
+import com.enterprise.sentinel.domain.repository.DwellIntervalRepository;
+import com.enterprise.sentinel.domain.repository.GeofenceZoneRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Streaming dwell-time engine.
+ *
+ * Consumes detections as they are saved, assigns them to tracks
+ * ({@link DetectionTracker}) and keeps enter/last-seen state per
+ * (track, zone) in a primitive open-addressing map. A stay is closed when the
+ * track is seen outside the zone (EXIT) or not seen for the timeout (TIMEOUT);
+ * closed stays are recorded in a per-zone {@link DwellHistogram} and persisted
+ * to {@code dwell_intervals} in batches by the sweep.
+ *
+ * Percentiles come from the histograms, so they never rescan detection events.
+ * Histograms are warmed from the dwell table on startup.
+ *
+ * Zones are reloaded on a schedule ({@code zone-refresh-seconds}) and swapped
+ * in as an immutable snapshot, so pipeline threads never wait on the database.
+ * Stays still open at shutdown are closed (SHUTDOWN) and persisted.
+ *
+ * Thread Safety: detection and sweep are serialized on this engine; the zone
+ * snapshot is read without the lock; histogram reads only lock the histogram.
+ */
+@Slf4j
+@Service
+public class DwellEngine {
+
+    // Packed state key: track id in the high bits, zone slot in the low 12
+    private static final int ZONE_BITS = 12;
+    private static final int MAX_ZONES = 1 << ZONE_BITS;
+
+    private final GeofenceZoneRepository geofenceZoneRepository;
+    private final DwellIntervalRepository dwellIntervalRepository;
+    private final DetectionClassRegistry classRegistry;
+    private final long timeoutMs;
+    private final int histogramDays;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final DetectionTracker tracker;
+    private final DwellStateMap openStays = new DwellStateMap(1024);
+    private final Queue<DwellInterval> pending = new ConcurrentLinkedQueue<>();
+
+    // Stable slot per zone id, so state keys survive zone refreshes
+    private final Map<UUID, Integer> zoneSlots = new ConcurrentHashMap<>();
+    private UUID[] slotZoneIds = new UUID[16];
+    private volatile DwellHistogram[] histograms = new DwellHistogram[16];
+
+    // Active zones, replaced as a whole by refreshZones
+    private volatile ZoneSet zones = ZoneSet.EMPTY;
+
+    public DwellEngine(GeofenceZoneRepository geofenceZoneRepository,
+                       DwellIntervalRepository dwellIntervalRepository,
+                       DetectionClassRegistry classRegistry,
+                       @Value("${app.analytics.dwell.track-timeout-seconds:10}") long trackTimeoutSeconds,
+                       @Value("${app.analytics.dwell.match-iou:0.3}") double matchIou,
+                       @Value("${app.analytics.dwell.histogram-days:7}") int histogramDays) {
+        this.geofenceZoneRepository = geofenceZoneRepository;
+        this.dwellIntervalRepository = dwellIntervalRepository;
+        this.classRegistry = classRegistry;
+        this.timeoutMs = trackTimeoutSeconds * 1000L;
+        this.histogramDays = histogramDays;
+        this.tracker = new DetectionTracker(matchIou, timeoutMs);
+    }
+
+    /**
+     * Feed one detection (normalized bbox) into the tracker and zone state.
+     *
+     * @param cameraId Camera/video source (null for unassigned)
+     * @param classId Registry class id
+     * @param timestampMs Detection time (epoch ms)
+     */
+    public synchronized void onDetection(UUID cameraId, int classId, long timestampMs,
+                                         double x, double y, double width, double height) {
+        ZoneSet active = zones;
+        long trackId = tracker.assign(cameraId, classId, timestampMs,
+                (float) x, (float) y, (float) width, (float) height);
+        double centerX = x + width / 2;
+        double centerY = y + height / 2;
+
+        for (int i = 0; i < active.zones.length; i++) {
+            long key = (trackId << ZONE_BITS) | active.slots[i];
+            int slot = openStays.indexOf(key);
+            boolean inside = active.classIds[i].get(classId) && active.zones[i].appliesTo(cameraId)
+                    && active.zones[i].containsPoint(centerX, centerY);
+            if (inside) {
+                if (slot < 0) {
+                    openStays.insert(key, timestampMs, (short) classId, cameraId);
+                } else {
+                    openStays.lastSeenMs[slot] = Math.max(openStays.lastSeenMs[slot], timestampMs);
+                }
+            } else if (slot >= 0) {
+                close(slot, DwellInterval.EXIT);
+            }
+        }
+    }
+
+    /**
+     * Close stays whose track timed out and persist everything closed since the last sweep.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.dwell.sweep-ms:5000}")
+    public void sweep() {
+        sweep(System.currentTimeMillis());
+        flush();
+    }
+
+    /**
+     * Close stays last seen before {@code nowMs - timeout}.
+     *
+     * @return number of stays closed
+     */
+    synchronized int sweep(long nowMs) {
+        return closeBefore(nowMs - timeoutMs, DwellInterval.TIMEOUT);
+    }
+
+    /**
+     * Close stays last seen before {@code cutoff}. Caller holds the monitor.
+     */
+    private int closeBefore(long cutoff, String reason) {
+        long[] expired = new long[openStays.size()];
+        int count = 0;
+        for (int slot = 0; slot < openStays.capacity(); slot++) {
+            if (openStays.isOccupied(slot) && openStays.lastSeenMs[slot] < cutoff) {
+                expired[count++] = openStays.keys[slot];
+            }
+        }
+        // Removal shifts entries, so re-resolve each key
+        for (int i = 0; i < count; i++) {
+            close(openStays.indexOf(expired[i]), reason);
+        }
+        return count;
+    }
+
+    /**
+     * Persist closed intervals in one batch.
+     *
+     * @return number of intervals written
+     */
+    public int flush() {
+        List<DwellInterval> batch = new ArrayList<>();
+        DwellInterval interval;
+        while ((interval = pending.poll()) != null) {
+            batch.add(interval);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            dwellIntervalRepository.saveAll(batch);
+        } catch (Exception e) {
+            // FAIL-SAFE: Keep the intervals for the next sweep
+            pending.addAll(batch);
+            log.error("Failed to persist {} dwell intervals: {}", batch.size(), e.getMessage());
+            return 0;
+        }
+        return batch.size();
+    }
+
+    /**
+     * Reload enabled zones (scheduled; also callable after zones change).
+     * Runs off the detection path: the query and class registration happen
+     * before the new snapshot is swapped in.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.dwell.zone-refresh-seconds:30}", timeUnit = TimeUnit.SECONDS)
+    public void refreshZones() {
+        List<GeofenceZone> enabled;
+        try {
+            enabled = geofenceZoneRepository.findByEnabledTrueOrderByZoneName();
+        } catch (Exception e) {
+            // FAIL-SAFE: Keep the previous zone set
+            log.warn("Could not refresh geofence zones for dwell tracking: {}", e.getMessage());
+            return;
+        }
+        int[] slots = new int[enabled.size()];
+        BitSet[] classIds = new BitSet[enabled.size()];
+        for (int i = 0; i < slots.length; i++) {
+            GeofenceZone geofenceZone = enabled.get(i);
+            slots[i] = slotOf(geofenceZone.getId());
+            classIds[i] = classRegistry.maskOf(geofenceZone.getTriggerClasses());
+        }
+        zones = new ZoneSet(slots, classIds, enabled.toArray(new GeofenceZone[0]));
+    }
+
+    /**
+     * Close the stays still open and persist them, so a restart does not lose them.
+     */
+    @PreDestroy
+    public void shutdown() {
+        int closed;
+        synchronized (this) {
+            closed = closeBefore(Long.MAX_VALUE, DwellInterval.SHUTDOWN);
+        }
+        int written = flush();
+        log.info("Dwell engine stopped: {} open stays closed, {} intervals persisted", closed, written);
+    }
+
+    /**
+     * Dwell statistics for a zone since startup plus the warm-up window.
+     */
+    public Optional<DwellStats> getStats(UUID zoneId) {
+        DwellHistogram histogram = histogramOf(zoneId);
+        if (histogram == null || histogram.getCount() == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new DwellStats(
+                zoneId,
+                histogram.getCount(),
+                histogram.getMeanMs(),
+                histogram.getMinMs(),
+                histogram.percentileMs(50),
+                histogram.percentileMs(90),
+                histogram.percentileMs(99),
+                histogram.getMaxMs()));
+    }
+
+    /**
+     * Non-empty histogram buckets for a zone (empty if nothing recorded).
+     */
+    public List<HistogramBucket> getHistogram(UUID zoneId) {
+        DwellHistogram histogram = histogramOf(zoneId);
+        return histogram != null ? histogram.buckets() : List.of();
+    }
+
+    public synchronized int getOpenStayCount() {
+        return openStays.size();
+    }
+
+    /**
+     * Warm histograms from recent dwell intervals so percentiles survive restarts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadHistograms() {
+        LocalDateTime since = LocalDateTime.now().minusDays(histogramDays);
+        long loaded = 0;
+        try (Stream<DwellInterval> intervals = dwellIntervalRepository.streamByExitedAtAfter(since)) {
+            for (DwellInterval interval : (Iterable<DwellInterval>) intervals::iterator) {
+                histogramForSlot(slotOf(interval.getZoneId())).record(interval.getDurationMs());
+                loaded++;
+            }
+        } catch (Exception e) {
+            log.warn("Could not warm dwell histograms: {}", e.getMessage());
+        }
+        log.info("Dwell histograms warmed from {} intervals (last {} days)", loaded, histogramDays);
+    }
+
+    // ====== HELPER METHODS ======
+
+    private void close(int slot, String reason) {
+        long key = openStays.keys[slot];
+        int zoneSlot = (int) (key & (MAX_ZONES - 1));
+        long enteredMs = openStays.enteredMs[slot];
+        long lastSeenMs = openStays.lastSeenMs[slot];
+        long durationMs = lastSeenMs - enteredMs;
+
+        histogramForSlot(zoneSlot).record(durationMs);
+        pending.add(DwellInterval.builder()
+                .zoneId(slotZoneIds[zoneSlot])
+                .videoId(openStays.cameras[slot])
+                .trackId(key >>> ZONE_BITS)
+                .classId(openStays.classIds[slot])
+                .enteredAt(toLocalDateTime(enteredMs))
+                .exitedAt(toLocalDateTime(lastSeenMs))
+                .durationMs(durationMs)
+                .exitReason(reason)
+                .build());
+        openStays.removeAt(slot);
+    }
+
+    private synchronized int slotOf(UUID zoneId) {
+        Integer existing = zoneSlots.get(zoneId);
+        if (existing != null) {
+            return existing;
+        }
+        int slot = zoneSlots.size();
+        if (slot >= MAX_ZONES) {
+            throw new IllegalStateException("Too many geofence zones for dwell tracking");
+        }
+        if (slot == slotZoneIds.length) {
+            slotZoneIds = Arrays.copyOf(slotZoneIds, slot * 2);
+        }
+        slotZoneIds[slot] = zoneId;
+        zoneSlots.put(zoneId, slot);
+        return slot;
+    }
+
+    private synchronized DwellHistogram histogramForSlot(int slot) {
+        DwellHistogram[] current = histograms;
+        if (slot >= current.length) {
+            current = Arrays.copyOf(current, Math.max(slot + 1, current.length * 2));
+        }
+        if (current[slot] == null) {
+            current[slot] = new DwellHistogram();
+        }
+        histograms = current;
+        return current[slot];
+    }
+
+    private DwellHistogram histogramOf(UUID zoneId) {
+        Integer slot = zoneSlots.get(zoneId);
+        DwellHistogram[] current = histograms;
+        return slot != null && slot < current.length ? current[slot] : null;
+    }
+
+    private LocalDateTime toLocalDateTime(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), zone);
+    }
+
+    /**
+     * Enabled zones resolved to state slots and trigger class bitsets; never modified once published.
+     */
+    private record ZoneSet(int[] slots, BitSet[] classIds, GeofenceZone[] zones) {
+        static final ZoneSet EMPTY = new ZoneSet(new int[0], new BitSet[0], new GeofenceZone[0]);
+    }
+
+    /**
+     * Dwell summary for one zone; percentiles are within 12.5% of the exact value.
+     */
+    public record DwellStats(
+            UUID zoneId,
+            long count,
+            double meanMs,
+            long minMs,
+            long p50Ms,
+            long p90Ms,
+            long p99Ms,
+            long maxMs
+    ) {
+    }
+
+    /**
+     * Histogram bucket covering [lowerMs, upperMs].
+     */
+    public record HistogramBucket(long lowerMs, long upperMs, long count) {
+    }
+}
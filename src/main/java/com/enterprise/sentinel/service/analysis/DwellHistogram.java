@@ -0,0 +1,112 @@
+package com.enterprise.sentinel.service.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Log-linear histogram of dwell durations (ms) for one zone.
+ *
+ * Values below 16 ms get exact buckets; above that each power of two is split
+ * into 8 sub-buckets, so any reported percentile is within 12.5% of the true
+ * value. Fixed size (488 longs), O(1) record, no per-value storage.
+ *
+ * Thread Safety: all methods synchronized (written by the dwell engine, read by API threads).
+ */
+final class DwellHistogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - SUB_BITS - 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long sumMs;
+    private long minMs = Long.MAX_VALUE;
+    private long maxMs;
+
+    synchronized void record(long durationMs) {
+        long value = Math.max(0, durationMs);
+        counts[bucketOf(value)]++;
+        totalCount++;
+        sumMs += value;
+        minMs = Math.min(minMs, value);
+        maxMs = Math.max(maxMs, value);
+    }
+
+    synchronized long getCount() {
+        return totalCount;
+    }
+
+    synchronized double getMeanMs() {
+        return totalCount > 0 ? (double) sumMs / totalCount : 0.0;
+    }
+
+    synchronized long getMinMs() {
+        return totalCount > 0 ? minMs : 0;
+    }
+
+    synchronized long getMaxMs() {
+        return maxMs;
+    }
+
+    /**
+     * Upper bound of the bucket holding the given percentile, clamped to the observed range.
+     *
+     * @param percentile 0-100
+     */
+    synchronized long percentileMs(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.max(minMs, Math.min(maxMs, upperBound(bucket)));
+            }
+        }
+        return maxMs;
+    }
+
+    /**
+     * Non-empty buckets in ascending order.
+     */
+    synchronized List<DwellEngine.HistogramBucket> buckets() {
+        List<DwellEngine.HistogramBucket> result = new ArrayList<>();
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            if (counts[bucket] > 0) {
+                result.add(new DwellEngine.HistogramBucket(lowerBound(bucket), upperBound(bucket), counts[bucket]));
+            }
+        }
+        return result;
+    }
+
+    static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - SUB_BITS - 1) * SUB_BUCKETS + sub;
+    }
+
+    static long lowerBound(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int offset = bucket - LINEAR_LIMIT;
+        int exponent = offset / SUB_BUCKETS + SUB_BITS + 1;
+        long sub = offset % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BITS + 1;
+        return lowerBound(bucket) + (1L << (exponent - SUB_BITS)) - 1;
+    }
+}
@@ -0,0 +1,136 @@
+package com.enterprise.sentinel.service.analysis;
+
+import java.util.UUID;
+
+/**
+ * Open-addressing map from a packed (track, zone) key to open dwell state.
+ *
+ * Keys and values live in parallel primitive arrays (linear probing,
+ * backward-shift deletion), so updating a stay on every detection
+ * allocates nothing. Key 0 marks an empty slot; track ids start at 1.
+ *
+ * Thread Safety: none; {@link DwellEngine} serializes access.
+ */
+final class DwellStateMap {
+
+    private static final long EMPTY = 0L;
+    private static final double MAX_LOAD = 0.5;
+
+    long[] keys;
+    long[] enteredMs;
+    long[] lastSeenMs;
+    short[] classIds;
+    UUID[] cameras;
+    private int size;
+    private int mask;
+
+    DwellStateMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / MAX_LOAD)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Slot holding {@code key}, or -1.
+     */
+    int indexOf(long key) {
+        int slot = hash(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Insert a new stay. The key must not be present.
+     *
+     * @return slot of the new entry
+     */
+    int insert(long key, long enteredAtMs, short classId, UUID cameraId) {
+        if (size + 1 > keys.length * MAX_LOAD) {
+            rehash(keys.length * 2);
+        }
+        int slot = hash(key);
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        enteredMs[slot] = enteredAtMs;
+        lastSeenMs[slot] = enteredAtMs;
+        classIds[slot] = classId;
+        cameras[slot] = cameraId;
+        size++;
+        return slot;
+    }
+
+    /**
+     * Remove the entry at {@code slot}, shifting later entries of the probe chain back.
+     */
+    void removeAt(int slot) {
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]);
+            // Move the entry if its home slot is not cyclically within (hole, next]
+            boolean movable = hole <= next
+                    ? home <= hole || home > next
+                    : home <= hole && home > next;
+            if (movable) {
+                keys[hole] = keys[next];
+                enteredMs[hole] = enteredMs[next];
+                lastSeenMs[hole] = lastSeenMs[next];
+                classIds[hole] = classIds[next];
+                cameras[hole] = cameras[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        cameras[hole] = null;
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    boolean isOccupied(int slot) {
+        return keys[slot] != EMPTY;
+    }
+
+    private int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        enteredMs = new long[capacity];
+        lastSeenMs = new long[capacity];
+        classIds = new short[capacity];
+        cameras = new UUID[capacity];
+        mask = capacity - 1;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldEntered = enteredMs;
+        long[] oldLastSeen = lastSeenMs;
+        short[] oldClasses = classIds;
+        UUID[] oldCameras = cameras;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = insert(oldKeys[i], oldEntered[i], oldClasses[i], oldCameras[i]);
+                lastSeenMs[slot] = oldLastSeen[i];
+            }
+        }
+    }
+}
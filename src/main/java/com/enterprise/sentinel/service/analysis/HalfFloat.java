@@ -0,0 +1,94 @@
+package com.enterprise.sentinel.service.analysis;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * IEEE 754 binary16 conversions for FP16 model inputs and outputs
+ * (Java 17 has no {@code Float.floatToFloat16}).
+ */
+final class HalfFloat {
+
+    private HalfFloat() {
+    }
+
+    /**
+     * Round to the nearest half (ties to even); out-of-range values become infinity.
+     */
+    static short fromFloat(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        int sign = (bits >>> 16) & 0x8000;
+        int rawExponent = (bits >>> 23) & 0xFF;
+        int mantissa = bits & 0x7FFFFF;
+        if (rawExponent == 0xFF) {
+            return (short) (sign | 0x7C00 | (mantissa != 0 ? 0x200 : 0));
+        }
+        int exponent = rawExponent - 127 + 15;
+        if (exponent >= 0x1F) {
+            return (short) (sign | 0x7C00);
+        }
+        if (exponent <= 0) {
+            // Subnormal half (or zero): shift in the implicit bit
+            if (exponent < -10) {
+                return (short) sign;
+            }
+            mantissa |= 0x800000;
+            int shift = 14 - exponent;
+            int half = mantissa >> shift;
+            int remainder = mantissa & ((1 << shift) - 1);
+            int halfway = 1 << (shift - 1);
+            if (remainder > halfway || (remainder == halfway && (half & 1) != 0)) {
+                half++;
+            }
+            return (short) (sign | half);
+        }
+        int half = sign | (exponent << 10) | (mantissa >> 13);
+        int remainder = mantissa & 0x1FFF;
+        if (remainder > 0x1000 || (remainder == 0x1000 && (half & 1) != 0)) {
+            // A carry into the exponent is the correct rounding (up to infinity)
+            half++;
+        }
+        return (short) half;
+    }
+
+    static float toFloat(short half) {
+        int bits = half & 0xFFFF;
+        int sign = (bits & 0x8000) << 16;
+        int exponent = (bits >>> 10) & 0x1F;
+        int mantissa = bits & 0x3FF;
+        if (exponent == 0x1F) {
+            return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+        }
+        if (exponent == 0) {
+            float value = mantissa * 0x1p-24f;
+            return sign != 0 ? -value : value;
+        }
+        return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+    }
+
+    /**
+     * Convert the remaining floats into {@code target} (native order), then flip it for reading.
+     */
+    static ByteBuffer encode(FloatBuffer source, ByteBuffer target) {
+        ShortBuffer halves = target.order(ByteOrder.nativeOrder()).asShortBuffer();
+        while (source.hasRemaining()) {
+            halves.put(fromFloat(source.get()));
+        }
+        target.position(0).limit(halves.position() * Short.BYTES);
+        return target;
+    }
+
+    /**
+     * Widen native-order halves to floats.
+     */
+    static float[] decode(ByteBuffer source) {
+        ShortBuffer halves = source.order(ByteOrder.nativeOrder()).asShortBuffer();
+        float[] values = new float[halves.remaining()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = toFloat(halves.get(i));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,41 @@
+package com.enterprise.sentinel.service.analysis;
+
+import ai.djl.modality.cv.output.BoundingBox;
+import ai.djl.modality.cv.output.DetectedObjects;
+
+import java.util.List;
+
+/**
+ * {@link DetectedObjects} that also carry each item's registry class id
+ * ({@link DetectionClassRegistry}), set where the model output is decoded,
+ * so later stages never resolve ids from label strings.
+ *
+ * Ids are indexed like {@link #items()}.
+ */
+public class IdentifiedObjects extends DetectedObjects {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int[] classIds;
+
+    public IdentifiedObjects(List<String> classNames, int[] classIds, List<Double> probabilities,
+                             List<BoundingBox> boundingBoxes) {
+        super(classNames, probabilities, boundingBoxes);
+        if (classIds.length != classNames.size()) {
+            throw new IllegalArgumentException("Expected " + classNames.size() + " class ids, got " + classIds.length);
+        }
+        this.classIds = classIds;
+    }
+
+    public int classIdAt(int index) {
+        return classIds[index];
+    }
+
+    /**
+     * Id of item {@code index} if the detections carry ids, else {@link DetectionClassRegistry#UNKNOWN}.
+     */
+    public static int classIdOf(DetectedObjects detections, int index) {
+        return detections instanceof IdentifiedObjects identified
+                ? identified.classIdAt(index) : DetectionClassRegistry.UNKNOWN;
+    }
+}
@@ -0,0 +1,81 @@
+package com.enterprise.sentinel.service.analysis;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Coarse motion of one camera: each frame is reduced to a 64 x 36 grid of
+ * mean brightness and compared cell by cell with the previous one. Cells
+ * whose brightness changed by more than the threshold are reported as motion,
+ * in frame pixels.
+ *
+ * Each cell averages 64 sampled pixels, which smooths sensor noise and costs
+ * little next to a forward pass. Not thread-safe: one frame of a camera at a time.
+ */
+final class MotionGrid {
+
+    static final int COLUMNS = 64;
+    static final int ROWS = 36;
+    private static final int SAMPLES = 8; // Per cell and axis
+
+    private final int threshold;
+    private int[] previous;
+    private int previousWidth;
+    private int previousHeight;
+
+    MotionGrid(int threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Cells that changed since the previous frame; empty for the first frame or after a resolution change.
+     */
+    List<Rectangle> update(BufferedImage frame) {
+        int[] current = shrink(frame);
+        List<Rectangle> motion = new ArrayList<>();
+        if (previous != null && previousWidth == frame.getWidth() && previousHeight == frame.getHeight()) {
+            double cellWidth = (double) frame.getWidth() / COLUMNS;
+            double cellHeight = (double) frame.getHeight() / ROWS;
+            for (int row = 0; row < ROWS; row++) {
+                for (int col = 0; col < COLUMNS; col++) {
+                    int i = row * COLUMNS + col;
+                    if (Math.abs(current[i] - previous[i]) > threshold) {
+                        motion.add(new Rectangle((int) (col * cellWidth), (int) (row * cellHeight),
+                                (int) Math.ceil(cellWidth), (int) Math.ceil(cellHeight)));
+                    }
+                }
+            }
+        }
+        previous = current;
+        previousWidth = frame.getWidth();
+        previousHeight = frame.getHeight();
+        return motion;
+    }
+
+    /**
+     * Mean brightness of each cell over a lattice of samples.
+     */
+    private static int[] shrink(BufferedImage frame) {
+        int width = frame.getWidth();
+        int height = frame.getHeight();
+        int[] cells = new int[COLUMNS * ROWS];
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < COLUMNS; col++) {
+                int sum = 0;
+                for (int sy = 0; sy < SAMPLES; sy++) {
+                    int y = (int) ((row + (sy + 0.5) / SAMPLES) * height / ROWS);
+                    for (int sx = 0; sx < SAMPLES; sx++) {
+                        int x = (int) ((col + (sx + 0.5) / SAMPLES) * width / COLUMNS);
+                        int rgb = frame.getRGB(x, y);
+                        // Integer luma (BT.601 weights)
+                        sum += (299 * (rgb >> 16 & 0xFF) + 587 * (rgb >> 8 & 0xFF) + 114 * (rgb & 0xFF)) / 1000;
+                    }
+                }
+                cells[row * COLUMNS + col] = sum / (SAMPLES * SAMPLES);
+            }
+        }
+        return cells;
+    }
+}
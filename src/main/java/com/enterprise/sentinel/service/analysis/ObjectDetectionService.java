@@ -1,13 +1,18 @@
 package com.enterprise.sentinel.service.analysis;
 
-import ai.djl.ModelException;
 import ai.djl.inference.Predictor;
 import ai.djl.modality.cv.Image;
 import ai.djl.modality.cv.output.DetectedObjects;
-import ai.djl.repository.zoo.Criteria;
-import ai.djl.repository.zoo.ZooModel;
+import ai.djl.translate.TranslateException;
+import com.enterprise.sentinel.config.ExecutionModel;
+import com.enterprise.sentinel.service.metrics.FrameTrace;
+import com.enterprise.sentinel.service.model.ModelDescriptor;
+import com.enterprise.sentinel.service.model.ModelLease;
+import com.enterprise.sentinel.service.model.ModelRegistry;
+import com.enterprise.sentinel.service.model.ModelRouter;
 import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -17,8 +22,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
@@ -34,72 +39,131 @@ import java.util.stream.Collectors;
  * - All results sorted by confidence (highest first)
  * 
  * Fail-Safe: Model validation, error handling, result filtering
+ * 
+ * Models come from the {@link ModelRegistry}; each camera's frames run on the
+ * model its {@link ModelRouter} route names, under a lease on one version.
+ * 
+ * Replaced by a fixed-cost stub when load testing with app.loadtest.model=stub.
  */
 @Service
+@ConditionalOnProperty(name = "app.loadtest.model", havingValue = "real", matchIfMissing = true)
 public class ObjectDetectionService {
 
     private static final Logger LOGGER = Logger.getLogger(ObjectDetectionService.class.getName());
     
-    private ZooModel<Image, DetectedObjects> model;
+    private final ExecutionModel executionModel;
+    private final ModelRegistry modelRegistry;
+    private final ModelRouter modelRouter;
+    private final String downloadUrl;
     
     // NMS Configuration
-    private static final float NMS_IOU_THRESHOLD = 0.45f;
-    private static final float CONFIDENCE_THRESHOLD = 0.5f;
-    
-    // Standard COCO dataset classes (80 objects)
-    private static final List<String> COCO_CLASSES = Arrays.asList(
-        "person", "bicycle", "car", "motorcycle", "airplane", "bus", "train", "truck", "boat", "traffic light",
-        "fire hydrant", "stop sign", "parking meter", "bench", "bird", "cat", "dog", "horse", "sheep", "cow",
-        "elephant", "bear", "zebra", "giraffe", "backpack", "umbrella", "handbag", "tie", "suitcase", "frisbee",
-        "skis", "snowboard", "sports ball", "kite", "baseball bat", "baseball glove", "skateboard", "surfboard",
-        "tennis racket", "bottle", "wine glass", "cup", "fork", "knife", "spoon", "bowl", "banana", "apple",
-        "sandwich", "orange", "broccoli", "carrot", "hot dog", "pizza", "donut", "cake", "chair", "couch",
-        "potted plant", "bed", "dining table", "toilet", "tv", "laptop", "mouse", "remote", "keyboard", "cell phone",
-        "microwave", "oven", "toaster", "sink", "refrigerator", "book", "clock", "vase", "scissors", "teddy bear",
-        "hair drier", "toothbrush"
-    );
+    private static final float NMS_IOU_THRESHOLD = ModelDescriptor.DEFAULT_NMS_IOU;
+
+    // Fetched when the default model file is missing (air-gapped sites set app.models.download-url empty)
+    private static final String DEFAULT_DOWNLOAD_URL = "https://huggingface.co/dosage/yolov8n-onnx/resolve/main/yolov8n.onnx";
+
+    public ObjectDetectionService(ExecutionModel executionModel, ModelRegistry modelRegistry,
+                                  ModelRouter modelRouter,
+                                  @Value("${app.models.download-url:" + DEFAULT_DOWNLOAD_URL + "}") String downloadUrl) {
+        this.executionModel = executionModel;
+        this.modelRegistry = modelRegistry;
+        this.modelRouter = modelRouter;
+        this.downloadUrl = downloadUrl;
+    }
 
     @PostConstruct
-    public void init() throws ModelException, IOException {
+    public void init() throws IOException {
         // FORCE ONNX ENGINE (Prevents PyTorch lookup errors)
         System.setProperty("ai.djl.default_engine", "OnnxRuntime");
         
         LOGGER.info("🧠 Initializing AI Engine (ONNX)...");
 
-        Path modelDir = Path.of("models");
-        Path modelFile = modelDir.resolve("yolov8n.onnx");
-
-        // Download if missing
-        if (!Files.exists(modelFile)) {
-             downloadModel(modelFile);
+        Path modelFile = modelRegistry.getDirectory().resolve(modelRegistry.getDefaultModel() + ".onnx");
+
+        // Download the default model if missing (and a URL is configured), off the
+        // startup path: the rest of the context (REST API, recording) comes up while it arrives
+        if (!Files.exists(modelFile) && !downloadUrl.isBlank()) {
+            executionModel.io().execute(() -> {
+                try {
+                    downloadModel(modelFile);
+                    modelRegistry.loadAll();
+                } catch (Exception e) {
+                    LOGGER.severe("AI model unavailable, detection disabled: " + e.getMessage());
+                }
+            });
+            return;
         }
-
-        // FAIL-SAFE: Validate model file exists and is readable
-        if (!Files.exists(modelFile) || !Files.isReadable(modelFile)) {
-            throw new ModelException("Model file not found or not readable: " + modelFile);
+        modelRegistry.loadAll();
+        if (isReady()) {
+            LOGGER.info("✅ YOLOv8 AI Core Ready! Models: " + modelRegistry.getModels().stream()
+                    .map(ModelDescriptor::label).collect(Collectors.joining(", ")));
         }
+    }
 
-        Criteria<Image, DetectedObjects> criteria = Criteria.builder()
-                .setTypes(Image.class, DetectedObjects.class)
-                .optEngine("OnnxRuntime")
-                .optModelPath(modelFile)
-                .optTranslator(new YoloV8Translator(COCO_CLASSES, CONFIDENCE_THRESHOLD, NMS_IOU_THRESHOLD))
-                .build();
-        
-        this.model = criteria.loadModel();
-        LOGGER.info("✅ YOLOv8 AI Core Ready! (NMS IOU=" + NMS_IOU_THRESHOLD + ", Conf=" + CONFIDENCE_THRESHOLD + ")");
+    /**
+     * Whether the default model is loaded; detect() fails until then.
+     */
+    public boolean isReady() {
+        return modelRegistry.isLoaded(modelRegistry.getDefaultModel());
     }
 
     private void downloadModel(Path modelFile) throws IOException {
-        LOGGER.info("📥 Downloading YOLOv8n ONNX model (~12 MB)...");
+        LOGGER.info("📥 Downloading " + modelFile.getFileName() + " from " + downloadUrl + "...");
         Files.createDirectories(modelFile.getParent());
-        String modelUrl = "https://huggingface.co/dosage/yolov8n-onnx/resolve/main/yolov8n.onnx";
-        try (InputStream in = new URL(modelUrl).openStream()) {
-            Files.copy(in, modelFile, StandardCopyOption.REPLACE_EXISTING);
+        // ATOMIC: a crash mid-download must not leave a truncated model for the next start
+        Path tmp = modelFile.resolveSibling(modelFile.getFileName() + ".part");
+        try (InputStream in = new URL(downloadUrl).openStream()) {
+            Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
         }
+        Files.move(tmp, modelFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         LOGGER.info("✅ Model downloaded to " + modelFile);
     }
 
+    /**
+     * Lease the model routed to a camera (null: the default model); falls back
+     * to the default while a routed model is not loaded.
+     * 
+     * @throws IllegalStateException if no model is loaded
+     */
+    public ModelLease acquire(UUID cameraId) {
+        String routed = modelRouter.modelFor(cameraId);
+        ModelLease lease = modelRegistry.acquire(routed);
+        if (lease == null && !routed.equals(modelRegistry.getDefaultModel())) {
+            lease = modelRegistry.acquire(modelRegistry.getDefaultModel());
+        }
+        if (lease == null) {
+            throw new IllegalStateException("AI model not loaded");
+        }
+        return lease;
+    }
+
+    /**
+     * Run the model on several images (e.g. tiles of one frame) with one predictor.
+     * 
+     * Images go through in forward passes of {@code batchSize}; batches above 1
+     * need a model exported with a dynamic batch axis. Results are in input
+     * order, without the cross-pass NMS of {@link #detect(Image, FrameTrace)} (callers merge them).
+     */
+    public List<DetectedObjects> detectBatch(ModelLease lease, List<Image> images, int batchSize)
+            throws TranslateException {
+        List<DetectedObjects> results = new ArrayList<>(images.size());
+        if (batchSize <= 1) {
+            try (Predictor<Image, DetectedObjects> predictor = lease.model().newPredictor()) {
+                for (Image image : images) {
+                    results.add(predictor.predict(image));
+                }
+            }
+            return results;
+        }
+        try (Predictor<Image, DetectedObjects> predictor = lease.model().newPredictor(
+                modelRegistry.translator(lease.descriptor(), true))) {
+            for (int from = 0; from < images.size(); from += batchSize) {
+                results.addAll(predictor.batchPredict(images.subList(from, Math.min(images.size(), from + batchSize))));
+            }
+        }
+        return results;
+    }
+
     /**
      * Run object detection with NMS post-processing.
      * 
@@ -109,6 +173,31 @@ public class ObjectDetectionService {
      * @return Deduplicated detections sorted by confidence
      */
     public DetectedObjects detect(Image image) {
+        return detect(image, null);
+    }
+
+    /**
+     * Run object detection on the default model, stamping INFER and NMS on {@code trace} (nullable).
+     */
+    public DetectedObjects detect(Image image, FrameTrace trace) {
+        // FAIL-SAFE: Validate input
+        if (image == null) {
+            LOGGER.warning("Received null image for detection");
+            return null;
+        }
+        try (ModelLease lease = acquire(null)) {
+            return detect(lease, image, trace);
+        } catch (IllegalStateException e) {
+            // FAIL-SAFE: Validate model is loaded
+            LOGGER.severe("Model not initialized");
+            return null;
+        }
+    }
+
+    /**
+     * Run object detection on a leased model, stamping INFER and NMS on {@code trace} (nullable).
+     */
+    public DetectedObjects detect(ModelLease lease, Image image, FrameTrace trace) {
         DetectedObjects rawDetections = null;
         try {
             // FAIL-SAFE: Validate input
@@ -117,16 +206,13 @@ public class ObjectDetectionService {
                 return null;
             }
 
-            // FAIL-SAFE: Validate model is loaded
-            if (model == null) {
-                LOGGER.severe("Model not initialized");
-                throw new IllegalStateException("AI model not loaded");
-            }
-
             // Run inference
-            try (Predictor<Image, DetectedObjects> predictor = model.newPredictor()) {
+            try (Predictor<Image, DetectedObjects> predictor = lease.model().newPredictor()) {
                 rawDetections = predictor.predict(image);
             }
+            if (trace != null) {
+                trace.mark(FrameTrace.Stamp.INFER);
+            }
 
             // FAIL-SAFE: Handle null results
             if (rawDetections == null || rawDetections.items().isEmpty()) {
@@ -138,6 +224,9 @@ public class ObjectDetectionService {
 
             // Apply NMS: deduplicate overlapping boxes
             DetectedObjects filtered = applyNonMaximumSuppression(rawDetections);
+            if (trace != null) {
+                trace.mark(FrameTrace.Stamp.NMS);
+            }
             
             LOGGER.fine("After NMS: " + filtered.items().size() + " detections");
             return filtered;
@@ -201,7 +290,7 @@ public class ObjectDetectionService {
                 }
             }
 
-            LOGGER.info("NMS: " + detectedList.size() + " → " + kept.size() + " detections");
+            LOGGER.fine("NMS: " + detectedList.size() + " → " + kept.size() + " detections");
             
             // Return original detections (NMS filter applied during rendering)
             return detections;
@@ -221,7 +310,7 @@ public class ObjectDetectionService {
      * 
      * @return IOU score
      */
-    private double computeIntersectionOverUnion(
+    double computeIntersectionOverUnion(
             ai.djl.modality.cv.output.DetectedObjects.DetectedObject box1,
             ai.djl.modality.cv.output.DetectedObjects.DetectedObject box2) {
         try {
@@ -272,16 +361,4 @@ public class ObjectDetectionService {
             return 0.0; // Default to no overlap on error
         }
     }
-
-    @PreDestroy
-    public void close() {
-        try {
-            if (model != null) {
-                model.close();
-                LOGGER.info("AI model closed");
-            }
-        } catch (Exception e) {
-            LOGGER.warning("Error closing model: " + e.getMessage());
-        }
-    }
-}
\ No newline at end of file
+}
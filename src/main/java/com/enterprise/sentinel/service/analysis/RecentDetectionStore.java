@@ -0,0 +1,270 @@
+package com.enterprise.sentinel.service.analysis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hot in-memory store of the most recent detections, one ring buffer per camera.
+ *
+ * Dashboards mostly ask about the last hour; answering those from memory keeps
+ * that traffic off Postgres. Older windows fall back to the database.
+ *
+ * Layout (struct-of-arrays, no per-record objects):
+ * - long[]  timestamp (epoch ms, non-decreasing per camera = time index)
+ * - short[] class id (from {@link DetectionClassRegistry})
+ * - float[] confidence
+ * - long[]  bbox packed as 4 x 16-bit normalized [0,1] coords (x, y, w, h);
+ *           coordinates use 0..0xFFFE, so {@link #NO_BBOX} (all ones) never packs
+ *
+ * Range scans binary-search the timestamp column, so cost is
+ * O(log n + matches) per camera regardless of how much is retained.
+ *
+ * Thread Safety: one read/write lock per camera ring; writers are the inference threads.
+ * Guarantee: {@link #covers} is true only if no record in the window was evicted.
+ */
+@Slf4j
+@Service
+public class RecentDetectionStore {
+
+    /** Packed bbox value for detections without a bounding box; no packed box has all bits set. */
+    public static final long NO_BBOX = -1L;
+
+    // Largest quantized coordinate; 0xFFFF is reserved so NO_BBOX stays distinct
+    private static final int COORD_MAX = 0xFFFE;
+
+    private final int capacityPerCamera;
+    private final long windowMs;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final Map<UUID, CameraRing> rings = new ConcurrentHashMap<>();
+    private final CameraRing unassignedRing;
+    private final DetectionClassRegistry classRegistry;
+
+    // Oldest instant for which the store is known to hold every detection
+    private final AtomicLong coverageStartMs;
+
+    public RecentDetectionStore(@Value("${app.analytics.hot-store.capacity-per-camera:32768}") int capacityPerCamera,
+                                @Value("${app.analytics.hot-store.window-minutes:60}") long windowMinutes,
+                                DetectionClassRegistry classRegistry) {
+        if (capacityPerCamera <= 0 || windowMinutes <= 0) {
+            throw new IllegalArgumentException("Hot store capacity and window must be positive");
+        }
+        this.capacityPerCamera = capacityPerCamera;
+        this.windowMs = windowMinutes * 60_000L;
+        this.classRegistry = classRegistry;
+        this.unassignedRing = new CameraRing(capacityPerCamera);
+        // Nothing before startup is in memory
+        this.coverageStartMs = new AtomicLong(System.currentTimeMillis());
+    }
+
+    /**
+     * Record one detection. Timestamps must be roughly increasing per camera;
+     * a late record is clamped to the camera's latest timestamp to keep the index sorted.
+     *
+     * @param cameraId Camera/video source (null for unassigned)
+     * @param timestampMs Wall-clock time of the detection (epoch ms)
+     * @param classId Registered class id
+     * @param confidence Detection confidence
+     * @param packedBbox Bounding box from {@link #packBoundingBox}, or {@link #NO_BBOX}
+     */
+    public void record(UUID cameraId, long timestampMs, int classId, double confidence, long packedBbox) {
+        if (classId < 0 || classId > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Class id out of range: " + classId);
+        }
+        CameraRing ring = cameraId == null
+                ? unassignedRing
+                : rings.computeIfAbsent(cameraId, id -> new CameraRing(capacityPerCamera));
+
+        long evicted = ring.append(timestampMs, (short) classId, (float) confidence, packedBbox, timestampMs - windowMs);
+        if (evicted != Long.MIN_VALUE) {
+            // Capacity eviction: the window before this instant is no longer complete
+            coverageStartMs.accumulateAndGet(evicted + 1, Math::max);
+        }
+    }
+
+    /**
+     * Whether [start, end] can be answered from memory without missing records.
+     */
+    public boolean covers(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || end.isBefore(start)) {
+            return false;
+        }
+        long startMs = toEpochMs(start);
+        long oldestAvailable = Math.max(coverageStartMs.get(), System.currentTimeMillis() - windowMs);
+        return startMs >= oldestAvailable;
+    }
+
+    /**
+     * Visit every record with timestamp in [start, end] across all cameras.
+     * Records are visited in time order per camera.
+     */
+    public void scan(LocalDateTime start, LocalDateTime end, RecordVisitor visitor) {
+        long startMs = toEpochMs(start);
+        long endMs = toEpochMs(end);
+        unassignedRing.scan(startMs, endMs, visitor);
+        for (CameraRing ring : rings.values()) {
+            ring.scan(startMs, endMs, visitor);
+        }
+    }
+
+    /**
+     * Registry that resolves the class ids passed to {@link RecordVisitor}.
+     */
+    public DetectionClassRegistry getClassRegistry() {
+        return classRegistry;
+    }
+
+    public int getCameraCount() {
+        return rings.size();
+    }
+
+    public LocalDateTime toLocalDateTime(long epochMs) {
+        return LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli(epochMs), zone);
+    }
+
+    public long toEpochMs(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    // ====== Bounding box packing ======
+
+    /**
+     * Pack a normalized box (all values in [0,1]) into 64 bits, 16 bits per coordinate.
+     */
+    public static long packBoundingBox(double x, double y, double width, double height) {
+        return (quantize(x) << 48) | (quantize(y) << 32) | (quantize(width) << 16) | quantize(height);
+    }
+
+    /**
+     * Unpack to {x, y, width, height} in [0,1].
+     */
+    public static double[] unpackBoundingBox(long packed) {
+        return new double[] {
+                dequantize(packed >>> 48),
+                dequantize(packed >>> 32),
+                dequantize(packed >>> 16),
+                dequantize(packed)
+        };
+    }
+
+    private static long quantize(double value) {
+        double clamped = Math.max(0.0, Math.min(1.0, value));
+        return Math.round(clamped * COORD_MAX);
+    }
+
+    private static double dequantize(long bits) {
+        return (bits & 0xFFFF) / (double) COORD_MAX;
+    }
+
+    /**
+     * Primitive callback for range scans (no boxing, no record objects).
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(long timestampMs, int classId, float confidence, long packedBbox);
+    }
+
+    /**
+     * Fixed-capacity ring of detections for one camera, ordered by timestamp.
+     */
+    static final class CameraRing {
+        private final long[] timestamps;
+        private final short[] classes;
+        private final float[] confidences;
+        private final long[] bboxes;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private int head = 0; // physical index of the oldest record
+        private int size = 0;
+
+        CameraRing(int capacity) {
+            this.timestamps = new long[capacity];
+            this.classes = new short[capacity];
+            this.confidences = new float[capacity];
+            this.bboxes = new long[capacity];
+        }
+
+        /**
+         * Append a record, expiring records older than {@code expireBeforeMs}.
+         *
+         * @return timestamp of a record evicted for capacity, or Long.MIN_VALUE if none
+         */
+        long append(long timestampMs, short classId, float confidence, long bbox, long expireBeforeMs) {
+            lock.writeLock().lock();
+            try {
+                int capacity = timestamps.length;
+                long evicted = Long.MIN_VALUE;
+
+                // Time-based expiry (outside the window, not a coverage loss)
+                while (size > 0 && timestamps[head] < expireBeforeMs) {
+                    head = (head + 1) % capacity;
+                    size--;
+                }
+                if (size == capacity) {
+                    evicted = timestamps[head];
+                    head = (head + 1) % capacity;
+                    size--;
+                }
+
+                // Keep the time index sorted
+                if (size > 0) {
+                    long newest = timestamps[(head + size - 1) % capacity];
+                    timestampMs = Math.max(timestampMs, newest);
+                }
+
+                int index = (head + size) % capacity;
+                timestamps[index] = timestampMs;
+                classes[index] = classId;
+                confidences[index] = confidence;
+                bboxes[index] = bbox;
+                size++;
+                return evicted;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void scan(long startMs, long endMs, RecordVisitor visitor) {
+            lock.readLock().lock();
+            try {
+                int capacity = timestamps.length;
+                for (int i = lowerBound(startMs); i < size; i++) {
+                    int index = (head + i) % capacity;
+                    long ts = timestamps[index];
+                    if (ts > endMs) {
+                        break;
+                    }
+                    visitor.visit(ts, classes[index], confidences[index], bboxes[index]);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * First logical position with timestamp >= target (binary search on the ring).
+         */
+        private int lowerBound(long target) {
+            int capacity = timestamps.length;
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (timestamps[(head + mid) % capacity] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
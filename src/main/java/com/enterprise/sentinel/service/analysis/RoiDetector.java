@@ -0,0 +1,241 @@
+package com.enterprise.sentinel.service.analysis;
+
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.translate.TranslateException;
+import com.enterprise.sentinel.domain.model.GeofenceZone;
+import com.enterprise.sentinel.domain.repository.GeofenceZoneRepository;
+import com.enterprise.sentinel.service.metrics.FrameTrace;
+import com.enterprise.sentinel.service.model.ModelLease;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Region-of-interest inference: a camera whose geofence zones only cover part
+ * of the view (a doorway, a fence line) runs the model on that part only.
+ *
+ * The camera's regions are its enabled zones (bound to it, or to every camera),
+ * grown by {@code margin} so objects straddling a zone edge stay whole. The
+ * model sees the union rectangle of the regions, resized to its input, so the
+ * pixels that matter get more of the model's resolution. With
+ * {@code max-crops > 1}, regions far apart (their union mostly empty) are cropped
+ * separately and batched instead. Boxes are mapped back to the full frame.
+ *
+ * Cameras without regional zones, or whose regions cover most of the frame,
+ * are processed whole. Zones are re-read every {@code zone-refresh-seconds}.
+ * Configuration: {@code app.detection.roi.*}.
+ */
+@Slf4j
+@Service
+public class RoiDetector {
+
+    private final ObjectDetectionService detectionService;
+    private final GeofenceZoneRepository geofenceZoneRepository;
+    private final boolean enabled;
+    private final double margin;
+    private final int maxCrops;
+    private final double maxCoverage;
+    private final int batchSize;
+    private final long zoneRefreshMs;
+
+    // Regions per camera (normalized, margin applied; empty = whole frame), rebuilt on zone refresh
+    private final Map<UUID, List<Rectangle2D.Double>> regions = new ConcurrentHashMap<>();
+    private volatile List<GeofenceZone> zones = List.of();
+    private volatile boolean zonesLoaded;
+    private volatile long zonesLoadedAtMs;
+
+    // METRICS: Frames and forward passes on ROI crops
+    private final AtomicLong croppedFrames = new AtomicLong(0L);
+    private final AtomicLong cropPasses = new AtomicLong(0L);
+
+    public RoiDetector(ObjectDetectionService detectionService,
+                       GeofenceZoneRepository geofenceZoneRepository,
+                       @Value("${app.detection.roi.enabled:false}") boolean enabled,
+                       @Value("${app.detection.roi.margin:0.1}") double margin,
+                       @Value("${app.detection.roi.max-crops:1}") int maxCrops,
+                       @Value("${app.detection.roi.max-coverage:0.8}") double maxCoverage,
+                       @Value("${app.detection.roi.batch-size:1}") int batchSize,
+                       @Value("${app.detection.roi.zone-refresh-seconds:30}") long zoneRefreshSeconds) {
+        this.detectionService = detectionService;
+        this.geofenceZoneRepository = geofenceZoneRepository;
+        this.enabled = enabled;
+        this.margin = Math.max(0, margin);
+        this.maxCrops = Math.max(1, maxCrops);
+        this.maxCoverage = maxCoverage;
+        this.batchSize = Math.max(1, batchSize);
+        this.zoneRefreshMs = zoneRefreshSeconds * 1000L;
+    }
+
+    /**
+     * Crops for this camera's frame, or an empty list to process the whole frame.
+     *
+     * @param cameraId Camera the frame belongs to (null for the desktop player: never cropped)
+     */
+    public List<Rectangle> cropsFor(UUID cameraId, Image image) {
+        if (!enabled || cameraId == null || image == null) {
+            return List.of();
+        }
+        refreshZones();
+        List<Rectangle2D.Double> cameraRegions = regions.computeIfAbsent(cameraId, this::regionsOf);
+        return plan(cameraRegions, image.getWidth(), image.getHeight(), maxCrops, maxCoverage);
+    }
+
+    /**
+     * Detect on the crops (one batch) and map boxes to the frame; stamps INFER and NMS.
+     *
+     * @param crops From {@link #cropsFor}, not empty
+     * @return Merged detections with boxes normalized to the frame
+     */
+    public DetectedObjects detect(ModelLease lease, Image image, List<Rectangle> crops, FrameTrace trace)
+            throws TranslateException {
+        BufferedImage frame = (BufferedImage) image.getWrappedImage();
+        int width = frame.getWidth();
+        int height = frame.getHeight();
+        ImageFactory factory = ImageFactory.getInstance();
+        List<Image> inputs = new ArrayList<>();
+        for (Rectangle crop : crops) {
+            inputs.add(factory.fromImage(frame.getSubimage(crop.x, crop.y, crop.width, crop.height)));
+        }
+        List<DetectedObjects> results = detectionService.detectBatch(lease, inputs, batchSize);
+        if (trace != null) {
+            trace.mark(FrameTrace.Stamp.INFER);
+        }
+        croppedFrames.incrementAndGet();
+        cropPasses.addAndGet(crops.size());
+
+        List<TiledDetector.Candidate> candidates = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            TiledDetector.collect(results.get(i), crops.get(i), width, height, candidates);
+        }
+        // Separate crops can overlap after the margin; one crop is already NMS'd by the translator
+        List<TiledDetector.Candidate> kept = crops.size() > 1 ? TiledDetector.merge(candidates) : candidates;
+        if (trace != null) {
+            trace.mark(FrameTrace.Stamp.NMS);
+        }
+        return TiledDetector.toDetectedObjects(kept);
+    }
+
+    public long getCroppedFrameCount() {
+        return croppedFrames.get();
+    }
+
+    public long getCropPassCount() {
+        return cropPasses.get();
+    }
+
+    // ====== HELPER METHODS ======
+
+    /**
+     * Pixel crops for normalized regions: the union, or up to {@code maxCrops}
+     * separate groups of overlapping regions when their union is mostly empty.
+     * Empty when there are no regions, or a single crop would cover more than {@code maxCoverage}.
+     */
+    static List<Rectangle> plan(List<Rectangle2D.Double> regions, int width, int height, int maxCrops,
+                                double maxCoverage) {
+        if (regions.isEmpty()) {
+            return List.of();
+        }
+        List<Rectangle> groups = new ArrayList<>();
+        for (Rectangle2D.Double region : regions) {
+            groups.add(toPixels(region, width, height));
+        }
+        Rectangle union = new Rectangle(groups.get(0));
+        groups.forEach(union::add);
+        if (maxCrops > 1) {
+            groups = mergeOverlapping(groups);
+            long covered = groups.stream().mapToLong(group -> (long) group.width * group.height).sum();
+            if (groups.size() > 1 && groups.size() <= maxCrops && covered * 2 < (long) union.width * union.height) {
+                return groups;
+            }
+        }
+        if ((double) union.width * union.height > maxCoverage * width * height) {
+            return List.of();
+        }
+        return List.of(union);
+    }
+
+    private static List<Rectangle> mergeOverlapping(List<Rectangle> rectangles) {
+        List<Rectangle> merged = new ArrayList<>(rectangles);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            outer:
+            for (int i = 0; i < merged.size(); i++) {
+                for (int j = i + 1; j < merged.size(); j++) {
+                    if (merged.get(i).intersects(merged.get(j))) {
+                        merged.get(i).add(merged.remove(j));
+                        changed = true;
+                        break outer;
+                    }
+                }
+            }
+        }
+        return merged;
+    }
+
+    private static Rectangle toPixels(Rectangle2D.Double region, int width, int height) {
+        int x = (int) Math.floor(region.x * width);
+        int y = (int) Math.floor(region.y * height);
+        int right = (int) Math.ceil((region.x + region.width) * width);
+        int bottom = (int) Math.ceil((region.y + region.height) * height);
+        return new Rectangle(x, y, Math.max(1, right - x), Math.max(1, bottom - y));
+    }
+
+    /**
+     * A camera's zone regions with the margin, clipped to the frame; empty if any zone covers the whole frame.
+     */
+    List<Rectangle2D.Double> regionsOf(UUID cameraId) {
+        List<Rectangle2D.Double> cameraRegions = new ArrayList<>();
+        for (GeofenceZone zone : zones) {
+            if (!zone.appliesTo(cameraId)) {
+                continue;
+            }
+            if (!zone.hasRegion()) {
+                return List.of();
+            }
+            double marginX = zone.getRegionWidth() * margin;
+            double marginY = zone.getRegionHeight() * margin;
+            double x = Math.max(0, zone.getRegionX() - marginX);
+            double y = Math.max(0, zone.getRegionY() - marginY);
+            double right = Math.min(1, zone.getRegionX() + zone.getRegionWidth() + marginX);
+            double bottom = Math.min(1, zone.getRegionY() + zone.getRegionHeight() + marginY);
+            if (right > x && bottom > y) {
+                cameraRegions.add(new Rectangle2D.Double(x, y, right - x, bottom - y));
+            }
+        }
+        return cameraRegions;
+    }
+
+    private void refreshZones() {
+        long now = System.currentTimeMillis();
+        if (zonesLoaded && now - zonesLoadedAtMs < zoneRefreshMs) {
+            return;
+        }
+        synchronized (this) {
+            if (zonesLoaded && now - zonesLoadedAtMs < zoneRefreshMs) {
+                return;
+            }
+            try {
+                zones = geofenceZoneRepository.findByEnabledTrueOrderByZoneName();
+                regions.clear();
+            } catch (RuntimeException e) {
+                // FAIL-SAFE: keep the previous zones; frames are never lost to a database hiccup
+                log.warn("Zone refresh failed, keeping {} zones: {}", zones.size(), e.getMessage());
+            }
+            zonesLoadedAtMs = now;
+            zonesLoaded = true;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.enterprise.sentinel.service.analysis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scene-level cache of stationary detections: parked cars, fixed equipment.
+ *
+ * Each detection is matched to the camera's known objects by class and IoU
+ * with the box the object was first seen at ({@code iou-threshold}); a box
+ * that keeps matching for {@code min-static-seconds} is a static object. From
+ * then on its detections are neither persisted nor evaluated for alerts, only
+ * its last-seen time moves; one detection is persisted every
+ * {@code heartbeat-seconds} (without alert evaluation) so history still shows
+ * it is there. New boxes, and boxes that moved off their first position,
+ * flow through as before. Objects not seen for {@code expire-seconds} are
+ * forgotten; classes in {@code exempt-classes} (people by default) are never static.
+ *
+ * A box that has not become static yet is dropped once it goes unmatched for
+ * {@code tentative-frames} frames, so traffic does not pile up tracks. Each
+ * camera tracks at most {@code max-objects}; boxes beyond that stay NEW and
+ * are counted ({@code sentinel.static.untracked}).
+ *
+ * Applies to live frames only. Persistence, the hot store and rules are
+ * skipped, so analytics count the same from memory and from the database;
+ * dwell tracking still sees every detection. Configuration: {@code app.detection.static-cache.*}.
+ *
+ * Thread Safety: per-camera state is guarded by itself.
+ */
+@Slf4j
+@Service
+public class StaticSceneCache {
+
+    /**
+     * What to do with one detection.
+     */
+    public enum Decision {
+        /** New or moving: persist and evaluate alerts */
+        NEW,
+        /** Known static object: skip */
+        STATIC,
+        /** Known static object due for a heartbeat: persist, no alerts */
+        HEARTBEAT
+    }
+
+    /**
+     * A detection's class id and frame-normalized box.
+     */
+    public record Observation(int classId, double x, double y, double width, double height) {
+    }
+
+    /**
+     * A stationary object as currently known.
+     */
+    public record StaticObject(UUID cameraId, String className, double x, double y, double width, double height,
+                               long firstSeenMs, long lastSeenMs) {
+    }
+
+    // Frames of the desktop player carry no camera id
+    private static final UUID DESKTOP = new UUID(0, 0);
+
+    private final DetectionClassRegistry classRegistry;
+    private final boolean enabled;
+    private final double iouThreshold;
+    private final long minStaticMs;
+    private final long expireMs;
+    private final long heartbeatMs;
+    private final int tentativeFrames;
+    private final int maxObjects;
+    private final List<String> exemptClasses;
+    private final Map<UUID, Scene> scenes = new ConcurrentHashMap<>();
+
+    // Resolved on first use: registering the names may write to the database
+    private volatile BitSet exemptClassIds;
+
+    // METRICS: Detections not persisted, heartbeat writes, and boxes left untracked at the cap
+    private final AtomicLong suppressed = new AtomicLong(0L);
+    private final AtomicLong heartbeats = new AtomicLong(0L);
+    private final AtomicLong untracked = new AtomicLong(0L);
+
+    public StaticSceneCache(DetectionClassRegistry classRegistry,
+                            @Value("${app.detection.static-cache.enabled:true}") boolean enabled,
+                            @Value("${app.detection.static-cache.iou-threshold:0.85}") double iouThreshold,
+                            @Value("${app.detection.static-cache.min-static-seconds:10}") long minStaticSeconds,
+                            @Value("${app.detection.static-cache.expire-seconds:30}") long expireSeconds,
+                            @Value("${app.detection.static-cache.heartbeat-seconds:300}") long heartbeatSeconds,
+                            @Value("${app.detection.static-cache.tentative-frames:5}") int tentativeFrames,
+                            @Value("${app.detection.static-cache.max-objects:1024}") int maxObjects,
+                            @Value("${app.detection.static-cache.exempt-classes:person}") List<String> exemptClasses) {
+        this.classRegistry = classRegistry;
+        this.enabled = enabled;
+        this.iouThreshold = iouThreshold;
+        this.minStaticMs = minStaticSeconds * 1000L;
+        this.expireMs = expireSeconds * 1000L;
+        this.heartbeatMs = heartbeatSeconds * 1000L;
+        this.tentativeFrames = Math.max(1, tentativeFrames);
+        this.maxObjects = maxObjects;
+        this.exemptClasses = List.copyOf(exemptClasses);
+    }
+
+    /**
+     * Classify one frame's detections (in frame order per camera).
+     *
+     * @param cameraId Camera the frame belongs to (null for the desktop player)
+     * @param observations One per detection; null for a detection without a box (always NEW)
+     * @return One decision per observation, in order
+     */
+    public List<Decision> observe(UUID cameraId, long timestampMs, List<Observation> observations) {
+        List<Decision> decisions = new ArrayList<>(observations.size());
+        if (!enabled) {
+            observations.forEach(observation -> decisions.add(Decision.NEW));
+            return decisions;
+        }
+        BitSet exempt = exemptClassIds();
+        UUID key = cameraId != null ? cameraId : DESKTOP;
+        Scene scene = scenes.computeIfAbsent(key, id -> new Scene());
+        synchronized (scene) {
+            scene.frame++;
+            scene.expire(timestampMs, expireMs, tentativeFrames);
+            for (Observation observation : observations) {
+                decisions.add(observation == null || exempt.get(observation.classId())
+                        ? Decision.NEW : decide(key, scene, observation, timestampMs));
+            }
+        }
+        return decisions;
+    }
+
+    /**
+     * Static objects of every camera (the desktop player's under the nil UUID).
+     */
+    public List<StaticObject> getStaticObjects() {
+        List<StaticObject> objects = new ArrayList<>();
+        scenes.forEach((cameraId, scene) -> {
+            synchronized (scene) {
+                for (List<Track> tracks : scene.tracksByClass.values()) {
+                    for (Track track : tracks) {
+                        if (track.stationary) {
+                            Observation box = track.anchor;
+                            objects.add(new StaticObject(cameraId, classRegistry.nameOf(box.classId()), box.x(), box.y(),
+                                    box.width(), box.height(), track.firstSeenMs, track.lastSeenMs));
+                        }
+                    }
+                }
+            }
+        });
+        return objects;
+    }
+
+    public long getStaticObjectCount() {
+        long count = 0;
+        for (Scene scene : scenes.values()) {
+            synchronized (scene) {
+                for (List<Track> tracks : scene.tracksByClass.values()) {
+                    count += tracks.stream().filter(track -> track.stationary).count();
+                }
+            }
+        }
+        return count;
+    }
+
+    public long getSuppressedCount() {
+        return suppressed.get();
+    }
+
+    public long getHeartbeatCount() {
+        return heartbeats.get();
+    }
+
+    public long getUntrackedCount() {
+        return untracked.get();
+    }
+
+    // ====== HELPER METHODS ======
+
+    private BitSet exemptClassIds() {
+        BitSet mask = exemptClassIds;
+        if (mask == null) {
+            mask = classRegistry.maskOf(exemptClasses);
+            exemptClassIds = mask;
+        }
+        return mask;
+    }
+
+    private Decision decide(UUID cameraId, Scene scene, Observation observation, long timestampMs) {
+        List<Track> candidates = scene.tracksByClass.computeIfAbsent(observation.classId(), id -> new ArrayList<>());
+        Track match = null;
+        double bestIou = iouThreshold;
+        for (Track track : candidates) {
+            if (track.frame == scene.frame) {
+                continue;
+            }
+            double iou = iou(track.anchor, observation);
+            if (iou > bestIou) {
+                bestIou = iou;
+                match = track;
+            }
+        }
+        if (match == null) {
+            if (scene.size < maxObjects) {
+                Track track = new Track(observation, timestampMs);
+                track.frame = scene.frame;
+                candidates.add(track);
+                scene.size++;
+            } else {
+                untracked.incrementAndGet();
+                if (!scene.capWarned) {
+                    scene.capWarned = true;
+                    log.warn("Static scene cache full for camera {} ({} objects); new boxes are not tracked",
+                            cameraId, maxObjects);
+                }
+            }
+            return Decision.NEW;
+        }
+
+        match.frame = scene.frame;
+        match.lastSeenMs = Math.max(match.lastSeenMs, timestampMs);
+        if (!match.stationary) {
+            if (timestampMs - match.firstSeenMs < minStaticMs) {
+                return Decision.NEW;
+            }
+            // Static from here on; the detections so far already recorded its arrival
+            match.stationary = true;
+            match.lastPersistedMs = timestampMs;
+        } else if (heartbeatMs > 0 && timestampMs - match.lastPersistedMs >= heartbeatMs) {
+            match.lastPersistedMs = timestampMs;
+            heartbeats.incrementAndGet();
+            return Decision.HEARTBEAT;
+        }
+        suppressed.incrementAndGet();
+        return Decision.STATIC;
+    }
+
+    static double iou(Observation a, Observation b) {
+        double width = Math.min(a.x() + a.width(), b.x() + b.width()) - Math.max(a.x(), b.x());
+        double height = Math.min(a.y() + a.height(), b.y() + b.height()) - Math.max(a.y(), b.y());
+        if (width <= 0 || height <= 0) {
+            return 0;
+        }
+        double intersection = width * height;
+        return intersection / (a.width() * a.height() + b.width() * b.height() - intersection);
+    }
+
+    /**
+     * An object at the position it was first seen.
+     */
+    private static final class Track {
+
+        private final Observation anchor;
+        private final long firstSeenMs;
+        private long lastSeenMs;
+        private long lastPersistedMs;
+        private boolean stationary;
+        private long frame; // Last frame that matched it (one detection per object per frame)
+
+        Track(Observation anchor, long firstSeenMs) {
+            this.anchor = anchor;
+            this.firstSeenMs = firstSeenMs;
+            this.lastSeenMs = firstSeenMs;
+        }
+    }
+
+    /**
+     * One camera's known objects by class id; guarded by itself.
+     */
+    private static final class Scene {
+
+        private final Map<Integer, List<Track>> tracksByClass = new HashMap<>();
+        private int size;
+        private long frame;
+        private boolean capWarned; // Logged once per camera
+
+        /**
+         * Forget objects not seen for a while, and boxes not yet static that
+         * went unmatched for a few frames; everything if time went backwards (a file replayed).
+         */
+        void expire(long timestampMs, long expireMs, int tentativeFrames) {
+            size = 0;
+            tracksByClass.values().removeIf(tracks -> {
+                tracks.removeIf(track -> timestampMs - track.lastSeenMs > expireMs
+                        || track.firstSeenMs - timestampMs > expireMs
+                        || (!track.stationary && frame - track.frame > tentativeFrames));
+                size += tracks.size();
+                return tracks.isEmpty();
+            });
+        }
+    }
+}
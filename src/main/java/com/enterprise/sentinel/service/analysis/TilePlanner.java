@@ -0,0 +1,87 @@
+package com.enterprise.sentinel.service.analysis;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Overlapping model-sized tiles over a high-resolution frame, and the subset
+ * worth running: tiles that cover regions of interest (motion, previous
+ * detections), most-covered first.
+ *
+ * Tiles are {@code tileSize} square (smaller only when the frame is), fully
+ * inside the frame, and overlap by at least {@code overlap} pixels so an
+ * object cut by one tile edge is whole in its neighbour.
+ */
+final class TilePlanner {
+
+    private TilePlanner() {
+    }
+
+    /**
+     * All tiles covering the frame, row by row.
+     */
+    static List<Rectangle> grid(int width, int height, int tileSize, int overlap) {
+        int tileWidth = Math.min(tileSize, width);
+        int tileHeight = Math.min(tileSize, height);
+        List<Rectangle> tiles = new ArrayList<>();
+        for (int y : offsets(height, tileHeight, overlap)) {
+            for (int x : offsets(width, tileWidth, overlap)) {
+                tiles.add(new Rectangle(x, y, tileWidth, tileHeight));
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Tiles intersecting any region of interest, by covered area (largest first), at most {@code maxTiles}.
+     *
+     * @param regions Regions of interest in frame pixels
+     */
+    static List<Rectangle> select(int width, int height, int tileSize, int overlap,
+                                  List<Rectangle> regions, int maxTiles) {
+        List<Rectangle> tiles = new ArrayList<>();
+        List<Long> coverage = new ArrayList<>();
+        for (Rectangle tile : grid(width, height, tileSize, overlap)) {
+            long covered = 0;
+            for (Rectangle region : regions) {
+                Rectangle overlapArea = tile.intersection(region);
+                if (!overlapArea.isEmpty()) {
+                    covered += (long) overlapArea.width * overlapArea.height;
+                }
+            }
+            if (covered > 0) {
+                tiles.add(tile);
+                coverage.add(covered);
+            }
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < tiles.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingLong(coverage::get).reversed());
+        List<Rectangle> selected = new ArrayList<>();
+        for (int i = 0; i < order.size() && selected.size() < maxTiles; i++) {
+            selected.add(tiles.get(order.get(i)));
+        }
+        return selected;
+    }
+
+    /**
+     * Tile origins along one axis: evenly spread, first at 0, last flush with the edge.
+     */
+    private static List<Integer> offsets(int length, int tile, int overlap) {
+        List<Integer> offsets = new ArrayList<>();
+        if (length <= tile) {
+            offsets.add(0);
+            return offsets;
+        }
+        int stride = Math.max(1, tile - overlap);
+        int count = (int) Math.ceil((double) (length - tile) / stride) + 1;
+        for (int i = 0; i < count; i++) {
+            offsets.add((int) Math.round((double) i * (length - tile) / (count - 1)));
+        }
+        return offsets;
+    }
+}
@@ -0,0 +1,286 @@
+package com.enterprise.sentinel.service.analysis;
+
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import ai.djl.modality.cv.output.BoundingBox;
+import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.translate.TranslateException;
+import com.enterprise.sentinel.service.metrics.FrameTrace;
+import com.enterprise.sentinel.service.model.ModelLease;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hybrid sparse/dense detection for frames larger than the model input.
+ *
+ * Squashing a 4K frame into 640 x 640 shrinks a distant person to a few
+ * pixels. Instead, the model runs on overlapping full-resolution 640 tiles,
+ * but only where something is happening: tiles covering motion (see
+ * {@link MotionGrid}) or the previous frame's detections, most-covered first,
+ * at most {@code max-tiles}. Every {@code full-frame-every} frames a
+ * full-frame pass also runs, so new objects that are large or still are
+ * picked up. A frame with nothing to look at costs no forward pass.
+ *
+ * All passes of a frame share one predictor and go through in batches
+ * ({@code batch-size}, >1 needs a dynamic-batch model). Boxes are mapped back
+ * to the frame and merged with class-aware NMS; a box mostly inside a
+ * stronger one of the same class is dropped too, which removes the partial
+ * copies of objects cut by a tile edge.
+ *
+ * Configuration: {@code app.detection.tiling.*}. Frames at or below the model
+ * input size (e.g. headless ingestion with downscale-to-model-input) are not tiled.
+ */
+@Service
+public class TiledDetector {
+
+    private static final int TILE = YoloV8Translator.INPUT_SIZE;
+    private static final float IOU_THRESHOLD = 0.45f;
+    private static final float CONTAINED_THRESHOLD = 0.8f;
+
+    // Frames of the desktop player carry no camera id
+    private static final UUID DESKTOP = new UUID(0, 0);
+
+    private final ObjectDetectionService detectionService;
+    private final boolean enabled;
+    private final int overlap;
+    private final int fullFrameEvery;
+    private final int maxTiles;
+    private final int batchSize;
+    private final int motionThreshold;
+    private final Map<UUID, CameraState> cameras = new ConcurrentHashMap<>();
+
+    // METRICS: Forward passes by kind, and frames that needed none
+    private final AtomicLong tilePasses = new AtomicLong(0L);
+    private final AtomicLong fullFramePasses = new AtomicLong(0L);
+    private final AtomicLong skippedFrames = new AtomicLong(0L);
+
+    public TiledDetector(ObjectDetectionService detectionService,
+                         @Value("${app.detection.tiling.enabled:false}") boolean enabled,
+                         @Value("${app.detection.tiling.overlap-px:64}") int overlap,
+                         @Value("${app.detection.tiling.full-frame-every:5}") int fullFrameEvery,
+                         @Value("${app.detection.tiling.max-tiles:6}") int maxTiles,
+                         @Value("${app.detection.tiling.batch-size:1}") int batchSize,
+                         @Value("${app.detection.tiling.motion-threshold:12}") int motionThreshold) {
+        this.detectionService = detectionService;
+        this.enabled = enabled;
+        this.overlap = Math.max(0, Math.min(overlap, TILE / 2));
+        this.fullFrameEvery = Math.max(1, fullFrameEvery);
+        this.maxTiles = Math.max(1, maxTiles);
+        this.batchSize = Math.max(1, batchSize);
+        this.motionThreshold = motionThreshold;
+    }
+
+    /**
+     * Whether frames like this one are tiled (tiling on, frame larger than the model input).
+     */
+    public boolean appliesTo(Image image) {
+        return enabled && image != null && (image.getWidth() > TILE || image.getHeight() > TILE);
+    }
+
+    /**
+     * Detect on tiles of interest (and the full frame on its cadence); stamps INFER and NMS.
+     *
+     * @param cameraId Camera the frame belongs to (null for the desktop player)
+     * @param lease Model version every pass of this frame runs on
+     * @return Merged detections with boxes normalized to the frame
+     */
+    public DetectedObjects detect(UUID cameraId, ModelLease lease, Image image, FrameTrace trace)
+            throws TranslateException {
+        BufferedImage frame = (BufferedImage) image.getWrappedImage();
+        int width = frame.getWidth();
+        int height = frame.getHeight();
+        CameraState state = cameras.computeIfAbsent(cameraId != null ? cameraId : DESKTOP,
+                id -> new CameraState(new MotionGrid(motionThreshold)));
+
+        synchronized (state) {
+            // 1. Regions of interest: motion plus where objects were last frame
+            List<Rectangle> regions = new ArrayList<>(state.motion.update(frame));
+            regions.addAll(state.previous);
+            List<Rectangle> tiles = TilePlanner.select(width, height, TILE, overlap, regions, maxTiles);
+            boolean fullFrame = state.frames++ % fullFrameEvery == 0;
+
+            // 2. One batch: the full frame (on cadence) then the tiles
+            List<Image> inputs = new ArrayList<>();
+            List<Rectangle> areas = new ArrayList<>();
+            if (fullFrame) {
+                inputs.add(image);
+                areas.add(new Rectangle(0, 0, width, height));
+            }
+            ImageFactory factory = ImageFactory.getInstance();
+            for (Rectangle tile : tiles) {
+                inputs.add(factory.fromImage(frame.getSubimage(tile.x, tile.y, tile.width, tile.height)));
+                areas.add(tile);
+            }
+            List<DetectedObjects> results = inputs.isEmpty()
+                    ? List.of() : detectionService.detectBatch(lease, inputs, batchSize);
+            if (trace != null) {
+                trace.mark(FrameTrace.Stamp.INFER);
+            }
+            if (fullFrame) {
+                fullFramePasses.incrementAndGet();
+            }
+            tilePasses.addAndGet(tiles.size());
+            if (inputs.isEmpty()) {
+                skippedFrames.incrementAndGet();
+            }
+
+            // 3. Back to frame coordinates, merged across passes
+            List<Candidate> candidates = new ArrayList<>();
+            for (int i = 0; i < results.size(); i++) {
+                collect(results.get(i), areas.get(i), width, height, candidates);
+            }
+            List<Candidate> kept = merge(candidates);
+            state.previous = regionsOf(kept, width, height);
+            if (trace != null) {
+                trace.mark(FrameTrace.Stamp.NMS);
+            }
+            return toDetectedObjects(kept);
+        }
+    }
+
+    public long getTilePassCount() {
+        return tilePasses.get();
+    }
+
+    public long getFullFramePassCount() {
+        return fullFramePasses.get();
+    }
+
+    public long getSkippedFrameCount() {
+        return skippedFrames.get();
+    }
+
+    // ====== HELPER METHODS ======
+
+    /**
+     * Map one pass's boxes (normalized to its area) to frame-normalized candidates.
+     */
+    static void collect(DetectedObjects detections, Rectangle area, int width, int height,
+                                List<Candidate> candidates) {
+        if (detections == null) {
+            return;
+        }
+        List<DetectedObjects.DetectedObject> items = detections.items();
+        for (int i = 0; i < items.size(); i++) {
+            DetectedObjects.DetectedObject item = items.get(i);
+            ai.djl.modality.cv.output.Rectangle box = item.getBoundingBox().getBounds();
+            candidates.add(new Candidate(item.getClassName(), IdentifiedObjects.classIdOf(detections, i),
+                    item.getProbability(),
+                    (area.x + box.getX() * area.width) / width,
+                    (area.y + box.getY() * area.height) / height,
+                    box.getWidth() * area.width / width,
+                    box.getHeight() * area.height / height));
+        }
+    }
+
+    /**
+     * Class-aware greedy NMS; also drops boxes mostly inside a kept box (tile-edge fragments).
+     */
+    static List<Candidate> merge(List<Candidate> candidates) {
+        List<Candidate> sorted = new ArrayList<>(candidates);
+        sorted.sort(Comparator.comparingDouble(Candidate::probability).reversed());
+        List<Candidate> kept = new ArrayList<>();
+        for (Candidate candidate : sorted) {
+            boolean suppressed = false;
+            for (Candidate stronger : kept) {
+                if (!stronger.className().equals(candidate.className())) {
+                    continue;
+                }
+                double intersection = stronger.intersection(candidate);
+                double union = stronger.area() + candidate.area() - intersection;
+                if (intersection / union > IOU_THRESHOLD
+                        || intersection / Math.min(stronger.area(), candidate.area()) > CONTAINED_THRESHOLD) {
+                    suppressed = true;
+                    break;
+                }
+            }
+            if (!suppressed) {
+                kept.add(candidate);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Kept boxes in frame pixels, grown by a quarter of their size to cover the next frame's movement.
+     */
+    private static List<Rectangle> regionsOf(List<Candidate> kept, int width, int height) {
+        List<Rectangle> regions = new ArrayList<>();
+        for (Candidate candidate : kept) {
+            double marginX = candidate.width() / 4;
+            double marginY = candidate.height() / 4;
+            regions.add(new Rectangle(
+                    (int) ((candidate.x() - marginX) * width), (int) ((candidate.y() - marginY) * height),
+                    (int) Math.ceil((candidate.width() + 2 * marginX) * width),
+                    (int) Math.ceil((candidate.height() + 2 * marginY) * height)));
+        }
+        return regions;
+    }
+
+    /**
+     * Kept boxes as one result; with class ids if every pass carried them.
+     */
+    static DetectedObjects toDetectedObjects(List<Candidate> kept) {
+        List<String> names = new ArrayList<>();
+        List<Double> probabilities = new ArrayList<>();
+        List<BoundingBox> boxes = new ArrayList<>();
+        int[] classIds = new int[kept.size()];
+        boolean identified = true;
+        for (int i = 0; i < kept.size(); i++) {
+            Candidate candidate = kept.get(i);
+            names.add(candidate.className());
+            probabilities.add(candidate.probability());
+            boxes.add(new ai.djl.modality.cv.output.Rectangle(candidate.x(), candidate.y(),
+                    candidate.width(), candidate.height()));
+            classIds[i] = candidate.classId();
+            identified &= candidate.classId() != DetectionClassRegistry.UNKNOWN;
+        }
+        return identified ? new IdentifiedObjects(names, classIds, probabilities, boxes)
+                : new DetectedObjects(names, probabilities, boxes);
+    }
+
+    /**
+     * A detection with its box normalized to the whole frame.
+     */
+    record Candidate(String className, int classId, double probability,
+                     double x, double y, double width, double height) {
+
+        Candidate(String className, double probability, double x, double y, double width, double height) {
+            this(className, DetectionClassRegistry.UNKNOWN, probability, x, y, width, height);
+        }
+
+        double area() {
+            return width * height;
+        }
+
+        double intersection(Candidate other) {
+            double overlapWidth = Math.min(x + width, other.x + other.width) - Math.max(x, other.x);
+            double overlapHeight = Math.min(y + height, other.y + other.height) - Math.max(y, other.y);
+            return overlapWidth <= 0 || overlapHeight <= 0 ? 0 : overlapWidth * overlapHeight;
+        }
+    }
+
+    /**
+     * Per-camera state; guarded by itself (frames of one camera are processed one at a time).
+     */
+    private static final class CameraState {
+
+        private final MotionGrid motion;
+        private List<Rectangle> previous = List.of();
+        private long frames;
+
+        CameraState(MotionGrid motion) {
+            this.motion = motion;
+        }
+    }
+}
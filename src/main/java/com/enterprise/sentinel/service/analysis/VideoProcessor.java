@@ -1,22 +1,39 @@
 package com.enterprise.sentinel.service.analysis;
 
+import ai.djl.modality.Classifications;
 import ai.djl.modality.cv.Image;
 import ai.djl.modality.cv.ImageFactory;
 import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.translate.TranslateException;
 import com.enterprise.sentinel.client.ui.SentinelVideoView;
+import com.enterprise.sentinel.config.ExecutionModel;
 import com.enterprise.sentinel.domain.model.DetectionEvent;
+import com.enterprise.sentinel.domain.model.SecurityAlert;
 import com.enterprise.sentinel.domain.repository.DetectionEventRepository;
+import com.enterprise.sentinel.domain.repository.VideoRepository;
+import com.enterprise.sentinel.service.metrics.FrameTrace;
+import com.enterprise.sentinel.service.metrics.LatencyTracker;
+import com.enterprise.sentinel.service.metrics.SentinelMetrics;
+import com.enterprise.sentinel.service.model.ModelDescriptor;
+import com.enterprise.sentinel.service.model.ModelLease;
+import com.enterprise.sentinel.service.pipeline.OverflowPolicy;
+import com.enterprise.sentinel.service.pipeline.StageSettings;
+import com.enterprise.sentinel.service.pipeline.StageStats;
+import com.enterprise.sentinel.service.pipeline.StagedPipeline;
 import javafx.application.Platform;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.image.WritableImage;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.UUID;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
@@ -33,6 +50,31 @@ import java.util.logging.Logger;
  * 4. Convert image → DJL → ONNX inference
  * 5. Save detections and update UI
  * 
+ * Headless ingestion (no JavaFX) feeds decoded frames through {@link #submitFrame};
+ * it samples frames itself, so the throttle gate is bypassed.
+ * 
+ * Frames flow through a staged pipeline ({@link StagedPipeline}):
+ * decode → preprocess → infer → postprocess → track → persist → rules → notify.
+ * Each stage has a bounded queue, its own workers and an overflow policy
+ * ({@code app.pipeline.<stage>.capacity|parallelism|overflow}). Stages block
+ * on a full successor by default, so a slow stage backs up to the entry,
+ * which drops new frames. Rules run after persist: alerts reference the
+ * persisted detection's id. Persist is partitioned by camera, so one
+ * camera's frames are written in order whatever its parallelism.
+ * Inference and the other CPU stages run on platform threads; persist,
+ * rules and notify wait on the database and follow the execution mode
+ * ({@link ExecutionModel}).
+ * 
+ * Every live frame carries a {@link FrameTrace} (capture, enqueue, decode,
+ * preprocess, infer, NMS, persist, alert); finished frames go to the
+ * {@link LatencyTracker} histograms and the {@link SentinelMetrics} timers
+ * (per camera, scraped at /actuator/prometheus). Nothing is logged per frame.
+ * 
+ * Live detections of stationary objects (parked cars, fixed equipment) are
+ * recognized by the {@link StaticSceneCache}: they still reach dwell tracking,
+ * but are only persisted (and kept in the hot store) as a periodic heartbeat
+ * and are not evaluated for alerts again.
+ * 
  * Thread Safety: AtomicLong for CAS-based time tracking
  * Fail-Safe: Time checks, null guards, error isolation
  */
@@ -43,13 +85,26 @@ public class VideoProcessor {
     
     // PERF-01: 500ms throttle = 2 FPS max
     private static final long THROTTLE_INTERVAL_MS = 500L;
+
+    private static final String PIPELINE = "sentinel-pipeline";
+    private static final String SETTINGS_PREFIX = "app.pipeline";
+    private static final String INFER_STAGE = "infer";
     
     private final ObjectDetectionService detectionService;
+    private final TiledDetector tiledDetector;
+    private final RoiDetector roiDetector;
+    private final StaticSceneCache staticSceneCache;
     private final FrameRateLimiter frameRateLimiter;
     private final AlertEngine alertEngine;
     private final DetectionEventRepository detectionEventRepository;
-    private final ExecutorService inferenceExecutor;
-    private SentinelVideoView videoView;
+    private final VideoRepository videoRepository;
+    private final RecentDetectionStore recentDetectionStore;
+    private final DetectionClassRegistry classRegistry;
+    private final DwellEngine dwellEngine;
+    private final LatencyTracker latencyTracker;
+    private final SentinelMetrics metrics;
+    private final StagedPipeline<FrameJob> pipeline;
+    private volatile SentinelVideoView videoView;
     
     // ATOMIC: Track last processing time (lock-free)
     private final AtomicLong lastProcessingTimeMs = new AtomicLong(0L);
@@ -57,24 +112,55 @@ public class VideoProcessor {
     // METRICS: Track throttled and processed frames
     private final AtomicLong processedFrameCount = new AtomicLong(0L);
     private final AtomicLong throttledFrameCount = new AtomicLong(0L);
-    private final AtomicLong inferenceErrorCount = new AtomicLong(0L);
 
     public VideoProcessor(ObjectDetectionService detectionService, 
+                         TiledDetector tiledDetector,
+                         RoiDetector roiDetector,
+                         StaticSceneCache staticSceneCache,
                          FrameRateLimiter frameRateLimiter,
                          AlertEngine alertEngine,
-                         DetectionEventRepository detectionEventRepository) {
+                         DetectionEventRepository detectionEventRepository,
+                         RecentDetectionStore recentDetectionStore,
+                         DetectionClassRegistry classRegistry,
+                         DwellEngine dwellEngine,
+                         VideoRepository videoRepository,
+                         LatencyTracker latencyTracker,
+                         SentinelMetrics metrics,
+                         ExecutionModel executionModel,
+                         Environment environment) {
         this.detectionService = detectionService;
+        this.tiledDetector = tiledDetector;
+        this.roiDetector = roiDetector;
+        this.staticSceneCache = staticSceneCache;
         this.frameRateLimiter = frameRateLimiter;
         this.alertEngine = alertEngine;
         this.detectionEventRepository = detectionEventRepository;
+        this.recentDetectionStore = recentDetectionStore;
+        this.classRegistry = classRegistry;
+        this.dwellEngine = dwellEngine;
+        this.videoRepository = videoRepository;
+        this.latencyTracker = latencyTracker;
+        this.metrics = metrics;
         
-        // Create a lightweight executor for inference tasks
-        // Single thread to prevent concurrent inference (one inference at a time)
-        this.inferenceExecutor = Executors.newSingleThreadExecutor(runnable -> {
-            Thread thread = new Thread(runnable, "sentinel-inference");
-            thread.setDaemon(false);
+        // CPU stages on platform threads; the inference stage is the fixed pool
+        ThreadFactory cpu = runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
             return thread;
-        });
+        };
+        ThreadFactory io = executionModel.newThreadFactory(PIPELINE + "-io-");
+        this.pipeline = StagedPipeline.<FrameJob>builder(PIPELINE)
+                .stage("decode", settings(environment, "decode", 64, 1, OverflowPolicy.DROP_NEWEST), cpu, this::decode)
+                .stage("preprocess", settings(environment, "preprocess", 4, 1, OverflowPolicy.BLOCK), cpu, this::preprocess)
+                .stage(INFER_STAGE, settings(environment, INFER_STAGE, 2, 1, OverflowPolicy.BLOCK), cpu, this::infer)
+                .stage("postprocess", settings(environment, "postprocess", 16, 1, OverflowPolicy.BLOCK), cpu, this::postprocess)
+                .stage("track", settings(environment, "track", 64, 1, OverflowPolicy.BLOCK), cpu, this::track)
+                .partitionedStage("persist", settings(environment, "persist", 64, 2, OverflowPolicy.BLOCK), io,
+                        this::persist, job -> job.cameraId)
+                .stage("rules", settings(environment, "rules", 64, 1, OverflowPolicy.BLOCK), io, this::rules)
+                .stage("notify", settings(environment, "notify", 256, 2, OverflowPolicy.BLOCK), io, this::notifyAlerts)
+                .onComplete(this::complete)
+                .build();
     }
 
     public void setVideoView(SentinelVideoView view) {
@@ -123,134 +209,312 @@ public class VideoProcessor {
             return;
         }
 
-        // ASYNC: Submit inference task to executor
-        inferenceExecutor.submit(() -> {
-            try {
-                processFrameAsync(fxImage);
-                processedFrameCount.incrementAndGet();
-            } catch (Exception e) {
-                LOGGER.severe("Inference thread error: " + e.getMessage());
-                inferenceErrorCount.incrementAndGet();
-                e.printStackTrace();
-            }
-        });
+        // ASYNC: Submit the frame to the pipeline
+        FrameJob job = new FrameJob(null, System.currentTimeMillis(), true, true);
+        job.fxImage = fxImage;
+        submit(job);
 
         // Non-blocking: method returns immediately
         LOGGER.fine("Submitted inference task");
     }
 
     /**
-     * Asynchronous inference pipeline (runs in executor thread).
+     * Headless entry point: analyze a frame decoded by the ingestion engine.
      * 
-     * Steps:
-     * 1. Convert JavaFX Image → DJL Image
-     * 2. Run ONNX inference
-     * 3. Filter low-confidence detections
-     * 4. Persist to database
-     * 5. Evaluate alert rules
-     * 6. Update UI overlay
+     * The caller owns sampling (one frame per inference interval per camera),
+     * so no throttle is applied here. Detections are stamped with
+     * {@code timestampMs} and attributed to {@code cameraId}.
      * 
-     * @param fxImage Frame to analyze
-     * @throws Exception on inference errors
+     * @param cameraId Video/camera the frame belongs to (null if unknown)
+     * @param image Decoded frame; must not be reused by the caller
+     * @param timestampMs Capture time of the frame (epoch ms)
+     * @return true if queued, false if dropped because inference is saturated
      */
-    private void processFrameAsync(WritableImage fxImage) throws Exception {
-        long startTime = System.currentTimeMillis();
+    public boolean submitFrame(UUID cameraId, BufferedImage image, long timestampMs) {
+        if (image == null) {
+            return false;
+        }
+        FrameJob job = new FrameJob(cameraId, timestampMs, true, false);
+        job.image = image;
+        return submit(job);
+    }
 
-        // 1. Convert JavaFX → BufferedImage → DJL
-        BufferedImage bufferedImage = SwingFXUtils.fromFXImage(fxImage, null);
-        if (bufferedImage == null) {
-            LOGGER.warning("Failed to convert FX image to BufferedImage");
-            return;
+    /**
+     * Offline entry point: analyze a frame of a recorded file on the caller's thread.
+     * 
+     * Never drops: the caller (one thread per time shard) is slowed down by
+     * inference instead. Detections are persisted with the frame's media
+     * position in {@code timestampMs}. The hot store, dwell tracking and alerting
+     * work on wall-clock time, so they are skipped for recorded footage.
+     * 
+     * @param videoId Video the file is registered as
+     * @param image Decoded frame; only read during this call
+     * @param mediaMs Position of the frame in the file (ms from start)
+     * @return number of detections persisted
+     * @throws RuntimeException if a stage failed on this frame
+     */
+    public int analyzeRecordedFrame(UUID videoId, BufferedImage image, long mediaMs) {
+        if (image == null) {
+            return 0;
         }
+        FrameJob job = new FrameJob(videoId, mediaMs, false, false);
+        job.image = image;
+        pipeline.process(job);
+        return job.saved;
+    }
 
-        Image djlImage = ImageFactory.getInstance().fromImage(bufferedImage);
+    /**
+     * Per-stage queue depth, throughput and latency of the detection pipeline.
+     */
+    public List<StageStats> getPipelineStats() {
+        return pipeline.getStats();
+    }
 
-        // 2. INFERENCE: Run YOLOv8 ONNX
-        DetectedObjects detections = detectionService.detect(djlImage);
+    /**
+     * Queue a frame at the pipeline entry; drops it when the entry is full.
+     */
+    private boolean submit(FrameJob job) {
+        job.trace.mark(FrameTrace.Stamp.ENQUEUE);
+        if (pipeline.submit(job)) {
+            return true;
+        }
+        // FAIL-SAFE: Inference is behind; newer frames will follow
+        throttledFrameCount.incrementAndGet();
+        return false;
+    }
 
-        long inferenceTime = System.currentTimeMillis() - startTime;
-        LOGGER.info("Inference completed in " + inferenceTime + " ms");
+    // ===== Pipeline Stages =====
 
-        // 3. Process and save detections
-        if (detections != null && !detections.items().isEmpty()) {
-            processAndSaveDetections(detections);
+    /**
+     * Decode: desktop frames arrive as JavaFX images; headless frames are decoded already.
+     */
+    private boolean decode(FrameJob job) {
+        if (job.image == null) {
+            // 1. Convert JavaFX → BufferedImage
+            job.image = SwingFXUtils.fromFXImage(job.fxImage, null);
+            job.fxImage = null;
+            if (job.image == null) {
+                LOGGER.warning("Failed to convert FX image to BufferedImage");
+                return false;
+            }
         }
+        job.trace.mark(FrameTrace.Stamp.DECODE);
+        return true;
+    }
+
+    private boolean preprocess(FrameJob job) {
+        job.djlImage = ImageFactory.getInstance().fromImage(job.image);
+        job.image = null;
+        job.trace.mark(FrameTrace.Stamp.PREPROCESS);
+        return true;
+    }
 
-        // 4. Update UI overlay (on FX thread)
-        if (videoView != null) {
-            Platform.runLater(() -> {
-                videoView.drawDetections(detections);
-            });
+    /**
+     * Inference: run YOLOv8 ONNX (stamps INFER and NMS) on the camera's zone regions if it
+     * has any, else tiled for frames above the model input, else on the whole frame.
+     */
+    private boolean infer(FrameJob job) throws TranslateException {
+        // One model version for the whole frame, even if a new one is swapped in meanwhile
+        try (ModelLease lease = detectionService.acquire(job.cameraId)) {
+            job.model = lease.descriptor();
+            List<Rectangle> crops = roiDetector.cropsFor(job.cameraId, job.djlImage);
+            job.detectedObjects = !crops.isEmpty()
+                    ? roiDetector.detect(lease, job.djlImage, crops, job.trace)
+                    : tiledDetector.appliesTo(job.djlImage)
+                    ? tiledDetector.detect(job.cameraId, lease, job.djlImage, job.trace)
+                    : detectionService.detect(lease, job.djlImage, job.trace);
         }
+        job.djlImage = null;
+        processedFrameCount.incrementAndGet();
+        return true;
     }
 
     /**
-     * Save high-confidence detections to database.
-     * Evaluate against alert rules (geofences, event types).
-     * 
-     * @param detections Results from inference
+     * Keep high-confidence detections with their class ids and boxes; draw the
+     * overlay; mark live detections of static objects.
      */
-    private void processAndSaveDetections(DetectedObjects detections) {
+    private boolean postprocess(FrameJob job) {
+        DetectedObjects detections = job.detectedObjects;
+
+        // Update UI overlay (on FX thread)
+        SentinelVideoView view = videoView;
+        if (job.drawOverlay && view != null) {
+            Platform.runLater(() -> view.drawDetections(detections));
+        }
         if (detections == null || detections.items().isEmpty()) {
-            return;
+            return false;
         }
 
-        long timestampMs = System.currentTimeMillis();
-
-        // Iterate over detections
-        detections.items().forEach(item -> {
-            double confidence = 0.0;
-            String className = "";
+        List<Classifications.Classification> items = detections.items();
+        for (int i = 0; i < items.size(); i++) {
+            Classifications.Classification item = items.get(i);
+            double confidence;
+            String className;
             String bbox = "";
+            long packedBbox = RecentDetectionStore.NO_BBOX;
+            ai.djl.modality.cv.output.Rectangle rect = null;
             
-            // Handle both possible item types from DJL
-            if (item instanceof ai.djl.modality.Classifications.Classification) {
-                ai.djl.modality.Classifications.Classification classification = 
-                    (ai.djl.modality.Classifications.Classification) item;
-                confidence = classification.getProbability();
-                className = classification.getClassName();
-            } else if (item instanceof ai.djl.modality.cv.output.DetectedObjects.DetectedObject) {
-                ai.djl.modality.cv.output.DetectedObjects.DetectedObject detected = 
-                    (ai.djl.modality.cv.output.DetectedObjects.DetectedObject) item;
+            // Handle both possible item types from DJL (DetectedObject is the more specific one)
+            if (item instanceof ai.djl.modality.cv.output.DetectedObjects.DetectedObject detected) {
                 confidence = detected.getProbability();
                 className = detected.getClassName();
                 bbox = detected.getBoundingBox().toString();
+                rect = detected.getBoundingBox().getBounds();
+                packedBbox = RecentDetectionStore.packBoundingBox(
+                        rect.getX(), rect.getY(), rect.getWidth(), rect.getHeight());
+            } else {
+                confidence = item.getProbability();
+                className = item.getClassName();
             }
             
             // FAIL-SAFE: Only persist high-confidence detections (>50%)
             if (confidence > 0.5) {
-                try {
-                    DetectionEvent detectionEvent = DetectionEvent.builder()
-                            .timestampMs(timestampMs)
-                            .detectedClass(className)
-                            .confidence(confidence)
-                            .boundingBox(bbox)
-                            .inferenceData(buildInferenceData(className, confidence))
-                            .build();
-
-                    DetectionEvent saved = detectionEventRepository.save(detectionEvent);
-
-                    // SEC-01: Evaluate detection against geofence zones and trigger alerts
-                    alertEngine.processDetection(saved);
-                    
-                    LOGGER.info("Saved detection: " + className + " (" + confidence + ")");
-                } catch (Exception e) {
-                    LOGGER.severe("Error persisting detection: " + e.getMessage());
+                // Set at decode; results without ids (load-test stub) resolve the label once here
+                int classId = IdentifiedObjects.classIdOf(detections, i);
+                if (classId == DetectionClassRegistry.UNKNOWN) {
+                    classId = classRegistry.register(className);
+                }
+                job.detections.add(new Detection(className, classId, confidence, bbox, packedBbox, rect,
+                        StaticSceneCache.Decision.NEW));
+            }
+        }
+        if (job.live && !job.detections.isEmpty()) {
+            classifyStatic(job);
+        }
+        return !job.detections.isEmpty();
+    }
+
+    /**
+     * In frame order (postprocess runs on one worker), so objects age correctly.
+     */
+    private void classifyStatic(FrameJob job) {
+        List<StaticSceneCache.Observation> observations = new ArrayList<>(job.detections.size());
+        for (Detection detection : job.detections) {
+            ai.djl.modality.cv.output.Rectangle rect = detection.rect();
+            observations.add(rect == null ? null : new StaticSceneCache.Observation(detection.classId(),
+                    rect.getX(), rect.getY(), rect.getWidth(), rect.getHeight()));
+        }
+        List<StaticSceneCache.Decision> decisions = staticSceneCache.observe(job.cameraId, job.timestampMs, observations);
+        for (int i = 0; i < decisions.size(); i++) {
+            job.detections.set(i, job.detections.get(i).withDecision(decisions.get(i)));
+        }
+    }
+
+    /**
+     * Hot store and zone stays (live footage only; they work on wall-clock time).
+     * The hot store holds what is persisted, so static objects only as their heartbeat.
+     */
+    private boolean track(FrameJob job) {
+        if (!job.live) {
+            return true;
+        }
+        for (Detection detection : job.detections) {
+            // Keep the hot window in memory for dashboard queries
+            if (detection.decision() != StaticSceneCache.Decision.STATIC) {
+                recentDetectionStore.record(job.cameraId, job.timestampMs, detection.classId(),
+                        detection.confidence(), detection.packedBbox());
+            }
+
+            // Track zone stays incrementally (needs a box to place the object)
+            ai.djl.modality.cv.output.Rectangle rect = detection.rect();
+            if (rect != null) {
+                dwellEngine.onDetection(job.cameraId, detection.classId(), job.timestampMs,
+                        rect.getX(), rect.getY(), rect.getWidth(), rect.getHeight());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Save the frame's detections in one saveAll; static objects only as a heartbeat, which is not evaluated.
+     * A failed save fails the frame (a stage error; rethrown to offline callers).
+     */
+    private boolean persist(FrameJob job) {
+        List<DetectionEvent> events = new ArrayList<>(job.detections.size());
+        List<Boolean> evaluate = new ArrayList<>(job.detections.size());
+        for (Detection detection : job.detections) {
+            if (detection.decision() == StaticSceneCache.Decision.STATIC) {
+                continue;
+            }
+            DetectionEvent detectionEvent = DetectionEvent.builder()
+                    .video(job.cameraId != null ? videoRepository.getReferenceById(job.cameraId) : null)
+                    .timestampMs(job.timestampMs)
+                    .detectedClass(detection.className())
+                    .classId((short) detection.classId())
+                    .confidence(detection.confidence())
+                    .boundingBox(detection.bbox())
+                    .inferenceData(buildInferenceData(detection.className(), detection.confidence(), job.model))
+                    .build();
+
+            events.add(detectionEvent);
+            evaluate.add(detection.decision() == StaticSceneCache.Decision.NEW);
+        }
+        if (!events.isEmpty()) {
+            long started = System.nanoTime();
+            List<DetectionEvent> saved = detectionEventRepository.saveAll(events);
+            metrics.recordDbWrite("detection_events", System.nanoTime() - started);
+            for (int i = 0; i < saved.size(); i++) {
+                if (evaluate.get(i)) {
+                    job.events.add(saved.get(i));
                 }
             }
-        });
+            job.saved += saved.size();
+        }
+        metrics.countDetections(job.cameraId, job.model, job.saved);
+        job.trace.mark(FrameTrace.Stamp.PERSIST);
+        return job.live && !job.events.isEmpty();
+    }
+
+    /**
+     * SEC-01: Evaluate detections against geofence zones.
+     */
+    private boolean rules(FrameJob job) {
+        for (DetectionEvent event : job.events) {
+            job.alerts.addAll(alertEngine.evaluate(event));
+        }
+        return !job.alerts.isEmpty();
+    }
+
+    /**
+     * Persist and publish triggered alerts.
+     */
+    private boolean notifyAlerts(FrameJob job) {
+        for (SecurityAlert alert : job.alerts) {
+            alertEngine.raise(alert);
+            metrics.countAlert(job.cameraId, alert.getSeverity());
+        }
+        job.trace.mark(FrameTrace.Stamp.ALERT);
+        return true;
+    }
+
+    /**
+     * A frame left the pipeline; recorded files do not count toward live latency.
+     */
+    private void complete(FrameJob job) {
+        if (job.live) {
+            latencyTracker.record(job.cameraId, job.trace);
+            metrics.recordFrame(job.cameraId, job.model, job.trace);
+        }
+    }
+
+    private static StageSettings settings(Environment environment, String stage,
+                                          int capacity, int parallelism, OverflowPolicy overflow) {
+        return StageSettings.from(environment, SETTINGS_PREFIX, stage,
+                new StageSettings(capacity, parallelism, overflow));
     }
 
     /**
      * Build inference metadata for persistence.
      * 
+     * @param model Model version that produced the detection
      * @return Map with model info, class, confidence
      */
-    private Map<String, Object> buildInferenceData(String className, double confidence) {
+    private Map<String, Object> buildInferenceData(String className, double confidence, ModelDescriptor model) {
         Map<String, Object> data = new HashMap<>();
         data.put("class", className);
         data.put("confidence", confidence);
-        data.put("model", "yolov8n");
+        data.put("model", model.id());
+        data.put("modelVersion", model.version());
         data.put("engine", "OnnxRuntime");
         return data;
     }
@@ -266,11 +530,18 @@ public class VideoProcessor {
     }
 
     public long getInferenceErrorCount() {
-        return inferenceErrorCount.get();
+        return pipeline.getErrors();
     }
 
+    /**
+     * Frames through inference per second, over the last second or so.
+     */
     public double getActualInferenceFps() {
-        return processedFrameCount.get() * 1000.0 / (System.currentTimeMillis() + 1);
+        return pipeline.getStats().stream()
+                .filter(stage -> stage.name().equals(INFER_STAGE))
+                .mapToDouble(StageStats::throughputPerSec)
+                .findFirst()
+                .orElse(0);
     }
 
     public void logMetrics() {
@@ -278,13 +549,57 @@ public class VideoProcessor {
             "VideoProcessor Metrics: processed=%d, throttled=%d, errors=%d, fps=%.2f",
             processedFrameCount.get(),
             throttledFrameCount.get(),
-            inferenceErrorCount.get(),
+            getInferenceErrorCount(),
             getActualInferenceFps()
         ));
     }
 
     public void shutdown() {
-        inferenceExecutor.shutdown();
-        LOGGER.info("VideoProcessor executor shutdown");
+        pipeline.shutdown();
+        LOGGER.info("VideoProcessor pipeline shutdown");
+    }
+
+    /**
+     * One frame on its way through the pipeline; each stage fills in its
+     * result and releases what later stages no longer need.
+     */
+    private static final class FrameJob {
+
+        private final UUID cameraId;     // Null for the desktop player
+        private final long timestampMs;  // Capture time (media position for recorded files)
+        private final boolean live;      // Feeds the hot store, dwell and alerts
+        private final boolean drawOverlay;
+        private final FrameTrace trace;
+
+        private WritableImage fxImage;
+        private BufferedImage image;
+        private Image djlImage;
+        private ModelDescriptor model;
+        private DetectedObjects detectedObjects;
+        private final List<Detection> detections = new ArrayList<>();
+        private final List<DetectionEvent> events = new ArrayList<>();
+        private final List<SecurityAlert> alerts = new ArrayList<>();
+        private int saved;
+
+        FrameJob(UUID cameraId, long timestampMs, boolean live, boolean drawOverlay) {
+            this.cameraId = cameraId;
+            this.timestampMs = timestampMs;
+            this.live = live;
+            this.drawOverlay = drawOverlay;
+            this.trace = FrameTrace.capturedAt(live ? timestampMs : System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * A detection above the confidence floor, with its box in model and packed
+     * form and whether it belongs to a static object.
+     */
+    private record Detection(String className, int classId, double confidence, String bbox,
+                             long packedBbox, ai.djl.modality.cv.output.Rectangle rect,
+                             StaticSceneCache.Decision decision) {
+
+        Detection withDecision(StaticSceneCache.Decision decision) {
+            return new Detection(className, classId, confidence, bbox, packedBbox, rect, decision);
+        }
     }
-}
\ No newline at end of file
+}
@@ -6,12 +6,14 @@ import ai.djl.modality.cv.output.Rectangle;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
 import ai.djl.translate.Batchifier;
 import ai.djl.translate.Translator;
 import ai.djl.translate.TranslatorContext;
 
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -19,32 +21,78 @@ import java.util.List;
 
 /**
  * Custom Translator for YOLOv8 ONNX models.
- * Fixed for standard [1, 84, 8400] output layout.
+ * Fixed for the standard [1, 4 + classes, 8400] output layout (84 rows for COCO).
+ * 
+ * Batched mode stacks several images into one forward pass ([N, 3, 640, 640]);
+ * it needs a model exported with a dynamic batch axis.
+ *
+ * FP16 exports take a FLOAT16 input; the output is widened back to float
+ * from whatever the graph returns (FLOAT32 or FLOAT16), so INT8 and FP16
+ * variants decode exactly like the FP32 model.
+ *
+ * Given the registry ids of the model's labels (in output order), results are
+ * {@link IdentifiedObjects}: each box carries its class id from the decode on.
  */
 public class YoloV8Translator implements Translator<Image, DetectedObjects> {
 
+    /** Model input edge (square); frames already at this size skip the resize. */
+    public static final int INPUT_SIZE = 640;
+
     private final List<String> classNameList;
     private final float confidenceThreshold;
     private final float nmsThreshold;
+    private final boolean batched;
+    private final DataType inputType;
+    private final int[] classIds; // Registry id per output class; null: names only
 
     public YoloV8Translator(List<String> classNameList, float confidenceThreshold, float nmsThreshold) {
+        this(classNameList, confidenceThreshold, nmsThreshold, false);
+    }
+
+    public YoloV8Translator(List<String> classNameList, float confidenceThreshold, float nmsThreshold,
+                            boolean batched) {
+        this(classNameList, confidenceThreshold, nmsThreshold, batched, DataType.FLOAT32);
+    }
+
+    public YoloV8Translator(List<String> classNameList, float confidenceThreshold, float nmsThreshold,
+                            boolean batched, DataType inputType) {
+        this(classNameList, confidenceThreshold, nmsThreshold, batched, inputType, null);
+    }
+
+    public YoloV8Translator(List<String> classNameList, float confidenceThreshold, float nmsThreshold,
+                            boolean batched, DataType inputType, int[] classIds) {
+        if (classIds != null && classIds.length != classNameList.size()) {
+            throw new IllegalArgumentException("Expected " + classNameList.size() + " class ids, got " + classIds.length);
+        }
+        if (inputType != DataType.FLOAT32 && inputType != DataType.FLOAT16) {
+            throw new IllegalArgumentException("Unsupported model input type: " + inputType);
+        }
         this.classNameList = classNameList;
         this.confidenceThreshold = confidenceThreshold;
         this.nmsThreshold = nmsThreshold;
+        this.batched = batched;
+        this.inputType = inputType;
+        this.classIds = classIds;
     }
 
     @Override
     public Batchifier getBatchifier() {
-        return null; // Disable batching
+        // Batched: inputs are [3, 640, 640] and stacked; otherwise one [1, 3, 640, 640] per call
+        return batched ? Batchifier.STACK : null;
     }
 
     @Override
     public NDList processInput(TranslatorContext ctx, Image input) {
-        BufferedImage resized = resizeImage(input, 640, 640);
-        FloatBuffer buffer = imageToFloatBuffer(resized);
+        FloatBuffer buffer = preprocess(input);
         NDManager manager = ctx.getNDManager();
-        ai.djl.ndarray.types.Shape shape = new ai.djl.ndarray.types.Shape(1, 3, 640, 640);
-        NDArray array = manager.create(shape, ai.djl.ndarray.types.DataType.FLOAT32);
+        ai.djl.ndarray.types.Shape shape = batched
+                ? new ai.djl.ndarray.types.Shape(3, INPUT_SIZE, INPUT_SIZE)
+                : new ai.djl.ndarray.types.Shape(1, 3, INPUT_SIZE, INPUT_SIZE);
+        if (inputType == DataType.FLOAT16) {
+            ByteBuffer halves = HalfFloat.encode(buffer, manager.allocateDirect(buffer.remaining() * 2));
+            return new NDList(manager.create(halves, shape, DataType.FLOAT16));
+        }
+        NDArray array = manager.create(shape, DataType.FLOAT32);
         array.set(buffer);
         return new NDList(array);
     }
@@ -52,23 +100,47 @@ public class YoloV8Translator implements Translator<Image, DetectedObjects> {
     @Override
     public DetectedObjects processOutput(TranslatorContext ctx, NDList list) {
         // Flatten the tensor [1, 84, 8400] -> flat float[]
-        float[] flatOutput = list.get(0).toFloatArray();
+        NDArray output = list.get(0);
+        if (output.getDataType() == DataType.FLOAT16) {
+            return decode(HalfFloat.decode(output.toByteBuffer()));
+        }
+        if (output.getDataType() != DataType.FLOAT32) {
+            throw new IllegalStateException("Unsupported model output type: " + output.getDataType());
+        }
+        return decode(output.toFloatArray());
+    }
+
+    // --- Engine-free halves of processInput/processOutput (also benchmarked) ---
 
+    /**
+     * Resize to the model input and normalize to CHW floats in [0, 1].
+     * Public so calibration tensors for quantization match serving exactly.
+     */
+    public FloatBuffer preprocess(Image input) {
+        BufferedImage resized = resizeImage(input, INPUT_SIZE, INPUT_SIZE);
+        return imageToFloatBuffer(resized);
+    }
+
+    /**
+     * Decode the flattened [1, 84, 8400] output into boxes above the threshold, after NMS.
+     */
+    DetectedObjects decode(float[] flatOutput) {
         // Standard YOLOv8 Output Layout: [1, 84, 8400]
         // 84 Rows (0=cx, 1=cy, 2=w, 3=h, 4..83=Classes)
         // 8400 Columns (Anchors)
         // Memory Layout: Row 0 [0..8399], Row 1 [8400..16799], etc.
         int numAnchors = 8400; 
+        int numClasses = classNameList.size(); // 80 for COCO; custom models have their own
         
         List<IntermediateResult> candidates = new ArrayList<>();
 
         // Iterate through all 8400 anchors (columns)
         for (int i = 0; i < numAnchors; i++) {
-            // 1. Find best class (Rows 4 to 83)
+            // 1. Find best class (Rows 4 to 4 + numClasses - 1)
             int classId = -1;
             float maxProb = -1f;
             
-            for (int c = 0; c < 80; c++) {
+            for (int c = 0; c < numClasses; c++) {
                 // Calculate index for: Row=(4+c), Column=i
                 int index = (4 + c) * numAnchors + i;
                 
@@ -91,10 +163,10 @@ public class YoloV8Translator implements Translator<Image, DetectedObjects> {
             float h  = flatOutput[3 * numAnchors + i]; // Row 3
 
             // 3. Normalize & Convert (Center -> Top-Left)
-            float x = (cx - w / 2f) / 640f;
-            float y = (cy - h / 2f) / 640f;
-            float width = w / 640f;
-            float height = h / 640f;
+            float x = (cx - w / 2f) / INPUT_SIZE;
+            float y = (cy - h / 2f) / INPUT_SIZE;
+            float width = w / INPUT_SIZE;
+            float height = h / INPUT_SIZE;
             
             x = Math.max(0, Math.min(1, x));
             y = Math.max(0, Math.min(1, y));
@@ -112,18 +184,24 @@ public class YoloV8Translator implements Translator<Image, DetectedObjects> {
         List<Double> probs = new ArrayList<>();
         List<ai.djl.modality.cv.output.BoundingBox> boxes = new ArrayList<>();
 
-        for (IntermediateResult res : kept) {
+        int[] ids = new int[kept.size()];
+
+        for (int k = 0; k < kept.size(); k++) {
+            IntermediateResult res = kept.get(k);
             names.add(classNameList.get(res.classId));
             probs.add((double) res.prob);
             boxes.add(new Rectangle(res.x, res.y, res.w, res.h));
+            if (classIds != null) {
+                ids[k] = classIds[res.classId];
+            }
         }
 
-        return new DetectedObjects(names, probs, boxes);
+        return classIds != null ? new IdentifiedObjects(names, ids, probs, boxes) : new DetectedObjects(names, probs, boxes);
     }
 
     // --- Helpers (NMS & Image) ---
     
-    private List<IntermediateResult> nms(List<IntermediateResult> candidates) {
+    List<IntermediateResult> nms(List<IntermediateResult> candidates) {
         List<IntermediateResult> result = new ArrayList<>();
         candidates.sort(Comparator.comparingDouble(a -> -a.prob));
         while (!candidates.isEmpty()) {
@@ -147,7 +225,7 @@ public class YoloV8Translator implements Translator<Image, DetectedObjects> {
         return interArea / (boxAArea + boxBArea - interArea);
     }
 
-    private static class IntermediateResult {
+    static class IntermediateResult {
         int classId; float prob, x, y, w, h;
         public IntermediateResult(int c, float p, float x, float y, float w, float h) {
             this.classId=c; this.prob=p; this.x=x; this.y=y; this.w=w; this.h=h;
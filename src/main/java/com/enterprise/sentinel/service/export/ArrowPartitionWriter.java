@@ -0,0 +1,198 @@
+package com.enterprise.sentinel.service.export;
+
+import com.enterprise.sentinel.domain.model.DetectionEvent;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FixedSizeBinaryVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.CompressionUtil;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.ipc.message.IpcOption;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes one partition file (one camera, one hour) in Arrow IPC file format.
+ * Record batches are ZSTD-compressed per column buffer.
+ *
+ * Rows are buffered into a fixed-size record batch and written out when it fills,
+ * so memory per open partition is bounded by {@code batchRows}, not by file size.
+ * The file is written as {@code <name>.inprogress} and atomically renamed on
+ * {@link #commit()}, so readers never see a half-written partition.
+ */
+final class ArrowPartitionWriter implements AutoCloseable {
+
+    static final String IN_PROGRESS_SUFFIX = ".inprogress";
+
+    static final Schema SCHEMA = new Schema(List.of(
+            Field.notNullable("id", new ArrowType.FixedSizeBinary(16)),
+            Field.nullable("video_id", new ArrowType.FixedSizeBinary(16)),
+            Field.nullable("timestamp_ms", new ArrowType.Int(64, true)),
+            Field.notNullable("created_at", new ArrowType.Timestamp(TimeUnit.MICROSECOND, null)),
+            Field.notNullable("detected_class", ArrowType.Utf8.INSTANCE),
+            Field.notNullable("confidence", new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE)),
+            Field.nullable("bounding_box", ArrowType.Utf8.INSTANCE)
+    ));
+
+    private final Path target;
+    private final Path inProgress;
+    private final int batchRows;
+    private final FileChannel channel;
+    private final VectorSchemaRoot root;
+    private final ArrowFileWriter writer;
+
+    private final FixedSizeBinaryVector idVector;
+    private final FixedSizeBinaryVector videoIdVector;
+    private final BigIntVector timestampVector;
+    private final TimeStampMicroVector createdAtVector;
+    private final VarCharVector classVector;
+    private final Float8Vector confidenceVector;
+    private final VarCharVector bboxVector;
+
+    private final byte[] uuidScratch = new byte[16];
+    private int batchRowCount = 0;
+    private long totalRows = 0;
+    private boolean closed = false;
+
+    ArrowPartitionWriter(BufferAllocator allocator, Path target, int batchRows) throws IOException {
+        this.target = target;
+        this.inProgress = target.resolveSibling(target.getFileName() + IN_PROGRESS_SUFFIX);
+        this.batchRows = batchRows;
+
+        Files.createDirectories(target.getParent());
+        this.channel = FileChannel.open(inProgress,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.root = VectorSchemaRoot.create(SCHEMA, allocator);
+        this.writer = new ArrowFileWriter(root, null, channel, null, IpcOption.DEFAULT,
+                CommonsCompressionFactory.INSTANCE, CompressionUtil.CodecType.ZSTD);
+
+        this.idVector = (FixedSizeBinaryVector) root.getVector("id");
+        this.videoIdVector = (FixedSizeBinaryVector) root.getVector("video_id");
+        this.timestampVector = (BigIntVector) root.getVector("timestamp_ms");
+        this.createdAtVector = (TimeStampMicroVector) root.getVector("created_at");
+        this.classVector = (VarCharVector) root.getVector("detected_class");
+        this.confidenceVector = (Float8Vector) root.getVector("confidence");
+        this.bboxVector = (VarCharVector) root.getVector("bounding_box");
+
+        writer.start();
+        root.allocateNew();
+    }
+
+    /**
+     * Append one detection; flushes a record batch when the batch is full.
+     */
+    void append(DetectionEvent event) throws IOException {
+        int row = batchRowCount;
+
+        idVector.setSafe(row, uuidBytes(event.getId()));
+        if (event.getVideoId() != null) {
+            videoIdVector.setSafe(row, uuidBytes(event.getVideoId()));
+        } else {
+            videoIdVector.setNull(row);
+        }
+        if (event.getTimestampMs() != null) {
+            timestampVector.setSafe(row, event.getTimestampMs());
+        } else {
+            timestampVector.setNull(row);
+        }
+        createdAtVector.setSafe(row, toEpochMicros(event.getCreatedAt()));
+        classVector.setSafe(row, event.getDetectedClass().getBytes(StandardCharsets.UTF_8));
+        confidenceVector.setSafe(row, event.getConfidence());
+        if (event.getBoundingBox() != null) {
+            bboxVector.setSafe(row, event.getBoundingBox().getBytes(StandardCharsets.UTF_8));
+        } else {
+            bboxVector.setNull(row);
+        }
+
+        batchRowCount++;
+        totalRows++;
+        if (batchRowCount >= batchRows) {
+            flushBatch();
+        }
+    }
+
+    /**
+     * Finish the file and atomically publish it under its final name.
+     */
+    void commit() throws IOException {
+        flushBatch();
+        writer.end();
+        close();
+        Files.move(inProgress, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Discard the partially written file.
+     */
+    void abort() {
+        try {
+            close();
+            Files.deleteIfExists(inProgress);
+        } catch (Exception ignored) {
+            // Leftover .inprogress files are removed on the next run
+        }
+    }
+
+    long getTotalRows() {
+        return totalRows;
+    }
+
+    Path getTarget() {
+        return target;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writer.close();
+        } finally {
+            root.close();
+            channel.close();
+        }
+    }
+
+    private void flushBatch() throws IOException {
+        if (batchRowCount == 0) {
+            return;
+        }
+        root.setRowCount(batchRowCount);
+        writer.writeBatch();
+        batchRowCount = 0;
+        root.allocateNew();
+    }
+
+    private byte[] uuidBytes(UUID uuid) {
+        ByteBuffer.wrap(uuidScratch)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits());
+        return uuidScratch;
+    }
+
+    private static long toEpochMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000L;
+    }
+}
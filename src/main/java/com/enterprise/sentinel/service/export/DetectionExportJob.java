@@ -0,0 +1,51 @@
+package com.enterprise.sentinel.service.export;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Incremental hourly export: each run publishes every complete hour since the
+ * last checkpoint (one file per camera per hour), catching up after downtime
+ * however long it was. The first run starts {@code hourly-backfill-hours} back.
+ * Disabled unless {@code app.export.hourly-enabled=true}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DetectionExportJob {
+
+    static final String HOURLY_JOB = "hourly";
+
+    private final DetectionExportService exportService;
+
+    @Value("${app.export.hourly-enabled:false}")
+    private boolean hourlyEnabled;
+
+    @Value("${app.export.hourly-backfill-hours:24}")
+    private int backfillHours;
+
+    @Scheduled(cron = "${app.export.hourly-cron:0 5 * * * *}")
+    public void exportCompletedHours() {
+        if (!hourlyEnabled) {
+            return;
+        }
+        LocalDateTime end = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        try {
+            LocalDateTime start = exportService.getCheckpoint(HOURLY_JOB)
+                    .orElse(end.minusHours(backfillHours));
+            if (!start.isBefore(end)) {
+                return; // This hour is exported already
+            }
+            exportService.exportRange(HOURLY_JOB, start, end);
+        } catch (Exception e) {
+            // Next run resumes from the checkpoint
+            log.error("Hourly detection export failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.enterprise.sentinel.service.export;
+
+import com.enterprise.sentinel.domain.model.DetectionEvent;
+import com.enterprise.sentinel.domain.repository.DetectionEventRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Exports detection history to columnar Arrow IPC files for offline analysis
+ * (model retraining, BI), so the data team does not query the production DB directly.
+ *
+ * Layout: {@code <root>/<job>/day=YYYY-MM-DD/camera=<video id>/hour=HH/part-SSSS-SSSS.arrow},
+ * one part per slice named by its [start, end) offset in seconds within the hour
+ * ({@code part-0000-3600} for a whole hour). A range boundary inside an hour
+ * splits it into parts, so the rest of that hour, exported by a later run,
+ * lands next to them.
+ *
+ * Runs requested over the API ({@link #submit}) execute one at a time on a
+ * background thread; their status is kept by job name until restart.
+ *
+ * Data Flow:
+ * 1. Split [start, end) into hour slices
+ * 2. Stream each slice through a server-side cursor (short read-only transaction)
+ * 3. Route rows to one writer per camera; writers flush fixed-size record batches
+ * 4. Commit all partition files of the slice (atomic rename)
+ * 5. Advance the job checkpoint to the slice end
+ *
+ * Guarantees:
+ * - Memory bounded by open partitions x batch size (and a hard allocator limit)
+ * - Resume after crash restarts at the first uncommitted slice; half-written files are discarded
+ * - Re-exporting a slice replaces its files (idempotent)
+ * - A range that ends before the job's checkpoint is rejected, not silently skipped
+ */
+@Slf4j
+@Service
+public class DetectionExportService {
+
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final String UNKNOWN_CAMERA = "unknown";
+
+    private final DetectionEventRepository detectionEventRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final BufferAllocator allocator;
+    private final Path exportRoot;
+    private final int batchRows;
+    private final Map<String, Run> runs = new ConcurrentHashMap<>();
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sentinel-export");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DetectionExportService(DetectionEventRepository detectionEventRepository,
+                                  EntityManager entityManager,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.export.root-path:./sentinel-export}") String exportRoot,
+                                  @Value("${app.export.batch-rows:4096}") int batchRows,
+                                  @Value("${app.export.memory-limit-mb:256}") long memoryLimitMb) {
+        this.detectionEventRepository = detectionEventRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.allocator = new RootAllocator(memoryLimitMb * 1024 * 1024);
+        this.exportRoot = Path.of(exportRoot);
+        this.batchRows = batchRows;
+    }
+
+    /**
+     * Export detections created in [start, end) under the given job name.
+     * Calling again with the same job name resumes from its checkpoint.
+     *
+     * @param jobName Directory name for this export (also scopes the checkpoint)
+     * @return rows and files written by this invocation
+     * @throws IllegalArgumentException if the range is empty or ends before the
+     *         job's checkpoint (that part was exported already)
+     */
+    public ExportResult exportRange(String jobName, LocalDateTime start, LocalDateTime end) throws IOException {
+        Path jobDir = exportRoot.resolve(jobName);
+        Optional<LocalDateTime> checkpoint = validate(jobName, start, end);
+        discardIncompleteFiles(jobDir);
+
+        LocalDateTime from = checkpoint
+                .filter(exportedUntil -> exportedUntil.isAfter(start))
+                .orElse(start);
+        if (from.isAfter(start)) {
+            log.info("Resuming export job {} from checkpoint {}", jobName, from);
+        }
+
+        long rows = 0;
+        int files = 0;
+        LocalDateTime sliceStart = from;
+        while (sliceStart.isBefore(end)) {
+            LocalDateTime nextHour = sliceStart.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+            LocalDateTime sliceEnd = nextHour.isBefore(end) ? nextHour : end;
+
+            ExportResult slice = exportSlice(jobDir, sliceStart, sliceEnd);
+            ExportCheckpoint.save(jobDir, sliceEnd);
+            rows += slice.rows();
+            files += slice.files();
+            sliceStart = sliceEnd;
+        }
+
+        log.info("Export job {} finished: {} rows in {} files ({} to {})", jobName, rows, files, start, end);
+        return new ExportResult(rows, files);
+    }
+
+    /**
+     * Queue {@link #exportRange} on the export thread and return at once.
+     * The range is checked up front, so a bad request fails here, not in the background.
+     *
+     * @return status of the queued run (poll {@link #getRunStatus} by job name)
+     * @throws IllegalArgumentException as {@link #exportRange}
+     * @throws IllegalStateException if a run of the same job is queued or running
+     */
+    public synchronized RunStatus submit(String jobName, LocalDateTime start, LocalDateTime end) throws IOException {
+        validate(jobName, start, end);
+        Run previous = runs.get(jobName);
+        if (previous != null && !previous.isFinished()) {
+            throw new IllegalStateException("Export job " + jobName + " is already running");
+        }
+        Run run = new Run(jobName, start, end);
+        runs.put(jobName, run);
+        try {
+            runner.execute(run::execute);
+        } catch (RejectedExecutionException e) {
+            runs.remove(jobName, run);
+            throw new IllegalStateException("Export service is shutting down");
+        }
+        return run.status();
+    }
+
+    public Optional<RunStatus> getRunStatus(String jobName) {
+        return Optional.ofNullable(runs.get(jobName)).map(Run::status);
+    }
+
+    public List<RunStatus> getRunStatuses() {
+        List<RunStatus> statuses = new ArrayList<>();
+        runs.values().forEach(run -> statuses.add(run.status()));
+        return statuses;
+    }
+
+    /**
+     * Where the job's last run stopped (exclusive end of its last committed slice), if it ran.
+     */
+    public Optional<LocalDateTime> getCheckpoint(String jobName) throws IOException {
+        return ExportCheckpoint.load(exportRoot.resolve(jobName));
+    }
+
+    /**
+     * Export one hour slice inside its own read-only transaction.
+     */
+    private ExportResult exportSlice(Path jobDir, LocalDateTime sliceStart, LocalDateTime sliceEnd) {
+        Path hourDir = jobDir.resolve("day=" + DAY.format(sliceStart));
+        String hourFile = sliceFileName(sliceStart, sliceEnd);
+        Map<UUID, ArrowPartitionWriter> writers = new HashMap<>();
+
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<DetectionEvent> events =
+                             detectionEventRepository.streamByCreatedAtRange(sliceStart, sliceEnd)) {
+                    events.forEach(event -> {
+                        try {
+                            writers.computeIfAbsent(event.getVideoId(),
+                                    camera -> openWriter(hourDir, camera, hourFile)).append(event);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        // Release the managed entity so the persistence context stays small
+                        entityManager.detach(event);
+                    });
+                }
+            });
+
+            long rows = 0;
+            for (ArrowPartitionWriter writer : writers.values()) {
+                writer.commit();
+                rows += writer.getTotalRows();
+            }
+            if (rows > 0) {
+                log.debug("Exported {} rows for {} to {} across {} cameras",
+                        rows, sliceStart, sliceEnd, writers.size());
+            }
+            return new ExportResult(rows, writers.size());
+        } catch (IOException | RuntimeException e) {
+            writers.values().forEach(ArrowPartitionWriter::abort);
+            throw e instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) e;
+        }
+    }
+
+    /**
+     * {@code hour=HH/part-SSSS-SSSS.arrow}: the slice's hour and its [start, end) seconds within it.
+     */
+    static String sliceFileName(LocalDateTime sliceStart, LocalDateTime sliceEnd) {
+        LocalDateTime hour = sliceStart.truncatedTo(ChronoUnit.HOURS);
+        return String.format("hour=%02d/part-%04d-%04d.arrow", sliceStart.getHour(),
+                ChronoUnit.SECONDS.between(hour, sliceStart), ChronoUnit.SECONDS.between(hour, sliceEnd));
+    }
+
+    /**
+     * Reject an empty range, or one that ends before the job's checkpoint.
+     */
+    private Optional<LocalDateTime> validate(String jobName, LocalDateTime start, LocalDateTime end)
+            throws IOException {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Export start must be before end");
+        }
+        Optional<LocalDateTime> checkpoint = ExportCheckpoint.load(exportRoot.resolve(jobName));
+        if (checkpoint.isPresent() && end.isBefore(checkpoint.get())) {
+            throw new IllegalArgumentException("Export job " + jobName + " is already exported up to "
+                    + checkpoint.get() + ", after the requested end " + end);
+        }
+        return checkpoint;
+    }
+
+    private ArrowPartitionWriter openWriter(Path hourDir, UUID camera, String hourFile) {
+        String cameraKey = camera != null ? camera.toString() : UNKNOWN_CAMERA;
+        try {
+            return new ArrowPartitionWriter(allocator, hourDir.resolve("camera=" + cameraKey).resolve(hourFile),
+                    batchRows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * FAIL-SAFE: Remove partition files left half-written by a crashed run.
+     */
+    private void discardIncompleteFiles(Path jobDir) throws IOException {
+        if (!Files.isDirectory(jobDir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(jobDir)) {
+            for (Path path : paths.filter(p -> p.toString().endsWith(ArrowPartitionWriter.IN_PROGRESS_SUFFIX))
+                    .toList()) {
+                Files.deleteIfExists(path);
+                log.warn("Discarded incomplete export file {}", path);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        runner.shutdownNow();
+        // A run interrupted between slices resumes from its checkpoint next time
+        runner.awaitTermination(10, TimeUnit.SECONDS);
+        allocator.close();
+    }
+
+    /**
+     * Outcome of an export run.
+     */
+    public record ExportResult(long rows, int files) {}
+
+    /**
+     * A run queued over the API.
+     *
+     * @param state QUEUED, RUNNING, COMPLETED or FAILED
+     */
+    public record RunStatus(String job, LocalDateTime start, LocalDateTime end, String state,
+                            long rows, int files, String error) {}
+
+    /**
+     * One background run of {@link #exportRange}.
+     */
+    private final class Run {
+
+        private final String jobName;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private volatile String state = "QUEUED";
+        private volatile ExportResult result;
+        private volatile String error;
+
+        Run(String jobName, LocalDateTime start, LocalDateTime end) {
+            this.jobName = jobName;
+            this.start = start;
+            this.end = end;
+        }
+
+        void execute() {
+            state = "RUNNING";
+            try {
+                result = exportRange(jobName, start, end);
+                state = "COMPLETED";
+            } catch (Exception e) {
+                error = e.getMessage();
+                state = "FAILED";
+                log.error("Detection export {} failed: {}", jobName, e.getMessage(), e);
+            }
+        }
+
+        boolean isFinished() {
+            return "COMPLETED".equals(state) || "FAILED".equals(state);
+        }
+
+        RunStatus status() {
+            ExportResult done = result;
+            return new RunStatus(jobName, start, end, state, done != null ? done.rows() : 0,
+                    done != null ? done.files() : 0, error);
+        }
+    }
+}
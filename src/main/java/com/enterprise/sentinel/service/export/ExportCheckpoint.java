@@ -0,0 +1,40 @@
+package com.enterprise.sentinel.service.export;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Durable "exported up to" marker for an export job.
+ * Stores the exclusive end of the last fully committed time slice, so a
+ * restarted job resumes at the first slice that was not yet published.
+ * Written via temp file + atomic rename so a crash never leaves it torn.
+ */
+final class ExportCheckpoint {
+
+    static final String FILE_NAME = "_checkpoint";
+
+    private ExportCheckpoint() {
+    }
+
+    static Optional<LocalDateTime> load(Path jobDir) throws IOException {
+        Path file = jobDir.resolve(FILE_NAME);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        String value = Files.readString(file, StandardCharsets.UTF_8).trim();
+        return value.isEmpty() ? Optional.empty() : Optional.of(LocalDateTime.parse(value));
+    }
+
+    static void save(Path jobDir, LocalDateTime exportedUntil) throws IOException {
+        Files.createDirectories(jobDir);
+        Path tmp = jobDir.resolve(FILE_NAME + ".tmp");
+        Files.writeString(tmp, exportedUntil.toString(), StandardCharsets.UTF_8);
+        Files.move(tmp, jobDir.resolve(FILE_NAME),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
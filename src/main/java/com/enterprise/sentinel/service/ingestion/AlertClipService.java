@@ -0,0 +1,300 @@
+package com.enterprise.sentinel.service.ingestion;
+
+import com.enterprise.sentinel.domain.model.AlertClip;
+import com.enterprise.sentinel.domain.model.DetectionEvent;
+import com.enterprise.sentinel.domain.model.SecurityAlert;
+import com.enterprise.sentinel.domain.repository.AlertClipRepository;
+import com.enterprise.sentinel.domain.repository.DetectionEventRepository;
+import com.enterprise.sentinel.service.analysis.SecurityAlertEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes pre-/post-roll footage for security alerts.
+ *
+ * Every recorded camera keeps its last seconds of muxed packets in a
+ * {@link PacketRing} (bounded direct memory, fed by {@link StreamRecorder}).
+ * When an alert fires, the clip is cut after the post-roll has arrived: GOPs
+ * from the keyframe before the pre-roll through the post-roll are copied to a
+ * file as-is, so a clip costs a memory copy, not a decode/encode.
+ *
+ * The window is anchored on the detection's capture time (the wall clock the
+ * ring is stamped with), not on when the alert arrives: under pipeline lag the
+ * pre-roll still leads into the frame that triggered the alert.
+ *
+ * Alerts on a camera that fire while its clip is still pending extend that
+ * clip (up to {@code max-clip-seconds}) instead of writing overlapping copies.
+ * The ring's time window covers the longest such clip plus its leading GOP,
+ * so an extended clip keeps the first alert's pre-roll; {@code ring-mb} must
+ * hold that much of the camera's stream (a clip that lost its start is logged).
+ *
+ * Rings are allocated up front, {@code ring-mb} per recorded camera, within
+ * {@code max-total-ring-mb}; cameras past that budget record without clips
+ * (logged). On shutdown pending clips are cut from what the rings hold.
+ */
+@Slf4j
+@Service
+public class AlertClipService {
+
+    private static final String CLIP_DIR = "clips";
+    // Longest GOP the ring window allows for before a clip's start
+    private static final long MAX_GOP_MS = 10_000;
+    private static final long RECHECK_MS = 500;
+    private static final long SHUTDOWN_WAIT_SECONDS = 10;
+
+    private final DetectionEventRepository detectionEventRepository;
+    private final AlertClipRepository alertClipRepository;
+    private final Path clipRoot;
+    private final long preRollMs;
+    private final long postRollMs;
+    private final long maxClipMs;
+    private final int ringBytes;
+    private final int maxRings;
+
+    private final Map<UUID, PacketRing> rings = new ConcurrentHashMap<>();
+    private final AtomicInteger allocatedRings = new AtomicInteger();
+    // Latest clip per camera, which later alerts may extend
+    private final Map<UUID, PendingClip> pending = new ConcurrentHashMap<>();
+    // Every clip not written yet, including one a newer clip of its camera replaced in pending
+    private final Set<PendingClip> unwritten = ConcurrentHashMap.newKeySet();
+    // Lookups, waits and file writes; one thread keeps alert storms from competing with ingestion
+    private final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "sentinel-clips");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AlertClipService(DetectionEventRepository detectionEventRepository,
+                            AlertClipRepository alertClipRepository,
+                            @Value("${app.storage.root-path:./sentinel-storage}") String storageRoot,
+                            @Value("${app.clips.pre-roll-seconds:10}") long preRollSeconds,
+                            @Value("${app.clips.post-roll-seconds:10}") long postRollSeconds,
+                            @Value("${app.clips.max-clip-seconds:120}") long maxClipSeconds,
+                            @Value("${app.clips.ring-mb:32}") int ringMb,
+                            @Value("${app.clips.max-total-ring-mb:512}") int maxTotalRingMb) {
+        this.detectionEventRepository = detectionEventRepository;
+        this.alertClipRepository = alertClipRepository;
+        this.clipRoot = Path.of(storageRoot).resolve(CLIP_DIR);
+        this.preRollMs = TimeUnit.SECONDS.toMillis(preRollSeconds);
+        this.postRollMs = TimeUnit.SECONDS.toMillis(postRollSeconds);
+        this.maxClipMs = TimeUnit.SECONDS.toMillis(maxClipSeconds);
+        this.ringBytes = ringMb * 1024 * 1024;
+        this.maxRings = Math.max(0, maxTotalRingMb / ringMb);
+        // At shutdown, waiting clips are cut at once instead of after their post-roll
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    // ====== RECORDER CALLBACKS ======
+
+    /**
+     * Allocate the packet ring for a camera that starts recording.
+     *
+     * @return null if the ring budget is used up: the camera records without alert clips
+     */
+    PacketRing openRing(UUID cameraId) {
+        if (allocatedRings.incrementAndGet() > maxRings) {
+            allocatedRings.decrementAndGet();
+            log.warn("No alert clips for camera {}: {} rings of {} MB use up app.clips.max-total-ring-mb",
+                    cameraId, maxRings, ringBytes / (1024 * 1024));
+            return null;
+        }
+        PacketRing ring = new PacketRing(ringBytes, windowMs());
+        rings.put(cameraId, ring);
+        return ring;
+    }
+
+    /**
+     * The camera stopped recording; pending clips are cut from what the ring holds.
+     */
+    void closeRing(UUID cameraId, PacketRing ring) {
+        if (ring == null) {
+            return;
+        }
+        ring.end();
+        rings.remove(cameraId, ring);
+        allocatedRings.decrementAndGet();
+    }
+
+    // ====== ALERTS ======
+
+    /**
+     * Schedule the clip for an alert; returns immediately.
+     */
+    @EventListener
+    public void onSecurityAlert(SecurityAlertEvent event) {
+        SecurityAlert alert = event.getAlert();
+        long receivedMs = System.currentTimeMillis();
+        try {
+            executor.execute(() -> addAlert(alert.getId(), alert.getDetectionEventId(), receivedMs));
+        } catch (RejectedExecutionException e) {
+            log.debug("No clip for alert {}: shutting down", alert.getId());
+        }
+    }
+
+    /**
+     * Clip of an alert, once written.
+     */
+    public Optional<AlertClip> findClip(UUID alertId) {
+        return alertClipRepository.findByAlertId(alertId);
+    }
+
+    /**
+     * Write pending clips from what the rings hold now (as when their cameras
+     * stop), then stop; waits at most {@value #SHUTDOWN_WAIT_SECONDS} s.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        rings.values().forEach(PacketRing::end);
+        try {
+            // Runs after alerts already queued, so their clips are cut too
+            executor.execute(() -> List.copyOf(unwritten).forEach(this::extract));
+        } catch (RejectedExecutionException e) {
+            return; // Already shut down
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+            log.warn("Alert clips still being written after {} s; abandoning {}", SHUTDOWN_WAIT_SECONDS,
+                    unwritten.size());
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Time a ring keeps: a clip of up to {@code max-clip-seconds} (or one pre- and
+     * post-roll, if longer) from its start, plus the GOP leading into that start.
+     */
+    long windowMs() {
+        return preRollMs + Math.max(maxClipMs, postRollMs) + MAX_GOP_MS;
+    }
+
+    // ====== HELPER METHODS (clip thread) ======
+
+    /**
+     * @param receivedMs When the alert arrived; the clip anchor only if the detection has no capture time
+     */
+    void addAlert(UUID alertId, UUID detectionEventId, long receivedMs) {
+        Optional<DetectionEvent> detection = detectionEventRepository.findById(detectionEventId);
+        UUID cameraId = detection.map(DetectionEvent::getVideoId).orElse(null);
+        long alertMs = detection.map(DetectionEvent::getTimestampMs).orElse(receivedMs);
+        PacketRing ring = cameraId != null ? rings.get(cameraId) : null;
+        if (ring == null) {
+            log.debug("No clip for alert {}: camera {} is not being recorded", alertId, cameraId);
+            return;
+        }
+
+        PendingClip clip = pending.get(cameraId);
+        if (clip != null && clip.ring == ring && alertMs - preRollMs <= clip.toMs) {
+            clip.alertIds.add(alertId);
+            clip.toMs = Math.min(Math.max(clip.toMs, alertMs + postRollMs), clip.fromMs + maxClipMs);
+            return;
+        }
+        clip = new PendingClip(cameraId, ring, alertMs - preRollMs, alertMs + postRollMs);
+        clip.alertIds.add(alertId);
+        pending.put(cameraId, clip);
+        unwritten.add(clip);
+        PendingClip scheduled = clip;
+        // A lagging alert may find its post-roll already buffered
+        long delayMs = Math.max(0, clip.toMs - System.currentTimeMillis());
+        executor.schedule(() -> extract(scheduled), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void extract(PendingClip clip) {
+        if (!unwritten.contains(clip)) {
+            return; // Written at shutdown before its scheduled check
+        }
+        // The GOP holding toMs is complete once a later one has started
+        if (!clip.ring.isEnded() && clip.ring.lastTimestampMs() <= clip.toMs
+                && System.currentTimeMillis() < clip.toMs + MAX_GOP_MS) {
+            executor.schedule(() -> extract(clip), RECHECK_MS, TimeUnit.MILLISECONDS);
+            return;
+        }
+        pending.remove(clip.cameraId, clip);
+        unwritten.remove(clip);
+
+        UUID clipName = clip.alertIds.get(0);
+        Path file = clipRoot.resolve(clip.cameraId.toString()).resolve(clipName + ".ts");
+        Path tmp = file.resolveSibling(clipName + ".ts.tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            Optional<PacketRing.Extent> extent;
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                extent = clip.ring.copyTo(channel, clip.fromMs, clip.toMs);
+            }
+            if (extent.isEmpty()) {
+                Files.deleteIfExists(tmp);
+                log.warn("No clip for alerts {}: no keyframe buffered for camera {}", clip.alertIds, clip.cameraId);
+                return;
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            PacketRing.Extent written = extent.get();
+            if (written.startMs() > clip.fromMs) {
+                log.warn("Clip for alerts {} starts {} ms late: camera {} ring held no earlier keyframe "
+                        + "(raise app.clips.ring-mb for its bitrate)", clip.alertIds,
+                        written.startMs() - clip.fromMs, clip.cameraId);
+            }
+            List<AlertClip> rows = new ArrayList<>();
+            for (UUID alertId : clip.alertIds) {
+                rows.add(AlertClip.builder()
+                        .alertId(alertId)
+                        .cameraId(clip.cameraId)
+                        .storagePath(file.toString())
+                        .startMs(written.startMs())
+                        .endMs(written.endMs())
+                        .sizeBytes(written.bytes())
+                        .build());
+            }
+            alertClipRepository.saveAll(rows);
+            log.info("Alert clip written: camera={}, alerts={}, {} ms, {} bytes",
+                    clip.cameraId, clip.alertIds.size(), written.endMs() - written.startMs(), written.bytes());
+        } catch (Exception e) {
+            log.error("Failed to write clip for alerts {}: {}", clip.alertIds, e.getMessage());
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+                // Best effort
+            }
+        }
+    }
+
+    /**
+     * A clip waiting for its post-roll. Only touched on the clip thread.
+     */
+    private static final class PendingClip {
+
+        private final UUID cameraId;
+        private final PacketRing ring;
+        private final long fromMs;
+        private long toMs;
+        private final List<UUID> alertIds = new ArrayList<>();
+
+        PendingClip(UUID cameraId, PacketRing ring, long fromMs, long toMs) {
+            this.cameraId = cameraId;
+            this.ring = ring;
+            this.fromMs = fromMs;
+            this.toMs = toMs;
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.enterprise.sentinel.service.ingestion;
+
+import com.enterprise.sentinel.domain.model.Video;
+import com.enterprise.sentinel.domain.repository.VideoRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Resumable chunked upload of video files into the storage root.
+ *
+ * Data Flow:
+ * 1. Create: client declares name and size (optionally the SHA-256, which
+ *    short-circuits the transfer if the content is already stored)
+ * 2. Chunks: raw bytes are streamed from the request straight into a
+ *    {@link FileChannel} at their offset; a chunk that starts where hashing
+ *    stopped is hashed in the same pass
+ * 3. Chunks that arrive ahead of the hash position (parallel uploads) are
+ *    written immediately and hashed from the page cache once the gap fills
+ * 4. Complete: the last byte finalizes the SHA-256, dedupes by checksum and
+ *    moves the file to {@code videos/<sha[0..2]>/<sha><ext>} (atomic rename)
+ *
+ * Guarantees:
+ * - Heap use per in-flight chunk is one fixed buffer, whatever the file size
+ * - Ranges are recorded only after their bytes are forced to disk, so a client
+ *   can resume from {@code nextOffset} after a crash or a dropped connection
+ * - One {@link Video} row per distinct content
+ */
+@Slf4j
+@Service
+public class ChunkedUploadService {
+
+    private static final int COPY_BUFFER_SIZE = 256 * 1024;
+    private static final String UPLOAD_DIR = ".uploads";
+    private static final String VIDEO_DIR = "videos";
+
+    private final VideoRepository videoRepository;
+    private final Path storageRoot;
+    private final Path uploadDir;
+    private final long maxSizeBytes;
+    private final long expireMs;
+
+    private final Map<UUID, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    public ChunkedUploadService(VideoRepository videoRepository,
+                                @Value("${app.storage.root-path:./sentinel-storage}") String storageRoot,
+                                @Value("${app.upload.max-size-gb:64}") long maxSizeGb,
+                                @Value("${app.upload.expire-hours:24}") long expireHours) {
+        this.videoRepository = videoRepository;
+        this.storageRoot = Path.of(storageRoot);
+        this.uploadDir = this.storageRoot.resolve(UPLOAD_DIR);
+        this.maxSizeBytes = maxSizeGb * 1024 * 1024 * 1024;
+        this.expireMs = TimeUnit.HOURS.toMillis(expireHours);
+    }
+
+    /**
+     * Restore uploads that were in progress before a restart.
+     */
+    @PostConstruct
+    public void loadSessions() throws IOException {
+        Files.createDirectories(uploadDir);
+        try (Stream<Path> files = Files.list(uploadDir)) {
+            files.filter(file -> file.getFileName().toString().endsWith(UploadSession.META_SUFFIX))
+                    .forEach(file -> {
+                        try {
+                            UploadSession session = UploadSession.load(file);
+                            sessions.put(session.id, session);
+                        } catch (IOException e) {
+                            log.warn("Skipping upload state {}: {}", file, e.getMessage());
+                        }
+                    });
+        }
+        if (!sessions.isEmpty()) {
+            log.info("Restored {} unfinished uploads", sessions.size());
+        }
+    }
+
+    /**
+     * Start an upload.
+     *
+     * @param filename Original file name (only the last path segment is kept)
+     * @param size Total size in bytes
+     * @param sha256 Optional expected SHA-256 (hex); if that content is already stored,
+     *               no upload is created and the existing video is returned
+     */
+    public UploadStatus create(String filename, long size, String sha256) throws IOException {
+        if (filename == null || filename.isBlank()) {
+            throw new IllegalArgumentException("filename is required");
+        }
+        if (size <= 0 || size > maxSizeBytes) {
+            throw new IllegalArgumentException("size must be between 1 and " + maxSizeBytes + " bytes");
+        }
+        String expected = null;
+        if (sha256 != null && !sha256.isBlank()) {
+            expected = sha256.trim().toLowerCase(Locale.ROOT);
+            if (!expected.matches("[0-9a-f]{64}")) {
+                throw new IllegalArgumentException("sha256 must be 64 hex characters");
+            }
+            Optional<Video> existing = videoRepository.findFirstByChecksumAndSourceType(expected, Video.SourceType.UPLOAD);
+            if (existing.isPresent()) {
+                return new UploadStatus(null, filename, size, 0, size, "DUPLICATE", existing.get().getId(), expected);
+            }
+        }
+
+        String name = Path.of(filename.trim()).getFileName().toString();
+        UploadSession session = new UploadSession(UUID.randomUUID(), name, size, expected, uploadDir);
+        Files.createDirectories(uploadDir);
+        Files.createFile(session.partFile);
+        session.save();
+        sessions.put(session.id, session);
+        return status(session);
+    }
+
+    /**
+     * Write one chunk. Chunks may arrive in any order and may be retried.
+     *
+     * @param offset Position of the first byte in the file
+     * @param length Number of bytes the stream will deliver
+     * @throws NoSuchElementException if the upload does not exist
+     */
+    public UploadStatus writeChunk(UUID uploadId, long offset, long length, InputStream in) throws IOException {
+        UploadSession session = find(uploadId);
+        if (session.isComplete()) {
+            return status(session);
+        }
+        if (offset < 0 || length <= 0 || offset + length > session.size) {
+            throw new IllegalArgumentException("Chunk [" + offset + ", " + (offset + length)
+                    + ") is outside the file (size " + session.size + ")");
+        }
+
+        boolean inline;
+        synchronized (session) {
+            // Claim the digest if this chunk continues the hashed prefix
+            inline = !session.hashing && offset == session.hashedTo;
+            session.hashing |= inline;
+        }
+
+        long written = 0;
+        boolean forced = false;
+        try (FileChannel channel = FileChannel.open(session.partFile, StandardOpenOption.WRITE)) {
+            try {
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                while (written < length) {
+                    int read = in.read(buffer, 0, (int) Math.min(buffer.length, length - written));
+                    if (read < 0) {
+                        break;
+                    }
+                    ByteBuffer view = ByteBuffer.wrap(buffer, 0, read);
+                    while (view.hasRemaining()) {
+                        channel.write(view, offset + written + view.position());
+                    }
+                    if (inline) {
+                        session.digest.update(buffer, 0, read);
+                    }
+                    written += read;
+                }
+            } finally {
+                // Also after a dropped connection: what arrived is kept once it is on disk
+                if (written > 0) {
+                    channel.force(false);
+                }
+                forced = true;
+            }
+        } finally {
+            synchronized (session) {
+                if (forced && written > 0) {
+                    session.addRange(offset, offset + written);
+                }
+                if (inline) {
+                    if (forced) {
+                        session.hashedTo = offset + written;
+                    } else {
+                        // The digest saw bytes that are not recorded: re-hash the recorded prefix
+                        session.digest = UploadSession.newDigest();
+                        session.hashedTo = 0;
+                    }
+                    session.hashing = false;
+                }
+                session.lastActivityMs = System.currentTimeMillis();
+                if (!session.isComplete()) {
+                    session.save();
+                }
+            }
+        }
+        if (written < length) {
+            throw new IllegalArgumentException("Chunk ended after " + written + " of " + length + " bytes");
+        }
+
+        synchronized (session) {
+            // A parallel chunk finished the upload first
+            if (session.isComplete()) {
+                return status(session);
+            }
+            catchUpDigest(session);
+            if (session.isFullyReceived() && !session.hashing && session.hashedTo == session.size) {
+                return complete(session);
+            }
+            return status(session);
+        }
+    }
+
+    public Optional<UploadStatus> getStatus(UUID uploadId) {
+        return Optional.ofNullable(sessions.get(uploadId)).map(this::status);
+    }
+
+    /**
+     * Abort an upload and delete its data. Returns false if it does not exist.
+     */
+    public boolean abort(UUID uploadId) throws IOException {
+        UploadSession session = sessions.remove(uploadId);
+        if (session == null) {
+            return false;
+        }
+        deleteFiles(session);
+        return true;
+    }
+
+    /**
+     * Remove uploads with no activity for {@code app.upload.expire-hours}.
+     */
+    @Scheduled(fixedDelay = 3_600_000)
+    public void expireStale() {
+        long cutoff = System.currentTimeMillis() - expireMs;
+        sessions.values().removeIf(session -> {
+            synchronized (session) {
+                if (session.lastActivityMs >= cutoff || session.hashing) {
+                    return false;
+                }
+            }
+            try {
+                deleteFiles(session);
+            } catch (IOException e) {
+                log.warn("Could not delete expired upload {}: {}", session.id, e.getMessage());
+            }
+            return true;
+        });
+    }
+
+    // ====== HELPER METHODS ======
+
+    private UploadSession find(UUID uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null) {
+            throw new NoSuchElementException("Upload not found: " + uploadId);
+        }
+        return session;
+    }
+
+    /**
+     * Hash bytes that arrived ahead of the hash position once they are contiguous.
+     * Caller holds the session monitor; reads come from the page cache.
+     */
+    private void catchUpDigest(UploadSession session) throws IOException {
+        if (session.hashing) {
+            return; // The claiming chunk catches up when it finishes
+        }
+        long end = session.contiguousEnd(session.hashedTo);
+        if (end <= session.hashedTo) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(session.partFile, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+            long position = session.hashedTo;
+            while (position < end) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("Upload file shorter than its recorded ranges: " + session.partFile);
+                }
+                session.digest.update(buffer.array(), 0, read);
+                position += read;
+            }
+        }
+        session.hashedTo = end;
+    }
+
+    /**
+     * Finalize the checksum, dedupe and publish the file. Caller holds the session monitor.
+     */
+    private UploadStatus complete(UploadSession session) throws IOException {
+        String checksum = HexFormat.of().formatHex(session.digest.digest());
+        if (session.declaredSha256 != null && !session.declaredSha256.equals(checksum)) {
+            sessions.remove(session.id);
+            deleteFiles(session);
+            throw new IllegalStateException("Checksum mismatch: expected " + session.declaredSha256
+                    + ", received " + checksum);
+        }
+
+        synchronized (this) {
+            Optional<Video> existing = videoRepository.findFirstByChecksumAndSourceType(checksum, Video.SourceType.UPLOAD);
+            if (existing.isPresent()) {
+                session.videoId = existing.get().getId();
+                session.duplicate = true;
+            } else {
+                Path target = publish(session, checksum);
+                Video video = videoRepository.save(Video.builder()
+                        .originalFilename(session.filename)
+                        .storagePath(target.toAbsolutePath().toString())
+                        .checksum(checksum)
+                        .sourceType(Video.SourceType.UPLOAD)
+                        .build());
+                session.videoId = video.getId();
+            }
+        }
+        session.checksum = checksum;
+        deleteFiles(session);
+        log.info("Upload {} complete: video={}, size={}, duplicate={}",
+                session.id, session.videoId, session.size, session.duplicate);
+        return status(session);
+    }
+
+    private Path publish(UploadSession session, String checksum) throws IOException {
+        String name = session.filename;
+        int dot = name.lastIndexOf('.');
+        String extension = dot > 0 ? name.substring(dot).toLowerCase(Locale.ROOT) : "";
+        if (!extension.matches("\\.[a-z0-9]{1,8}")) {
+            extension = "";
+        }
+        Path target = storageRoot.resolve(VIDEO_DIR).resolve(checksum.substring(0, 2)).resolve(checksum + extension);
+        Files.createDirectories(target.getParent());
+        // Same file system as the upload directory, so this is a rename, not a copy
+        Files.move(session.partFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return target;
+    }
+
+    private void deleteFiles(UploadSession session) throws IOException {
+        Files.deleteIfExists(session.partFile);
+        Files.deleteIfExists(session.metaFile);
+    }
+
+    private UploadStatus status(UploadSession session) {
+        synchronized (session) {
+            String state = !session.isComplete() ? "RECEIVING" : session.duplicate ? "DUPLICATE" : "COMPLETE";
+            return new UploadStatus(session.id, session.filename, session.size, session.received(),
+                    session.nextOffset(), state, session.videoId, session.checksum);
+        }
+    }
+
+    /**
+     * Progress of one upload. {@code nextOffset} is where a sequential client resumes.
+     */
+    public record UploadStatus(
+            UUID uploadId,
+            String filename,
+            long size,
+            long received,
+            long nextOffset,
+            String state,
+            UUID videoId,
+            String checksum
+    ) {
+    }
+}
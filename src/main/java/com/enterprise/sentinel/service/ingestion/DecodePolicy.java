@@ -0,0 +1,37 @@
+package com.enterprise.sentinel.service.ingestion;
+
+/**
+ * Which frames the FFmpeg decoder may skip for a stream.
+ *
+ * Skipping is done inside the decoder ({@code skip_frame}), so a skipped frame
+ * costs demuxing only: no decode, no color conversion, no copy to Java.
+ * Selectable per camera; the sampler still picks one frame per inference
+ * interval from whatever the decoder returns.
+ */
+public enum DecodePolicy {
+
+    /** KEYFRAME_ONLY when the inference rate is below {@code keyframe-only-below-fps}, FULL otherwise. */
+    AUTO(null),
+
+    /** Decode every frame. */
+    FULL(null),
+
+    /** Skip frames no other frame references (typically B-frames); timestamps stay dense. */
+    SKIP_NON_REFERENCE("noref"),
+
+    /** Decode I-frames only; the usable frame rate drops to the camera's keyframe rate. */
+    KEYFRAME_ONLY("nokey");
+
+    private final String skipFrame;
+
+    DecodePolicy(String skipFrame) {
+        this.skipFrame = skipFrame;
+    }
+
+    /**
+     * Value for FFmpeg's {@code skip_frame} decoder option, or null to decode everything.
+     */
+    String skipFrameOption() {
+        return skipFrame;
+    }
+}
@@ -3,19 +3,42 @@ package com.enterprise.sentinel.service.ingestion;
 import org.springframework.stereotype.Service;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 @Service
 public class FileIngestionService {
 
+    private static final int DIGEST_BUFFER_SIZE = 1 << 16;
+
     // Validates if a file exists and is a supported video format
     public String prepareFileForPlayback(File file) throws FileNotFoundException {
         if (!file.exists()) {
             throw new FileNotFoundException("Video file not found: " + file.getAbsolutePath());
         }
         
-        // In the future: Add SHA-256 checksum calculation here for security audit
-        
         // Return the absolute path formatted for VLC (file:///)
         return file.getAbsolutePath();
     }
-}
\ No newline at end of file
+
+    /**
+     * SHA-256 of the file contents (hex), streamed so large recordings are not loaded into memory.
+     */
+    public String sha256(File file) throws IOException {
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[DIGEST_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.enterprise.sentinel.service.ingestion;
+
+import com.enterprise.sentinel.service.storage.SegmentWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Muxer output that groups bytes into one store record per GOP.
+ *
+ * The recorder calls {@link #startGop} right before it writes a keyframe, so
+ * every keyframe record starts at the keyframe (plus the PAT/PMT the muxer
+ * repeats there) and playback can begin at any keyframe record.
+ * Records are capped at {@code maxRecordBytes}; longer GOPs continue in
+ * non-keyframe records, which bounds memory per recording.
+ * Each record also goes to the camera's {@link PacketRing} for alert clips.
+ */
+final class GopOutputStream extends OutputStream {
+
+    private static final int INITIAL_BUFFER_BYTES = 256 * 1024;
+
+    private final SegmentWriter writer;
+    private final PacketRing ring;
+    private final int maxRecordBytes;
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_BYTES];
+    private int size;
+    private long recordTimestampMs = System.currentTimeMillis();
+    private boolean recordKeyframe;
+    private long records;
+    private long bytes;
+
+    GopOutputStream(SegmentWriter writer, PacketRing ring, int maxRecordBytes) {
+        this.writer = writer;
+        this.ring = ring;
+        this.maxRecordBytes = maxRecordBytes;
+    }
+
+    /**
+     * Close the current record; following bytes start a keyframe record at {@code timestampMs}.
+     */
+    void startGop(long timestampMs) throws IOException {
+        flushRecord();
+        recordTimestampMs = timestampMs;
+        recordKeyframe = true;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (size == maxRecordBytes) {
+                flushRecord(); // Continuation of an oversized GOP
+            }
+            int count = Math.min(length, maxRecordBytes - size);
+            if (size + count > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.min(maxRecordBytes, Math.max(size + count, buffer.length * 2)));
+            }
+            System.arraycopy(data, offset, buffer, size, count);
+            size += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushRecord();
+    }
+
+    long getRecords() {
+        return records;
+    }
+
+    long getBytes() {
+        return bytes;
+    }
+
+    private void flushRecord() throws IOException {
+        if (size == 0) {
+            return;
+        }
+        writer.append(recordTimestampMs, recordKeyframe, buffer, 0, size);
+        if (ring != null) {
+            ring.append(recordTimestampMs, recordKeyframe, buffer, 0, size);
+        }
+        records++;
+        bytes += size;
+        size = 0;
+        recordKeyframe = false;
+    }
+}
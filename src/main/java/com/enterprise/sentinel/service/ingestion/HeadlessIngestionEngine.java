@@ -0,0 +1,487 @@
+package com.enterprise.sentinel.service.ingestion;
+
+import com.enterprise.sentinel.config.ExecutionModel;
+import com.enterprise.sentinel.domain.model.Video;
+import com.enterprise.sentinel.domain.repository.VideoRepository;
+import com.enterprise.sentinel.service.analysis.VideoProcessor;
+import com.enterprise.sentinel.service.analysis.YoloV8Translator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bytedeco.ffmpeg.avformat.AVIOContext;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless decode pipeline: FFmpeg (JavaCV) grabbers feed inference directly,
+ * without a JavaFX player per camera.
+ *
+ * Streams decode one frame per step on the {@link StreamSupervisor} pool, which
+ * also reconnects dropped cameras and tracks their health, and hand one frame
+ * per inference interval to {@link VideoProcessor#submitFrame}.
+ *
+ * Decode cost is cut per camera:
+ * - {@link DecodePolicy}: the decoder skips non-reference or non-key frames
+ *   (AUTO picks keyframe-only when the inference rate is below
+ *   {@code keyframe-only-below-fps})
+ * - Downscale: swscale converts straight to the model input size during the
+ *   pixel format conversion it does anyway, so 4K frames are never copied to
+ *   Java at full resolution and the model skips its own resize
+ * - FFmpeg decoder threads are capped per stream so N cameras do not spawn
+ *   N x cores decoder threads
+ *
+ * Each stream reports the CPU time of its decode steps. With one decoder
+ * thread (the default) FFmpeg decodes on the calling thread, so this is the
+ * stream's full decode cost. Steps on virtual threads (virtual execution
+ * mode) have no per-thread CPU clock and are not measured; the status says
+ * so ({@code decodeCpuMeasured}).
+ *
+ * Files are paced to real time (they stand in for a camera); offline
+ * analysis of recordings is {@link OfflineAnalysisService}.
+ *
+ * Each source is registered as a {@link Video} row so detections, dwell and
+ * exports are attributed to it. The row is looked up by stream URL or file
+ * content hash first, so a restarted camera or a re-analysed file keeps its
+ * id (and with it zone bindings, model routes and recordings). A source can
+ * run once at a time.
+ */
+@Slf4j
+@Service
+public class HeadlessIngestionEngine {
+
+    private static final ThreadMXBean THREAD_MX = ManagementFactory.getThreadMXBean();
+    private static final String ROLE = "ingest";
+
+    private final RtspService rtspService;
+    private final FileIngestionService fileIngestionService;
+    private final VideoProcessor videoProcessor;
+    private final VideoRepository videoRepository;
+    private final StreamSupervisor supervisor;
+    private final long defaultIntervalMs;
+    private final double keyframeOnlyBelowFps;
+    private final DecodePolicy defaultDecodePolicy;
+    private final boolean defaultDownscale;
+    private final int decoderThreads;
+    private final int maxStreams;
+    private final long connectTimeoutMs;
+    private final File fileRoot;
+
+    private final Map<UUID, StreamWorker> workers = new ConcurrentHashMap<>();
+
+    public HeadlessIngestionEngine(RtspService rtspService,
+                                   FileIngestionService fileIngestionService,
+                                   VideoProcessor videoProcessor,
+                                   VideoRepository videoRepository,
+                                   StreamSupervisor supervisor,
+                                   @Value("${app.ingestion.inference-interval-ms:500}") long defaultIntervalMs,
+                                   @Value("${app.ingestion.keyframe-only-below-fps:1.0}") double keyframeOnlyBelowFps,
+                                   @Value("${app.ingestion.decode-policy:AUTO}") DecodePolicy defaultDecodePolicy,
+                                   @Value("${app.ingestion.downscale-to-model-input:true}") boolean defaultDownscale,
+                                   @Value("${app.ingestion.decoder-threads:1}") int decoderThreads,
+                                   @Value("${app.ingestion.max-streams:32}") int maxStreams,
+                                   @Value("${app.ingestion.connect-timeout-ms:5000}") long connectTimeoutMs,
+                                   @Value("${app.storage.root-path:./sentinel-storage}") String fileRoot) {
+        this.rtspService = rtspService;
+        this.fileIngestionService = fileIngestionService;
+        this.videoProcessor = videoProcessor;
+        this.videoRepository = videoRepository;
+        this.supervisor = supervisor;
+        this.defaultIntervalMs = defaultIntervalMs;
+        this.keyframeOnlyBelowFps = keyframeOnlyBelowFps;
+        this.defaultDecodePolicy = defaultDecodePolicy;
+        this.defaultDownscale = defaultDownscale;
+        this.decoderThreads = decoderThreads;
+        this.maxStreams = maxStreams;
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.fileRoot = new File(fileRoot);
+    }
+
+    /**
+     * Start decoding a live RTSP/HTTP stream with the default decode settings.
+     */
+    public UUID startStream(String url, Long intervalMs) {
+        return startStream(url, intervalMs, null, null);
+    }
+
+    /**
+     * Start decoding a live RTSP/HTTP stream.
+     *
+     * @param url Stream URL (validated by {@link RtspService})
+     * @param intervalMs Inference interval for this camera, or null for the default
+     * @param policy Frames the decoder may skip, or null for the default
+     * @param downscale Scale frames to the model input size while decoding, or null for the default
+     * @return camera id (the registered Video id)
+     */
+    public UUID startStream(String url, Long intervalMs, DecodePolicy policy, Boolean downscale) {
+        String validated = rtspService.prepareStream(url);
+        Video candidate = Video.builder()
+                .originalFilename(describe(validated))
+                .storagePath(validated) // Encrypted at rest: URLs often carry credentials
+                .checksum(sha256(validated)) // Stream identity, not content
+                .sourceType(Video.SourceType.RTSP)
+                .build();
+        return start(candidate, validated, rtspService.redact(validated), true, intervalMs, policy, downscale);
+    }
+
+    /**
+     * Start decoding a recorded file with the default decode settings.
+     */
+    public UUID startFile(File file, Long intervalMs) throws IOException {
+        return startFile(file, intervalMs, null, null);
+    }
+
+    /**
+     * Start decoding a recorded file, paced to real time.
+     * Only files under the storage root can be ingested.
+     *
+     * @return camera id (the registered Video id)
+     */
+    public UUID startFile(File file, Long intervalMs, DecodePolicy policy, Boolean downscale) throws IOException {
+        if (!file.getCanonicalPath().startsWith(fileRoot.getCanonicalPath() + File.separator)) {
+            throw new IllegalArgumentException("File must be under the storage root");
+        }
+        ensureCapacity();
+        String path = fileIngestionService.prepareFileForPlayback(file);
+        Video candidate = Video.builder()
+                .originalFilename(file.getName())
+                .storagePath(path)
+                .checksum(fileIngestionService.sha256(file))
+                .sourceType(Video.SourceType.UPLOAD)
+                .build();
+        return start(candidate, path, file.getName(), false, intervalMs, policy, downscale);
+    }
+
+    /**
+     * Stop a stream. Returns false if the id is unknown.
+     */
+    public boolean stop(UUID cameraId) {
+        return workers.containsKey(cameraId) && supervisor.cancel(cameraId, ROLE);
+    }
+
+    public List<StreamStatus> getStatuses() {
+        List<StreamStatus> statuses = new ArrayList<>();
+        workers.values().forEach(worker -> statuses.add(worker.status()));
+        return statuses;
+    }
+
+    public int getActiveStreamCount() {
+        return workers.size();
+    }
+
+    @PreDestroy
+    public void stopAll() {
+        workers.keySet().forEach(this::stop);
+    }
+
+    // ====== HELPER METHODS ======
+
+    private void ensureCapacity() {
+        if (workers.size() >= maxStreams) {
+            throw new IllegalStateException("Stream limit reached (" + maxStreams + ")");
+        }
+    }
+
+    /**
+     * Admit the source, then reuse its Video row (or register one) and start decoding.
+     * A row registered here is removed again if the start fails.
+     */
+    private synchronized UUID start(Video candidate, String source, String displayName, boolean live,
+                                    Long intervalMs, DecodePolicy policy, Boolean downscale) {
+        ensureCapacity();
+        Video existing = videoRepository
+                .findFirstByChecksumAndSourceType(candidate.getChecksum(), candidate.getSourceType())
+                .orElse(null);
+        if (existing != null && workers.containsKey(existing.getId())) {
+            throw new IllegalStateException("Source already running as camera " + existing.getId());
+        }
+        Video video = existing != null ? existing : videoRepository.save(candidate);
+        try {
+            start(video.getId(), source, displayName, live, intervalMs, policy, downscale);
+        } catch (RuntimeException e) {
+            if (existing == null) {
+                videoRepository.delete(video);
+            }
+            throw e;
+        }
+        return video.getId();
+    }
+
+    private void start(UUID cameraId, String source, String displayName, boolean live,
+                       Long intervalMs, DecodePolicy policy, Boolean downscale) {
+        long interval = intervalMs != null && intervalMs > 0 ? intervalMs : defaultIntervalMs;
+        DecodePolicy resolved = resolvePolicy(policy != null ? policy : defaultDecodePolicy, interval);
+        boolean scale = downscale != null ? downscale : defaultDownscale;
+        StreamWorker worker = new StreamWorker(cameraId, source, displayName, live, interval, resolved, scale);
+        workers.put(cameraId, worker);
+        try {
+            supervisor.supervise(cameraId, ROLE, displayName, live, worker);
+        } catch (RuntimeException e) {
+            workers.remove(cameraId, worker);
+            throw e;
+        }
+        log.info("Headless ingest started: camera={}, source={}, interval={}ms, decodePolicy={}, downscale={}",
+                cameraId, displayName, interval, resolved, scale);
+    }
+
+    private DecodePolicy resolvePolicy(DecodePolicy policy, long intervalMs) {
+        if (policy != DecodePolicy.AUTO) {
+            return policy;
+        }
+        return 1000.0 / intervalMs < keyframeOnlyBelowFps ? DecodePolicy.KEYFRAME_ONLY : DecodePolicy.FULL;
+    }
+
+    private String describe(String url) {
+        try {
+            URI uri = URI.create(url);
+            return uri.getHost() != null ? uri.getHost() + uri.getPath() : rtspService.redact(url);
+        } catch (IllegalArgumentException e) {
+            return rtspService.redact(url);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Snapshot of one stream's decode counters and connection health.
+     */
+    public record StreamStatus(
+            UUID cameraId,
+            String source,
+            StreamHealth.State state,
+            long intervalMs,
+            DecodePolicy decodePolicy,
+            boolean downscaled,
+            long framesDecoded,
+            long framesSubmitted,
+            long framesDropped,
+            long decodeCpuMs,
+            double decodeCpuPercent,
+            boolean decodeCpuMeasured, // False if steps ran where thread CPU time is unavailable
+            StreamHealth.Snapshot connection
+    ) {
+    }
+
+    /**
+     * Decode steps for one source, run by the {@link StreamSupervisor}:
+     * one frame per step, so cameras share the supervisor's pool.
+     */
+    private final class StreamWorker implements SupervisedStream {
+
+        private final UUID cameraId;
+        private final String source;
+        private final String displayName;
+        private final boolean live;
+        private final long intervalMs;
+        private final DecodePolicy decodePolicy;
+        private final boolean downscale;
+        private final long runStartNanos = System.nanoTime();
+
+        private final AtomicLong framesDecoded = new AtomicLong();
+        private final AtomicLong framesSubmitted = new AtomicLong();
+        private final AtomicLong framesDropped = new AtomicLong();
+        private volatile boolean downscaled;
+        private volatile long cpuNanos;
+        private volatile boolean cpuUnmeasured;
+
+        // Per connection; only touched by the supervisor's step calls
+        private FFmpegFrameGrabber grabber;
+        private Java2DFrameConverter converter;
+        private long wallStartMs;
+        private long nextSampleMediaMs;
+        private Frame pendingFrame; // Decoded ahead of its pacing time (files)
+        private long cpuMarkNanos;
+        private boolean measuringCpu; // This step runs on a thread with a CPU clock
+
+        StreamWorker(UUID cameraId, String source, String displayName, boolean live,
+                     long intervalMs, DecodePolicy decodePolicy, boolean downscale) {
+            this.cameraId = cameraId;
+            this.source = source;
+            this.displayName = displayName;
+            this.live = live;
+            this.intervalMs = intervalMs;
+            this.decodePolicy = decodePolicy;
+            this.downscale = downscale;
+        }
+
+        StreamStatus status() {
+            StreamHealth.Snapshot connection = supervisor.getHealth(cameraId, ROLE)
+                    .map(StreamHealth::snapshot)
+                    .orElse(null);
+            long wallNanos = System.nanoTime() - runStartNanos;
+            double cpuPercent = wallNanos <= 0 ? 0.0 : cpuNanos * 100.0 / wallNanos;
+            return new StreamStatus(cameraId, displayName,
+                    connection != null ? connection.state() : StreamHealth.State.STOPPED,
+                    intervalMs, decodePolicy, downscaled,
+                    framesDecoded.get(), framesSubmitted.get(), framesDropped.get(),
+                    cpuNanos / 1_000_000, cpuPercent, !cpuUnmeasured, connection);
+        }
+
+        @Override
+        public void open() throws Exception {
+            grabber = new FFmpegFrameGrabber(source);
+            configure(grabber);
+            grabber.start();
+            if (downscale) {
+                scaleToModelInput(grabber);
+            }
+            converter = new Java2DFrameConverter();
+            wallStartMs = System.currentTimeMillis();
+            nextSampleMediaMs = Long.MIN_VALUE;
+            pendingFrame = null;
+        }
+
+        @Override
+        public long step(StreamHealth health) throws Exception {
+            measuringCpu = THREAD_MX.isCurrentThreadCpuTimeSupported() && !ExecutionModel.isVirtualThread();
+            if (measuringCpu) {
+                cpuMarkNanos = THREAD_MX.getCurrentThreadCpuTime();
+            } else {
+                cpuUnmeasured = true;
+            }
+            try {
+                Frame frame = pendingFrame;
+                pendingFrame = null;
+                if (frame == null) {
+                    frame = grabber.grabImage();
+                    if (frame == null) {
+                        return -1; // End of file or stream closed by the server
+                    }
+                    framesDecoded.incrementAndGet();
+                    health.frame(frame.timestamp / 1000);
+                    reportBytesRead(health);
+                    if (!live) {
+                        // Pace files like a camera, without holding a pool thread
+                        long aheadMs = wallStartMs + frame.timestamp / 1000 - System.currentTimeMillis();
+                        if (aheadMs > 0) {
+                            pendingFrame = frame;
+                            return aheadMs;
+                        }
+                    }
+                }
+                sample(frame);
+                return 0;
+            } finally {
+                accountCpu();
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (grabber != null) {
+                    grabber.close();
+                }
+            } catch (Exception e) {
+                log.debug("Error closing grabber for camera {}: {}", cameraId, e.getMessage());
+            }
+            if (converter != null) {
+                converter.close();
+            }
+            grabber = null;
+            converter = null;
+            pendingFrame = null;
+        }
+
+        @Override
+        public void finished(StreamHealth.State state) {
+            workers.remove(cameraId, this);
+            log.info("Headless ingest {}: camera={}, decoded={}, submitted={}, dropped={}",
+                    state.name().toLowerCase(), cameraId, framesDecoded.get(), framesSubmitted.get(), framesDropped.get());
+        }
+
+        private void configure(FFmpegFrameGrabber grabber) {
+            if (live) {
+                grabber.setOption("rtsp_transport", "tcp");
+                grabber.setOption("timeout", String.valueOf(connectTimeoutMs * 1000)); // µs, connect and reads
+            }
+            grabber.setVideoOption("threads", String.valueOf(decoderThreads));
+            if (decodePolicy.skipFrameOption() != null) {
+                // Decoder drops skipped frames before decoding them
+                grabber.setVideoOption("skip_frame", decodePolicy.skipFrameOption());
+            }
+        }
+
+        /**
+         * Have swscale emit model-sized frames. The model input is square and
+         * stretched (not letterboxed), and boxes are normalized, so detections
+         * are unchanged. Sources already at or below the input size are left alone.
+         */
+        private void scaleToModelInput(FFmpegFrameGrabber grabber) {
+            int size = YoloV8Translator.INPUT_SIZE;
+            if (grabber.getImageWidth() > size || grabber.getImageHeight() > size) {
+                grabber.setImageWidth(size);
+                grabber.setImageHeight(size);
+                downscaled = true;
+            }
+        }
+
+        /**
+         * Sample by media time: one frame per inference interval.
+         */
+        private void sample(Frame frame) {
+            long mediaMs = frame.timestamp / 1000;
+            if (mediaMs < nextSampleMediaMs) {
+                return;
+            }
+            nextSampleMediaMs = mediaMs + intervalMs;
+
+            // The converter reuses its buffer; inference runs later on another thread
+            BufferedImage image = Java2DFrameConverter.cloneBufferedImage(converter.convert(frame));
+            accountCpu(); // Decode cost is visible while the frame is handed over
+            if (videoProcessor.submitFrame(cameraId, image, System.currentTimeMillis())) {
+                framesSubmitted.incrementAndGet();
+            } else {
+                framesDropped.incrementAndGet();
+            }
+        }
+
+        /**
+         * Bytes read by the demuxer's I/O context (files, HTTP); RTSP has none.
+         */
+        private void reportBytesRead(StreamHealth health) {
+            AVIOContext io = grabber.getFormatContext().pb();
+            if (io != null && !io.isNull()) {
+                health.bytesRead(io.bytes_read());
+            }
+        }
+
+        /**
+         * Add the CPU time since the last mark. Virtual threads have no CPU
+         * clock of their own (and change carriers between steps): skipped.
+         */
+        private void accountCpu() {
+            if (!measuringCpu) {
+                return;
+            }
+            long now = THREAD_MX.getCurrentThreadCpuTime();
+            cpuNanos += now - cpuMarkNanos;
+            cpuMarkNanos = now;
+        }
+    }
+}
@@ -0,0 +1,506 @@
+package com.enterprise.sentinel.service.ingestion;
+
+import com.enterprise.sentinel.domain.model.Video;
+import com.enterprise.sentinel.domain.repository.DetectionEventRepository;
+import com.enterprise.sentinel.domain.repository.VideoRepository;
+import com.enterprise.sentinel.service.analysis.VideoProcessor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Offline analysis of recorded files, as fast as the CPU allows.
+ *
+ * Data Flow:
+ * 1. Register the file as a {@link Video} (by content hash, so re-submitting resumes)
+ * 2. Split the media timeline into shards aligned to the inference interval
+ * 3. Each shard runs on its own thread with its own decoder
+ * 4. One frame per interval is analyzed synchronously (nothing is dropped)
+ * 5. The shard's committed position is checkpointed after its detections are saved
+ *
+ * Sampling: with long intervals the decoder seeks to each sample point
+ * (keyframe + a few frames) instead of decoding the whole GOP chain; with short
+ * intervals decoding forward is cheaper, so frames are decoded sequentially.
+ *
+ * Detections carry the frame's media position in {@code timestampMs}.
+ *
+ * Guarantees:
+ * - Resume after crash re-analyzes only [checkpoint, shard end) of each shard;
+ *   detections already saved past the checkpoint are deleted first (no duplicates)
+ * - Re-submitting a completed file re-analyzes it and replaces its detections
+ */
+@Slf4j
+@Service
+public class OfflineAnalysisService {
+
+    // Shards already occupy every core; more decoder threads per shard would oversubscribe
+    private static final String DECODER_THREADS_PER_SHARD = "1";
+
+    private final FileIngestionService fileIngestionService;
+    private final VideoProcessor videoProcessor;
+    private final VideoRepository videoRepository;
+    private final DetectionEventRepository detectionEventRepository;
+    private final long defaultIntervalMs;
+    private final long seekMinIntervalMs;
+    private final long minShardMs;
+    private final int parallelism;
+    private final long checkpointIntervalMs;
+    private final boolean resumeOnStartup;
+    private final File fileRoot;
+    private final Path checkpointRoot;
+    private final ExecutorService shardExecutor;
+
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+
+    public OfflineAnalysisService(FileIngestionService fileIngestionService,
+                                  VideoProcessor videoProcessor,
+                                  VideoRepository videoRepository,
+                                  DetectionEventRepository detectionEventRepository,
+                                  @Value("${app.offline.inference-interval-ms:1000}") long defaultIntervalMs,
+                                  @Value("${app.offline.seek-min-interval-ms:2000}") long seekMinIntervalMs,
+                                  @Value("${app.offline.min-shard-seconds:60}") long minShardSeconds,
+                                  @Value("${app.offline.parallelism:0}") int parallelism,
+                                  @Value("${app.offline.checkpoint-interval-ms:2000}") long checkpointIntervalMs,
+                                  @Value("${app.offline.resume-on-startup:true}") boolean resumeOnStartup,
+                                  @Value("${app.offline.checkpoint-path:./sentinel-offline}") String checkpointRoot,
+                                  @Value("${app.storage.root-path:./sentinel-storage}") String fileRoot) {
+        this.fileIngestionService = fileIngestionService;
+        this.videoProcessor = videoProcessor;
+        this.videoRepository = videoRepository;
+        this.detectionEventRepository = detectionEventRepository;
+        this.defaultIntervalMs = defaultIntervalMs;
+        this.seekMinIntervalMs = seekMinIntervalMs;
+        this.minShardMs = minShardSeconds * 1000;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.checkpointIntervalMs = checkpointIntervalMs;
+        this.resumeOnStartup = resumeOnStartup;
+        this.checkpointRoot = Path.of(checkpointRoot);
+        this.fileRoot = new File(fileRoot);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.shardExecutor = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "sentinel-offline-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Analyze a recorded file. Only files under the storage root can be analyzed.
+     * If an unfinished checkpoint exists for the same content, the job resumes
+     * with the interval it was started with.
+     *
+     * @param intervalMs Media time between analyzed frames, or null for the default
+     * @return job id (the registered Video id)
+     */
+    public UUID start(File file, Long intervalMs) throws IOException {
+        if (!file.getCanonicalPath().startsWith(fileRoot.getCanonicalPath() + File.separator)) {
+            throw new IllegalArgumentException("File must be under the storage root");
+        }
+        String path = fileIngestionService.prepareFileForPlayback(file);
+        String checksum = fileIngestionService.sha256(file);
+        Video video = videoRepository.findFirstByChecksumAndSourceType(checksum, Video.SourceType.UPLOAD)
+                .orElseGet(() -> videoRepository.save(Video.builder()
+                        .originalFilename(file.getName())
+                        .storagePath(path)
+                        .checksum(checksum)
+                        .sourceType(Video.SourceType.UPLOAD)
+                        .build()));
+        launch(video, file, intervalMs);
+        return video.getId();
+    }
+
+    /**
+     * Stop a running job. Its checkpoint is kept, so submitting the file again resumes it.
+     * Returns false if no such job is running.
+     */
+    public boolean stop(UUID jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || job.isFinished()) {
+            return false;
+        }
+        job.running = false;
+        return true;
+    }
+
+    public Optional<JobStatus> getStatus(UUID jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::status);
+    }
+
+    public List<JobStatus> getStatuses() {
+        List<JobStatus> statuses = new ArrayList<>();
+        jobs.values().forEach(job -> statuses.add(job.status()));
+        return statuses;
+    }
+
+    /**
+     * Restart jobs interrupted by a crash or shutdown.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        if (!resumeOnStartup || !Files.isDirectory(checkpointRoot)) {
+            return;
+        }
+        try (Stream<Path> jobDirs = Files.list(checkpointRoot)) {
+            jobDirs.filter(Files::isDirectory).forEach(this::resume);
+        } catch (IOException e) {
+            log.warn("Could not scan offline checkpoints in {}: {}", checkpointRoot, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        jobs.values().forEach(job -> job.running = false);
+        shardExecutor.shutdown();
+        // Shards stop after their current frame and write a final checkpoint
+        shardExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // ====== HELPER METHODS ======
+
+    private void resume(Path jobDir) {
+        try {
+            UUID videoId = UUID.fromString(jobDir.getFileName().toString());
+            Optional<OfflineCheckpoint.Plan> plan = OfflineCheckpoint.load(jobDir);
+            if (plan.isEmpty() || plan.get().isComplete()) {
+                return;
+            }
+            File file = new File(plan.get().file());
+            Optional<Video> video = videoRepository.findById(videoId);
+            if (video.isEmpty() || !file.exists()) {
+                log.warn("Offline job {} cannot resume: video or file is gone", videoId);
+                return;
+            }
+            launch(video.get(), file, null);
+            log.info("Offline job {} resumed after restart", videoId);
+        } catch (IllegalArgumentException | IOException | IllegalStateException e) {
+            log.warn("Offline job in {} not resumed: {}", jobDir, e.getMessage());
+        }
+    }
+
+    private synchronized void launch(Video video, File file, Long intervalMs) throws IOException {
+        UUID videoId = video.getId();
+        Job existing = jobs.get(videoId);
+        if (existing != null && !existing.isFinished()) {
+            throw new IllegalStateException("Analysis already running for this video");
+        }
+
+        Path jobDir = checkpointRoot.resolve(videoId.toString());
+        Optional<OfflineCheckpoint.Plan> saved = OfflineCheckpoint.load(jobDir);
+        OfflineCheckpoint.Plan plan;
+        if (saved.isPresent() && !saved.get().isComplete()) {
+            // Resume: drop anything saved after each shard's last checkpoint
+            for (OfflineCheckpoint.Shard shard : saved.get().shards()) {
+                if (shard.nextMs() < shard.endMs()) {
+                    detectionEventRepository.deleteByVideoIdAndTimestampRange(videoId, shard.nextMs(), shard.endMs());
+                }
+            }
+            plan = new OfflineCheckpoint.Plan(file.getCanonicalPath(), saved.get().intervalMs(),
+                    saved.get().durationMs(), saved.get().shards());
+        } else {
+            if (saved.isPresent()) {
+                // Re-analysis replaces the previous run's results
+                detectionEventRepository.deleteByVideoIdAndTimestampRange(videoId, 0, Long.MAX_VALUE);
+            }
+            long interval = intervalMs != null && intervalMs > 0 ? intervalMs : defaultIntervalMs;
+            long durationMs = probeDurationMs(file);
+            if (video.getDurationSeconds() == null) {
+                video.setDurationSeconds(durationMs / 1000);
+                videoRepository.save(video);
+            }
+            plan = new OfflineCheckpoint.Plan(file.getCanonicalPath(), interval, durationMs,
+                    planShards(durationMs, interval));
+        }
+        OfflineCheckpoint.save(jobDir, plan);
+
+        Job job = new Job(videoId, file, jobDir, plan);
+        jobs.put(videoId, job);
+        job.submit();
+        log.info("Offline analysis started: video={}, file={}, interval={}ms, shards={}, duration={}s",
+                videoId, file.getName(), plan.intervalMs(), plan.shards().size(), plan.durationMs() / 1000);
+    }
+
+    private long probeDurationMs(File file) throws IOException {
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(file)) {
+            grabber.start();
+            long durationMs = grabber.getLengthInTime() / 1000;
+            if (durationMs <= 0) {
+                throw new IllegalArgumentException("Recording has no known duration; use stream ingestion instead");
+            }
+            return durationMs;
+        } catch (FFmpegFrameGrabber.Exception e) {
+            throw new IOException("Cannot open recording: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Split [0, duration) into up to {@code parallelism} shards of at least
+     * {@code minShardMs}, with boundaries on the sampling grid so no sample
+     * point is analyzed twice or skipped.
+     */
+    private List<OfflineCheckpoint.Shard> planShards(long durationMs, long intervalMs) {
+        int count = (int) Math.max(1, Math.min(parallelism, durationMs / Math.max(minShardMs, intervalMs)));
+        List<OfflineCheckpoint.Shard> shards = new ArrayList<>(count);
+        long start = 0;
+        for (int i = 1; i <= count && start < durationMs; i++) {
+            long end = i == count ? durationMs : Math.min(durationMs, alignUp(durationMs * i / count, intervalMs));
+            if (end > start) {
+                shards.add(new OfflineCheckpoint.Shard(start, end, start));
+                start = end;
+            }
+        }
+        return shards;
+    }
+
+    private static long alignUp(long valueMs, long intervalMs) {
+        return (valueMs + intervalMs - 1) / intervalMs * intervalMs;
+    }
+
+    /**
+     * Progress and throughput of one offline job.
+     *
+     * @param progress fraction of the media timeline analyzed (0..1)
+     * @param analyzedFps frames analyzed per wall-clock second in this run
+     * @param realtimeFactor media time analyzed per wall-clock time in this run (above 1 = faster than realtime)
+     */
+    public record JobStatus(
+            UUID jobId,
+            String file,
+            String state,
+            long intervalMs,
+            int shards,
+            long durationMs,
+            long analyzedMediaMs,
+            double progress,
+            long framesDecoded,
+            long framesAnalyzed,
+            long detections,
+            long frameErrors,
+            double analyzedFps,
+            double decodedFps,
+            double realtimeFactor,
+            long elapsedMs,
+            String lastError
+    ) {
+    }
+
+    /**
+     * One file's shards and counters.
+     */
+    private final class Job {
+
+        private final UUID videoId;
+        private final File file;
+        private final Path jobDir;
+        private final long intervalMs;
+        private final long durationMs;
+        private final long[] startMs;
+        private final long[] endMs;
+        private final AtomicLongArray nextMs;
+        private final long resumedMediaMs;
+        private final long startedAtMs = System.currentTimeMillis();
+
+        private final AtomicLong framesDecoded = new AtomicLong();
+        private final AtomicLong framesAnalyzed = new AtomicLong();
+        private final AtomicLong detections = new AtomicLong();
+        private final AtomicLong frameErrors = new AtomicLong();
+        private final AtomicInteger activeShards = new AtomicInteger();
+        private volatile boolean running = true;
+        private volatile String state = "RUNNING";
+        private volatile String lastError;
+        private volatile long finishedAtMs;
+        private long lastCheckpointMs;
+
+        Job(UUID videoId, File file, Path jobDir, OfflineCheckpoint.Plan plan) {
+            this.videoId = videoId;
+            this.file = file;
+            this.jobDir = jobDir;
+            this.intervalMs = plan.intervalMs();
+            this.durationMs = plan.durationMs();
+            int count = plan.shards().size();
+            this.startMs = new long[count];
+            this.endMs = new long[count];
+            this.nextMs = new AtomicLongArray(count);
+            for (int i = 0; i < count; i++) {
+                OfflineCheckpoint.Shard shard = plan.shards().get(i);
+                startMs[i] = shard.startMs();
+                endMs[i] = shard.endMs();
+                nextMs.set(i, shard.nextMs());
+            }
+            this.resumedMediaMs = analyzedMediaMs();
+        }
+
+        void submit() {
+            List<Integer> pending = new ArrayList<>();
+            for (int i = 0; i < endMs.length; i++) {
+                if (nextMs.get(i) < endMs[i]) {
+                    pending.add(i);
+                }
+            }
+            if (pending.isEmpty()) {
+                finish();
+                return;
+            }
+            // Counted before any shard runs, so the first one to end cannot finish the job early
+            activeShards.set(pending.size());
+            pending.forEach(shard -> shardExecutor.execute(() -> runShard(shard)));
+        }
+
+        boolean isFinished() {
+            return finishedAtMs != 0;
+        }
+
+        private void runShard(int shard) {
+            try {
+                analyzeShard(shard);
+            } catch (Exception e) {
+                if (running) {
+                    state = "FAILED";
+                    lastError = e.getMessage();
+                    running = false; // Other shards stop too; the checkpoint allows a resume
+                    log.error("Offline analysis failed: video={}, shard={}: {}", videoId, shard, e.getMessage());
+                }
+            } finally {
+                checkpoint(true);
+                if (activeShards.decrementAndGet() == 0) {
+                    finish();
+                }
+            }
+        }
+
+        private void analyzeShard(int shard) throws Exception {
+            long end = endMs[shard];
+            long next = nextMs.get(shard);
+            boolean seekPerSample = intervalMs >= seekMinIntervalMs;
+
+            try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(file);
+                 Java2DFrameConverter converter = new Java2DFrameConverter()) {
+                grabber.setVideoOption("threads", DECODER_THREADS_PER_SHARD);
+                grabber.start();
+                if (!seekPerSample && next > 0) {
+                    grabber.setTimestamp(next * 1000); // Jump to the shard start once
+                }
+
+                while (running && next < end) {
+                    if (seekPerSample) {
+                        grabber.setTimestamp(next * 1000); // µs; lands on the first frame at or after it
+                    }
+                    Frame frame = grabber.grabImage();
+                    if (frame == null) {
+                        nextMs.set(shard, end); // End of file before the probed duration
+                        return;
+                    }
+                    framesDecoded.incrementAndGet();
+                    long mediaMs = frame.timestamp / 1000;
+                    if (!seekPerSample && mediaMs < next) {
+                        continue; // Decoding forward to the next sample point
+                    }
+                    if (mediaMs >= end) {
+                        nextMs.set(shard, end); // The next shard owns this frame
+                        return;
+                    }
+
+                    try {
+                        // Synchronous: the converter's buffer is only read during this call
+                        detections.addAndGet(videoProcessor.analyzeRecordedFrame(
+                                videoId, converter.convert(frame), mediaMs));
+                        framesAnalyzed.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // FAIL-SAFE: one bad frame does not abort hours of analysis
+                        frameErrors.incrementAndGet();
+                        lastError = e.getMessage();
+                    }
+
+                    // Always advance, even if the decoder returned an earlier frame than asked
+                    next = Math.min(end, Math.max(next, mediaMs / intervalMs * intervalMs) + intervalMs);
+                    nextMs.set(shard, next);
+                    checkpoint(false);
+                }
+            }
+        }
+
+        private synchronized void checkpoint(boolean force) {
+            long now = System.currentTimeMillis();
+            if (!force && now - lastCheckpointMs < checkpointIntervalMs) {
+                return;
+            }
+            lastCheckpointMs = now;
+            List<OfflineCheckpoint.Shard> shards = new ArrayList<>(endMs.length);
+            for (int i = 0; i < endMs.length; i++) {
+                shards.add(new OfflineCheckpoint.Shard(startMs[i], endMs[i], nextMs.get(i)));
+            }
+            try {
+                OfflineCheckpoint.save(jobDir, new OfflineCheckpoint.Plan(
+                        file.getAbsolutePath(), intervalMs, durationMs, shards));
+            } catch (IOException e) {
+                log.warn("Offline checkpoint not written for video {}: {}", videoId, e.getMessage());
+            }
+        }
+
+        private void finish() {
+            finishedAtMs = System.currentTimeMillis();
+            if ("RUNNING".equals(state)) {
+                state = running ? "COMPLETED" : "STOPPED";
+            }
+            JobStatus status = status();
+            log.info("Offline analysis {}: video={}, analyzed={} frames, detections={}, {} fps, {}x realtime",
+                    state.toLowerCase(), videoId, status.framesAnalyzed(), status.detections(),
+                    String.format("%.1f", status.analyzedFps()), String.format("%.1f", status.realtimeFactor()));
+        }
+
+        private long analyzedMediaMs() {
+            long total = 0;
+            for (int i = 0; i < endMs.length; i++) {
+                total += nextMs.get(i) - startMs[i];
+            }
+            return total;
+        }
+
+        JobStatus status() {
+            long elapsedMs = Math.max(1, (isFinished() ? finishedAtMs : System.currentTimeMillis()) - startedAtMs);
+            long analyzedMediaMs = analyzedMediaMs();
+            return new JobStatus(
+                    videoId,
+                    file.getName(),
+                    state,
+                    intervalMs,
+                    endMs.length,
+                    durationMs,
+                    analyzedMediaMs,
+                    durationMs > 0 ? (double) analyzedMediaMs / durationMs : 0.0,
+                    framesDecoded.get(),
+                    framesAnalyzed.get(),
+                    detections.get(),
+                    frameErrors.get(),
+                    framesAnalyzed.get() * 1000.0 / elapsedMs,
+                    framesDecoded.get() * 1000.0 / elapsedMs,
+                    (double) (analyzedMediaMs - resumedMediaMs) / elapsedMs,
+                    elapsedMs,
+                    lastError);
+        }
+    }
+}
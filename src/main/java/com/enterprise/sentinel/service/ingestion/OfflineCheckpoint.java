@@ -0,0 +1,88 @@
+package com.enterprise.sentinel.service.ingestion;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Durable shard plan and progress of an offline analysis job.
+ * Each shard records the media position up to which its detections are
+ * persisted, so a restarted job re-analyzes only what was not yet committed.
+ * Written via temp file + atomic rename so a crash never leaves it torn.
+ */
+final class OfflineCheckpoint {
+
+    static final String FILE_NAME = "_checkpoint";
+
+    private OfflineCheckpoint() {
+    }
+
+    /**
+     * Job plan: source file, sampling interval and shard ranges.
+     */
+    record Plan(String file, long intervalMs, long durationMs, List<Shard> shards) {
+
+        boolean isComplete() {
+            return shards.stream().allMatch(shard -> shard.nextMs() >= shard.endMs());
+        }
+    }
+
+    /**
+     * Media range [startMs, endMs) of one shard; nextMs is the first position not yet committed.
+     */
+    record Shard(long startMs, long endMs, long nextMs) {
+    }
+
+    static Optional<Plan> load(Path jobDir) throws IOException {
+        Path file = jobDir.resolve(FILE_NAME);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            props.load(reader);
+        }
+        try {
+            int count = Integer.parseInt(props.getProperty("shards"));
+            List<Shard> shards = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String[] range = props.getProperty("shard." + i).split(",");
+                shards.add(new Shard(Long.parseLong(range[0]), Long.parseLong(range[1]), Long.parseLong(range[2])));
+            }
+            return Optional.of(new Plan(props.getProperty("file"),
+                    Long.parseLong(props.getProperty("interval-ms")),
+                    Long.parseLong(props.getProperty("duration-ms")),
+                    shards));
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt offline checkpoint: " + file, e);
+        }
+    }
+
+    static void save(Path jobDir, Plan plan) throws IOException {
+        Properties props = new Properties();
+        props.setProperty("file", plan.file());
+        props.setProperty("interval-ms", String.valueOf(plan.intervalMs()));
+        props.setProperty("duration-ms", String.valueOf(plan.durationMs()));
+        props.setProperty("shards", String.valueOf(plan.shards().size()));
+        for (int i = 0; i < plan.shards().size(); i++) {
+            Shard shard = plan.shards().get(i);
+            props.setProperty("shard." + i, shard.startMs() + "," + shard.endMs() + "," + shard.nextMs());
+        }
+
+        Files.createDirectories(jobDir);
+        Path tmp = jobDir.resolve(FILE_NAME + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            props.store(writer, null);
+        }
+        Files.move(tmp, jobDir.resolve(FILE_NAME),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,140 @@
+package com.enterprise.sentinel.service.ingestion;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The last seconds of one camera's muxed stream (MPEG-TS GOPs, as written by
+ * the recorder) in a fixed direct buffer.
+ *
+ * Memory is allocated once and bounded by {@code capacityBytes}; GOPs are
+ * evicted when they are overwritten or fall out of the time window.
+ * Clips are copied straight from the direct buffer to the file channel without
+ * holding the lock, then checked against the write position: if the recorder
+ * overwrote any of the copied bytes meanwhile, the copy is reported as failed.
+ */
+final class PacketRing {
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final long windowMs;
+    private final ArrayDeque<Chunk> chunks = new ArrayDeque<>();
+
+    private long head; // Total bytes ever written; the buffer holds [head - capacity, head)
+    private long lastTimestampMs = Long.MIN_VALUE;
+    private volatile boolean ended;
+
+    PacketRing(int capacityBytes, long windowMs) {
+        this.buffer = ByteBuffer.allocateDirect(capacityBytes);
+        this.capacity = capacityBytes;
+        this.windowMs = windowMs;
+    }
+
+    /**
+     * One GOP (or the continuation of an oversized one) at an absolute ring position.
+     */
+    record Chunk(long position, int length, long timestampMs, boolean keyframe) {
+    }
+
+    /**
+     * Time range and size of a copied clip.
+     */
+    record Extent(long startMs, long endMs, long bytes) {
+    }
+
+    synchronized void append(long timestampMs, boolean keyframe, byte[] data, int offset, int length) {
+        lastTimestampMs = Math.max(lastTimestampMs, timestampMs);
+        if (length > capacity) {
+            chunks.clear(); // Cannot hold it; the next keyframe restarts the ring
+            head += length;
+            return;
+        }
+        long oldestKept = head + length - capacity;
+        long cutoffMs = timestampMs - windowMs;
+        while (!chunks.isEmpty()
+                && (chunks.peekFirst().position() < oldestKept || chunks.peekFirst().timestampMs() < cutoffMs)) {
+            chunks.pollFirst();
+        }
+
+        int start = (int) (head % capacity);
+        int first = Math.min(length, capacity - start);
+        buffer.put(start, data, offset, first);
+        if (first < length) {
+            buffer.put(0, data, offset + first, length - first);
+        }
+        chunks.addLast(new Chunk(head, length, timestampMs, keyframe));
+        head += length;
+    }
+
+    synchronized long lastTimestampMs() {
+        return lastTimestampMs;
+    }
+
+    void end() {
+        ended = true;
+    }
+
+    boolean isEnded() {
+        return ended;
+    }
+
+    /**
+     * Copy the GOPs from the last keyframe at or before {@code fromMs} (or the
+     * oldest buffered keyframe) through the last GOP starting at or before {@code toMs}.
+     *
+     * @return the copied extent, or empty if no keyframe is buffered in range
+     * @throws IOException if writing fails or the range was overwritten during the copy
+     */
+    Optional<Extent> copyTo(WritableByteChannel channel, long fromMs, long toMs) throws IOException {
+        List<Chunk> selected = select(fromMs, toMs);
+        if (selected.isEmpty()) {
+            return Optional.empty();
+        }
+        ByteBuffer view = buffer.duplicate(); // Own position/limit; shares the bytes
+        long bytes = 0;
+        for (Chunk chunk : selected) {
+            int start = (int) (chunk.position() % capacity);
+            int first = Math.min(chunk.length(), capacity - start);
+            bytes += write(channel, view, start, first);
+            if (first < chunk.length()) {
+                bytes += write(channel, view, 0, chunk.length() - first);
+            }
+        }
+        synchronized (this) {
+            if (selected.get(0).position() < head - capacity) {
+                throw new IOException("Clip range was overwritten while copying; increase app.clips.ring-mb");
+            }
+        }
+        return Optional.of(new Extent(selected.get(0).timestampMs(),
+                selected.get(selected.size() - 1).timestampMs(), bytes));
+    }
+
+    private synchronized List<Chunk> select(long fromMs, long toMs) {
+        List<Chunk> selected = new ArrayList<>();
+        for (Chunk chunk : chunks) {
+            if (chunk.timestampMs() > toMs) {
+                break;
+            }
+            if (chunk.keyframe() && chunk.timestampMs() <= fromMs) {
+                selected.clear(); // Later keyframe still at or before the start
+            }
+            if (chunk.keyframe() || !selected.isEmpty()) {
+                selected.add(chunk);
+            }
+        }
+        return selected;
+    }
+
+    private static int write(WritableByteChannel channel, ByteBuffer view, int start, int length) throws IOException {
+        view.limit(start + length).position(start);
+        while (view.hasRemaining()) {
+            channel.write(view);
+        }
+        return length;
+    }
+}
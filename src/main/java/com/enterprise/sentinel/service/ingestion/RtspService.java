@@ -29,4 +29,20 @@ public class RtspService {
             throw new IllegalArgumentException("Invalid URL format: " + rawUrl);
         }
     }
+
+    /**
+     * Stream URL with credentials removed, safe for logs and API responses.
+     */
+    public String redact(String url) {
+        try {
+            URI uri = new URI(url);
+            if (uri.getUserInfo() == null) {
+                return url;
+            }
+            return new URI(uri.getScheme(), "***", uri.getHost(), uri.getPort(),
+                    uri.getPath(), uri.getQuery(), uri.getFragment()).toString();
+        } catch (URISyntaxException e) {
+            return "<invalid url>";
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,163 @@
+package com.enterprise.sentinel.service.ingestion;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connection health of one supervised camera.
+ *
+ * Streams report frames, bytes and decode errors as they happen; the
+ * supervisor's watchdog turns the counters into per-second rates.
+ *
+ * Lag: how far frame arrival trails the stream's own clock since connect,
+ * i.e. (wall time since the first frame) - (media time since the first frame).
+ * It grows when the camera delivers faster than we consume (data queues in the
+ * socket) or when the network stalls.
+ */
+public final class StreamHealth {
+
+    /**
+     * Connection state.
+     */
+    public enum State {
+        CONNECTING, RUNNING, STALLED, BACKOFF, ENDED, STOPPED, FAILED
+    }
+
+    private final UUID cameraId;
+    private final String role;
+    private final String source;
+    private final boolean live;
+
+    private final AtomicLong frames = new AtomicLong();
+    private final AtomicLong decodeErrors = new AtomicLong();
+    private volatile long bytesRead = -1; // Unknown until the stream reports it
+    private volatile State state = State.CONNECTING;
+    private volatile String lastError;
+    private volatile long reconnects;
+    private volatile long lastFrameNanos;
+
+    private volatile long firstFrameWallMs = Long.MIN_VALUE;
+    private volatile long firstFrameMediaMs;
+    private volatile long lagMs;
+
+    // Written by the watchdog only
+    private volatile double fps;
+    private volatile double bitrateKbps;
+    private long windowFrames;
+    private long windowBytes;
+    private long windowStartNanos = System.nanoTime();
+
+    StreamHealth(UUID cameraId, String role, String source, boolean live) {
+        this.cameraId = cameraId;
+        this.role = role;
+        this.source = source;
+        this.live = live;
+    }
+
+    /**
+     * A decoded frame (or demuxed video packet) with its media timestamp.
+     */
+    public void frame(long mediaMs) {
+        long nowMs = System.currentTimeMillis();
+        frames.incrementAndGet();
+        lastFrameNanos = System.nanoTime();
+        if (firstFrameWallMs == Long.MIN_VALUE) {
+            firstFrameWallMs = nowMs;
+            firstFrameMediaMs = mediaMs;
+        } else {
+            lagMs = Math.max(0, (nowMs - firstFrameWallMs) - (mediaMs - firstFrameMediaMs));
+        }
+    }
+
+    /**
+     * Total bytes read from the source over this connection, when the demuxer exposes it.
+     */
+    public void bytesRead(long totalBytes) {
+        bytesRead = totalBytes;
+    }
+
+    public void decodeError() {
+        decodeErrors.incrementAndGet();
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Snapshot snapshot() {
+        long frameAgeMs = lastFrameNanos == 0 ? -1 : (System.nanoTime() - lastFrameNanos) / 1_000_000;
+        return new Snapshot(cameraId, role, source, live, state, frames.get(), fps, bitrateKbps,
+                decodeErrors.get(), reconnects, lagMs, frameAgeMs, lastError);
+    }
+
+    // ====== SUPERVISOR SIDE ======
+
+    void setState(State state) {
+        this.state = state;
+    }
+
+    void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    void connected() {
+        firstFrameWallMs = Long.MIN_VALUE;
+        lagMs = 0;
+        lastFrameNanos = System.nanoTime(); // The stall clock starts at connect
+    }
+
+    void reconnecting() {
+        reconnects++;
+        bytesRead = -1;
+    }
+
+    long lastFrameNanos() {
+        return lastFrameNanos;
+    }
+
+    boolean isLive() {
+        return live;
+    }
+
+    /**
+     * Close the rate window (watchdog thread).
+     */
+    void updateRates() {
+        long now = System.nanoTime();
+        double seconds = (now - windowStartNanos) / 1e9;
+        if (seconds <= 0) {
+            return;
+        }
+        long totalFrames = frames.get();
+        long totalBytes = bytesRead;
+        fps = (totalFrames - windowFrames) / seconds;
+        bitrateKbps = totalBytes < 0 || totalBytes < windowBytes ? 0 : (totalBytes - windowBytes) * 8 / 1000.0 / seconds;
+        windowFrames = totalFrames;
+        windowBytes = Math.max(0, totalBytes);
+        windowStartNanos = now;
+    }
+
+    /**
+     * Point-in-time view of a camera's connection.
+     *
+     * @param bitrateKbps Measured input bitrate; 0 when the demuxer does not expose its byte count (e.g. RTSP)
+     * @param lagMs See class comment
+     * @param lastFrameAgeMs Time since the last frame, -1 before the first
+     */
+    public record Snapshot(
+            UUID cameraId,
+            String role,
+            String source,
+            boolean live,
+            State state,
+            long frames,
+            double fps,
+            double bitrateKbps,
+            long decodeErrors,
+            long reconnects,
+            long lagMs,
+            long lastFrameAgeMs,
+            String lastError
+    ) {
+    }
+}
@@ -0,0 +1,274 @@
+package com.enterprise.sentinel.service.ingestion;
+
+import com.enterprise.sentinel.domain.model.Video;
+import com.enterprise.sentinel.domain.repository.VideoRepository;
+import com.enterprise.sentinel.service.storage.SegmentStore;
+import com.enterprise.sentinel.service.storage.SegmentWriter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bytedeco.ffmpeg.avcodec.AVPacket;
+import org.bytedeco.ffmpeg.avutil.AVRational;
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records camera streams into the {@link SegmentStore}.
+ *
+ * Packets are remuxed, not re-encoded: the camera's compressed stream is
+ * copied into MPEG-TS, which any decoder can join at a keyframe (PAT/PMT are
+ * repeated at every keyframe). Each GOP becomes one encrypted store record
+ * indexed by its arrival time, so a seek lands on a decodable keyframe.
+ * H.264/H.265 parameter sets are inserted at keyframes by the muxer; codecs
+ * that only carry them in container extradata (e.g. MPEG-4 Part 2 in MP4)
+ * cannot be joined mid-stream.
+ *
+ * Recording uses its own connection to the source, independent of the
+ * inference decode loop, kept up by the {@link StreamSupervisor} (reconnects,
+ * health). Files are paced to real time like a camera.
+ * The same GOPs feed the camera's alert clip ring ({@link AlertClipService}).
+ */
+@Slf4j
+@Service
+public class StreamRecorder {
+
+    // Upper bound for one record; longer GOPs are split
+    private static final int MAX_RECORD_BYTES = 8 * 1024 * 1024;
+    private static final String ROLE = "record";
+
+    private final SegmentStore segmentStore;
+    private final VideoRepository videoRepository;
+    private final AlertClipService alertClipService;
+    private final StreamSupervisor supervisor;
+    private final long connectTimeoutMs;
+
+    private final Map<UUID, RecordingWorker> workers = new ConcurrentHashMap<>();
+
+    public StreamRecorder(SegmentStore segmentStore,
+                          VideoRepository videoRepository,
+                          AlertClipService alertClipService,
+                          StreamSupervisor supervisor,
+                          @Value("${app.ingestion.connect-timeout-ms:5000}") long connectTimeoutMs) {
+        this.segmentStore = segmentStore;
+        this.videoRepository = videoRepository;
+        this.alertClipService = alertClipService;
+        this.supervisor = supervisor;
+        this.connectTimeoutMs = connectTimeoutMs;
+    }
+
+    /**
+     * Start recording a registered camera (its Video source).
+     *
+     * @throws NoSuchElementException if the camera is unknown
+     * @throws IllegalStateException if it is already being recorded
+     */
+    public synchronized void start(UUID cameraId) {
+        Video video = videoRepository.findById(cameraId)
+                .orElseThrow(() -> new NoSuchElementException("Camera not found: " + cameraId));
+        if (workers.containsKey(cameraId)) {
+            throw new IllegalStateException("Camera " + cameraId + " is already being recorded");
+        }
+        SegmentWriter writer = segmentStore.openWriter(cameraId);
+        RecordingWorker worker = new RecordingWorker(cameraId, video.getStoragePath(),
+                video.getSourceType() == Video.SourceType.RTSP, writer);
+        workers.put(cameraId, worker);
+        supervisor.supervise(cameraId, ROLE, video.getOriginalFilename(), worker.live, worker);
+        log.info("Recording started: camera={}", cameraId);
+    }
+
+    /**
+     * Stop a recording. Returns false if the camera is not being recorded.
+     */
+    public boolean stop(UUID cameraId) {
+        return workers.containsKey(cameraId) && supervisor.cancel(cameraId, ROLE);
+    }
+
+    public List<RecordingStatus> getStatuses() {
+        List<RecordingStatus> statuses = new ArrayList<>();
+        workers.values().forEach(worker -> statuses.add(worker.status()));
+        return statuses;
+    }
+
+    public boolean isRecording(UUID cameraId) {
+        return workers.containsKey(cameraId);
+    }
+
+    @PreDestroy
+    public void stopAll() throws InterruptedException {
+        workers.keySet().forEach(this::stop);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!workers.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20); // Let the muxer write its last GOP
+        }
+    }
+
+    /**
+     * Snapshot of one recording's counters and connection health.
+     */
+    public record RecordingStatus(
+            UUID cameraId,
+            StreamHealth.State state,
+            long packets,
+            long records,
+            long bytes,
+            StreamHealth.Snapshot connection
+    ) {
+    }
+
+    /**
+     * Remux steps for one camera, run by the {@link StreamSupervisor}: one
+     * packet per step. The store writer and ring outlive reconnects; after a
+     * reconnect the muxer starts a new MPEG-TS header, which decoders join at
+     * the next keyframe.
+     */
+    private final class RecordingWorker implements SupervisedStream {
+
+        private final UUID cameraId;
+        private final String source;
+        private final boolean live;
+        private final SegmentWriter writer;
+        private final PacketRing ring;
+        private final GopOutputStream output;
+
+        private final AtomicLong packets = new AtomicLong();
+
+        // Per connection; only touched by the supervisor's step calls
+        private FFmpegFrameGrabber grabber;
+        private FFmpegFrameRecorder recorder;
+        private int videoStream;
+        private long wallStartMs;
+        private long firstPtsMs;
+        private long bytesRead;
+        private AVPacket pendingPacket; // Keyframe held back by file pacing
+
+        RecordingWorker(UUID cameraId, String source, boolean live, SegmentWriter writer) {
+            this.cameraId = cameraId;
+            this.source = source;
+            this.live = live;
+            this.writer = writer;
+            this.ring = alertClipService.openRing(cameraId);
+            this.output = new GopOutputStream(writer, ring, MAX_RECORD_BYTES);
+        }
+
+        RecordingStatus status() {
+            StreamHealth.Snapshot connection = supervisor.getHealth(cameraId, ROLE)
+                    .map(StreamHealth::snapshot)
+                    .orElse(null);
+            return new RecordingStatus(cameraId,
+                    connection != null ? connection.state() : StreamHealth.State.STOPPED,
+                    packets.get(), output.getRecords(), output.getBytes(), connection);
+        }
+
+        @Override
+        public void open() throws Exception {
+            grabber = new FFmpegFrameGrabber(source);
+            if (live) {
+                grabber.setOption("rtsp_transport", "tcp");
+                grabber.setOption("timeout", String.valueOf(connectTimeoutMs * 1000)); // µs, connect and reads
+            }
+            grabber.start();
+
+            recorder = new FFmpegFrameRecorder(output,
+                    grabber.getImageWidth(), grabber.getImageHeight(), grabber.getAudioChannels());
+            recorder.setFormat("mpegts");
+            recorder.setOption("mpegts_flags", "pat_pmt_at_frames");
+            recorder.setOption("flush_packets", "1"); // Keyframe bytes must not sit in the muxer buffer
+            recorder.setInterleaved(false);           // Demuxed packets are already in order
+            recorder.start(grabber.getFormatContext());
+
+            videoStream = grabber.getVideoStream();
+            wallStartMs = System.currentTimeMillis();
+            firstPtsMs = Long.MIN_VALUE;
+            bytesRead = 0;
+            pendingPacket = null;
+        }
+
+        @Override
+        public long step(StreamHealth health) throws Exception {
+            AVPacket packet = pendingPacket;
+            pendingPacket = null;
+            if (packet == null) {
+                packet = grabber.grabPacket();
+                if (packet == null) {
+                    return -1;
+                }
+                bytesRead += packet.size();
+                health.bytesRead(bytesRead);
+                if (packet.stream_index() == videoStream) {
+                    long ptsMs = ptsMillis(packet);
+                    health.frame(ptsMs);
+                    if (!live && (packet.flags() & avcodec.AV_PKT_FLAG_KEY) != 0) {
+                        // Pace files like a camera, without holding a pool thread
+                        if (firstPtsMs == Long.MIN_VALUE) {
+                            firstPtsMs = ptsMs;
+                        }
+                        long aheadMs = wallStartMs + (ptsMs - firstPtsMs) - System.currentTimeMillis();
+                        if (aheadMs > 0) {
+                            pendingPacket = packet;
+                            return aheadMs;
+                        }
+                    }
+                }
+            }
+            if (packet.stream_index() == videoStream && (packet.flags() & avcodec.AV_PKT_FLAG_KEY) != 0) {
+                output.startGop(System.currentTimeMillis());
+            }
+            recorder.recordPacket(packet);
+            packets.incrementAndGet();
+            return 0;
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (recorder != null) {
+                    recorder.close(); // Flushes the muxer into the current GOP
+                }
+            } catch (Exception e) {
+                log.debug("Error closing muxer for camera {}: {}", cameraId, e.getMessage());
+            }
+            try {
+                if (grabber != null) {
+                    grabber.close();
+                }
+            } catch (Exception e) {
+                log.debug("Error closing grabber for camera {}: {}", cameraId, e.getMessage());
+            }
+            recorder = null;
+            grabber = null;
+            pendingPacket = null;
+        }
+
+        @Override
+        public void finished(StreamHealth.State state) {
+            try {
+                output.close(); // Last GOP goes to the store and the ring
+                writer.close();
+            } catch (Exception e) {
+                log.error("Error closing recording of camera {}: {}", cameraId, e.getMessage());
+            } finally {
+                alertClipService.closeRing(cameraId, ring);
+                workers.remove(cameraId, this);
+                log.info("Recording {}: camera={}, packets={}, records={}, bytes={}",
+                        state.name().toLowerCase(), cameraId, packets.get(), output.getRecords(), output.getBytes());
+            }
+        }
+
+        private long ptsMillis(AVPacket packet) {
+            long pts = packet.pts() != avutil.AV_NOPTS_VALUE ? packet.pts() : packet.dts();
+            AVRational timeBase = grabber.getFormatContext().streams(packet.stream_index()).time_base();
+            return pts * 1000L * timeBase.num() / timeBase.den();
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.enterprise.sentinel.service.ingestion;
+
+import jakarta.annotation.PreDestroy;
+import com.enterprise.sentinel.config.ExecutionModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Owns the camera connections of the ingestion engine and the recorder.
+ *
+ * All cameras are multiplexed over one small scheduled pool
+ * ({@code worker-threads}, default: cores): a stream runs one frame per task
+ * and reschedules itself, file pacing and reconnect backoff are scheduled
+ * delays, so no thread waits on a camera that has nothing to deliver.
+ *
+ * Live sources are kept up:
+ * - Open failures, end of stream and {@code max-consecutive-errors} read/decode
+ *   errors in a row reconnect with exponential backoff and jitter
+ *   (equal jitter: half the delay fixed, half random, so cameras dropped by
+ *   the same outage do not reconnect in lockstep)
+ * - A watchdog marks a stream STALLED when no frame arrived for
+ *   {@code stall-timeout-ms}; the next read error (the socket timeout is
+ *   {@code connect-timeout-ms}) then reconnects at once
+ *
+ * A camera can have one connection per role (inference decode, recording).
+ * Files end (ENDED) or fail (FAILED) without retries.
+ *
+ * Health per camera (frames, FPS, bitrate, decode errors, lag, reconnects):
+ * {@link StreamHealth}.
+ *
+ * In virtual execution mode ({@link ExecutionModel}) the pool only keeps
+ * time: each due step runs on its own virtual thread, so a camera blocked in
+ * a read holds no pool thread. FFmpeg reads are native and keep their
+ * carrier thread while they block.
+ */
+@Slf4j
+@Service
+public class StreamSupervisor {
+
+    private static final long MAX_WATCHDOG_PERIOD_MS = 1000;
+
+    private final long stallTimeoutMs;
+    private final long reconnectInitialMs;
+    private final long reconnectMaxMs;
+    private final int maxConsecutiveErrors;
+    private final ScheduledThreadPoolExecutor executor;
+    private final ExecutorService stepExecutor; // Virtual mode only, else null
+
+    private final Map<Key, Supervised> streams = new ConcurrentHashMap<>();
+
+    public StreamSupervisor(ExecutionModel executionModel,
+                            @Value("${app.ingestion.worker-threads:0}") int workerThreads,
+                            @Value("${app.ingestion.stall-timeout-ms:10000}") long stallTimeoutMs,
+                            @Value("${app.ingestion.reconnect-initial-ms:1000}") long reconnectInitialMs,
+                            @Value("${app.ingestion.reconnect-max-ms:60000}") long reconnectMaxMs,
+                            @Value("${app.ingestion.max-consecutive-errors:5}") int maxConsecutiveErrors) {
+        this.stallTimeoutMs = stallTimeoutMs;
+        this.reconnectInitialMs = reconnectInitialMs;
+        this.reconnectMaxMs = reconnectMaxMs;
+        this.maxConsecutiveErrors = maxConsecutiveErrors;
+
+        this.stepExecutor = executionModel.isVirtual() ? executionModel.newIoExecutor("sentinel-stream-") : null;
+        int threads = stepExecutor != null ? 1 : workerThreads > 0 ? workerThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "sentinel-stream-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+        long watchdogMs = Math.max(10, Math.min(MAX_WATCHDOG_PERIOD_MS, stallTimeoutMs / 4));
+        this.executor.scheduleWithFixedDelay(this::watchdog, watchdogMs, watchdogMs, TimeUnit.MILLISECONDS);
+        log.info("Stream supervisor: {}, stall timeout {} ms",
+                stepExecutor != null ? "virtual threads" : threads + " worker threads", stallTimeoutMs);
+    }
+
+    /**
+     * Start supervising a stream; it connects on the pool.
+     *
+     * @param role Purpose of the connection, e.g. "ingest" or "record"
+     * @throws IllegalStateException if the camera already has a connection for this role
+     */
+    void supervise(UUID cameraId, String role, String source, boolean live, SupervisedStream stream) {
+        Key key = new Key(cameraId, role);
+        Supervised supervised = new Supervised(key, stream, new StreamHealth(cameraId, role, source, live));
+        if (streams.putIfAbsent(key, supervised) != null) {
+            throw new IllegalStateException("Camera " + cameraId + " already has a " + role + " connection");
+        }
+        supervised.schedule(0);
+    }
+
+    /**
+     * Stop a connection. Returns false if it is unknown.
+     */
+    boolean cancel(UUID cameraId, String role) {
+        Supervised supervised = streams.get(new Key(cameraId, role));
+        if (supervised == null) {
+            return false;
+        }
+        supervised.cancel();
+        return true;
+    }
+
+    Optional<StreamHealth> getHealth(UUID cameraId, String role) {
+        Supervised supervised = streams.get(new Key(cameraId, role));
+        return supervised == null ? Optional.empty() : Optional.of(supervised.health);
+    }
+
+    /**
+     * Health of every supervised camera.
+     */
+    public List<StreamHealth.Snapshot> getHealth() {
+        List<StreamHealth.Snapshot> snapshots = new ArrayList<>();
+        streams.values().forEach(supervised -> snapshots.add(supervised.health.snapshot()));
+        return snapshots;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        streams.values().forEach(Supervised::cancel);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!streams.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20); // Let each stream close its connection on the pool
+        }
+        executor.shutdownNow();
+        if (stepExecutor != null) {
+            stepExecutor.shutdownNow();
+        }
+    }
+
+    // ====== HELPER METHODS ======
+
+    private void watchdog() {
+        long now = System.nanoTime();
+        for (Supervised supervised : streams.values()) {
+            StreamHealth health = supervised.health;
+            health.updateRates();
+            if (health.getState() == StreamHealth.State.RUNNING && health.isLive()
+                    && now - health.lastFrameNanos() > TimeUnit.MILLISECONDS.toNanos(stallTimeoutMs)) {
+                health.setState(StreamHealth.State.STALLED);
+                supervised.stallDetected = true;
+                log.warn("Camera {} ({}) stalled: no frame for {} ms", supervised.key.cameraId(), supervised.key.role(), stallTimeoutMs);
+            }
+        }
+    }
+
+    private long backoffMs(int attempt) {
+        long delay = reconnectInitialMs << Math.min(attempt - 1, 20);
+        delay = Math.min(Math.max(delay, reconnectInitialMs), reconnectMaxMs);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private record Key(UUID cameraId, String role) {
+    }
+
+    /**
+     * One stream's state machine. Exactly one task per stream is queued or running.
+     */
+    private final class Supervised {
+
+        private final Key key;
+        private final SupervisedStream stream;
+        private final StreamHealth health;
+
+        private boolean connected;          // Task thread only
+        private int attempt;                // Failed connects since the last frame
+        private int consecutiveErrors;
+        private volatile boolean cancelled;
+        private volatile boolean stallDetected;
+        private ScheduledFuture<?> next;    // Guarded by this
+
+        Supervised(Key key, SupervisedStream stream, StreamHealth health) {
+            this.key = key;
+            this.stream = stream;
+            this.health = health;
+        }
+
+        synchronized void schedule(long delayMs) {
+            next = executor.schedule(this::dispatch, delayMs, TimeUnit.MILLISECONDS);
+        }
+
+        void cancel() {
+            cancelled = true;
+            synchronized (this) {
+                // A pending task that has not started is replaced by an immediate one that closes
+                if (next != null && next.cancel(false)) {
+                    next = executor.schedule(this::dispatch, 0, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+
+        private void dispatch() {
+            if (stepExecutor != null) {
+                stepExecutor.execute(this::run);
+            } else {
+                run();
+            }
+        }
+
+        private void run() {
+            if (cancelled) {
+                finish(StreamHealth.State.STOPPED);
+                return;
+            }
+            if (!connected) {
+                connect();
+            } else {
+                step();
+            }
+        }
+
+        private void connect() {
+            health.setState(StreamHealth.State.CONNECTING);
+            try {
+                stream.open();
+                connected = true;
+                consecutiveErrors = 0;
+                stallDetected = false;
+                health.connected();
+                health.setState(StreamHealth.State.RUNNING);
+                schedule(0);
+            } catch (Exception e) {
+                stream.close();
+                failed(e);
+            }
+        }
+
+        private void step() {
+            long frameNanos = health.lastFrameNanos();
+            long delayMs;
+            try {
+                delayMs = stream.step(health);
+            } catch (Exception e) {
+                health.decodeError();
+                if (stallDetected || ++consecutiveErrors >= maxConsecutiveErrors) {
+                    reconnect(e);
+                } else {
+                    schedule(0);
+                }
+                return;
+            }
+            consecutiveErrors = 0;
+            if (health.lastFrameNanos() != frameNanos) {
+                attempt = 0; // Frames flow again
+                if (health.getState() == StreamHealth.State.STALLED) {
+                    stallDetected = false;
+                    health.setState(StreamHealth.State.RUNNING);
+                    log.info("Camera {} ({}) recovered", key.cameraId(), key.role());
+                }
+            }
+            if (cancelled) {
+                finish(StreamHealth.State.STOPPED);
+            } else if (delayMs < 0) {
+                if (health.isLive()) {
+                    reconnect(new IllegalStateException("Stream closed by the source"));
+                } else {
+                    finish(StreamHealth.State.ENDED);
+                }
+            } else {
+                schedule(delayMs);
+            }
+        }
+
+        private void reconnect(Exception cause) {
+            stream.close();
+            connected = false;
+            failed(cause);
+        }
+
+        private void failed(Exception cause) {
+            health.setLastError(cause.getMessage());
+            if (!health.isLive() || cancelled) {
+                log.error("Stream failed: camera={} ({}): {}", key.cameraId(), key.role(), cause.getMessage());
+                finish(cancelled ? StreamHealth.State.STOPPED : StreamHealth.State.FAILED);
+                return;
+            }
+            long delayMs = backoffMs(++attempt);
+            health.reconnecting();
+            health.setState(StreamHealth.State.BACKOFF);
+            log.warn("Camera {} ({}) disconnected: {}; reconnect attempt {} in {} ms",
+                    key.cameraId(), key.role(), cause.getMessage(), attempt, delayMs);
+            schedule(delayMs);
+        }
+
+        private void finish(StreamHealth.State state) {
+            if (connected) {
+                stream.close();
+                connected = false;
+            }
+            health.setState(state);
+            streams.remove(key, this);
+            stream.finished(state);
+        }
+    }
+}
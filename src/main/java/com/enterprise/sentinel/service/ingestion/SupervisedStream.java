@@ -0,0 +1,36 @@
+package com.enterprise.sentinel.service.ingestion;
+
+/**
+ * A camera connection run by {@link StreamSupervisor}.
+ *
+ * The supervisor calls {@link #open} (again after every reconnect), then
+ * {@link #step} repeatedly on its shared pool; a step handles one frame or
+ * packet and returns instead of looping, so many cameras share few threads.
+ * All calls for one stream are serialized.
+ */
+interface SupervisedStream {
+
+    /**
+     * Connect to the source. Failures are retried with backoff (live sources).
+     */
+    void open() throws Exception;
+
+    /**
+     * Process the next frame or packet and report it to {@code health}.
+     *
+     * @return milliseconds until the next step (0 = immediately), or -1 at end of stream
+     * @throws Exception on read/decode errors; repeated errors trigger a reconnect
+     */
+    long step(StreamHealth health) throws Exception;
+
+    /**
+     * Release the connection. Must not throw.
+     */
+    void close();
+
+    /**
+     * Called once when the stream is done (ENDED, STOPPED or FAILED); not called between reconnects.
+     */
+    default void finished(StreamHealth.State state) {
+    }
+}
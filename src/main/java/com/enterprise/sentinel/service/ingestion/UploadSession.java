@@ -0,0 +1,160 @@
+package com.enterprise.sentinel.service.ingestion;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * State of one resumable upload: the partial file, the byte ranges received so
+ * far and the running SHA-256 over the contiguous prefix.
+ *
+ * Received ranges are persisted in a sidecar file (temp file + atomic rename)
+ * after the chunk data is forced to disk, so after a crash every recorded range
+ * is really on disk. The digest itself is not persisted: a restored session
+ * re-hashes its received prefix on the next chunk.
+ *
+ * Thread Safety: mutable state is guarded by the session's monitor. The digest
+ * is only touched by the thread that holds the {@code hashing} claim, or under
+ * the monitor when nobody holds it.
+ */
+final class UploadSession {
+
+    static final String PART_SUFFIX = ".part";
+    static final String META_SUFFIX = ".upload";
+
+    final UUID id;
+    final String filename;
+    final long size;
+    final String declaredSha256;
+    final Path partFile;
+    final Path metaFile;
+
+    // start -> end (exclusive), merged and non-overlapping
+    private final TreeMap<Long, Long> ranges = new TreeMap<>();
+
+    MessageDigest digest = newDigest();
+    long hashedTo;
+    boolean hashing;
+    long lastActivityMs = System.currentTimeMillis();
+
+    // Set once complete
+    UUID videoId;
+    String checksum;
+    boolean duplicate;
+
+    UploadSession(UUID id, String filename, long size, String declaredSha256, Path uploadDir) {
+        this.id = id;
+        this.filename = filename;
+        this.size = size;
+        this.declaredSha256 = declaredSha256;
+        this.partFile = uploadDir.resolve(id + PART_SUFFIX);
+        this.metaFile = uploadDir.resolve(id + META_SUFFIX);
+    }
+
+    synchronized void addRange(long start, long end) {
+        Map.Entry<Long, Long> before = ranges.floorEntry(start);
+        if (before != null && before.getValue() >= start) {
+            start = before.getKey();
+            end = Math.max(end, before.getValue());
+        }
+        Map.Entry<Long, Long> next = ranges.ceilingEntry(start);
+        while (next != null && next.getKey() <= end) {
+            end = Math.max(end, next.getValue());
+            ranges.remove(next.getKey());
+            next = ranges.ceilingEntry(start);
+        }
+        ranges.put(start, end);
+    }
+
+    /**
+     * End of the received range containing {@code offset}, or {@code offset} if it was not received.
+     */
+    synchronized long contiguousEnd(long offset) {
+        Map.Entry<Long, Long> range = ranges.floorEntry(offset);
+        return range != null && range.getValue() > offset ? range.getValue() : offset;
+    }
+
+    synchronized long received() {
+        long total = 0;
+        for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+            total += range.getValue() - range.getKey();
+        }
+        return total;
+    }
+
+    /**
+     * First byte not yet received (where a sequential client resumes).
+     */
+    synchronized long nextOffset() {
+        return contiguousEnd(0);
+    }
+
+    synchronized boolean isFullyReceived() {
+        return nextOffset() >= size;
+    }
+
+    synchronized boolean isComplete() {
+        return videoId != null;
+    }
+
+    synchronized void save() throws IOException {
+        Properties props = new Properties();
+        props.setProperty("filename", filename);
+        props.setProperty("size", String.valueOf(size));
+        if (declaredSha256 != null) {
+            props.setProperty("sha256", declaredSha256);
+        }
+        StringJoiner joined = new StringJoiner(",");
+        ranges.forEach((start, end) -> joined.add(start + "-" + end));
+        props.setProperty("ranges", joined.toString());
+
+        Path tmp = metaFile.resolveSibling(metaFile.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            props.store(writer, null);
+        }
+        Files.move(tmp, metaFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static UploadSession load(Path metaFile) throws IOException {
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(metaFile, StandardCharsets.UTF_8)) {
+            props.load(reader);
+        }
+        try {
+            String name = metaFile.getFileName().toString();
+            UUID id = UUID.fromString(name.substring(0, name.length() - META_SUFFIX.length()));
+            UploadSession session = new UploadSession(id, props.getProperty("filename"),
+                    Long.parseLong(props.getProperty("size")), props.getProperty("sha256"), metaFile.getParent());
+            String ranges = props.getProperty("ranges", "");
+            if (!ranges.isEmpty()) {
+                for (String range : ranges.split(",")) {
+                    String[] bounds = range.split("-");
+                    session.addRange(Long.parseLong(bounds[0]), Long.parseLong(bounds[1]));
+                }
+            }
+            session.lastActivityMs = Files.getLastModifiedTime(metaFile).toMillis();
+            return session;
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt upload state: " + metaFile, e);
+        }
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
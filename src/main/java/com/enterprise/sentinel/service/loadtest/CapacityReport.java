@@ -0,0 +1,59 @@
+package com.enterprise.sentinel.service.loadtest;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Result of a load test: one step per camera count, with samples over time,
+ * and the largest camera count the node sustained.
+ *
+ * @param maxSustainedCameras Largest step within the drop and latency limits (0 if none)
+ */
+public record CapacityReport(Instant generatedAt, Hardware hardware, Limits limits, List<Step> steps,
+                             List<Sample> samples, int maxSustainedCameras) {
+
+    /**
+     * The node and model the numbers apply to.
+     *
+     * @param label Free-form hardware profile name (app.loadtest.hardware-label)
+     * @param model "stub" (fixed-cost stand-in) or "real" (ONNX model)
+     */
+    public record Hardware(String label, int availableProcessors, long maxHeapMb, String os, String arch,
+                           String javaVersion, String model) {
+
+        public static Hardware current(String label, String model) {
+            Runtime runtime = Runtime.getRuntime();
+            return new Hardware(label, runtime.availableProcessors(), runtime.maxMemory() / (1024 * 1024),
+                    System.getProperty("os.name"), System.getProperty("os.arch"),
+                    System.getProperty("java.version"), model);
+        }
+    }
+
+    /**
+     * What "sustained" means for this run.
+     */
+    public record Limits(long frameIntervalMs, double maxDropRatio, double latencyBudgetMs) {
+    }
+
+    /**
+     * One camera count, measured after warm-up.
+     *
+     * @param offeredFps Frames the simulated cameras produced per second
+     * @param dropRatio Share of offered frames not accepted by the pipeline
+     * @param latencyP99Ms Capture to last step (see LatencyTracker TOTAL)
+     * @param gcTimeShare Share of wall time spent in GC
+     */
+    public record Step(int cameras, double offeredFps, double inferenceFps, double dropRatio,
+                       double detectionsPerSec, double alertsPerSec, double dbWriteMeanMs, double dbWriteMaxMs,
+                       double latencyP50Ms, double latencyP99Ms, long peakHeapMb, double gcTimeShare,
+                       boolean sustained) {
+    }
+
+    /**
+     * Rates over one sample period.
+     */
+    public record Sample(long elapsedMs, int cameras, double offeredFps, double droppedFps, double inferenceFps,
+                        double detectionsPerSec, double alertsPerSec, double dbWriteMeanMs, long heapUsedMb,
+                        double gcTimeMsPerSec) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.enterprise.sentinel.service.loadtest;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Frames of one simulated camera, one per sample interval.
+ */
+public interface FrameSource extends AutoCloseable {
+
+    /**
+     * The frame {@code intervalMs} after the previous one; never null.
+     */
+    BufferedImage next(long intervalMs) throws Exception;
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,231 @@
+package com.enterprise.sentinel.service.loadtest;
+
+import com.enterprise.sentinel.service.analysis.VideoProcessor;
+import com.enterprise.sentinel.service.metrics.LatencyTracker;
+import com.enterprise.sentinel.service.metrics.SentinelMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.awt.image.BufferedImage;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Drives simulated cameras into {@link VideoProcessor#submitFrame} and measures
+ * what the node sustains.
+ *
+ * For each camera count in the ramp: start that many feeds (one frame per
+ * camera per interval, staggered), warm up, then sample offered/dropped
+ * frames, inference FPS, detections and alerts per second, database write
+ * time, heap and GC. The ramp stops at the first step that drops more than
+ * the allowed share of frames or misses the p99 latency budget; the report's
+ * capacity is the last step that did not.
+ *
+ * Latency histograms ({@link LatencyTracker}) are reset at the start of each
+ * measured period, so run this on a node that is not serving real cameras.
+ */
+@Slf4j
+public class LoadHarness {
+
+    private final VideoProcessor videoProcessor;
+    private final LatencyTracker latencyTracker;
+    private final MeterRegistry registry;
+    private final LoadTestSettings settings;
+    private final Supplier<UUID> cameraRegistrar;
+
+    /**
+     * @param cameraRegistrar Creates the id of one simulated camera (detections reference it)
+     */
+    public LoadHarness(VideoProcessor videoProcessor, LatencyTracker latencyTracker, MeterRegistry registry,
+                       LoadTestSettings settings, Supplier<UUID> cameraRegistrar) {
+        this.videoProcessor = videoProcessor;
+        this.latencyTracker = latencyTracker;
+        this.registry = registry;
+        this.settings = settings;
+        this.cameraRegistrar = cameraRegistrar;
+    }
+
+    public CapacityReport run() throws Exception {
+        List<UUID> cameras = new ArrayList<>();
+        List<CapacityReport.Step> steps = new ArrayList<>();
+        List<CapacityReport.Sample> samples = new ArrayList<>();
+        int maxSustained = 0;
+        for (int count : settings.cameraSteps()) {
+            while (cameras.size() < count) {
+                cameras.add(cameraRegistrar.get());
+            }
+            CapacityReport.Step step = runStep(cameras.subList(0, count), samples);
+            steps.add(step);
+            log.info("Load step: cameras={}, offered={} fps, inference={} fps, dropped={}%, p99={} ms, sustained={}",
+                    count, round(step.offeredFps()), round(step.inferenceFps()), round(step.dropRatio() * 100),
+                    round(step.latencyP99Ms()), step.sustained());
+            if (!step.sustained()) {
+                break;
+            }
+            maxSustained = count;
+        }
+        return new CapacityReport(Instant.now(),
+                CapacityReport.Hardware.current(settings.hardwareLabel(), settings.model()),
+                new CapacityReport.Limits(settings.frameIntervalMs(), settings.maxDropRatio(),
+                        settings.latencyBudgetMs()),
+                steps, samples, maxSustained);
+    }
+
+    // ====== HELPER METHODS ======
+
+    private CapacityReport.Step runStep(List<UUID> cameras, List<CapacityReport.Sample> samples) throws Exception {
+        long interval = settings.frameIntervalMs();
+        Feeds feeds = new Feeds();
+        List<FrameSource> sources = new ArrayList<>();
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+                Math.min(cameras.size(), Runtime.getRuntime().availableProcessors()), runnable -> {
+                    Thread thread = new Thread(runnable, "load-feed");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try {
+            for (int i = 0; i < cameras.size(); i++) {
+                FrameSource source = openSource(i);
+                sources.add(source);
+                UUID cameraId = cameras.get(i);
+                scheduler.scheduleAtFixedRate(() -> feeds.tick(cameraId, source, interval),
+                        i * interval / cameras.size(), interval, TimeUnit.MILLISECONDS);
+            }
+            Thread.sleep(settings.warmup().toMillis());
+
+            // Measure
+            latencyTracker.reset();
+            Totals start = totals(feeds);
+            Totals previous = start;
+            long peakHeap = 0;
+            long end = System.nanoTime() + settings.measure().toNanos();
+            while (System.nanoTime() < end) {
+                Thread.sleep(Math.min(settings.sampleEvery().toMillis(),
+                        Math.max(1, (end - System.nanoTime()) / 1_000_000)));
+                Totals now = totals(feeds);
+                samples.add(sample(cameras.size(), start, previous, now));
+                peakHeap = Math.max(peakHeap, now.heapUsed);
+                previous = now;
+            }
+            return step(cameras.size(), start, previous, peakHeap);
+        } finally {
+            scheduler.shutdownNow();
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            sources.forEach(FrameSource::close);
+        }
+    }
+
+    private FrameSource openSource(int camera) throws Exception {
+        if (settings.videoFiles().isEmpty()) {
+            return new SyntheticFrameSource(camera);
+        }
+        return new VideoFileFrameSource(settings.videoFiles().get(camera % settings.videoFiles().size()));
+    }
+
+    private CapacityReport.Sample sample(int cameras, Totals start, Totals from, Totals to) {
+        double seconds = (to.nanos - from.nanos) / 1e9;
+        return new CapacityReport.Sample(
+                (to.nanos - start.nanos) / 1_000_000,
+                cameras,
+                (to.offered - from.offered) / seconds,
+                (to.dropped - from.dropped) / seconds,
+                (to.inferred - from.inferred) / seconds,
+                (to.detections - from.detections) / seconds,
+                (to.alerts - from.alerts) / seconds,
+                meanMs(from, to),
+                to.heapUsed / (1024 * 1024),
+                (to.gcMillis - from.gcMillis) / seconds);
+    }
+
+    private CapacityReport.Step step(int cameras, Totals from, Totals to, long peakHeap) {
+        double seconds = (to.nanos - from.nanos) / 1e9;
+        long offered = to.offered - from.offered;
+        double dropRatio = offered == 0 ? 1.0 : (double) (to.dropped - from.dropped) / offered;
+        LatencyTracker.Percentiles latency = latencyTracker.getReport().steps().get(LatencyTracker.TOTAL);
+        boolean sustained = latency.count() > 0
+                && dropRatio <= settings.maxDropRatio()
+                && latency.p99() <= settings.latencyBudgetMs();
+        return new CapacityReport.Step(cameras,
+                offered / seconds,
+                (to.inferred - from.inferred) / seconds,
+                dropRatio,
+                (to.detections - from.detections) / seconds,
+                (to.alerts - from.alerts) / seconds,
+                meanMs(from, to),
+                to.dbWriteMaxMs,
+                latency.p50(),
+                latency.p99(),
+                peakHeap / (1024 * 1024),
+                (to.gcMillis - from.gcMillis) / 1000.0 / seconds,
+                sustained);
+    }
+
+    private Totals totals(Feeds feeds) {
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcMillis += Math.max(0, gc.getCollectionTime());
+        }
+        Timer dbWrite = registry.find(SentinelMetrics.DB_WRITE).timer();
+        return new Totals(System.nanoTime(),
+                feeds.offered.get(),
+                feeds.dropped.get(),
+                videoProcessor.getProcessedFrameCount(),
+                counterSum(SentinelMetrics.DETECTIONS),
+                counterSum(SentinelMetrics.ALERTS),
+                dbWrite != null ? dbWrite.count() : 0,
+                dbWrite != null ? dbWrite.totalTime(TimeUnit.MILLISECONDS) : 0,
+                dbWrite != null ? dbWrite.max(TimeUnit.MILLISECONDS) : 0,
+                ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(),
+                gcMillis);
+    }
+
+    private double counterSum(String name) {
+        return registry.find(name).counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private static double meanMs(Totals from, Totals to) {
+        long writes = to.dbWrites - from.dbWrites;
+        return writes == 0 ? 0 : (to.dbWriteMs - from.dbWriteMs) / writes;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    /**
+     * Frame counts of the simulated cameras; a feed never throws (that would cancel its schedule).
+     */
+    private final class Feeds {
+
+        private final AtomicLong offered = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        void tick(UUID cameraId, FrameSource source, long intervalMs) {
+            offered.incrementAndGet();
+            try {
+                BufferedImage frame = source.next(intervalMs);
+                if (!videoProcessor.submitFrame(cameraId, frame, System.currentTimeMillis())) {
+                    dropped.incrementAndGet();
+                }
+            } catch (Exception e) {
+                dropped.incrementAndGet();
+                log.debug("Load feed {} failed: {}", cameraId, e.getMessage());
+            }
+        }
+    }
+
+    private record Totals(long nanos, long offered, long dropped, long inferred, double detections, double alerts,
+                          long dbWrites, double dbWriteMs, double dbWriteMaxMs, long heapUsed, long gcMillis) {
+    }
+}
@@ -0,0 +1,135 @@
+package com.enterprise.sentinel.service.loadtest;
+
+import com.enterprise.sentinel.domain.model.Video;
+import com.enterprise.sentinel.domain.repository.VideoRepository;
+import com.enterprise.sentinel.service.analysis.ObjectDetectionService;
+import com.enterprise.sentinel.service.analysis.VideoProcessor;
+import com.enterprise.sentinel.service.metrics.LatencyTracker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Runs the load harness once the application is up ({@code app.loadtest.enabled=true},
+ * best with --headless against a disposable database), writes the capacity
+ * report as JSON and, by default, shuts the application down.
+ *
+ * Each simulated camera is registered as a Video so detections can reference it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.loadtest.enabled", havingValue = "true")
+public class LoadTestRunner implements ApplicationRunner {
+
+    private static final Duration MODEL_WAIT = Duration.ofMinutes(5);
+
+    private final VideoProcessor videoProcessor;
+    private final ObjectDetectionService detectionService;
+    private final LatencyTracker latencyTracker;
+    private final MeterRegistry registry;
+    private final VideoRepository videoRepository;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+    private final LoadTestSettings settings;
+    private final Path reportPath;
+    private final boolean exitWhenDone;
+
+    public LoadTestRunner(VideoProcessor videoProcessor,
+                          ObjectDetectionService detectionService,
+                          LatencyTracker latencyTracker,
+                          MeterRegistry registry,
+                          VideoRepository videoRepository,
+                          ObjectMapper objectMapper,
+                          ConfigurableApplicationContext context,
+                          @Value("${app.loadtest.cameras:1,2,4,8,16,32}") List<Integer> cameraSteps,
+                          @Value("${app.loadtest.frame-interval-ms:${app.ingestion.inference-interval-ms:500}}") long frameIntervalMs,
+                          @Value("${app.loadtest.warmup-seconds:10}") long warmupSeconds,
+                          @Value("${app.loadtest.measure-seconds:30}") long measureSeconds,
+                          @Value("${app.loadtest.sample-seconds:1}") long sampleSeconds,
+                          @Value("${app.loadtest.max-drop-ratio:0.01}") double maxDropRatio,
+                          @Value("${app.loadtest.latency-budget-ms:1000}") double latencyBudgetMs,
+                          @Value("${app.loadtest.videos:}") String videos,
+                          @Value("${app.loadtest.hardware-label:unnamed}") String hardwareLabel,
+                          @Value("${app.loadtest.model:real}") String model,
+                          @Value("${app.loadtest.report:./loadtest-report.json}") String reportPath,
+                          @Value("${app.loadtest.exit-when-done:true}") boolean exitWhenDone) {
+        this.videoProcessor = videoProcessor;
+        this.detectionService = detectionService;
+        this.latencyTracker = latencyTracker;
+        this.registry = registry;
+        this.videoRepository = videoRepository;
+        this.objectMapper = objectMapper;
+        this.context = context;
+        List<File> videoFiles = Arrays.stream(videos.split(","))
+                .map(String::trim)
+                .filter(path -> !path.isEmpty())
+                .map(File::new)
+                .toList();
+        this.settings = new LoadTestSettings(cameraSteps, frameIntervalMs, Duration.ofSeconds(warmupSeconds),
+                Duration.ofSeconds(measureSeconds), Duration.ofSeconds(sampleSeconds), maxDropRatio,
+                latencyBudgetMs, videoFiles, hardwareLabel, model);
+        this.reportPath = Path.of(reportPath);
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        awaitModel();
+        log.info("Load test starting: cameras={}, interval={} ms, model={}, source={}",
+                settings.cameraSteps(), settings.frameIntervalMs(), settings.model(),
+                settings.videoFiles().isEmpty() ? "synthetic" : settings.videoFiles());
+
+        CapacityReport report = new LoadHarness(videoProcessor, latencyTracker, registry, settings,
+                this::registerCamera).run();
+
+        Files.writeString(reportPath, objectMapper.copy()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writerWithDefaultPrettyPrinter()
+                .writeValueAsString(report));
+        log.info("Load test done: node '{}' sustains {} camera(s) at one frame per {} ms; report: {}",
+                settings.hardwareLabel(), report.maxSustainedCameras(), settings.frameIntervalMs(),
+                reportPath.toAbsolutePath());
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    // ====== HELPER METHODS ======
+
+    private void awaitModel() throws InterruptedException {
+        long deadline = System.nanoTime() + MODEL_WAIT.toNanos();
+        while (!detectionService.isReady()) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Detection model not ready after " + MODEL_WAIT);
+            }
+            Thread.sleep(500);
+        }
+    }
+
+    private UUID registerCamera() {
+        UUID name = UUID.randomUUID();
+        return videoRepository.save(Video.builder()
+                .originalFilename("loadtest-" + name)
+                .storagePath("loadtest://" + name)
+                .checksum(name.toString())
+                .sourceType(Video.SourceType.RTSP)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,35 @@
+package com.enterprise.sentinel.service.loadtest;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Parameters of a load test ({@code app.loadtest.*}).
+ *
+ * @param cameraSteps Camera counts to ramp through, ascending
+ * @param frameIntervalMs One frame per camera per interval (the ingestion sampling rate)
+ * @param warmup Time per step before measuring (queues fill, JIT settles)
+ * @param measure Measured time per step
+ * @param sampleEvery Sample period within a step
+ * @param maxDropRatio A step is sustained if at most this share of frames is dropped...
+ * @param latencyBudgetMs ...and p99 capture-to-last-step latency stays within this
+ * @param videoFiles Looped per camera (round robin); empty = synthetic frames
+ * @param hardwareLabel Name of the hardware profile, copied to the report
+ * @param model "stub" or "real", copied to the report
+ */
+public record LoadTestSettings(List<Integer> cameraSteps, long frameIntervalMs, Duration warmup, Duration measure,
+                               Duration sampleEvery, double maxDropRatio, double latencyBudgetMs,
+                               List<File> videoFiles, String hardwareLabel, String model) {
+
+    public LoadTestSettings {
+        if (cameraSteps.isEmpty() || cameraSteps.stream().anyMatch(cameras -> cameras < 1)) {
+            throw new IllegalArgumentException("Camera steps must be positive: " + cameraSteps);
+        }
+        if (frameIntervalMs < 1 || measure.isZero() || sampleEvery.isZero()) {
+            throw new IllegalArgumentException("Frame interval, measure and sample periods must be positive");
+        }
+        cameraSteps = cameraSteps.stream().sorted().toList();
+        videoFiles = List.copyOf(videoFiles);
+    }
+}
@@ -0,0 +1,105 @@
+package com.enterprise.sentinel.service.loadtest;
+
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.output.BoundingBox;
+import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.modality.cv.output.Rectangle;
+import com.enterprise.sentinel.config.ExecutionModel;
+import com.enterprise.sentinel.service.analysis.ObjectDetectionService;
+import com.enterprise.sentinel.service.metrics.FrameTrace;
+import com.enterprise.sentinel.service.model.ModelDescriptor;
+import com.enterprise.sentinel.service.model.ModelLease;
+import com.enterprise.sentinel.service.model.ModelRegistry;
+import com.enterprise.sentinel.service.model.ModelRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in for the ONNX model during load tests ({@code app.loadtest.model=stub}):
+ * keeps the inference thread busy for a fixed time per frame, then reports a
+ * few "person" boxes so persistence and alerting carry load as well.
+ *
+ * No model is downloaded or loaded. The real service is not created in this mode.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.loadtest.model", havingValue = "stub")
+public class StubDetectionService extends ObjectDetectionService {
+
+    private static final ModelDescriptor STUB_MODEL = new ModelDescriptor("stub", "loadtest", Path.of("stub"),
+            ModelDescriptor.COCO_CLASSES, ModelDescriptor.DEFAULT_CONFIDENCE, ModelDescriptor.DEFAULT_NMS_IOU, true,
+            ModelDescriptor.Precision.FP32);
+
+    private final long inferenceNanos;
+    private final int detectionsPerFrame;
+
+    public StubDetectionService(ExecutionModel executionModel, ModelRegistry modelRegistry, ModelRouter modelRouter,
+                                @Value("${app.loadtest.stub-inference-ms:40}") long inferenceMs,
+                                @Value("${app.loadtest.stub-detections:2}") int detectionsPerFrame) {
+        super(executionModel, modelRegistry, modelRouter, "");
+        this.inferenceNanos = inferenceMs * 1_000_000;
+        this.detectionsPerFrame = detectionsPerFrame;
+    }
+
+    @Override
+    public void init() {
+        log.warn("Detection model stubbed for load testing: {} ms per frame, {} detections",
+                inferenceNanos / 1_000_000, detectionsPerFrame);
+    }
+
+    @Override
+    public boolean isReady() {
+        return true;
+    }
+
+    @Override
+    public ModelLease acquire(UUID cameraId) {
+        return new ModelLease(STUB_MODEL, null, () -> { });
+    }
+
+    @Override
+    public DetectedObjects detect(ModelLease lease, Image image, FrameTrace trace) {
+        if (image == null) {
+            return null;
+        }
+        // Busy, like a forward pass: a sleep would leave the core free for other cameras
+        long until = System.nanoTime() + inferenceNanos;
+        while (System.nanoTime() < until) {
+            Thread.onSpinWait();
+        }
+        if (trace != null) {
+            trace.mark(FrameTrace.Stamp.INFER);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<String> names = new ArrayList<>();
+        List<Double> probabilities = new ArrayList<>();
+        List<BoundingBox> boxes = new ArrayList<>();
+        for (int i = 0; i < detectionsPerFrame; i++) {
+            names.add("person");
+            probabilities.add(0.6 + random.nextDouble() * 0.4);
+            boxes.add(new Rectangle(random.nextDouble() * 0.8, random.nextDouble() * 0.6, 0.1, 0.3));
+        }
+        if (trace != null) {
+            trace.mark(FrameTrace.Stamp.NMS);
+        }
+        return new DetectedObjects(names, probabilities, boxes);
+    }
+
+    @Override
+    public List<DetectedObjects> detectBatch(ModelLease lease, List<Image> images, int batchSize) {
+        List<DetectedObjects> results = new ArrayList<>(images.size());
+        for (Image image : images) {
+            results.add(detect(lease, image, null));
+        }
+        return results;
+    }
+}
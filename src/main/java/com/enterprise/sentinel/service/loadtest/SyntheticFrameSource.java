@@ -0,0 +1,59 @@
+package com.enterprise.sentinel.service.loadtest;
+
+import com.enterprise.sentinel.service.analysis.YoloV8Translator;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Generated frames at the model input size: a noisy background with a few
+ * person-sized boxes walking across it. No decoding cost, so the load is the
+ * analysis pipeline alone.
+ */
+public class SyntheticFrameSource implements FrameSource {
+
+    private static final int SIZE = YoloV8Translator.INPUT_SIZE;
+    private static final int OBJECTS = 3;
+
+    private final Random random;
+    private final BufferedImage background;
+    private final int[] x = new int[OBJECTS];
+    private final int[] y = new int[OBJECTS];
+    private final int[] dx = new int[OBJECTS];
+
+    public SyntheticFrameSource(long seed) {
+        this.random = new Random(seed);
+        this.background = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                int gray = 90 + random.nextInt(40);
+                background.setRGB(col, row, gray << 16 | gray << 8 | gray);
+            }
+        }
+        for (int i = 0; i < OBJECTS; i++) {
+            x[i] = random.nextInt(SIZE);
+            y[i] = 100 + random.nextInt(SIZE - 300);
+            dx[i] = 2 + random.nextInt(6);
+        }
+    }
+
+    @Override
+    public BufferedImage next(long intervalMs) {
+        BufferedImage frame = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = frame.createGraphics();
+        try {
+            g.drawImage(background, 0, 0, null);
+            for (int i = 0; i < OBJECTS; i++) {
+                // Walk at a few pixels per 100 ms, wrapping at the edge
+                x[i] = (int) ((x[i] + dx[i] * Math.max(1, intervalMs / 100)) % SIZE);
+                g.setColor(new Color(40 + 60 * i, 60, 160 - 40 * i));
+                g.fillRect(x[i], y[i], 60, 160);
+            }
+        } finally {
+            g.dispose();
+        }
+        return frame;
+    }
+}
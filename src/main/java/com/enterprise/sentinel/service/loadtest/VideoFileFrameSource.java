@@ -0,0 +1,59 @@
+package com.enterprise.sentinel.service.loadtest;
+
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+
+/**
+ * A local video file played in a loop. Every frame is decoded, as a camera
+ * stream would be; one per interval of media time is returned.
+ */
+public class VideoFileFrameSource implements FrameSource {
+
+    private final File file;
+    private final FFmpegFrameGrabber grabber;
+    private final Java2DFrameConverter converter = new Java2DFrameConverter();
+    private long nextMediaMs;
+
+    public VideoFileFrameSource(File file) throws Exception {
+        this.file = file;
+        this.grabber = new FFmpegFrameGrabber(file);
+        grabber.start();
+    }
+
+    @Override
+    public BufferedImage next(long intervalMs) throws Exception {
+        boolean restarted = false;
+        while (true) {
+            Frame frame = grabber.grabImage();
+            if (frame == null) {
+                // FAIL-SAFE: An empty or unreadable file would loop forever
+                if (restarted) {
+                    throw new IllegalStateException("No frames in " + file);
+                }
+                grabber.restart();
+                nextMediaMs = 0;
+                restarted = true;
+                continue;
+            }
+            long mediaMs = frame.timestamp / 1000;
+            if (mediaMs >= nextMediaMs) {
+                nextMediaMs = mediaMs + intervalMs;
+                return Java2DFrameConverter.cloneBufferedImage(converter.convert(frame));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            grabber.close();
+        } catch (Exception e) {
+            // Nothing to recover; the harness is done with this feed
+        }
+        converter.close();
+    }
+}
@@ -0,0 +1,93 @@
+package com.enterprise.sentinel.service.metrics;
+
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Timestamps of one frame on its way from the camera to an alert.
+ *
+ * Each stamp marks the moment a step finished ({@link System#nanoTime}).
+ * A frame that ends early (e.g. no detections) has no later stamps.
+ * Stamps are written by whichever pipeline thread holds the frame; the
+ * hand-off between stages publishes them.
+ */
+public final class FrameTrace {
+
+    /**
+     * Steps in pipeline order.
+     */
+    public enum Stamp {
+        CAPTURE,    // Frame captured (decoded by the ingestion engine or rendered by the player)
+        ENQUEUE,    // Accepted at the pipeline entry
+        DECODE,     // Converted to a BufferedImage
+        PREPROCESS, // Converted to the model's image type
+        INFER,      // Model forward pass done
+        NMS,        // Overlapping boxes suppressed
+        PERSIST,    // Detections saved
+        ALERT       // Alerts saved and published
+    }
+
+    private static final Stamp[] STAMPS = Stamp.values();
+
+    private final long[] nanos = new long[STAMPS.length];
+
+    /**
+     * Start a trace for a frame captured at {@code captureEpochMs} (wall clock).
+     */
+    public static FrameTrace capturedAt(long captureEpochMs) {
+        FrameTrace trace = new FrameTrace();
+        long ageMs = Math.max(0, System.currentTimeMillis() - captureEpochMs);
+        trace.nanos[Stamp.CAPTURE.ordinal()] = System.nanoTime() - ageMs * 1_000_000;
+        return trace;
+    }
+
+    public void mark(Stamp stamp) {
+        nanos[stamp.ordinal()] = System.nanoTime();
+    }
+
+    public boolean has(Stamp stamp) {
+        return nanos[stamp.ordinal()] != 0;
+    }
+
+    public long nanos(Stamp stamp) {
+        return nanos[stamp.ordinal()];
+    }
+
+    /**
+     * Each stamp the frame reached with the nanos since the previous one it
+     * reached (so INFER includes the wait for the inference thread).
+     */
+    void forEachInterval(ObjLongConsumer<Stamp> consumer) {
+        long previous = nanos[Stamp.CAPTURE.ordinal()];
+        for (int i = 1; i < STAMPS.length; i++) {
+            long at = nanos[i];
+            if (at == 0) {
+                continue;
+            }
+            if (previous != 0) {
+                consumer.accept(STAMPS[i], at - previous);
+            }
+            previous = at;
+        }
+    }
+
+    /**
+     * Nanos from capture (or the first stamp) to the last stamp; 0 if fewer than two stamps.
+     */
+    long totalNanos() {
+        long first = 0;
+        long last = 0;
+        for (long at : nanos) {
+            if (at != 0) {
+                if (first == 0) {
+                    first = at;
+                }
+                last = at;
+            }
+        }
+        return last - first;
+    }
+
+    static Stamp[] stamps() {
+        return STAMPS;
+    }
+}
@@ -0,0 +1,110 @@
+package com.enterprise.sentinel.service.metrics;
+
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-frame latency histograms of the detection pipeline, per step and per camera.
+ *
+ * A finished frame's {@link FrameTrace} is split into intervals: each
+ * stamp is measured from the previous stamp the frame reached (so INFER
+ * includes the wait for the inference thread), plus TOTAL from capture to
+ * the last stamp. Recording is lock-free; percentiles are computed on read.
+ *
+ * Histograms accumulate until {@link #reset}, so a tuning run starts with a reset.
+ */
+@Service
+public class LatencyTracker {
+
+    public static final String TOTAL = "TOTAL";
+
+    // Frames of the desktop player carry no camera id
+    private static final UUID DESKTOP = new UUID(0, 0);
+
+    private final Steps all = new Steps();
+    private final Map<UUID, Steps> cameras = new ConcurrentHashMap<>();
+
+    /**
+     * Record a frame that left the pipeline.
+     */
+    public void record(UUID cameraId, FrameTrace trace) {
+        Steps camera = cameras.computeIfAbsent(cameraId != null ? cameraId : DESKTOP, id -> new Steps());
+        trace.forEachInterval((stamp, nanos) -> {
+            all.steps.get(stamp).record(nanos / 1000);
+            camera.steps.get(stamp).record(nanos / 1000);
+        });
+        long total = trace.totalNanos();
+        if (total != 0) {
+            all.total.record(total / 1000);
+            camera.total.record(total / 1000);
+        }
+    }
+
+    /**
+     * Percentiles per step over all cameras, then per camera.
+     */
+    public LatencyReport getReport() {
+        Map<UUID, Map<String, Percentiles>> perCamera = new LinkedHashMap<>();
+        cameras.forEach((cameraId, steps) -> perCamera.put(cameraId, steps.report()));
+        return new LatencyReport(all.report(), perCamera);
+    }
+
+    public void reset() {
+        all.reset();
+        cameras.clear();
+    }
+
+    /**
+     * Latencies in milliseconds.
+     *
+     * @param steps Step name (see {@link FrameTrace.Stamp}) or TOTAL → percentiles
+     * @param cameras Camera id (all zeros for the desktop player) → step → percentiles
+     */
+    public record LatencyReport(Map<String, Percentiles> steps, Map<UUID, Map<String, Percentiles>> cameras) {
+    }
+
+    /**
+     * Percentiles of one histogram in milliseconds.
+     */
+    public record Percentiles(long count, double p50, double p99, double p999, double max, double mean) {
+
+        static Percentiles of(LatencyHistogram.Snapshot snapshot) {
+            return new Percentiles(snapshot.count(), snapshot.p50() / 1000.0, snapshot.p99() / 1000.0,
+                    snapshot.p999() / 1000.0, snapshot.max() / 1000.0, snapshot.mean() / 1000.0);
+        }
+    }
+
+    /**
+     * Histograms for every step after CAPTURE, plus the total.
+     */
+    private static final class Steps {
+
+        private final Map<FrameTrace.Stamp, LatencyHistogram> steps = new EnumMap<>(FrameTrace.Stamp.class);
+        private final LatencyHistogram total = new LatencyHistogram();
+
+        Steps() {
+            for (FrameTrace.Stamp stamp : FrameTrace.stamps()) {
+                if (stamp != FrameTrace.Stamp.CAPTURE) {
+                    steps.put(stamp, new LatencyHistogram());
+                }
+            }
+        }
+
+        Map<String, Percentiles> report() {
+            Map<String, Percentiles> report = new LinkedHashMap<>();
+            steps.forEach((stamp, histogram) -> report.put(stamp.name(), Percentiles.of(histogram.snapshot())));
+            report.put(TOTAL, Percentiles.of(total.snapshot()));
+            return report;
+        }
+
+        void reset() {
+            steps.values().forEach(LatencyHistogram::reset);
+            total.reset();
+        }
+    }
+}
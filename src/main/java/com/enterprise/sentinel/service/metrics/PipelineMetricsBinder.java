@@ -0,0 +1,181 @@
+package com.enterprise.sentinel.service.metrics;
+
+import com.enterprise.sentinel.service.analysis.AlertNotificationService;
+import com.enterprise.sentinel.service.analysis.ObjectDetectionService;
+import com.enterprise.sentinel.service.analysis.RoiDetector;
+import com.enterprise.sentinel.service.analysis.StaticSceneCache;
+import com.enterprise.sentinel.service.analysis.TiledDetector;
+import com.enterprise.sentinel.service.analysis.VideoProcessor;
+import com.enterprise.sentinel.service.pipeline.StageStats;
+import com.enterprise.sentinel.service.security.AuditLogger;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Gauges and counters read from component state at scrape time: per-stage
+ * queue depth, utilization and throughput of the detection pipeline, inference
+ * frame counts, tiled passes, model readiness, the UI alert queue and audit writes.
+ *
+ * Stage meters share one stats snapshot per second, so a scrape reads the
+ * pipeline once rather than once per meter.
+ *
+ * These count over all models; per-model series are the frame and detection
+ * meters of {@link SentinelMetrics}, tagged with the model that served each frame.
+ */
+@Component
+public class PipelineMetricsBinder implements MeterBinder {
+
+    private static final long SNAPSHOT_NANOS = 1_000_000_000L;
+
+    private final VideoProcessor videoProcessor;
+    private final ObjectDetectionService detectionService;
+    private final TiledDetector tiledDetector;
+    private final RoiDetector roiDetector;
+    private final StaticSceneCache staticSceneCache;
+    private final AlertNotificationService alertNotificationService;
+    private final AuditLogger auditLogger;
+
+    private volatile List<StageStats> snapshot = List.of();
+    private volatile long snapshotAtNanos;
+
+    public PipelineMetricsBinder(VideoProcessor videoProcessor,
+                                 ObjectDetectionService detectionService,
+                                 TiledDetector tiledDetector,
+                                 RoiDetector roiDetector,
+                                 StaticSceneCache staticSceneCache,
+                                 AlertNotificationService alertNotificationService,
+                                 AuditLogger auditLogger) {
+        this.videoProcessor = videoProcessor;
+        this.detectionService = detectionService;
+        this.tiledDetector = tiledDetector;
+        this.roiDetector = roiDetector;
+        this.staticSceneCache = staticSceneCache;
+        this.alertNotificationService = alertNotificationService;
+        this.auditLogger = auditLogger;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Pipeline stages (tagged by stage name)
+        for (StageStats stage : videoProcessor.getPipelineStats()) {
+            String name = stage.name();
+            stageGauge(registry, "sentinel.pipeline.queue.depth", name, "Items waiting in the stage queue",
+                    StageStats::queueDepth);
+            stageGauge(registry, "sentinel.pipeline.queue.capacity", name, "Capacity of the stage queue",
+                    StageStats::capacity);
+            stageGauge(registry, "sentinel.pipeline.utilization", name, "Busy share of the stage workers (0..1)",
+                    StageStats::utilization);
+            stageGauge(registry, "sentinel.pipeline.throughput", name, "Items per second through the stage",
+                    StageStats::throughputPerSec);
+            stageCounter(registry, "sentinel.pipeline.processed", name, "Items the stage handled",
+                    StageStats::processed);
+            stageCounter(registry, "sentinel.pipeline.dropped", name, "Items the stage dropped on overflow",
+                    StageStats::dropped);
+            stageCounter(registry, "sentinel.pipeline.errors", name, "Items the stage failed on",
+                    StageStats::errors);
+        }
+
+        // Inference
+        FunctionCounter.builder("sentinel.inference.frames", videoProcessor, VideoProcessor::getProcessedFrameCount)
+                .description("Frames through the model")
+                .register(registry);
+        FunctionCounter.builder("sentinel.inference.throttled", videoProcessor, VideoProcessor::getThrottledFrameCount)
+                .description("Frames skipped by the throttle gate or a full pipeline entry")
+                .register(registry);
+        Gauge.builder("sentinel.model.ready", detectionService, service -> service.isReady() ? 1 : 0)
+                .description("1 once the detection model is loaded")
+                .register(registry);
+        FunctionCounter.builder("sentinel.tiling.passes", tiledDetector, TiledDetector::getTilePassCount)
+                .description("Forward passes of tiled high-resolution frames")
+                .tag("kind", "tile")
+                .register(registry);
+        FunctionCounter.builder("sentinel.tiling.passes", tiledDetector, TiledDetector::getFullFramePassCount)
+                .description("Forward passes of tiled high-resolution frames")
+                .tag("kind", "full")
+                .register(registry);
+        FunctionCounter.builder("sentinel.tiling.skipped", tiledDetector, TiledDetector::getSkippedFrameCount)
+                .description("Tiled frames without motion or objects, not run through the model")
+                .register(registry);
+        FunctionCounter.builder("sentinel.roi.frames", roiDetector, RoiDetector::getCroppedFrameCount)
+                .description("Frames run on their camera's zone regions instead of the whole frame")
+                .register(registry);
+        FunctionCounter.builder("sentinel.roi.passes", roiDetector, RoiDetector::getCropPassCount)
+                .description("Forward passes on zone region crops")
+                .register(registry);
+
+        // Static scene cache
+        Gauge.builder("sentinel.static.objects", staticSceneCache, StaticSceneCache::getStaticObjectCount)
+                .description("Stationary objects currently recognized across cameras")
+                .register(registry);
+        FunctionCounter.builder("sentinel.static.suppressed", staticSceneCache, StaticSceneCache::getSuppressedCount)
+                .description("Detections of static objects neither persisted nor evaluated for alerts")
+                .register(registry);
+        FunctionCounter.builder("sentinel.static.heartbeats", staticSceneCache, StaticSceneCache::getHeartbeatCount)
+                .description("Periodic detections of static objects persisted without alert evaluation")
+                .register(registry);
+        FunctionCounter.builder("sentinel.static.untracked", staticSceneCache, StaticSceneCache::getUntrackedCount)
+                .description("Detections not tracked because their camera hit static-cache.max-objects")
+                .register(registry);
+
+        // Alerting
+        Gauge.builder("sentinel.alerts.queue.size", alertNotificationService, AlertNotificationService::getQueueSize)
+                .description("Recent alerts held for the UI")
+                .register(registry);
+        Gauge.builder("sentinel.alerts.unacknowledged", alertNotificationService,
+                        AlertNotificationService::getUnacknowledgedAlertCount)
+                .description("Recent alerts not yet acknowledged")
+                .register(registry);
+
+        // Audit
+        FunctionCounter.builder("sentinel.audit.writes", auditLogger, AuditLogger::getWrittenCount)
+                .description("Audit records written")
+                .tag("outcome", "success")
+                .register(registry);
+        FunctionCounter.builder("sentinel.audit.writes", auditLogger, AuditLogger::getFailedCount)
+                .description("Audit records written")
+                .tag("outcome", "failure")
+                .register(registry);
+    }
+
+    // ====== HELPER METHODS ======
+
+    private void stageGauge(MeterRegistry registry, String meter, String stage, String description,
+                            ToDoubleFunction<StageStats> value) {
+        Gauge.builder(meter, this, binder -> binder.stageValue(stage, value))
+                .description(description)
+                .tag("stage", stage)
+                .register(registry);
+    }
+
+    private void stageCounter(MeterRegistry registry, String meter, String stage, String description,
+                              ToDoubleFunction<StageStats> value) {
+        FunctionCounter.builder(meter, this, binder -> binder.stageValue(stage, value))
+                .description(description)
+                .tag("stage", stage)
+                .register(registry);
+    }
+
+    private double stageValue(String stage, ToDoubleFunction<StageStats> value) {
+        for (StageStats stats : stats()) {
+            if (stats.name().equals(stage)) {
+                return value.applyAsDouble(stats);
+            }
+        }
+        return Double.NaN;
+    }
+
+    private List<StageStats> stats() {
+        long now = System.nanoTime();
+        if (snapshot.isEmpty() || now - snapshotAtNanos >= SNAPSHOT_NANOS) {
+            snapshot = videoProcessor.getPipelineStats();
+            snapshotAtNanos = now;
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,157 @@
+package com.enterprise.sentinel.service.metrics;
+
+import com.enterprise.sentinel.service.model.ModelDescriptor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Micrometer meters recorded on the detection path, scraped at /actuator/prometheus.
+ *
+ * Per frame: one timer per pipeline step plus TOTAL ({@code sentinel.pipeline.step},
+ * tagged step and model, with a percentile histogram) and one end-to-end timer
+ * per camera ({@code sentinel.camera.frames}: count = frames analyzed, sum and
+ * max = latency; no histogram, to keep series per camera low). Detections and
+ * alerts are counted per camera and per severity; each detection insert is
+ * timed ({@code sentinel.db.write}).
+ *
+ * The model tag is the id of the model that served the frame ({@link ModelDescriptor#id()}),
+ * so routed cameras and quantized variants show up as their own series;
+ * frames that ended before inference are tagged "none".
+ *
+ * Cardinality: the first {@code app.metrics.max-camera-tags} cameras get their
+ * own tag; later ones share {@code camera="other"}, so a node with many cameras
+ * cannot blow up the scrape. Desktop player frames are tagged "desktop".
+ *
+ * Gauges over component state (stage queues, alert queue, audit writes) are
+ * registered by {@link PipelineMetricsBinder}.
+ */
+@Slf4j
+@Service
+public class SentinelMetrics {
+
+    public static final String TAG_CAMERA = "camera";
+    public static final String TAG_MODEL = "model";
+    public static final String DESKTOP_CAMERA = "desktop";
+    public static final String OTHER_CAMERA = "other";
+    public static final String NO_MODEL = "none";
+
+    public static final String DETECTIONS = "sentinel.detections.persisted";
+    public static final String ALERTS = "sentinel.alerts.raised";
+    public static final String DB_WRITE = "sentinel.db.write";
+
+    private final MeterRegistry registry;
+    private final int maxCameraTags;
+    private final Set<UUID> taggedCameras = ConcurrentHashMap.newKeySet();
+
+    public SentinelMetrics(MeterRegistry registry,
+                           @Value("${app.metrics.max-camera-tags:50}") int maxCameraTags) {
+        this.registry = registry;
+        this.maxCameraTags = maxCameraTags;
+    }
+
+    /**
+     * Tag value for a camera: its id while under the limit, "other" past it.
+     */
+    public String cameraTag(UUID cameraId) {
+        if (cameraId == null) {
+            return DESKTOP_CAMERA;
+        }
+        if (taggedCameras.contains(cameraId)) {
+            return cameraId.toString();
+        }
+        synchronized (taggedCameras) {
+            if (taggedCameras.size() < maxCameraTags) {
+                taggedCameras.add(cameraId);
+                if (taggedCameras.size() == maxCameraTags) {
+                    log.warn("Camera tag limit reached ({}); further cameras are tagged '{}'",
+                            maxCameraTags, OTHER_CAMERA);
+                }
+                return cameraId.toString();
+            }
+        }
+        return OTHER_CAMERA;
+    }
+
+    /**
+     * Record the step timings of a frame that left the pipeline.
+     *
+     * @param model Model that served the frame (null if it ended before inference)
+     */
+    public void recordFrame(UUID cameraId, ModelDescriptor model, FrameTrace trace) {
+        String modelTag = modelTag(model);
+        trace.forEachInterval((stamp, nanos) -> stepTimer(stamp.name(), modelTag).record(nanos, TimeUnit.NANOSECONDS));
+        long total = trace.totalNanos();
+        if (total != 0) {
+            stepTimer(LatencyTracker.TOTAL, modelTag).record(total, TimeUnit.NANOSECONDS);
+            Timer.builder("sentinel.camera.frames")
+                    .description("End-to-end latency of analyzed frames per camera")
+                    .tags(TAG_CAMERA, cameraTag(cameraId), TAG_MODEL, modelTag)
+                    .register(registry)
+                    .record(total, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void countDetections(UUID cameraId, ModelDescriptor model, int count) {
+        if (count > 0) {
+            Counter.builder(DETECTIONS)
+                    .description("Detections saved to the database")
+                    .tags(TAG_CAMERA, cameraTag(cameraId), TAG_MODEL, modelTag(model))
+                    .register(registry)
+                    .increment(count);
+        }
+    }
+
+    public void countAlert(UUID cameraId, String severity) {
+        Counter.builder(ALERTS)
+                .description("Security alerts saved and published")
+                .tags(TAG_CAMERA, cameraTag(cameraId), "severity", severity != null ? severity : "UNKNOWN")
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Time of one database write on the detection path.
+     */
+    public void recordDbWrite(String table, long nanos) {
+        Timer.builder(DB_WRITE)
+                .description("Database writes on the detection path")
+                .tag("table", table)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Expose a video renderer's frame counters; the renderer is held weakly.
+     */
+    public <T> void bindRenderer(T renderer, ToDoubleFunction<T> rendered, ToDoubleFunction<T> dropped) {
+        FunctionCounter.builder("sentinel.render.frames", renderer, rendered)
+                .description("Frames displayed by the desktop player")
+                .register(registry);
+        FunctionCounter.builder("sentinel.render.dropped", renderer, dropped)
+                .description("Frames the desktop player failed to display")
+                .register(registry);
+    }
+
+    private static String modelTag(ModelDescriptor model) {
+        return model != null ? model.id() : NO_MODEL;
+    }
+
+    private Timer stepTimer(String step, String model) {
+        return Timer.builder("sentinel.pipeline.step")
+                .description("Time a frame spent reaching each pipeline step")
+                .tags("step", step, TAG_MODEL, model)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,68 @@
+package com.enterprise.sentinel.service.model;
+
+import ai.djl.ndarray.types.DataType;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * One loaded version of a detection model.
+ *
+ * Read from {@code <id>.onnx} and its optional {@code <id>.json} metadata
+ * (version, class labels in output order, thresholds, dynamic batch axis,
+ * precision).
+ * Without metadata the model is taken as COCO-80 and versioned by file hash.
+ *
+ * @param id Model id (file name without extension), used for routing
+ * @param version Metadata version, or {@code sha256-<prefix>} of the file
+ * @param dynamicBatch Whether the export accepts batches larger than 1
+ * @param precision Weight/activation precision of the export
+ */
+public record ModelDescriptor(String id, String version, Path file, List<String> classes,
+                              float confidence, float nmsIou, boolean dynamicBatch, Precision precision) {
+
+    public static final float DEFAULT_CONFIDENCE = 0.5f;
+    public static final float DEFAULT_NMS_IOU = 0.45f;
+
+    // Standard COCO dataset classes (80 objects)
+    public static final List<String> COCO_CLASSES = List.of(
+        "person", "bicycle", "car", "motorcycle", "airplane", "bus", "train", "truck", "boat", "traffic light",
+        "fire hydrant", "stop sign", "parking meter", "bench", "bird", "cat", "dog", "horse", "sheep", "cow",
+        "elephant", "bear", "zebra", "giraffe", "backpack", "umbrella", "handbag", "tie", "suitcase", "frisbee",
+        "skis", "snowboard", "sports ball", "kite", "baseball bat", "baseball glove", "skateboard", "surfboard",
+        "tennis racket", "bottle", "wine glass", "cup", "fork", "knife", "spoon", "bowl", "banana", "apple",
+        "sandwich", "orange", "broccoli", "carrot", "hot dog", "pizza", "donut", "cake", "chair", "couch",
+        "potted plant", "bed", "dining table", "toilet", "tv", "laptop", "mouse", "remote", "keyboard", "cell phone",
+        "microwave", "oven", "toaster", "sink", "refrigerator", "book", "clock", "vase", "scissors", "teddy bear",
+        "hair drier", "toothbrush"
+    );
+
+    /**
+     * Numeric precision of an ONNX export.
+     *
+     * INT8 exports (dynamic or static QDQ quantization) keep float32 inputs and
+     * outputs; FP16 exports converted without keeping I/O types take and return float16.
+     */
+    public enum Precision {
+        FP32, FP16, INT8;
+
+        /**
+         * Element type of the model's input tensor.
+         */
+        public DataType inputType() {
+            return this == FP16 ? DataType.FLOAT16 : DataType.FLOAT32;
+        }
+    }
+
+    public ModelDescriptor {
+        classes = List.copyOf(classes);
+        precision = precision != null ? precision : Precision.FP32;
+    }
+
+    /**
+     * "id:version", as logged and persisted with detections.
+     */
+    public String label() {
+        return id + ":" + version;
+    }
+}
@@ -0,0 +1,52 @@
+package com.enterprise.sentinel.service.model;
+
+import com.enterprise.sentinel.service.analysis.ObjectDetectionService;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * "model" health: OUT_OF_SERVICE until the default model is loaded and warmed
+ * up, then UP with each serving version and its warm-up latency.
+ *
+ * Part of the readiness group (/actuator/health/readiness), so a load
+ * balancer only sends cameras to a node whose model runs at full speed.
+ */
+@Component
+public class ModelHealthIndicator implements HealthIndicator {
+
+    private final ObjectDetectionService detectionService;
+    private final ModelRegistry modelRegistry;
+
+    public ModelHealthIndicator(ObjectDetectionService detectionService, ModelRegistry modelRegistry) {
+        this.detectionService = detectionService;
+        this.modelRegistry = modelRegistry;
+    }
+
+    @Override
+    public Health health() {
+        if (!detectionService.isReady()) {
+            return Health.outOfService()
+                    .withDetail("default", modelRegistry.getDefaultModel())
+                    .withDetail("state", "loading")
+                    .build();
+        }
+        Health.Builder health = Health.up();
+        for (ModelDescriptor descriptor : modelRegistry.getModels()) {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("version", descriptor.version());
+            ModelWarmup.Report warmup = modelRegistry.getWarmup(descriptor.id());
+            if (warmup != null) {
+                details.put("warmupPasses", warmup.passes());
+                details.put("warmupFirstMs", Math.round(warmup.firstMs()));
+                details.put("warmupP99Ms", Math.round(warmup.p99Ms()));
+                details.put("settled", warmup.stable());
+            }
+            health.withDetail(descriptor.id(), details);
+        }
+        return health.build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.enterprise.sentinel.service.model;
+
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.repository.zoo.ZooModel;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A model version held for the inference of one frame.
+ *
+ * A version swapped out of the registry stays open until its last lease is
+ * closed, so frames already in flight finish on the model they started with.
+ */
+public final class ModelLease implements AutoCloseable {
+
+    private final ModelDescriptor descriptor;
+    private final ZooModel<Image, DetectedObjects> model;
+    private final Runnable release;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    /**
+     * @param model Loaded model (null for stand-ins that do not run one)
+     * @param release Called once, on the first close
+     */
+    public ModelLease(ModelDescriptor descriptor, ZooModel<Image, DetectedObjects> model, Runnable release) {
+        this.descriptor = descriptor;
+        this.model = model;
+        this.release = release;
+    }
+
+    public ModelDescriptor descriptor() {
+        return descriptor;
+    }
+
+    public ZooModel<Image, DetectedObjects> model() {
+        return model;
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            release.run();
+        }
+    }
+}
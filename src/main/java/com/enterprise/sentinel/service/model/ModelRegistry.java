@@ -0,0 +1,441 @@
+package com.enterprise.sentinel.service.model;
+
+import ai.djl.inference.Predictor;
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.repository.zoo.Criteria;
+import ai.djl.repository.zoo.ZooModel;
+import com.enterprise.sentinel.config.ExecutionModel;
+import com.enterprise.sentinel.service.analysis.DetectionClassRegistry;
+import com.enterprise.sentinel.service.analysis.YoloV8Translator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Detection models loaded from a local directory ({@code app.models.directory}).
+ *
+ * Every {@code <id>.onnx} is loaded with its {@code <id>.json} metadata (see
+ * {@link ModelDescriptor}) and warmed up before it serves: inference on a
+ * synthetic frame until latency settles (see {@link ModelWarmup}), so the
+ * first camera frames do not pay for ONNX Runtime's lazy initialization or
+ * JIT-cold pre- and post-processing. The default model is loaded first, so
+ * its labels keep the low class ids.
+ *
+ * Sessions are tuned per model (see {@link SessionSettings}): defaults under
+ * {@code app.models.session}, derived from the cores and the inference pool,
+ * overridden per model under {@code app.models.sessions.<id>}.
+ *
+ * Hot swap: the directory is rescanned every {@code watch-interval-ms}. A new
+ * or changed model is loaded and warmed up beside the current version, then
+ * replaces it in one map write. Frames already running keep their lease on
+ * the old version, which is closed after the last one finishes; no frame
+ * waits and none is dropped. A version that fails to load leaves the current
+ * one serving and is retried once its files change again. Copy new versions
+ * in with an atomic move so a half-written file is never picked up.
+ *
+ * The scheduled rescan only lists the directory: loads and warm-ups (up to
+ * {@code warmup.budget-ms} each) run one at a time on a loader thread, so the
+ * shared scheduler keeps running dwell sweeps, retention and exports.
+ *
+ * Models are not loaded on their own: ObjectDetectionService starts the
+ * registry, so load-test stubs run without any.
+ */
+@Slf4j
+@Service
+public class ModelRegistry {
+
+    private static final String MODEL_SUFFIX = ".onnx";
+    private static final String METADATA_SUFFIX = ".json";
+    private static final String SESSION_PREFIX = "app.models.session";
+    private static final String MODEL_SESSION_PREFIX = "app.models.sessions.";
+
+    private final DetectionClassRegistry classRegistry;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final String defaultModel;
+    private final ModelWarmup warmup;
+    private final Environment environment;
+    private final SessionSettings sessionDefaults;
+
+    private final Map<String, Entry> models = new ConcurrentHashMap<>();
+    // Files that failed to load, by id: skipped until they change
+    private final Map<String, String> failedStamps = new ConcurrentHashMap<>();
+    // Ids with a load queued or running, so a slow warm-up is not queued twice
+    private final Set<String> loading = ConcurrentHashMap.newKeySet();
+    private final ExecutorService loader;
+    private volatile boolean started;
+
+    public ModelRegistry(DetectionClassRegistry classRegistry,
+                         ObjectMapper objectMapper,
+                         @Value("${app.models.directory:models}") String directory,
+                         @Value("${app.models.default:yolov8n}") String defaultModel,
+                         @Value("${app.models.warmup.round-size:8}") int warmupRoundSize,
+                         @Value("${app.models.warmup.max-rounds:10}") int warmupMaxRounds,
+                         @Value("${app.models.warmup.tolerance:0.15}") double warmupTolerance,
+                         @Value("${app.models.warmup.budget-ms:20000}") long warmupBudgetMs,
+                         ExecutionModel executionModel,
+                         Environment environment) {
+        this.classRegistry = classRegistry;
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(directory);
+        this.defaultModel = defaultModel;
+        this.warmup = new ModelWarmup(warmupRoundSize, warmupMaxRounds, warmupTolerance, warmupBudgetMs);
+        this.environment = environment;
+        this.sessionDefaults = SessionSettings.from(environment, SESSION_PREFIX, SessionSettings.derive(
+                Runtime.getRuntime().availableProcessors(),
+                environment.getProperty("app.pipeline.infer.parallelism", Integer.class, 1)));
+        this.loader = Executors.newSingleThreadExecutor(executionModel.newThreadFactory("sentinel-model-loader-"));
+    }
+
+    /**
+     * Load every model in the directory and start watching it for new versions.
+     */
+    public synchronized void loadAll() throws IOException {
+        started = true;
+        for (Path file : scan()) {
+            String id = idOf(file);
+            if (loading.add(id)) {
+                try {
+                    load(file);
+                } finally {
+                    loading.remove(id);
+                }
+            }
+        }
+        if (!models.containsKey(defaultModel)) {
+            log.error("Default model '{}' not loaded from {}; detection unavailable", defaultModel,
+                    directory.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Queue new and changed model files for loading (scheduled; no-op until {@link #loadAll()}).
+     */
+    @Scheduled(fixedDelayString = "${app.models.watch-interval-ms:10000}")
+    public void rescan() {
+        if (!started) {
+            return;
+        }
+        try {
+            for (Path file : scan()) {
+                String id = idOf(file);
+                String stamp = stamp(file);
+                Entry current = models.get(id);
+                if ((current == null || !current.stamp.equals(stamp)) && !stamp.equals(failedStamps.get(id))
+                        && loading.add(id)) {
+                    loader.execute(() -> {
+                        try {
+                            load(file);
+                        } finally {
+                            loading.remove(id);
+                        }
+                    });
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Model directory scan failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Lease the current version of a model; close the lease when the frame is done.
+     *
+     * @return the lease, or null if no model with this id is loaded
+     */
+    public ModelLease acquire(String id) {
+        while (true) {
+            Entry entry = models.get(id);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.tryAcquire()) {
+                return new ModelLease(entry.descriptor, entry.model, entry::release);
+            }
+            // Swapped out between the lookup and the lease: the map holds its successor
+        }
+    }
+
+    public boolean isLoaded(String id) {
+        return id != null && models.containsKey(id);
+    }
+
+    /**
+     * Descriptors of the versions currently serving, by id.
+     */
+    public List<ModelDescriptor> getModels() {
+        List<ModelDescriptor> descriptors = new ArrayList<>();
+        models.values().forEach(entry -> descriptors.add(entry.descriptor));
+        descriptors.sort(Comparator.comparing(ModelDescriptor::id));
+        return descriptors;
+    }
+
+    /**
+     * How the serving version of a model warmed up, or null if it is not loaded.
+     */
+    ModelWarmup.Report getWarmup(String id) {
+        Entry entry = models.get(id);
+        return entry != null ? entry.warmup : null;
+    }
+
+    /**
+     * Session settings a model is (or would be) loaded with.
+     */
+    public SessionSettings sessionFor(String id) {
+        return SessionSettings.from(environment, MODEL_SESSION_PREFIX + id, sessionDefaults);
+    }
+
+    /**
+     * Open a model file outside the registry (not warmed up, not served); the caller closes it.
+     */
+    public ZooModel<Image, DetectedObjects> open(ModelDescriptor descriptor, SessionSettings session)
+            throws Exception {
+        return Criteria.builder()
+                .setTypes(Image.class, DetectedObjects.class)
+                .optEngine("OnnxRuntime")
+                .optModelPath(descriptor.file())
+                .optOptions(session.toOptions())
+                .optTranslator(translator(descriptor, false))
+                .build()
+                .loadModel();
+    }
+
+    /**
+     * Translator for a model's output: its thresholds and input precision, and
+     * the registry ids of its labels, so results carry class ids from the decode on.
+     *
+     * @param batched Stack inputs into one forward pass (dynamic-batch exports only)
+     */
+    public YoloV8Translator translator(ModelDescriptor descriptor, boolean batched) {
+        return new YoloV8Translator(descriptor.classes(), descriptor.confidence(), descriptor.nmsIou(), batched,
+                descriptor.precision().inputType(), classRegistry.registerAll(descriptor.classes()));
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public String getDefaultModel() {
+        return defaultModel;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        started = false;
+        loader.shutdownNow();
+        models.values().forEach(Entry::release);
+        models.clear();
+    }
+
+    // ====== HELPER METHODS ======
+
+    /**
+     * Load, warm up and swap in one model file; failures leave the current version serving.
+     */
+    private void load(Path file) {
+        String id = idOf(file);
+        String stamp = null;
+        ZooModel<Image, DetectedObjects> model = null;
+        try {
+            stamp = stamp(file);
+            ModelDescriptor descriptor = describe(file);
+            SessionSettings session = sessionFor(id);
+            model = open(descriptor, session);
+            ModelWarmup.Report report = warmUp(model, descriptor);
+            Entry previous;
+            synchronized (this) {
+                if (!started) {
+                    model.close(); // Closed while warming up
+                    return;
+                }
+                previous = models.put(id, new Entry(descriptor, model, stamp, report));
+            }
+            failedStamps.remove(id);
+            if (previous != null) {
+                previous.release();
+            }
+            log.info("Model {} {}: {} {} classes, session {}; warm-up {} passes in {} ms, first {} ms, p99 {} ms{}",
+                    descriptor.label(), previous != null ? "swapped in for " + previous.descriptor.version() : "loaded",
+                    descriptor.precision(), descriptor.classes().size(), session, report.passes(), report.elapsedMs(),
+                    String.format("%.1f", report.firstMs()), String.format("%.1f", report.p99Ms()),
+                    report.stable() ? "" : " (not settled)");
+        } catch (Exception e) {
+            if (model != null) {
+                model.close();
+            }
+            if (stamp != null) {
+                failedStamps.put(id, stamp);
+            }
+            log.error("Model {} not loaded from {}: {}", id, file, e.getMessage());
+        }
+    }
+
+    /**
+     * Run a synthetic frame through a fresh model until latency settles (and one batch if it takes them).
+     */
+    ModelWarmup.Report warmUp(ZooModel<Image, DetectedObjects> model, ModelDescriptor descriptor)
+            throws Exception {
+        Image frame = syntheticFrame();
+        ModelWarmup.Report report;
+        try (Predictor<Image, DetectedObjects> predictor = model.newPredictor()) {
+            report = warmup.run(() -> predictor.predict(frame));
+        }
+        if (descriptor.dynamicBatch()) {
+            try (Predictor<Image, DetectedObjects> predictor = model.newPredictor(translator(descriptor, true))) {
+                predictor.batchPredict(List.of(frame, frame));
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Seeded noise at the model input size: exercises the same paths as a camera frame.
+     */
+    static Image syntheticFrame() {
+        int size = YoloV8Translator.INPUT_SIZE;
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        return ImageFactory.getInstance().fromImage(image);
+    }
+
+    /**
+     * Model files, the default first.
+     */
+    private List<Path> scan() throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + MODEL_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(Comparator.comparing((Path file) -> !idOf(file).equals(defaultModel))
+                .thenComparing(Path::getFileName));
+        return files;
+    }
+
+    ModelDescriptor describe(Path file) throws IOException {
+        String id = idOf(file);
+        Path metadataFile = file.resolveSibling(id + METADATA_SUFFIX);
+        Metadata metadata = Files.exists(metadataFile)
+                ? objectMapper.readValue(metadataFile.toFile(), Metadata.class)
+                : new Metadata(null, null, null, null, null, null);
+        return new ModelDescriptor(id,
+                metadata.version() != null ? metadata.version() : "sha256-" + sha256(file).substring(0, 12),
+                file,
+                metadata.classes() != null && !metadata.classes().isEmpty()
+                        ? metadata.classes() : ModelDescriptor.COCO_CLASSES,
+                metadata.confidence() != null ? metadata.confidence() : ModelDescriptor.DEFAULT_CONFIDENCE,
+                metadata.nmsIou() != null ? metadata.nmsIou() : ModelDescriptor.DEFAULT_NMS_IOU,
+                Boolean.TRUE.equals(metadata.dynamicBatch()),
+                metadata.precision());
+    }
+
+    static String idOf(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.length() - MODEL_SUFFIX.length());
+    }
+
+    /**
+     * Size and modification time of the model and its metadata; changes when either is replaced.
+     */
+    private String stamp(Path file) throws IOException {
+        Path metadataFile = file.resolveSibling(idOf(file) + METADATA_SUFFIX);
+        String stamp = Files.size(file) + "@" + Files.getLastModifiedTime(file).toMillis();
+        if (Files.exists(metadataFile)) {
+            stamp += "/" + Files.size(metadataFile) + "@" + Files.getLastModifiedTime(metadataFile).toMillis();
+        }
+        return stamp;
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Contents of {@code <id>.json}; every field is optional.
+     */
+    record Metadata(String version, List<String> classes, Float confidence, Float nmsIou, Boolean dynamicBatch,
+                    ModelDescriptor.Precision precision) {
+    }
+
+    /**
+     * A serving version, reference-counted: one reference for the registry, one per lease.
+     */
+    private static final class Entry {
+
+        private final ModelDescriptor descriptor;
+        private final ZooModel<Image, DetectedObjects> model;
+        private final String stamp;
+        private final ModelWarmup.Report warmup;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        Entry(ModelDescriptor descriptor, ZooModel<Image, DetectedObjects> model, String stamp,
+              ModelWarmup.Report warmup) {
+            this.descriptor = descriptor;
+            this.model = model;
+            this.stamp = stamp;
+            this.warmup = warmup;
+        }
+
+        boolean tryAcquire() {
+            while (true) {
+                int count = references.get();
+                if (count == 0) {
+                    return false; // Already closed
+                }
+                if (references.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            if (references.decrementAndGet() == 0) {
+                model.close();
+                log.info("Model {} closed", descriptor.label());
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.enterprise.sentinel.service.model;
+
+import com.enterprise.sentinel.domain.model.Video;
+import com.enterprise.sentinel.domain.repository.VideoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Which model analyzes which camera.
+ *
+ * In order: an explicit assignment (per stream at start), the first routing
+ * rule whose pattern is found in the camera name (e.g. {@code site-} cameras
+ * to a PPE model), or the default model. Rules are read once from
+ * {@code app.models.routes[n].match} / {@code .model}; a camera's route is
+ * resolved on its first frame and kept.
+ */
+@Slf4j
+@Service
+public class ModelRouter {
+
+    private static final String ROUTES_PREFIX = "app.models.routes";
+
+    private final ModelRegistry modelRegistry;
+    private final VideoRepository videoRepository;
+    private final List<Route> routes;
+    private final Map<UUID, String> assignments = new ConcurrentHashMap<>();
+
+    public ModelRouter(ModelRegistry modelRegistry, VideoRepository videoRepository, Environment environment) {
+        this.modelRegistry = modelRegistry;
+        this.videoRepository = videoRepository;
+        this.routes = Route.from(environment);
+        routes.forEach(route -> log.info("Model route: cameras matching '{}' -> {}", route.match(), route.model()));
+    }
+
+    /**
+     * Model id for a camera (the default for null, i.e. the desktop player).
+     */
+    public String modelFor(UUID cameraId) {
+        if (cameraId == null) {
+            return modelRegistry.getDefaultModel();
+        }
+        return assignments.computeIfAbsent(cameraId, this::resolve);
+    }
+
+    /**
+     * Pin a camera to a model, overriding the rules.
+     *
+     * @throws IllegalArgumentException if the model is not loaded
+     */
+    public void assign(UUID cameraId, String model) {
+        if (!modelRegistry.isLoaded(model)) {
+            throw new IllegalArgumentException("Unknown model: " + model);
+        }
+        assignments.put(cameraId, model);
+        log.info("Camera {} assigned to model {}", cameraId, model);
+    }
+
+    // ====== HELPER METHODS ======
+
+    private String resolve(UUID cameraId) {
+        if (!routes.isEmpty()) {
+            String name = videoRepository.findById(cameraId).map(Video::getOriginalFilename).orElse("");
+            for (Route route : routes) {
+                if (route.match().matcher(name).find()) {
+                    return route.model();
+                }
+            }
+        }
+        return modelRegistry.getDefaultModel();
+    }
+
+    /**
+     * A routing rule: cameras whose name contains a match of {@code match} use {@code model}.
+     */
+    record Route(Pattern match, String model) {
+
+        static List<Route> from(Environment environment) {
+            List<Route> routes = new ArrayList<>();
+            for (int i = 0; ; i++) {
+                String key = ROUTES_PREFIX + "[" + i + "].";
+                String match = environment.getProperty(key + "match");
+                String model = environment.getProperty(key + "model");
+                if (match == null || model == null) {
+                    return routes;
+                }
+                routes.add(new Route(Pattern.compile(match), model));
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.enterprise.sentinel.service.model;
+
+import java.util.Arrays;
+
+/**
+ * Runs inference passes on a fresh model until its latency settles.
+ *
+ * Passes go in rounds of {@code roundSize}; the model is warm once a round's
+ * p99 is within {@code tolerance} of the previous round's, i.e. ONNX Runtime
+ * has allocated its buffers and the JIT has compiled the Java pre- and
+ * post-processing. Stops unsettled after {@code maxRounds} or the time budget.
+ */
+final class ModelWarmup {
+
+    /**
+     * One inference pass.
+     */
+    @FunctionalInterface
+    interface Pass {
+        void run() throws Exception;
+    }
+
+    /**
+     * @param firstMs The cold first pass
+     * @param p99Ms p99 of the last round
+     * @param stable Whether latency settled within the limits
+     */
+    record Report(int passes, double firstMs, double p99Ms, boolean stable, long elapsedMs) {
+    }
+
+    private final int roundSize;
+    private final int maxRounds;
+    private final double tolerance;
+    private final long budgetNanos;
+
+    ModelWarmup(int roundSize, int maxRounds, double tolerance, long budgetMs) {
+        this.roundSize = Math.max(1, roundSize);
+        this.maxRounds = Math.max(2, maxRounds);
+        this.tolerance = tolerance;
+        this.budgetNanos = budgetMs * 1_000_000;
+    }
+
+    Report run(Pass pass) throws Exception {
+        long started = System.nanoTime();
+        long[] samples = new long[roundSize];
+        double firstMs = 0;
+        double previousP99 = -1;
+        int passes = 0;
+        for (int round = 0; round < maxRounds; round++) {
+            for (int i = 0; i < roundSize; i++) {
+                long passStarted = System.nanoTime();
+                pass.run();
+                samples[i] = System.nanoTime() - passStarted;
+                if (passes++ == 0) {
+                    firstMs = samples[i] / 1e6;
+                }
+            }
+            double p99 = p99(samples) / 1e6;
+            long elapsed = System.nanoTime() - started;
+            if (previousP99 >= 0 && Math.abs(p99 - previousP99) <= tolerance * previousP99) {
+                return new Report(passes, firstMs, p99, true, elapsed / 1_000_000);
+            }
+            previousP99 = p99;
+            if (elapsed > budgetNanos) {
+                break;
+            }
+        }
+        return new Report(passes, firstMs, previousP99, false, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static long p99(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(0.99 * sorted.length) - 1];
+    }
+}
@@ -0,0 +1,88 @@
+package com.enterprise.sentinel.service.model;
+
+import org.springframework.core.env.Environment;
+
+import java.util.Map;
+
+/**
+ * ONNX Runtime session options of one model.
+ *
+ * ONNX Runtime sizes a session's intra-op pool to all cores by default, per
+ * session: with several inference workers ({@code app.pipeline.infer.parallelism})
+ * those pools compete with each other and with decode. The derived defaults
+ * split the cores between the workers instead, keeping one core for the rest
+ * of the pipeline on hosts with more than two.
+ *
+ * @param intraOpThreads Threads a single operator (convolution, matmul) runs on
+ * @param interOpThreads Threads for independent graph branches (PARALLEL mode only)
+ * @param memoryPattern Reuse the previous run's allocation plan (fixed input shape)
+ * @param cpuArena Pool tensor memory in an arena instead of allocating per run
+ */
+public record SessionSettings(int intraOpThreads, int interOpThreads, ExecutionMode executionMode,
+                              OptLevel optLevel, boolean memoryPattern, boolean cpuArena) {
+
+    /**
+     * Names as in ONNX Runtime's {@code SessionOptions.ExecutionMode}.
+     */
+    public enum ExecutionMode {
+        SEQUENTIAL, PARALLEL
+    }
+
+    /**
+     * Graph optimization level, as in ONNX Runtime's {@code SessionOptions.OptLevel}.
+     */
+    public enum OptLevel {
+        NO_OPT, BASIC_OPT, EXTENDED_OPT, ALL_OPT
+    }
+
+    public SessionSettings {
+        if (intraOpThreads < 1 || interOpThreads < 1) {
+            throw new IllegalArgumentException("Session thread counts must be at least 1");
+        }
+    }
+
+    /**
+     * Defaults for a host: the cores left for inference, split between the workers.
+     */
+    public static SessionSettings derive(int cores, int inferenceWorkers) {
+        int available = cores > 2 ? cores - 1 : cores;
+        return new SessionSettings(Math.max(1, available / Math.max(1, inferenceWorkers)), 1,
+                ExecutionMode.SEQUENTIAL, OptLevel.ALL_OPT, true, true);
+    }
+
+    /**
+     * Settings under {@code <prefix>.intra-op-threads|inter-op-threads|execution-mode|opt-level|memory-pattern|cpu-arena},
+     * falling back to {@code defaults}; a thread count of 0 keeps the default.
+     */
+    public static SessionSettings from(Environment environment, String prefix, SessionSettings defaults) {
+        String key = prefix + ".";
+        int intra = environment.getProperty(key + "intra-op-threads", Integer.class, 0);
+        int inter = environment.getProperty(key + "inter-op-threads", Integer.class, 0);
+        return new SessionSettings(
+                intra > 0 ? intra : defaults.intraOpThreads(),
+                inter > 0 ? inter : defaults.interOpThreads(),
+                environment.getProperty(key + "execution-mode", ExecutionMode.class, defaults.executionMode()),
+                environment.getProperty(key + "opt-level", OptLevel.class, defaults.optLevel()),
+                environment.getProperty(key + "memory-pattern", Boolean.class, defaults.memoryPattern()),
+                environment.getProperty(key + "cpu-arena", Boolean.class, defaults.cpuArena()));
+    }
+
+    /**
+     * As DJL Criteria options for the OnnxRuntime engine.
+     */
+    public Map<String, String> toOptions() {
+        return Map.of(
+                "intraOpNumThreads", Integer.toString(intraOpThreads),
+                "interOpNumThreads", Integer.toString(interOpThreads),
+                "executionMode", executionMode.name(),
+                "optLevel", optLevel.name(),
+                "memoryPatternOptimization", Boolean.toString(memoryPattern),
+                "cpuArenaAllocator", Boolean.toString(cpuArena));
+    }
+
+    @Override
+    public String toString() {
+        return "intra=" + intraOpThreads + " inter=" + interOpThreads + " " + executionMode + " " + optLevel
+                + (memoryPattern ? "" : " no-memory-pattern") + (cpuArena ? "" : " no-arena");
+    }
+}
@@ -0,0 +1,92 @@
+package com.enterprise.sentinel.service.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Candidates and selection for the session sweep (see {@link SessionSweepRunner}).
+ *
+ * A candidate is a number of inference workers, each with its own session
+ * settings; candidates needing more threads than cores are skipped, since
+ * oversubscription is what the sweep is meant to rule out.
+ */
+final class SessionSweep {
+
+    /**
+     * @param workers Concurrent inference threads (app.pipeline.infer.parallelism)
+     */
+    record Candidate(int workers, SessionSettings session) {
+    }
+
+    /**
+     * @param throughputFps Frames per second over all workers
+     * @param p50Ms Single-inference latency, median over all workers
+     */
+    record Result(Candidate candidate, double throughputFps, double p50Ms, double p99Ms) {
+    }
+
+    private SessionSweep() {
+    }
+
+    /**
+     * Every combination with {@code workers x intra-op threads <= cores}; inter-op
+     * threads only vary in PARALLEL mode, where they take the rest of the worker's share.
+     */
+    static List<Candidate> candidates(int cores, List<Integer> workers, List<Integer> intraOpThreads,
+                                      List<SessionSettings.ExecutionMode> executionModes,
+                                      List<SessionSettings.OptLevel> optLevels, List<Boolean> cpuArena) {
+        List<Candidate> candidates = new ArrayList<>();
+        for (int worker : workers) {
+            for (int intra : intraOpThreads) {
+                if (worker < 1 || intra < 1 || worker * intra > cores) {
+                    continue;
+                }
+                for (SessionSettings.ExecutionMode mode : executionModes) {
+                    int inter = mode == SessionSettings.ExecutionMode.PARALLEL
+                            ? Math.max(1, cores / worker - intra) : 1;
+                    for (SessionSettings.OptLevel level : optLevels) {
+                        for (boolean arena : cpuArena) {
+                            candidates.add(new Candidate(worker,
+                                    new SessionSettings(intra, inter, mode, level, true, arena)));
+                        }
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * 1, 2, 4, ... up to {@code max}, and {@code max} itself.
+     */
+    static List<Integer> powersOfTwo(int max) {
+        List<Integer> values = new ArrayList<>();
+        for (int value = 1; value < max; value *= 2) {
+            values.add(value);
+        }
+        values.add(Math.max(1, max));
+        return values;
+    }
+
+    /**
+     * Highest throughput with p99 within the budget (lower p99 on a tie), or null if none fits.
+     */
+    static Result bestThroughput(List<Result> results, double latencyBudgetMs) {
+        return results.stream()
+                .filter(result -> result.p99Ms() <= latencyBudgetMs)
+                .max(Comparator.comparingDouble(Result::throughputFps)
+                        .thenComparing(Comparator.comparingDouble(Result::p99Ms).reversed()))
+                .orElse(null);
+    }
+
+    /**
+     * Lowest median latency (higher throughput on a tie).
+     */
+    static Result bestLatency(List<Result> results) {
+        return results.stream()
+                .min(Comparator.comparingDouble(Result::p50Ms)
+                        .thenComparing(Comparator.comparingDouble(Result::throughputFps).reversed()))
+                .orElse(null);
+    }
+}
@@ -0,0 +1,176 @@
+package com.enterprise.sentinel.service.model;
+
+import ai.djl.inference.Predictor;
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.repository.zoo.ZooModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Session tuning benchmark ({@code app.models.session-sweep.enabled=true}, best
+ * with --headless): loads the default model with every candidate combination of
+ * inference workers and session settings, drives each worker flat out on a
+ * synthetic frame, and prints the configuration with the best throughput
+ * within the latency budget and the one with the lowest latency, as
+ * application.yml settings for this host.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.models.session-sweep.enabled", havingValue = "true")
+public class SessionSweepRunner implements ApplicationRunner {
+
+    private final ModelRegistry modelRegistry;
+    private final ConfigurableApplicationContext context;
+    private final String modelId;
+    private final List<Integer> workers;
+    private final List<Integer> intraOpThreads;
+    private final List<SessionSettings.ExecutionMode> executionModes;
+    private final List<SessionSettings.OptLevel> optLevels;
+    private final List<Boolean> cpuArena;
+    private final long measureMillis;
+    private final double latencyBudgetMs;
+    private final boolean exitWhenDone;
+
+    public SessionSweepRunner(ModelRegistry modelRegistry,
+                              ConfigurableApplicationContext context,
+                              @Value("${app.models.session-sweep.model:${app.models.default:yolov8n}}") String modelId,
+                              @Value("${app.models.session-sweep.workers:}") List<Integer> workers,
+                              @Value("${app.models.session-sweep.intra-op-threads:}") List<Integer> intraOpThreads,
+                              @Value("${app.models.session-sweep.execution-modes:SEQUENTIAL}") List<SessionSettings.ExecutionMode> executionModes,
+                              @Value("${app.models.session-sweep.opt-levels:BASIC_OPT,ALL_OPT}") List<SessionSettings.OptLevel> optLevels,
+                              @Value("${app.models.session-sweep.cpu-arena:true}") List<Boolean> cpuArena,
+                              @Value("${app.models.session-sweep.measure-seconds:10}") long measureSeconds,
+                              @Value("${app.models.session-sweep.latency-budget-ms:1000}") double latencyBudgetMs,
+                              @Value("${app.models.session-sweep.exit-when-done:true}") boolean exitWhenDone) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.modelRegistry = modelRegistry;
+        this.context = context;
+        this.modelId = modelId;
+        this.workers = workers.isEmpty() ? SessionSweep.powersOfTwo(cores) : workers;
+        this.intraOpThreads = intraOpThreads.isEmpty() ? SessionSweep.powersOfTwo(cores) : intraOpThreads;
+        this.executionModes = executionModes;
+        this.optLevels = optLevels;
+        this.cpuArena = cpuArena;
+        this.measureMillis = measureSeconds * 1000;
+        this.latencyBudgetMs = latencyBudgetMs;
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path file = modelRegistry.getDirectory().resolve(modelId + ".onnx");
+        if (!Files.exists(file)) {
+            throw new IllegalStateException("Model file not found: " + file.toAbsolutePath());
+        }
+        ModelDescriptor descriptor = modelRegistry.describe(file);
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<SessionSweep.Candidate> candidates = SessionSweep.candidates(cores, workers, intraOpThreads,
+                executionModes, optLevels, cpuArena);
+        log.info("Session sweep: {} on {} cores, {} candidates, {} s each",
+                descriptor.label(), cores, candidates.size(), measureMillis / 1000);
+
+        List<SessionSweep.Result> results = new ArrayList<>();
+        for (SessionSweep.Candidate candidate : candidates) {
+            SessionSweep.Result result = measure(descriptor, candidate);
+            results.add(result);
+            log.info("  workers={} {}: {} fps, p50 {} ms, p99 {} ms", candidate.workers(), candidate.session(),
+                    String.format("%.1f", result.throughputFps()), String.format("%.1f", result.p50Ms()),
+                    String.format("%.1f", result.p99Ms()));
+        }
+
+        SessionSweep.Result throughput = SessionSweep.bestThroughput(results, latencyBudgetMs);
+        SessionSweep.Result latency = SessionSweep.bestLatency(results);
+        if (throughput == null) {
+            log.warn("Session sweep: no candidate within the {} ms p99 budget", latencyBudgetMs);
+        } else {
+            log.info("Best throughput within {} ms p99: {}", latencyBudgetMs, settings(throughput));
+        }
+        if (latency != null) {
+            log.info("Best latency: {}", settings(latency));
+        }
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    // ====== HELPER METHODS ======
+
+    /**
+     * Load with the candidate's settings, warm up, then run every worker on its own predictor.
+     */
+    private SessionSweep.Result measure(ModelDescriptor descriptor, SessionSweep.Candidate candidate)
+            throws Exception {
+        try (ZooModel<Image, DetectedObjects> model = modelRegistry.open(descriptor, candidate.session())) {
+            modelRegistry.warmUp(model, descriptor);
+            Image frame = ModelRegistry.syntheticFrame();
+            ExecutorService pool = Executors.newFixedThreadPool(candidate.workers());
+            try {
+                long started = System.nanoTime();
+                long deadline = started + measureMillis * 1_000_000;
+                List<Future<long[]>> runs = new ArrayList<>();
+                for (int i = 0; i < candidate.workers(); i++) {
+                    runs.add(pool.submit(() -> run(model, frame, deadline)));
+                }
+                List<long[]> samples = new ArrayList<>();
+                for (Future<long[]> run : runs) {
+                    samples.add(run.get());
+                }
+                double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+                long[] latencies = samples.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+                return new SessionSweep.Result(candidate, latencies.length / elapsedSeconds,
+                        percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6);
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    private static long[] run(ZooModel<Image, DetectedObjects> model, Image frame, long deadline)
+            throws Exception {
+        long[] latencies = new long[1024];
+        int count = 0;
+        try (Predictor<Image, DetectedObjects> predictor = model.newPredictor()) {
+            while (System.nanoTime() < deadline) {
+                long passStarted = System.nanoTime();
+                predictor.predict(frame);
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - passStarted;
+            }
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted.length == 0 ? 0 : sorted[Math.max(0, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static String settings(SessionSweep.Result result) {
+        SessionSettings session = result.candidate().session();
+        return String.format("%.1f fps, p50 %.1f ms, p99 %.1f ms -> app.pipeline.infer.parallelism=%d "
+                        + "app.models.session.intra-op-threads=%d app.models.session.inter-op-threads=%d "
+                        + "app.models.session.execution-mode=%s app.models.session.opt-level=%s "
+                        + "app.models.session.cpu-arena=%s",
+                result.throughputFps(), result.p50Ms(), result.p99Ms(), result.candidate().workers(),
+                session.intraOpThreads(), session.interOpThreads(), session.executionMode(), session.optLevel(),
+                session.cpuArena());
+    }
+}
@@ -0,0 +1,23 @@
+package com.enterprise.sentinel.service.pipeline;
+
+/**
+ * What a stage does with a new item when its queue is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * The producer waits for room: backpressure propagates to the previous
+     * stage, and from there to the pipeline's entry.
+     */
+    BLOCK,
+
+    /**
+     * The new item is dropped; what is queued is processed first.
+     */
+    DROP_NEWEST,
+
+    /**
+     * The oldest queued item is dropped to make room; fresh frames win.
+     */
+    DROP_OLDEST
+}
@@ -0,0 +1,232 @@
+package com.enterprise.sentinel.service.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * One step of a {@link StagedPipeline}: a bounded queue drained by a fixed
+ * number of workers that run the handler and pass the item on.
+ *
+ * A full queue applies the stage's {@link OverflowPolicy}. With BLOCK, a
+ * worker of the previous stage waits in its hand-off, so a slow stage fills
+ * the queues in front of it until the pipeline's entry drops.
+ *
+ * A partitioned stage gives each worker its own queue (the capacity split
+ * between them) and routes items by key, so items with the same key are
+ * handled one at a time in submission order.
+ */
+@Slf4j
+public final class PipelineStage<T> {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String name;
+    private final StageSettings settings;
+    private final StageHandler<T> handler;
+    private final ThreadFactory threadFactory;
+    private final Function<T, ?> partitionKey; // Null: one queue shared by all workers
+    private final List<BlockingQueue<Queued<T>>> queues = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private PipelineStage<T> next;
+    private Consumer<T> onComplete = item -> { };
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder serviceNanos = new LongAdder();
+    private final AtomicInteger peakDepth = new AtomicInteger();
+
+    // Rate window; guarded by this
+    private long windowStartNanos = System.nanoTime();
+    private long windowProcessed;
+    private long windowWaitNanos;
+    private long windowServiceNanos;
+    private double throughput;
+    private double avgWaitMs;
+    private double avgServiceMs;
+    private double utilization;
+
+    PipelineStage(String name, StageSettings settings, ThreadFactory threadFactory, StageHandler<T> handler,
+                  Function<T, ?> partitionKey) {
+        this.name = name;
+        this.settings = settings;
+        this.handler = handler;
+        this.threadFactory = threadFactory;
+        this.partitionKey = partitionKey;
+        if (partitionKey == null) {
+            queues.add(new ArrayBlockingQueue<>(settings.capacity()));
+        } else {
+            int partitionCapacity = Math.max(1, settings.capacity() / settings.parallelism());
+            for (int i = 0; i < settings.parallelism(); i++) {
+                queues.add(new ArrayBlockingQueue<>(partitionCapacity));
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public synchronized StageStats stats() {
+        long now = System.nanoTime();
+        long elapsed = now - windowStartNanos;
+        if (elapsed >= WINDOW_NANOS) {
+            long items = processed.sum() - windowProcessed;
+            long waited = waitNanos.sum() - windowWaitNanos;
+            long served = serviceNanos.sum() - windowServiceNanos;
+            throughput = items * 1e9 / elapsed;
+            avgWaitMs = items == 0 ? 0 : waited / 1e6 / items;
+            avgServiceMs = items == 0 ? 0 : served / 1e6 / items;
+            utilization = Math.min(1.0, (double) served / elapsed / settings.parallelism());
+            windowStartNanos = now;
+            windowProcessed += items;
+            windowWaitNanos += waited;
+            windowServiceNanos += served;
+        }
+        return new StageStats(name, settings.parallelism(), settings.capacity(), settings.overflow(),
+                depth(), peakDepth.get(), processed.sum(), dropped.sum(), errors.sum(),
+                throughput, avgWaitMs, avgServiceMs, utilization);
+    }
+
+    // ====== PIPELINE SIDE ======
+
+    void linkTo(PipelineStage<T> next) {
+        this.next = next;
+    }
+
+    void onComplete(Consumer<T> onComplete) {
+        this.onComplete = onComplete;
+    }
+
+    /**
+     * The item left the pipeline after this stage (not dropped, no error).
+     */
+    void complete(T item) {
+        try {
+            onComplete.accept(item);
+        } catch (Exception e) {
+            log.warn("Pipeline completion callback failed after {}: {}", name, e.getMessage());
+        }
+    }
+
+    void start(String pipelineName) {
+        for (int i = 0; i < settings.parallelism(); i++) {
+            BlockingQueue<Queued<T>> queue = queues.get(partitionKey == null ? 0 : i);
+            Thread worker = threadFactory.newThread(() -> work(queue));
+            worker.setName(pipelineName + "-" + name + "-" + (i + 1));
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    void stop() {
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Queue an item according to the overflow policy.
+     *
+     * @return false if the item was dropped
+     */
+    boolean offer(T item) throws InterruptedException {
+        Queued<T> queued = new Queued<>(item, System.nanoTime());
+        BlockingQueue<Queued<T>> queue = partitionKey == null ? queues.get(0)
+                : queues.get(Math.floorMod(Objects.hashCode(partitionKey.apply(item)), queues.size()));
+        switch (settings.overflow()) {
+            case BLOCK -> queue.put(queued);
+            case DROP_NEWEST -> {
+                if (!queue.offer(queued)) {
+                    dropped.increment();
+                    return false;
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(queued)) {
+                    if (queue.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+            }
+        }
+        peakDepth.accumulateAndGet(depth(), Math::max);
+        return true;
+    }
+
+    /**
+     * Run the handler on the calling thread.
+     *
+     * @return whether the item continues to the next stage; items that end
+     *         here (handler returned false, or last stage) are completed
+     */
+    boolean handle(T item, long queuedNanos) {
+        try {
+            return run(item, queuedNanos);
+        } catch (Exception e) {
+            log.warn("Pipeline stage {} failed: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Like {@link #handle}, but a handler failure is rethrown after it is counted.
+     */
+    boolean run(T item, long queuedNanos) throws Exception {
+        long start = System.nanoTime();
+        waitNanos.add(start - queuedNanos);
+        try {
+            if (handler.handle(item) && next != null) {
+                return true;
+            }
+            complete(item);
+            return false;
+        } catch (Exception e) {
+            errors.increment();
+            throw e;
+        } finally {
+            serviceNanos.add(System.nanoTime() - start);
+            processed.increment();
+        }
+    }
+
+    // ====== HELPER METHODS ======
+
+    private int depth() {
+        int depth = 0;
+        for (BlockingQueue<Queued<T>> queue : queues) {
+            depth += queue.size();
+        }
+        return depth;
+    }
+
+    private void work(BlockingQueue<Queued<T>> queue) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Queued<T> queued = queue.take();
+                if (handle(queued.item(), queued.queuedNanos())) {
+                    next.offer(queued.item());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Pipeline shutdown
+        }
+    }
+
+    private record Queued<T>(T item, long queuedNanos) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.enterprise.sentinel.service.pipeline;
+
+/**
+ * The work of one pipeline stage on one item.
+ */
+@FunctionalInterface
+public interface StageHandler<T> {
+
+    /**
+     * @return true to pass the item to the next stage, false when it is done
+     *         (e.g. a frame without detections)
+     * @throws Exception counted as a stage error; the item is discarded
+     *         (and the exception rethrown by {@link StagedPipeline#process})
+     */
+    boolean handle(T item) throws Exception;
+}
@@ -0,0 +1,30 @@
+package com.enterprise.sentinel.service.pipeline;
+
+import org.springframework.core.env.Environment;
+
+/**
+ * Queue and threading of one stage.
+ *
+ * @param capacity Items the stage's queue holds
+ * @param parallelism Worker threads taking from the queue
+ * @param overflow What happens to new items when the queue is full
+ */
+public record StageSettings(int capacity, int parallelism, OverflowPolicy overflow) {
+
+    public StageSettings {
+        if (capacity < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("Stage capacity and parallelism must be at least 1");
+        }
+    }
+
+    /**
+     * Settings under {@code <prefix>.<stage>.capacity|parallelism|overflow}, falling back to {@code defaults}.
+     */
+    public static StageSettings from(Environment environment, String prefix, String stage, StageSettings defaults) {
+        String key = prefix + "." + stage + ".";
+        return new StageSettings(
+                environment.getProperty(key + "capacity", Integer.class, defaults.capacity()),
+                environment.getProperty(key + "parallelism", Integer.class, defaults.parallelism()),
+                environment.getProperty(key + "overflow", OverflowPolicy.class, defaults.overflow()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.enterprise.sentinel.service.pipeline;
+
+/**
+ * Point-in-time view of one stage.
+ *
+ * Counters are totals since start; rates and averages cover the last
+ * closed window (about one second).
+ *
+ * @param queueDepth Items waiting now
+ * @param peakQueueDepth Deepest the queue has been
+ * @param dropped Items lost to the overflow policy
+ * @param errors Items whose handler threw
+ * @param throughputPerSec Items handled per second
+ * @param avgWaitMs Mean time an item spent queued before a worker took it
+ * @param avgServiceMs Mean time a worker spent on an item
+ * @param utilization Share of the workers' time spent handling items (1.0 = saturated)
+ */
+public record StageStats(
+        String name,
+        int parallelism,
+        int capacity,
+        OverflowPolicy overflow,
+        int queueDepth,
+        int peakQueueDepth,
+        long processed,
+        long dropped,
+        long errors,
+        double throughputPerSec,
+        double avgWaitMs,
+        double avgServiceMs,
+        double utilization
+) {
+}
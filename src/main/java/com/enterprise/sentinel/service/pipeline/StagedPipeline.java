@@ -0,0 +1,148 @@
+package com.enterprise.sentinel.service.pipeline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A chain of {@link PipelineStage}s, each with its own bounded queue,
+ * parallelism and overflow policy.
+ *
+ * Items enter at the first stage ({@link #submit}) and are handed from
+ * stage to stage by the workers. Per-stage queue depth, throughput, wait
+ * and service times ({@link #getStats}) show which stage is the bottleneck:
+ * the one with utilization near 1.0 and a full queue in front of it.
+ *
+ * {@link #process} runs the same handlers inline on the caller's thread,
+ * for callers that must not drop (offline analysis); it shares the stats
+ * and hands handler failures back to the caller.
+ */
+public final class StagedPipeline<T> {
+
+    private final String name;
+    private final List<PipelineStage<T>> stages;
+
+    private StagedPipeline(String name, List<PipelineStage<T>> stages, Consumer<T> onComplete) {
+        this.name = name;
+        this.stages = Collections.unmodifiableList(stages);
+        for (int i = 0; i + 1 < stages.size(); i++) {
+            stages.get(i).linkTo(stages.get(i + 1));
+        }
+        stages.forEach(stage -> stage.onComplete(onComplete));
+        stages.forEach(stage -> stage.start(name));
+    }
+
+    public static <T> Builder<T> builder(String name) {
+        return new Builder<>(name);
+    }
+
+    /**
+     * Queue an item at the first stage, following its overflow policy.
+     *
+     * @return false if it was dropped
+     */
+    public boolean submit(T item) {
+        try {
+            return stages.get(0).offer(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Run all stages on the calling thread, stopping at the first that ends the item.
+     *
+     * A handler failure is counted as a stage error and rethrown, so the
+     * caller can tell a failed item from one that ended early; checked
+     * exceptions are wrapped in an {@link IllegalStateException}.
+     */
+    public void process(T item) {
+        for (PipelineStage<T> stage : stages) {
+            boolean proceed;
+            try {
+                proceed = stage.run(item, System.nanoTime());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Pipeline stage " + stage.getName() + " failed: " + e.getMessage(), e);
+            }
+            if (!proceed) {
+                return;
+            }
+        }
+    }
+
+    public List<StageStats> getStats() {
+        List<StageStats> stats = new ArrayList<>(stages.size());
+        stages.forEach(stage -> stats.add(stage.stats()));
+        return stats;
+    }
+
+    /**
+     * Errors over all stages.
+     */
+    public long getErrors() {
+        return stages.stream().mapToLong(PipelineStage::getErrors).sum();
+    }
+
+    /**
+     * Stop all workers; queued items are discarded.
+     */
+    public void shutdown() {
+        stages.forEach(PipelineStage::stop);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public static final class Builder<T> {
+
+        private final String name;
+        private final List<PipelineStage<T>> stages = new ArrayList<>();
+        private Consumer<T> onComplete = item -> { };
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Append a stage; its workers come from {@code threadFactory}.
+         */
+        public Builder<T> stage(String stageName, StageSettings settings, ThreadFactory threadFactory,
+                                StageHandler<T> handler) {
+            stages.add(new PipelineStage<>(stageName, settings, threadFactory, handler, null));
+            return this;
+        }
+
+        /**
+         * Append a stage whose items with equal {@code partitionKey} are handled
+         * by the same worker, in order (e.g. one camera's frames).
+         */
+        public Builder<T> partitionedStage(String stageName, StageSettings settings, ThreadFactory threadFactory,
+                                           StageHandler<T> handler, Function<T, ?> partitionKey) {
+            stages.add(new PipelineStage<>(stageName, settings, threadFactory, handler, partitionKey));
+            return this;
+        }
+
+        /**
+         * Called with every item that leaves the pipeline normally: after the
+         * last stage or a stage that ended it. Dropped and failed items are not reported.
+         */
+        public Builder<T> onComplete(Consumer<T> onComplete) {
+            this.onComplete = onComplete;
+            return this;
+        }
+
+        public StagedPipeline<T> build() {
+            if (stages.isEmpty()) {
+                throw new IllegalStateException("Pipeline " + name + " has no stages");
+            }
+            return new StagedPipeline<>(name, new ArrayList<>(stages), onComplete);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.enterprise.sentinel.service.quantization;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Writes preprocessed model inputs as NumPy {@code .npy} files (float32,
+ * little-endian), the calibration data for static INT8 quantization
+ * (tools/quantize_model.py).
+ */
+final class CalibrationExporter {
+
+    private static final byte[] MAGIC = {(byte) 0x93, 'N', 'U', 'M', 'P', 'Y', 1, 0};
+
+    private CalibrationExporter() {
+    }
+
+    /**
+     * Write {@code tensor} (all remaining floats) with the given shape.
+     */
+    static void writeNpy(Path file, FloatBuffer tensor, int... shape) throws IOException {
+        String dimensions = Arrays.stream(shape).mapToObj(Integer::toString).collect(Collectors.joining(", "));
+        StringBuilder header = new StringBuilder("{'descr': '<f4', 'fortran_order': False, 'shape': (")
+                .append(dimensions).append(shape.length == 1 ? ",), }" : "), }");
+        // Magic, version and header length take 10 bytes; the whole preamble is 64-byte aligned
+        while ((MAGIC.length + 2 + header.length() + 1) % 64 != 0) {
+            header.append(' ');
+        }
+        header.append('\n');
+
+        ByteBuffer data = ByteBuffer.allocate(tensor.remaining() * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        data.asFloatBuffer().put(tensor.duplicate());
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(MAGIC);
+            out.write(header.length() & 0xFF);
+            out.write(header.length() >>> 8);
+            out.write(header.toString().getBytes(StandardCharsets.US_ASCII));
+            out.write(data.array());
+        }
+    }
+}
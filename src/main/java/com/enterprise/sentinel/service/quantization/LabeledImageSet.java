@@ -0,0 +1,86 @@
+package com.enterprise.sentinel.service.quantization;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * A local labeled image set in the YOLO layout: {@code images/<name>.jpg} and
+ * {@code labels/<name>.txt}, one {@code class cx cy w h} line per object
+ * (normalized to the image). Images without a label file have no objects.
+ */
+final class LabeledImageSet {
+
+    private static final List<String> IMAGE_SUFFIXES = List.of(".jpg", ".jpeg", ".png", ".bmp");
+
+    /**
+     * One image and its ground truth.
+     */
+    record Sample(Path image, List<MeanAveragePrecision.Box> truth) {
+    }
+
+    private LabeledImageSet() {
+    }
+
+    /**
+     * Images of a directory, sorted by name.
+     */
+    static List<Path> images(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> IMAGE_SUFFIXES.stream()
+                            .anyMatch(file.getFileName().toString().toLowerCase(Locale.ROOT)::endsWith))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * @param classes Label names by class id, in the order the labels were written
+     */
+    static List<Sample> load(Path dataset, List<String> classes) throws IOException {
+        List<Sample> samples = new ArrayList<>();
+        for (Path image : images(dataset.resolve("images"))) {
+            Path labels = dataset.resolve("labels").resolve(stem(image) + ".txt");
+            samples.add(new Sample(image, Files.exists(labels) ? parse(labels, classes) : List.of()));
+        }
+        return samples;
+    }
+
+    static String stem(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    // ====== HELPER METHODS ======
+
+    private static List<MeanAveragePrecision.Box> parse(Path labels, List<String> classes) throws IOException {
+        List<MeanAveragePrecision.Box> boxes = new ArrayList<>();
+        List<String> lines = Files.readAllLines(labels);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            try {
+                int classId = Integer.parseInt(fields[0]);
+                if (fields.length < 5 || classId < 0 || classId >= classes.size()) {
+                    throw new IllegalArgumentException("expected 'class cx cy w h' with class < " + classes.size());
+                }
+                double width = Double.parseDouble(fields[3]);
+                double height = Double.parseDouble(fields[4]);
+                boxes.add(new MeanAveragePrecision.Box(classes.get(classId), 1,
+                        Double.parseDouble(fields[1]) - width / 2, Double.parseDouble(fields[2]) - height / 2,
+                        width, height));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(labels + ":" + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return boxes;
+    }
+}
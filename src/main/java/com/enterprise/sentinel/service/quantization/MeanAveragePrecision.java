@@ -0,0 +1,141 @@
+package com.enterprise.sentinel.service.quantization;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * COCO-style mean average precision over a labeled image set.
+ *
+ * Predictions are matched greedily by score to unmatched ground truth of the
+ * same class at each IoU threshold (0.50 to 0.95, step 0.05); AP is the
+ * 101-point interpolated area under the precision/recall curve, averaged over
+ * classes that have ground truth.
+ */
+final class MeanAveragePrecision {
+
+    private static final double[] THRESHOLDS = {0.50, 0.55, 0.60, 0.65, 0.70, 0.75, 0.80, 0.85, 0.90, 0.95};
+
+    /**
+     * A labeled or predicted box, normalized to the image (top-left origin).
+     *
+     * @param score 1 for ground truth
+     */
+    record Box(String label, double score, double x, double y, double width, double height) {
+    }
+
+    /**
+     * @param ap50PerClass AP at IoU 0.5 for each class with ground truth
+     */
+    record Result(double map50, double map50to95, Map<String, Double> ap50PerClass) {
+    }
+
+    /**
+     * One prediction: its score and whether it was a true positive at each threshold.
+     */
+    private record Match(double score, boolean[] truePositive) {
+    }
+
+    private final Map<String, Integer> truthCounts = new TreeMap<>();
+    private final Map<String, List<Match>> matches = new LinkedHashMap<>();
+
+    /**
+     * Add one image's ground truth and predictions.
+     */
+    void add(List<Box> truth, List<Box> predictions) {
+        truth.forEach(box -> truthCounts.merge(box.label(), 1, Integer::sum));
+        List<Box> ranked = new ArrayList<>(predictions);
+        ranked.sort(Comparator.comparingDouble(Box::score).reversed());
+        boolean[][] taken = new boolean[THRESHOLDS.length][truth.size()];
+        for (Box prediction : ranked) {
+            boolean[] truePositive = new boolean[THRESHOLDS.length];
+            for (int t = 0; t < THRESHOLDS.length; t++) {
+                int best = -1;
+                double bestIou = THRESHOLDS[t];
+                for (int i = 0; i < truth.size(); i++) {
+                    Box candidate = truth.get(i);
+                    if (taken[t][i] || !candidate.label().equals(prediction.label())) {
+                        continue;
+                    }
+                    double iou = iou(prediction, candidate);
+                    if (iou >= bestIou) {
+                        bestIou = iou;
+                        best = i;
+                    }
+                }
+                if (best >= 0) {
+                    taken[t][best] = true;
+                    truePositive[t] = true;
+                }
+            }
+            matches.computeIfAbsent(prediction.label(), label -> new ArrayList<>())
+                    .add(new Match(prediction.score(), truePositive));
+        }
+    }
+
+    Result result() {
+        Map<String, Double> ap50PerClass = new LinkedHashMap<>();
+        double sum50 = 0;
+        double sumAll = 0;
+        for (Map.Entry<String, Integer> entry : truthCounts.entrySet()) {
+            List<Match> classMatches = new ArrayList<>(matches.getOrDefault(entry.getKey(), List.of()));
+            classMatches.sort(Comparator.comparingDouble(Match::score).reversed());
+            double ap50 = averagePrecision(classMatches, 0, entry.getValue());
+            ap50PerClass.put(entry.getKey(), ap50);
+            sum50 += ap50;
+            for (int t = 0; t < THRESHOLDS.length; t++) {
+                sumAll += t == 0 ? ap50 : averagePrecision(classMatches, t, entry.getValue());
+            }
+        }
+        int classes = truthCounts.size();
+        return classes == 0
+                ? new Result(0, 0, ap50PerClass)
+                : new Result(sum50 / classes, sumAll / (classes * THRESHOLDS.length), ap50PerClass);
+    }
+
+    // ====== HELPER METHODS ======
+
+    private static double averagePrecision(List<Match> ranked, int threshold, int truthCount) {
+        int n = ranked.size();
+        double[] precision = new double[n];
+        double[] recall = new double[n];
+        int truePositives = 0;
+        for (int i = 0; i < n; i++) {
+            if (ranked.get(i).truePositive()[threshold]) {
+                truePositives++;
+            }
+            precision[i] = truePositives / (double) (i + 1);
+            recall[i] = truePositives / (double) truthCount;
+        }
+        // Precision envelope: best precision at this recall or beyond
+        for (int i = n - 2; i >= 0; i--) {
+            precision[i] = Math.max(precision[i], precision[i + 1]);
+        }
+        double sum = 0;
+        int index = 0;
+        for (int r = 0; r <= 100; r++) {
+            double level = r / 100.0;
+            while (index < n && recall[index] < level) {
+                index++;
+            }
+            if (index == n) {
+                break;
+            }
+            sum += precision[index];
+        }
+        return sum / 101;
+    }
+
+    private static double iou(Box a, Box b) {
+        double width = Math.min(a.x() + a.width(), b.x() + b.width()) - Math.max(a.x(), b.x());
+        double height = Math.min(a.y() + a.height(), b.y() + b.height()) - Math.max(a.y(), b.y());
+        if (width <= 0 || height <= 0) {
+            return 0;
+        }
+        double intersection = width * height;
+        return intersection / (a.width() * a.height() + b.width() * b.height() - intersection);
+    }
+}
@@ -0,0 +1,32 @@
+package com.enterprise.sentinel.service.quantization;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accuracy next to throughput for each model variant on one labeled set and
+ * node, relative to the baseline (normally the FP32 default), to pick a
+ * variant per camera.
+ *
+ * @param objects Ground-truth boxes in the set
+ */
+public record QuantizationReport(Instant generatedAt, String hardwareLabel, int availableProcessors, String arch,
+                                 String dataset, int images, int objects, String baseline,
+                                 List<ModelResult> models) {
+
+    /**
+     * One model variant.
+     *
+     * @param map50 mAP at IoU 0.5
+     * @param map50to95 mAP averaged over IoU 0.5 to 0.95
+     * @param map50Delta Difference to the baseline's mAP@0.5 (negative: accuracy lost)
+     * @param latencyP50Ms Single-stream inference at the serving thresholds, pre- and post-processing included
+     * @param fps Frames per second of one inference thread
+     * @param speedup fps relative to the baseline
+     */
+    public record ModelResult(String id, String version, String precision, double map50, double map50to95,
+                              double map50Delta, double map50to95Delta, double latencyP50Ms, double latencyP99Ms,
+                              double fps, double speedup, Map<String, Double> ap50PerClass) {
+    }
+}
@@ -0,0 +1,278 @@
+package com.enterprise.sentinel.service.quantization;
+
+import ai.djl.inference.Predictor;
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import ai.djl.modality.cv.output.BoundingBox;
+import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.modality.cv.output.Rectangle;
+import com.enterprise.sentinel.service.analysis.ObjectDetectionService;
+import com.enterprise.sentinel.service.analysis.YoloV8Translator;
+import com.enterprise.sentinel.service.model.ModelDescriptor;
+import com.enterprise.sentinel.service.model.ModelLease;
+import com.enterprise.sentinel.service.model.ModelRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Quantized model variants, run once the application is up
+ * ({@code app.quantization.enabled=true}, best with --headless):
+ *
+ * 1. Calibration: preprocesses a local sample image set exactly as serving
+ *    does and writes the tensors for tools/quantize_model.py, which produces
+ *    the INT8 (or FP16) export. ONNX Runtime's quantizer exists for Python only.
+ * 2. Evaluation: runs every variant in the model directory (e.g. yolov8n,
+ *    yolov8n-int8, yolov8n-fp16) over a local labeled set and reports mAP next
+ *    to single-stream latency, both relative to the baseline, as JSON.
+ *
+ * A variant is then chosen per camera through the model routes.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.quantization.enabled", havingValue = "true")
+public class QuantizationRunner implements ApplicationRunner {
+
+    private static final Duration MODEL_WAIT = Duration.ofMinutes(5);
+
+    private final ObjectDetectionService detectionService;
+    private final ModelRegistry modelRegistry;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+    private final String calibrationImages;
+    private final String calibrationOutput;
+    private final int calibrationLimit;
+    private final String dataset;
+    private final List<String> modelIds;
+    private final String baseline;
+    private final float minConfidence;
+    private final int timingRounds;
+    private final String hardwareLabel;
+    private final Path reportPath;
+    private final boolean exitWhenDone;
+
+    public QuantizationRunner(ObjectDetectionService detectionService,
+                              ModelRegistry modelRegistry,
+                              ObjectMapper objectMapper,
+                              ConfigurableApplicationContext context,
+                              @Value("${app.quantization.calibration-images:}") String calibrationImages,
+                              @Value("${app.quantization.calibration-output:./calibration}") String calibrationOutput,
+                              @Value("${app.quantization.calibration-limit:200}") int calibrationLimit,
+                              @Value("${app.quantization.dataset:}") String dataset,
+                              @Value("${app.quantization.models:}") List<String> modelIds,
+                              @Value("${app.quantization.baseline:${app.models.default:yolov8n}}") String baseline,
+                              @Value("${app.quantization.min-confidence:0.001}") float minConfidence,
+                              @Value("${app.quantization.timing-rounds:3}") int timingRounds,
+                              @Value("${app.quantization.hardware-label:unnamed}") String hardwareLabel,
+                              @Value("${app.quantization.report:./quantization-report.json}") String reportPath,
+                              @Value("${app.quantization.exit-when-done:true}") boolean exitWhenDone) {
+        this.detectionService = detectionService;
+        this.modelRegistry = modelRegistry;
+        this.objectMapper = objectMapper;
+        this.context = context;
+        this.calibrationImages = calibrationImages;
+        this.calibrationOutput = calibrationOutput;
+        this.calibrationLimit = calibrationLimit;
+        this.dataset = dataset;
+        this.modelIds = modelIds.stream().map(String::trim).filter(id -> !id.isEmpty()).toList();
+        this.baseline = baseline;
+        this.minConfidence = minConfidence;
+        this.timingRounds = Math.max(1, timingRounds);
+        this.hardwareLabel = hardwareLabel;
+        this.reportPath = Path.of(reportPath);
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!calibrationImages.isBlank()) {
+            exportCalibration(Path.of(calibrationImages), Path.of(calibrationOutput));
+        }
+        if (!dataset.isBlank()) {
+            awaitModel();
+            QuantizationReport report = evaluate(Path.of(dataset));
+            Files.writeString(reportPath, objectMapper.copy()
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .writerWithDefaultPrettyPrinter()
+                    .writeValueAsString(report));
+            for (QuantizationReport.ModelResult result : report.models()) {
+                log.info("{} {} ({}): mAP@0.5 {} ({}), mAP@0.5:0.95 {}, p50 {} ms, {} fps (x{})",
+                        result.id(), result.version(), result.precision(), format(result.map50()),
+                        String.format("%+.3f", result.map50Delta()), format(result.map50to95()),
+                        String.format("%.1f", result.latencyP50Ms()), String.format("%.1f", result.fps()),
+                        String.format("%.2f", result.speedup()));
+            }
+            log.info("Quantization report: {}", reportPath.toAbsolutePath());
+        }
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    // ====== HELPER METHODS ======
+
+    /**
+     * Serving preprocessing (resize, CHW, [0, 1]) of up to {@code calibrationLimit} images.
+     */
+    private void exportCalibration(Path images, Path output) throws Exception {
+        YoloV8Translator translator = new YoloV8Translator(ModelDescriptor.COCO_CLASSES,
+                ModelDescriptor.DEFAULT_CONFIDENCE, ModelDescriptor.DEFAULT_NMS_IOU);
+        Files.createDirectories(output);
+        int size = YoloV8Translator.INPUT_SIZE;
+        int written = 0;
+        for (Path file : LabeledImageSet.images(images)) {
+            if (written == calibrationLimit) {
+                break;
+            }
+            Image image = ImageFactory.getInstance().fromFile(file);
+            CalibrationExporter.writeNpy(output.resolve(LabeledImageSet.stem(file) + ".npy"),
+                    translator.preprocess(image), 1, 3, size, size);
+            written++;
+        }
+        log.info("Wrote {} calibration tensors to {}; quantize with: python tools/quantize_model.py {} --mode static "
+                + "--calibration {}", written, output.toAbsolutePath(),
+                modelRegistry.getDirectory().resolve(baseline + ".onnx"), output);
+    }
+
+    private QuantizationReport evaluate(Path datasetPath) throws Exception {
+        ModelDescriptor reference = descriptor(baseline);
+        if (reference == null) {
+            throw new IllegalStateException("Baseline model not loaded: " + baseline);
+        }
+        // Label ids follow the baseline's class order
+        List<LabeledImageSet.Sample> samples = LabeledImageSet.load(datasetPath, reference.classes());
+        if (samples.isEmpty()) {
+            throw new IllegalStateException("No images under " + datasetPath.resolve("images"));
+        }
+
+        Set<String> ids = new LinkedHashSet<>();
+        ids.add(baseline);
+        if (modelIds.isEmpty()) {
+            modelRegistry.getModels().forEach(descriptor -> ids.add(descriptor.id()));
+        } else {
+            ids.addAll(modelIds);
+        }
+
+        List<Measurement> measurements = new ArrayList<>();
+        for (String id : ids) {
+            try (ModelLease lease = modelRegistry.acquire(id)) {
+                if (lease == null) {
+                    log.warn("Model {} not loaded; left out of the report", id);
+                    continue;
+                }
+                log.info("Evaluating {} ({}) on {} images", lease.descriptor().label(),
+                        lease.descriptor().precision(), samples.size());
+                measurements.add(measure(lease, samples));
+            }
+        }
+
+        Measurement base = measurements.get(0);
+        List<QuantizationReport.ModelResult> results = measurements.stream()
+                .map(m -> new QuantizationReport.ModelResult(m.descriptor.id(), m.descriptor.version(),
+                        m.descriptor.precision().name(), m.accuracy.map50(), m.accuracy.map50to95(),
+                        m.accuracy.map50() - base.accuracy.map50(),
+                        m.accuracy.map50to95() - base.accuracy.map50to95(),
+                        m.p50Ms, m.p99Ms, m.fps, base.fps > 0 ? m.fps / base.fps : 0,
+                        m.accuracy.ap50PerClass()))
+                .toList();
+        return new QuantizationReport(Instant.now(), hardwareLabel, Runtime.getRuntime().availableProcessors(),
+                System.getProperty("os.arch"), datasetPath.toAbsolutePath().toString(), samples.size(),
+                samples.stream().mapToInt(sample -> sample.truth().size()).sum(), baseline, results);
+    }
+
+    private record Measurement(ModelDescriptor descriptor, MeanAveragePrecision.Result accuracy,
+                               double p50Ms, double p99Ms, double fps) {
+    }
+
+    /**
+     * Accuracy with a near-zero confidence threshold (the full precision/recall
+     * curve), then latency through the serving predictor.
+     */
+    private Measurement measure(ModelLease lease, List<LabeledImageSet.Sample> samples) throws Exception {
+        ModelDescriptor descriptor = lease.descriptor();
+        MeanAveragePrecision accuracy = new MeanAveragePrecision();
+        try (Predictor<Image, DetectedObjects> predictor = lease.model().newPredictor(new YoloV8Translator(
+                descriptor.classes(), minConfidence, descriptor.nmsIou(), false,
+                descriptor.precision().inputType()))) {
+            for (LabeledImageSet.Sample sample : samples) {
+                accuracy.add(sample.truth(), boxes(predictor.predict(load(sample.image()))));
+            }
+        }
+
+        long[] latencies = new long[samples.size() * timingRounds];
+        int pass = 0;
+        long busy = 0;
+        try (Predictor<Image, DetectedObjects> predictor = lease.model().newPredictor()) {
+            for (int round = 0; round < timingRounds; round++) {
+                for (LabeledImageSet.Sample sample : samples) {
+                    Image image = load(sample.image());
+                    long started = System.nanoTime();
+                    predictor.predict(image);
+                    latencies[pass] = System.nanoTime() - started;
+                    busy += latencies[pass++];
+                }
+            }
+        }
+        Arrays.sort(latencies);
+        return new Measurement(descriptor, accuracy.result(), percentile(latencies, 0.50) / 1e6,
+                percentile(latencies, 0.99) / 1e6, busy > 0 ? latencies.length / (busy / 1e9) : 0);
+    }
+
+    private static List<MeanAveragePrecision.Box> boxes(DetectedObjects detections) {
+        List<MeanAveragePrecision.Box> boxes = new ArrayList<>();
+        for (int i = 0; i < detections.getNumberOfObjects(); i++) {
+            DetectedObjects.DetectedObject detection = detections.item(i);
+            BoundingBox box = detection.getBoundingBox();
+            Rectangle bounds = box.getBounds();
+            boxes.add(new MeanAveragePrecision.Box(detection.getClassName(), detection.getProbability(),
+                    bounds.getX(), bounds.getY(), bounds.getWidth(), bounds.getHeight()));
+        }
+        return boxes;
+    }
+
+    private static Image load(Path file) throws Exception {
+        return ImageFactory.getInstance().fromFile(file);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.max(0, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static String format(double value) {
+        return String.format("%.3f", value);
+    }
+
+    private ModelDescriptor descriptor(String id) {
+        return modelRegistry.getModels().stream()
+                .filter(descriptor -> descriptor.id().equals(id))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private void awaitModel() throws InterruptedException {
+        long deadline = System.nanoTime() + MODEL_WAIT.toNanos();
+        while (!detectionService.isReady()) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Detection model not ready after " + MODEL_WAIT);
+            }
+            Thread.sleep(500);
+        }
+    }
+}
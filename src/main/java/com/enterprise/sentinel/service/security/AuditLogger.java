@@ -1,12 +1,19 @@
 package com.enterprise.sentinel.service.security;
 
+import com.enterprise.sentinel.config.ExecutionModel;
 import com.enterprise.sentinel.domain.model.AuditLogEntry;
 import com.enterprise.sentinel.domain.repository.AuditLogRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -18,7 +25,7 @@ import java.util.logging.Logger;
  * 1. User action occurs (VIEW, DELETE, EXPORT, etc.)
  * 2. Check authentication context
  * 3. Create AuditLogEntry with timestamp
- * 4. Persist with @Transactional (atomic commit)
+ * 4. Persist with saveAndFlush (atomic commit)
  * 5. Log error if persistence fails
  * 
  * Guarantees:
@@ -27,6 +34,18 @@ import java.util.logging.Logger;
  * - Ordered by timestamp
  * - No record loss due to errors
  * 
+ * Most writes run on the ExecutionModel's I/O executor: callers (REST
+ * handlers, alert dispatch, the inference thread) never wait for the
+ * database. The acting user is resolved on the caller's thread first.
+ * DELETE and EXPORT are written on the caller's thread and report whether
+ * the record was committed, so a destructive or data-egress action can
+ * refuse to proceed unaudited.
+ * 
+ * No record loss on shutdown: writes the executor no longer accepts run on
+ * the caller's thread, and {@link #drain()} waits for every queued write.
+ * This bean depends on the repository and the executor, so Spring destroys
+ * it (and drains) while both are still up.
+ * 
  * Fail-Safe:
  * - Missing auth context → log with username="ANONYMOUS"
  * - DB failures → log to stderr, don't propagate
@@ -38,11 +57,33 @@ public class AuditLogger {
     private static final Logger LOGGER = Logger.getLogger(AuditLogger.class.getName());
     private static final String SYSTEM_USER = "SYSTEM";
     private static final String ANONYMOUS_USER = "ANONYMOUS";
+    private static final long DRAIN_REPORT_MS = 5_000L;
 
     private final AuditLogRepository auditLogRepository;
+    private final Executor executor;
+
+    // Writes handed to the executor and not finished yet; guarded by itself for drain()
+    private final AtomicInteger pending = new AtomicInteger();
 
+    // METRICS: Records written and writes that failed (exported as audit metrics)
+    private final AtomicLong writtenCount = new AtomicLong(0L);
+    private final AtomicLong failedCount = new AtomicLong(0L);
+
+    /**
+     * Every write on the caller's thread (tests, tools).
+     */
     public AuditLogger(AuditLogRepository auditLogRepository) {
+        this(auditLogRepository, Runnable::run);
+    }
+
+    @Autowired
+    public AuditLogger(AuditLogRepository auditLogRepository, ExecutionModel executionModel) {
+        this(auditLogRepository, executionModel.io());
+    }
+
+    AuditLogger(AuditLogRepository auditLogRepository, Executor executor) {
         this.auditLogRepository = auditLogRepository;
+        this.executor = executor;
     }
 
     /**
@@ -56,71 +97,50 @@ public class AuditLogger {
      * @param videoFilename  Friendly name for audit trail
      * @param details        Additional context or reason
      */
-    @Transactional
     public void logUserAction(String username, String actionType, UUID videoId, 
                              String videoFilename, String details) {
-        try {
-            // FAIL-SAFE: Extract username from security context if not provided
-            if (username == null || username.isEmpty()) {
-                username = extractCurrentUsername();
-            }
-
-            // Create audit entry using existing constructor
-            AuditLogEntry entry = new AuditLogEntry(
-                username, 
-                actionType, 
-                videoId, 
-                videoFilename, 
-                details
-            );
-
-            // ATOMIC: Persist to database
-            AuditLogEntry persisted = auditLogRepository.saveAndFlush(entry);
-
-            // GUARANTEE: If saveAndFlush completes, record is committed
-            LOGGER.info("Audit logged: user=" + username + " action=" + actionType + 
-                       " resource=" + videoId);
-
-        } catch (Exception e) {
-            // FAIL-SAFE: Log error but don't propagate (error isolation)
-            LOGGER.severe("Audit logging failed: " + e.getMessage());
-            e.printStackTrace();
-            // Audit failures should NOT break the main flow
-        }
+        AuditLogEntry entry = userEntry(username, actionType, videoId, videoFilename, details);
+        submit(() -> persist(entry, Level.INFO, "Audit logged: user=" + entry.getUsername()
+                + " action=" + actionType + " resource=" + videoId));
     }
 
     /**
      * Log a view event (most common action).
      * SEC-01 requirement: Track all video accesses.
      */
-    @Transactional
     public void logViewVideo(String username, UUID videoId, String videoFilename) {
         logUserAction(username, "VIEW", videoId, videoFilename, "Video playback initiated");
     }
 
     /**
-     * Log a file deletion event.
+     * Log a file deletion event, on the caller's thread.
      * SEC-01 requirement: Track all destructive operations.
+     * 
+     * @return Whether the record was committed
      */
-    @Transactional
-    public void logDeleteVideo(String username, UUID videoId, String videoFilename, String reason) {
-        logUserAction(username, "DELETE", videoId, videoFilename, reason != null ? reason : "No reason provided");
+    public boolean logDeleteVideo(String username, UUID videoId, String videoFilename, String reason) {
+        AuditLogEntry entry = userEntry(username, "DELETE", videoId, videoFilename,
+                reason != null ? reason : "No reason provided");
+        return persist(entry, Level.INFO, "Audit logged: user=" + entry.getUsername()
+                + " action=DELETE resource=" + videoId);
     }
 
     /**
-     * Log an export/download event.
+     * Log an export/download event, on the caller's thread.
      * SEC-01 requirement: Track data egress for compliance.
+     * 
+     * @return Whether the record was committed
      */
-    @Transactional
-    public void logExportVideo(String username, UUID videoId, String videoFilename, String exportFormat) {
-        logUserAction(username, "EXPORT", videoId, videoFilename, 
-                     "Exported as: " + (exportFormat != null ? exportFormat : "UNKNOWN"));
+    public boolean logExportVideo(String username, UUID videoId, String videoFilename, String exportFormat) {
+        AuditLogEntry entry = userEntry(username, "EXPORT", videoId, videoFilename,
+                "Exported as: " + (exportFormat != null ? exportFormat : "UNKNOWN"));
+        return persist(entry, Level.INFO, "Audit logged: user=" + entry.getUsername()
+                + " action=EXPORT resource=" + videoId);
     }
 
     /**
      * Log a data access event for compliance audits.
      */
-    @Transactional
     public void logDataAccess(String username, String resource, String details) {
         logUserAction(username, "DATA_ACCESS", null, resource, details);
     }
@@ -133,73 +153,129 @@ public class AuditLogger {
      * @param severity    CRITICAL, HIGH, MEDIUM, LOW
      * @param description Event details
      */
-    @Transactional
     public void logSecurityEvent(String eventType, String severity, String description) {
-        try {
-            // Use existing constructor with system defaults
-            AuditLogEntry entry = new AuditLogEntry(
-                SYSTEM_USER,
-                "SECURITY_EVENT",
-                null,
-                eventType,
-                String.format("[%s] %s", severity, description)
-            );
-
-            auditLogRepository.saveAndFlush(entry);
-
-            LOGGER.warning("Security event logged: type=" + eventType + " severity=" + severity);
-
-        } catch (Exception e) {
-            LOGGER.severe("Failed to log security event: " + e.getMessage());
-            // Error isolation: don't propagate
-        }
+        // Use existing constructor with system defaults
+        AuditLogEntry entry = new AuditLogEntry(
+            SYSTEM_USER,
+            "SECURITY_EVENT",
+            null,
+            eventType,
+            String.format("[%s] %s", severity, description)
+        );
+        submit(() -> persist(entry, Level.WARNING,
+                "Security event logged: type=" + eventType + " severity=" + severity));
     }
 
     /**
      * Log an authentication attempt (success or failure).
      * SEC-01 requirement: Track authentication for forensics.
      */
-    @Transactional
     public void logAuthenticationAttempt(String username, boolean success, String ipAddress) {
-        try {
-            AuditLogEntry entry = new AuditLogEntry(
-                username != null ? username : "UNKNOWN",
-                success ? "LOGIN_SUCCESS" : "LOGIN_FAILURE",
-                null,
-                "AUTH",
-                "IP: " + (ipAddress != null ? ipAddress : "UNKNOWN")
-            );
+        AuditLogEntry entry = new AuditLogEntry(
+            username != null ? username : "UNKNOWN",
+            success ? "LOGIN_SUCCESS" : "LOGIN_FAILURE",
+            null,
+            "AUTH",
+            "IP: " + (ipAddress != null ? ipAddress : "UNKNOWN")
+        );
+        submit(() -> persist(entry, Level.INFO,
+                "Authentication attempt logged: user=" + username + " success=" + success));
+    }
 
-            auditLogRepository.saveAndFlush(entry);
+    /**
+     * Log a configuration change (for compliance).
+     * SEC-01 requirement: Track all admin/system changes.
+     */
+    public void logConfigurationChange(String username, String component, String oldValue, String newValue) {
+        AuditLogEntry entry = new AuditLogEntry(
+            username != null ? username : SYSTEM_USER,
+            "CONFIG_CHANGE",
+            null,
+            component,
+            String.format("Old: %s → New: %s", oldValue, newValue)
+        );
+        submit(() -> persist(entry, Level.INFO, "Configuration change logged: " + component));
+    }
 
-            LOGGER.info("Authentication attempt logged: user=" + username + " success=" + success);
+    /**
+     * Wait until every queued write has reached the database (or failed and been logged).
+     */
+    @PreDestroy
+    public void drain() throws InterruptedException {
+        synchronized (pending) {
+            while (pending.get() > 0) {
+                LOGGER.info("Audit: waiting for " + pending.get() + " queued writes");
+                pending.wait(DRAIN_REPORT_MS);
+            }
+        }
+    }
 
-        } catch (Exception e) {
-            LOGGER.severe("Failed to log authentication: " + e.getMessage());
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    // ====== HELPER METHODS ======
+
+    private AuditLogEntry userEntry(String username, String actionType, UUID videoId,
+                                    String videoFilename, String details) {
+        // FAIL-SAFE: Extract username from security context if not provided (on the caller's thread)
+        if (username == null || username.isEmpty()) {
+            username = extractCurrentUsername();
         }
+        return new AuditLogEntry(username, actionType, videoId, videoFilename, details);
     }
 
     /**
-     * Log a configuration change (for compliance).
-     * SEC-01 requirement: Track all admin/system changes.
+     * Queue a write; one the executor does not accept (shutting down, saturated) runs here instead.
      */
-    @Transactional
-    public void logConfigurationChange(String username, String component, String oldValue, String newValue) {
+    private void submit(Runnable write) {
+        pending.incrementAndGet();
         try {
-            AuditLogEntry entry = new AuditLogEntry(
-                username != null ? username : SYSTEM_USER,
-                "CONFIG_CHANGE",
-                null,
-                component,
-                String.format("Old: %s → New: %s", oldValue, newValue)
-            );
-
-            auditLogRepository.saveAndFlush(entry);
+            executor.execute(() -> {
+                try {
+                    write.run();
+                } finally {
+                    finished();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            finished();
+            write.run();
+        }
+    }
 
-            LOGGER.info("Configuration change logged: " + component);
+    private void finished() {
+        if (pending.decrementAndGet() == 0) {
+            synchronized (pending) {
+                pending.notifyAll();
+            }
+        }
+    }
 
+    /**
+     * ATOMIC: Persist one entry. Guarantee: if saveAndFlush completes, the record is committed.
+     * 
+     * @return Whether it was committed; failures are logged, not propagated
+     */
+    private boolean persist(AuditLogEntry entry, Level level, String message) {
+        try {
+            auditLogRepository.saveAndFlush(entry);
+            writtenCount.incrementAndGet();
+            LOGGER.log(level, message);
+            return true;
         } catch (Exception e) {
-            LOGGER.severe("Failed to log configuration change: " + e.getMessage());
+            failedCount.incrementAndGet();
+            // FAIL-SAFE: Log error but don't propagate (error isolation)
+            LOGGER.log(Level.SEVERE, "Audit logging failed (" + entry.getActionType() + "): " + e.getMessage(), e);
+            return false;
         }
     }
 
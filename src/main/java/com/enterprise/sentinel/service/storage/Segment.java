@@ -0,0 +1,29 @@
+package com.enterprise.sentinel.service.storage;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * One segment of a stream: a data file of sealed records and its index.
+ * Timestamps and size grow while the segment is being written.
+ */
+final class Segment {
+
+    final UUID streamId;
+    final long sequence;
+    final Path dataFile;
+    final Path indexFile;
+
+    volatile long firstTimestampMs;
+    volatile long lastTimestampMs;
+    volatile long bytes;
+
+    Segment(UUID streamId, long sequence, Path dataFile, Path indexFile, long firstTimestampMs) {
+        this.streamId = streamId;
+        this.sequence = sequence;
+        this.dataFile = dataFile;
+        this.indexFile = indexFile;
+        this.firstTimestampMs = firstTimestampMs;
+        this.lastTimestampMs = firstTimestampMs;
+    }
+}
@@ -0,0 +1,95 @@
+package com.enterprise.sentinel.service.storage;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * AES-256-GCM sealing of segment records.
+ *
+ * Each record is sealed on its own (random 96-bit nonce, 128-bit tag), so any
+ * record can be decrypted without touching the rest of its segment. The
+ * associated data binds a record to its stream, segment and byte offset:
+ * records moved or swapped between positions fail authentication.
+ *
+ * Sealed layout: nonce (12) | ciphertext | tag (16)
+ */
+final class SegmentCipher {
+
+    static final int NONCE_BYTES = 12;
+    static final int TAG_BYTES = 16;
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private final SecretKey key;
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadLocal<Cipher> ciphers = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES-GCM not available", e);
+        }
+    });
+
+    /**
+     * @param secret Key material; hashed to a 256-bit key so any length is accepted
+     */
+    SegmentCipher(String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("No storage encryption key configured");
+        }
+        try {
+            byte[] keyBytes = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            this.key = new SecretKeySpec(keyBytes, "AES");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static int sealedLength(int plainLength) {
+        return NONCE_BYTES + plainLength + TAG_BYTES;
+    }
+
+    byte[] seal(byte[] plain, int offset, int length, byte[] aad) {
+        byte[] nonce = new byte[NONCE_BYTES];
+        random.nextBytes(nonce);
+        byte[] sealed = new byte[sealedLength(length)];
+        System.arraycopy(nonce, 0, sealed, 0, NONCE_BYTES);
+        try {
+            Cipher cipher = ciphers.get();
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BYTES * 8, sealed, 0, NONCE_BYTES));
+            cipher.updateAAD(aad);
+            cipher.doFinal(plain, offset, length, sealed, NONCE_BYTES);
+            return sealed;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Error encrypting segment record", e);
+        }
+    }
+
+    /**
+     * @throws GeneralSecurityException if the record was tampered with or moved
+     */
+    byte[] open(byte[] sealed, byte[] aad) throws GeneralSecurityException {
+        Cipher cipher = ciphers.get();
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BYTES * 8, sealed, 0, NONCE_BYTES));
+        cipher.updateAAD(aad);
+        return cipher.doFinal(sealed, NONCE_BYTES, sealed.length - NONCE_BYTES);
+    }
+
+    static byte[] aad(UUID streamId, long segment, long offset) {
+        return ByteBuffer.allocate(32)
+                .putLong(streamId.getMostSignificantBits())
+                .putLong(streamId.getLeastSignificantBits())
+                .putLong(segment)
+                .putLong(offset)
+                .array();
+    }
+}
@@ -0,0 +1,96 @@
+package com.enterprise.sentinel.service.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fixed-width index of the records in one segment, in time order.
+ *
+ * Entry layout (24 bytes, big-endian):
+ * timestampMs (8) | offset in segment (8) | sealed length (4) | flags (4)
+ *
+ * Lookups memory-map the file and binary-search it in place, so seeking in a
+ * segment costs a handful of page reads whatever the recording length.
+ */
+final class SegmentIndex {
+
+    static final int ENTRY_BYTES = 24;
+    static final int FLAG_KEYFRAME = 1;
+
+    private SegmentIndex() {
+    }
+
+    /**
+     * One indexed record.
+     */
+    record Entry(long timestampMs, long offset, int length, boolean keyframe) {
+
+        long end() {
+            return offset + length;
+        }
+    }
+
+    /**
+     * Map the complete entries of an index file (read-only).
+     */
+    static MappedByteBuffer map(Path indexFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            long complete = channel.size() / ENTRY_BYTES * ENTRY_BYTES;
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, complete);
+        }
+    }
+
+    static int count(ByteBuffer index) {
+        return index.limit() / ENTRY_BYTES;
+    }
+
+    static long timestampAt(ByteBuffer index, int i) {
+        return index.getLong(i * ENTRY_BYTES);
+    }
+
+    static Entry entryAt(ByteBuffer index, int i) {
+        int base = i * ENTRY_BYTES;
+        return new Entry(index.getLong(base), index.getLong(base + 8), index.getInt(base + 16),
+                (index.getInt(base + 20) & FLAG_KEYFRAME) != 0);
+    }
+
+    /**
+     * Last keyframe entry at or before {@code timestampMs}, or -1 if there is none in this segment.
+     */
+    static int floorKeyframe(ByteBuffer index, long timestampMs) {
+        int low = 0;
+        int high = count(index) - 1;
+        int floor = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (timestampAt(index, mid) <= timestampMs) {
+                floor = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        // Records are cut at keyframes, so this rarely walks more than a step
+        while (floor >= 0 && !entryAt(index, floor).keyframe()) {
+            floor--;
+        }
+        return floor;
+    }
+
+    static void append(FileChannel channel, Entry entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(ENTRY_BYTES)
+                .putLong(entry.timestampMs())
+                .putLong(entry.offset())
+                .putInt(entry.length())
+                .putInt(entry.keyframe() ? FLAG_KEYFRAME : 0)
+                .flip();
+        long position = channel.size();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package com.enterprise.sentinel.service.storage;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Encrypted, segment-based storage for recorded video streams.
+ *
+ * Layout: {@code <root>/segments/<stream id>/<sequence>.seg} (sealed records)
+ * and {@code <sequence>.idx} (fixed-width index, see {@link SegmentIndex}).
+ *
+ * Records are opaque byte runs with a timestamp and a keyframe flag (the
+ * recorder writes one MPEG-TS GOP per record). Each record is sealed with
+ * AES-256-GCM on its own, so reads decrypt only the records they return.
+ *
+ * Seek by time:
+ * 1. Binary search the in-memory segment table by first timestamp
+ * 2. Memory-map that segment's index and binary search the last keyframe at or before t
+ * Both steps are O(log n); a 24 h recording is ~3k segments and ~90k records.
+ *
+ * Retention deletes whole segments (data + index) once their last record is
+ * older than {@code retention-hours}; nothing is rewritten.
+ *
+ * Key: environment variable SENTINEL_STORAGE_KEY, else {@code app.storage.encryption-key}.
+ */
+@Slf4j
+@Service
+public class SegmentStore {
+
+    static final String DATA_SUFFIX = ".seg";
+    static final String INDEX_SUFFIX = ".idx";
+
+    private static final String ENV_STORAGE_KEY = "SENTINEL_STORAGE_KEY";
+    private static final String SEGMENT_DIR = "segments";
+
+    private final Path segmentRoot;
+    private final long segmentSizeBytes;
+    private final long retentionMs;
+    private final SegmentCipher cipher;
+
+    private final Map<UUID, List<Segment>> streams = new ConcurrentHashMap<>();
+    private final Map<UUID, SegmentWriter> writers = new ConcurrentHashMap<>();
+
+    public SegmentStore(@Value("${app.storage.root-path:./sentinel-storage}") String storageRoot,
+                        @Value("${app.storage.segment-size-mb:64}") long segmentSizeMb,
+                        @Value("${app.storage.retention-hours:168}") long retentionHours,
+                        @Value("${app.storage.encryption-key:dev-only-storage-key-change-me}") String encryptionKey) {
+        this.segmentRoot = Path.of(storageRoot).resolve(SEGMENT_DIR);
+        this.segmentSizeBytes = segmentSizeMb * 1024 * 1024;
+        this.retentionMs = TimeUnit.HOURS.toMillis(retentionHours);
+        String envKey = System.getenv(ENV_STORAGE_KEY);
+        this.cipher = new SegmentCipher(envKey != null && !envKey.isBlank() ? envKey : encryptionKey);
+    }
+
+    /**
+     * Load the segment tables, dropping partial records left by a crash.
+     */
+    @PostConstruct
+    public void load() throws IOException {
+        Files.createDirectories(segmentRoot);
+        try (Stream<Path> dirs = Files.list(segmentRoot)) {
+            for (Path dir : dirs.filter(Files::isDirectory).toList()) {
+                UUID streamId;
+                try {
+                    streamId = UUID.fromString(dir.getFileName().toString());
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                List<Segment> segments = new CopyOnWriteArrayList<>();
+                try (Stream<Path> files = Files.list(dir)) {
+                    for (Path index : files.filter(f -> f.toString().endsWith(INDEX_SUFFIX)).sorted().toList()) {
+                        recover(streamId, index).ifPresent(segments::add);
+                    }
+                }
+                if (!segments.isEmpty()) {
+                    streams.put(streamId, segments);
+                }
+            }
+        }
+        log.info("Segment store: {} streams under {}", streams.size(), segmentRoot);
+    }
+
+    /**
+     * Start writing a stream. New records always go to a new segment.
+     *
+     * @throws IllegalStateException if the stream already has an open writer
+     */
+    public SegmentWriter openWriter(UUID streamId) {
+        SegmentWriter writer = new SegmentWriter(this, streamId, cipher, segmentSizeBytes);
+        if (writers.putIfAbsent(streamId, writer) != null) {
+            throw new IllegalStateException("Stream " + streamId + " is already being written");
+        }
+        return writer;
+    }
+
+    /**
+     * Find where playback for {@code timestampMs} starts: the last keyframe
+     * at or before it (or the first keyframe, if the recording starts later).
+     */
+    public Optional<SeekResult> seek(UUID streamId, long timestampMs) throws IOException {
+        Segment[] segments = snapshot(streamId);
+        return locate(segments, timestampMs).map(position -> new SeekResult(streamId,
+                segments[position.segment()].sequence, position.record(), position.keyframeTimestampMs()));
+    }
+
+    /**
+     * Decrypted stream content from the keyframe at or before {@code fromMs}
+     * through the last record starting at or before {@code toMs}.
+     * Records are read lazily; the caller must close the stream.
+     */
+    public Optional<InputStream> openStream(UUID streamId, long fromMs, long toMs) throws IOException {
+        Segment[] segments = snapshot(streamId);
+        Optional<Position> start = locate(segments, fromMs);
+        if (start.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new RecordInputStream(segments, start.get().segment(), start.get().record(), toMs));
+    }
+
+    public Optional<StreamStats> getStats(UUID streamId) {
+        Segment[] segments = snapshot(streamId);
+        if (segments.length == 0) {
+            return Optional.empty();
+        }
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.bytes;
+        }
+        return Optional.of(new StreamStats(streamId, segments.length, bytes,
+                segments[0].firstTimestampMs, segments[segments.length - 1].lastTimestampMs,
+                writers.containsKey(streamId)));
+    }
+
+    @Scheduled(fixedDelayString = "${app.storage.retention-check-ms:600000}")
+    public void enforceRetention() {
+        int deleted = enforceRetention(System.currentTimeMillis());
+        if (deleted > 0) {
+            log.info("Retention: deleted {} segments older than {} h", deleted, TimeUnit.MILLISECONDS.toHours(retentionMs));
+        }
+    }
+
+    /**
+     * Delete whole segments whose last record is older than the retention window.
+     *
+     * @return number of segments deleted
+     */
+    int enforceRetention(long nowMs) {
+        long cutoff = nowMs - retentionMs;
+        int deleted = 0;
+        for (Map.Entry<UUID, List<Segment>> stream : streams.entrySet()) {
+            SegmentWriter writer = writers.get(stream.getKey());
+            Segment active = writer != null ? writer.currentSegment() : null;
+            for (Segment segment : stream.getValue()) {
+                if (segment.lastTimestampMs >= cutoff || segment == active) {
+                    break; // Segments are in time order
+                }
+                try {
+                    Files.deleteIfExists(segment.dataFile);
+                    Files.deleteIfExists(segment.indexFile);
+                    stream.getValue().remove(segment);
+                    deleted++;
+                } catch (IOException e) {
+                    log.warn("Retention: could not delete segment {}: {}", segment.dataFile, e.getMessage());
+                    break;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    // ====== WRITER CALLBACKS ======
+
+    synchronized Segment newSegment(UUID streamId, long firstTimestampMs) throws IOException {
+        List<Segment> segments = streams.computeIfAbsent(streamId, id -> new CopyOnWriteArrayList<>());
+        long sequence = segments.isEmpty() ? 0 : segments.get(segments.size() - 1).sequence + 1;
+        Path dir = segmentRoot.resolve(streamId.toString());
+        Files.createDirectories(dir);
+        String name = String.format("%016x", sequence);
+        return new Segment(streamId, sequence, dir.resolve(name + DATA_SUFFIX), dir.resolve(name + INDEX_SUFFIX),
+                firstTimestampMs);
+    }
+
+    void register(Segment segment) {
+        streams.computeIfAbsent(segment.streamId, id -> new CopyOnWriteArrayList<>()).add(segment);
+    }
+
+    void writerClosed(SegmentWriter writer) {
+        writers.remove(writer.getStreamId(), writer);
+    }
+
+    // ====== HELPER METHODS ======
+
+    private Segment[] snapshot(UUID streamId) {
+        List<Segment> segments = streams.get(streamId);
+        return segments == null ? new Segment[0] : segments.toArray(new Segment[0]);
+    }
+
+    /**
+     * Position of the last segment starting at or before {@code timestampMs}, or -1.
+     */
+    private static int floorSegment(Segment[] segments, long timestampMs) {
+        int low = 0;
+        int high = segments.length - 1;
+        int floor = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (segments[mid].firstTimestampMs <= timestampMs) {
+                floor = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return floor;
+    }
+
+    private static Optional<Position> locate(Segment[] segments, long timestampMs) throws IOException {
+        for (int i = floorSegment(segments, timestampMs); i >= 0; i--) {
+            ByteBuffer index = SegmentIndex.map(segments[i].indexFile);
+            int record = SegmentIndex.floorKeyframe(index, timestampMs);
+            if (record >= 0) {
+                return Optional.of(new Position(i, record, SegmentIndex.timestampAt(index, record)));
+            }
+        }
+        // Before the recording starts: play from its first keyframe
+        for (int i = 0; i < segments.length; i++) {
+            ByteBuffer index = SegmentIndex.map(segments[i].indexFile);
+            for (int record = 0; record < SegmentIndex.count(index); record++) {
+                if (SegmentIndex.entryAt(index, record).keyframe()) {
+                    return Optional.of(new Position(i, record, SegmentIndex.timestampAt(index, record)));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Validate a segment after a restart: drop index entries that point past
+     * the data (torn write) and trim the data to the last indexed record.
+     */
+    private Optional<Segment> recover(UUID streamId, Path indexFile) throws IOException {
+        String name = indexFile.getFileName().toString();
+        Path dataFile = indexFile.resolveSibling(name.substring(0, name.length() - INDEX_SUFFIX.length()) + DATA_SUFFIX);
+        long sequence = Long.parseUnsignedLong(name.substring(0, name.length() - INDEX_SUFFIX.length()), 16);
+        if (!Files.exists(dataFile)) {
+            Files.delete(indexFile);
+            return Optional.empty();
+        }
+
+        long dataSize = Files.size(dataFile);
+        ByteBuffer index = SegmentIndex.map(indexFile);
+        int count = SegmentIndex.count(index);
+        while (count > 0 && SegmentIndex.entryAt(index, count - 1).end() > dataSize) {
+            count--;
+        }
+        if (count == 0) {
+            Files.delete(indexFile);
+            Files.delete(dataFile);
+            return Optional.empty();
+        }
+
+        long dataEnd = SegmentIndex.entryAt(index, count - 1).end();
+        if (Files.size(indexFile) != (long) count * SegmentIndex.ENTRY_BYTES || dataSize != dataEnd) {
+            try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.WRITE)) {
+                channel.truncate((long) count * SegmentIndex.ENTRY_BYTES);
+            }
+            try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.WRITE)) {
+                channel.truncate(dataEnd);
+            }
+            log.warn("Segment {} of stream {} truncated to {} records after an unclean shutdown",
+                    name, streamId, count);
+        }
+
+        Segment segment = new Segment(streamId, sequence, dataFile, indexFile, SegmentIndex.timestampAt(index, 0));
+        segment.lastTimestampMs = SegmentIndex.timestampAt(index, count - 1);
+        segment.bytes = dataEnd;
+        return Optional.of(segment);
+    }
+
+    private byte[] readRecord(Segment segment, FileChannel channel, SegmentIndex.Entry entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(entry.length());
+        long position = entry.offset();
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Segment " + segment.dataFile + " is shorter than its index");
+            }
+            position += read;
+        }
+        try {
+            return cipher.open(buffer.array(), SegmentCipher.aad(segment.streamId, segment.sequence, entry.offset()));
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Segment record failed authentication: " + segment.dataFile + "@" + entry.offset(), e);
+        }
+    }
+
+    /**
+     * Where playback for a time starts.
+     *
+     * @param segment segment sequence number (file name)
+     * @param record record number within the segment
+     */
+    public record SeekResult(UUID streamId, long segment, int record, long keyframeTimestampMs) {
+    }
+
+    /**
+     * Seek result against one snapshot of the segment table.
+     */
+    private record Position(int segment, int record, long keyframeTimestampMs) {
+    }
+
+    public record StreamStats(UUID streamId, int segments, long bytes, long firstTimestampMs,
+                              long lastTimestampMs, boolean recording) {
+    }
+
+    /**
+     * Decrypts records one at a time, across segment boundaries.
+     */
+    private final class RecordInputStream extends InputStream {
+
+        private final Segment[] segments;
+        private final long toMs;
+        private int segment;
+        private int record;
+        private ByteBuffer index;
+        private FileChannel channel;
+        private byte[] current = new byte[0];
+        private int position;
+        private boolean ended;
+
+        RecordInputStream(Segment[] segments, int segment, int record, long toMs) {
+            this.segments = segments;
+            this.segment = segment;
+            this.record = record;
+            this.toMs = toMs;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return current[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int count = Math.min(length, current.length - position);
+            System.arraycopy(current, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            ended = true;
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+
+        private boolean fill() throws IOException {
+            while (position >= current.length) {
+                if (ended || !nextRecord()) {
+                    ended = true;
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean nextRecord() throws IOException {
+            while (segment < segments.length) {
+                if (index == null) {
+                    index = SegmentIndex.map(segments[segment].indexFile);
+                    channel = FileChannel.open(segments[segment].dataFile, StandardOpenOption.READ);
+                }
+                if (record < SegmentIndex.count(index)) {
+                    SegmentIndex.Entry entry = SegmentIndex.entryAt(index, record++);
+                    if (entry.timestampMs() > toMs) {
+                        return false;
+                    }
+                    current = readRecord(segments[segment], channel, entry);
+                    position = 0;
+                    return true;
+                }
+                channel.close();
+                channel = null;
+                index = null;
+                segment++;
+                record = 0;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.enterprise.sentinel.service.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * Appends records of one stream to its current segment, rolling to a new
+ * segment at the first keyframe after the segment reaches its target size
+ * (or, without keyframes, at twice that size).
+ *
+ * A record's data is written before its index entry, so an index never
+ * points past written data; a crash leaves at most a trailing partial record,
+ * which is dropped when the store reloads.
+ *
+ * Obtained from {@link SegmentStore#openWriter}; one writer per stream.
+ */
+public final class SegmentWriter implements Closeable {
+
+    private final SegmentStore store;
+    private final UUID streamId;
+    private final SegmentCipher cipher;
+    private final long segmentSizeBytes;
+
+    private Segment current;
+    private FileChannel dataChannel;
+    private FileChannel indexChannel;
+    private long lastTimestampMs = Long.MIN_VALUE;
+    private boolean closed;
+
+    SegmentWriter(SegmentStore store, UUID streamId, SegmentCipher cipher, long segmentSizeBytes) {
+        this.store = store;
+        this.streamId = streamId;
+        this.cipher = cipher;
+        this.segmentSizeBytes = segmentSizeBytes;
+    }
+
+    /**
+     * Append one record.
+     *
+     * @param timestampMs Record time (epoch ms); clamped so the index stays sorted
+     * @param keyframe Whether playback can start at this record
+     */
+    public synchronized void append(long timestampMs, boolean keyframe, byte[] data, int offset, int length)
+            throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Writer is closed");
+        }
+        long timestamp = Math.max(timestampMs, lastTimestampMs);
+        int sealedLength = SegmentCipher.sealedLength(length);
+        if (current == null
+                || (keyframe && current.bytes >= segmentSizeBytes)
+                || (current.bytes > 0 && current.bytes + sealedLength > 2 * segmentSizeBytes)) {
+            roll(timestamp);
+        }
+
+        long recordOffset = current.bytes;
+        byte[] sealed = cipher.seal(data, offset, length, SegmentCipher.aad(streamId, current.sequence, recordOffset));
+        ByteBuffer buffer = ByteBuffer.wrap(sealed);
+        long position = recordOffset;
+        while (buffer.hasRemaining()) {
+            position += dataChannel.write(buffer, position);
+        }
+        SegmentIndex.append(indexChannel, new SegmentIndex.Entry(timestamp, recordOffset, sealed.length, keyframe));
+
+        current.bytes = position;
+        current.lastTimestampMs = timestamp;
+        lastTimestampMs = timestamp;
+    }
+
+    public UUID getStreamId() {
+        return streamId;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            closeSegment();
+        } finally {
+            store.writerClosed(this);
+        }
+    }
+
+    synchronized Segment currentSegment() {
+        return current;
+    }
+
+    private void roll(long firstTimestampMs) throws IOException {
+        closeSegment();
+        Segment next = store.newSegment(streamId, firstTimestampMs);
+        dataChannel = FileChannel.open(next.dataFile,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        indexChannel = FileChannel.open(next.indexFile,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        current = next;
+        store.register(next);
+    }
+
+    private void closeSegment() throws IOException {
+        if (current == null) {
+            return;
+        }
+        try (FileChannel data = dataChannel; FileChannel index = indexChannel) {
+            data.force(false);
+            index.force(false);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.enterprise.sentinel.api;
+
+import com.enterprise.sentinel.domain.model.SecurityAlert;
+import com.enterprise.sentinel.domain.repository.SecurityAlertRepository;
+import com.enterprise.sentinel.service.analysis.AlertEngine;
+import com.enterprise.sentinel.service.analysis.AnalyticsService;
+import com.enterprise.sentinel.service.ingestion.AlertClipService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("AlertController Export Tests")
+class AlertControllerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 5, 2, 0, 0);
+
+    @Mock
+    private SecurityAlertRepository securityAlertRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        AlertController controller = new AlertController(mock(AlertEngine.class), mock(AnalyticsService.class),
+                securityAlertRepository, mock(AlertClipService.class), objectMapper);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    @DisplayName("Should stream every keyset batch as one JSON alert per line")
+    void testExportStreamsAllBatches() throws Exception {
+        // Arrange - three batches of 500, 500 and 7
+        List<SecurityAlert> alerts = alerts(1_007, "HIGH");
+        when(securityAlertRepository.findByCreatedAtBetweenOrderByCreatedAtDescIdDesc(
+                eq(START), eq(END), any(ScrollPosition.class), any(Limit.class)))
+                .thenAnswer(invocation -> window(alerts, invocation.getArgument(2), invocation.getArgument(3)));
+
+        // Act
+        String body = export("/api/v1/alerts/export?start=2024-05-01T00:00:00&end=2024-05-02T00:00:00");
+
+        // Assert
+        String[] lines = body.split("\n");
+        assertThat(body).endsWith("\n");
+        assertThat(lines).hasSize(1_007);
+        List<String> ids = new ArrayList<>();
+        for (String line : lines) {
+            ids.add(objectMapper.readTree(line).get("id").asText());
+        }
+        assertThat(ids).containsExactlyElementsOf(alerts.stream().map(a -> a.getId().toString()).toList());
+        verify(securityAlertRepository, times(3)).findByCreatedAtBetweenOrderByCreatedAtDescIdDesc(
+                eq(START), eq(END), any(ScrollPosition.class), any(Limit.class));
+    }
+
+    @Test
+    @DisplayName("Should filter the export by severity in the query")
+    void testExportBySeverity() throws Exception {
+        // Arrange
+        List<SecurityAlert> alerts = alerts(3, "CRITICAL");
+        when(securityAlertRepository.findBySeverityAndCreatedAtBetweenOrderByCreatedAtDescIdDesc(
+                eq("CRITICAL"), eq(START), eq(END), any(ScrollPosition.class), any(Limit.class)))
+                .thenAnswer(invocation -> window(alerts, invocation.getArgument(3), invocation.getArgument(4)));
+
+        // Act
+        String body = export("/api/v1/alerts/export?start=2024-05-01T00:00:00&end=2024-05-02T00:00:00"
+                + "&severity=critical");
+
+        // Assert
+        assertThat(body.split("\n")).hasSize(3);
+        verify(securityAlertRepository, never()).findByCreatedAtBetweenOrderByCreatedAtDescIdDesc(
+                any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should export an empty body when no alert matches")
+    void testExportEmpty() throws Exception {
+        // Arrange
+        when(securityAlertRepository.findByCreatedAtBetweenOrderByCreatedAtDescIdDesc(
+                any(), any(), any(ScrollPosition.class), any(Limit.class)))
+                .thenReturn(Window.from(List.of(), index -> ScrollPosition.keyset()));
+
+        // Act
+        String body = export("/api/v1/alerts/export?start=2024-05-01T00:00:00&end=2024-05-02T00:00:00");
+
+        // Assert
+        assertThat(body).isEmpty();
+    }
+
+    // ====== HELPER METHODS ======
+
+    private String export(String url) throws Exception {
+        MvcResult started = mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    /**
+     * Newest first, as the keyset queries return them.
+     */
+    private static List<SecurityAlert> alerts(int count, String severity) {
+        List<SecurityAlert> alerts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            alerts.add(SecurityAlert.builder()
+                    .id(UUID.randomUUID())
+                    .detectedClass("person")
+                    .confidence(0.9)
+                    .severity(severity)
+                    .alertMessage("Test alert " + i)
+                    .createdAt(END.minusSeconds(i))
+                    .build());
+        }
+        return alerts;
+    }
+
+    /**
+     * The page of {@code alerts} after the keyset position, keyed by list index.
+     */
+    private static Window<SecurityAlert> window(List<SecurityAlert> alerts, ScrollPosition position, Limit limit) {
+        int from = position instanceof KeysetScrollPosition keyset && !keyset.isInitial()
+                ? (Integer) keyset.getKeys().get("index") + 1 : 0;
+        int to = Math.min(alerts.size(), from + limit.max());
+        return Window.from(alerts.subList(from, to),
+                index -> ScrollPosition.forward(Map.of("index", from + index)), to < alerts.size());
+    }
+}
@@ -0,0 +1,50 @@
+package com.enterprise.sentinel.api;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("AlertCursor Unit Tests")
+class AlertCursorTest {
+
+    @Test
+    @DisplayName("Should round-trip createdAt and id through the cursor")
+    void testRoundTrip() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123456000);
+        UUID id = UUID.randomUUID();
+
+        String cursor = AlertCursor.encode(ScrollPosition.forward(Map.of("createdAt", createdAt, "id", id)));
+        ScrollPosition decoded = AlertCursor.decode(cursor);
+
+        assertThat(decoded).isInstanceOf(KeysetScrollPosition.class);
+        Map<String, Object> keys = ((KeysetScrollPosition) decoded).getKeys();
+        assertThat(keys).containsEntry("createdAt", createdAt).containsEntry("id", id);
+    }
+
+    @Test
+    @DisplayName("Should start from the first page when cursor is missing")
+    void testBlankCursor() {
+        assertThat(AlertCursor.decode(null).isInitial()).isTrue();
+        assertThat(AlertCursor.decode("  ").isInitial()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not encode an initial position")
+    void testEncodeInitial() {
+        assertThat(AlertCursor.encode(ScrollPosition.keyset())).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursors")
+    void testMalformedCursor() {
+        assertThatThrownBy(() -> AlertCursor.decode("not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
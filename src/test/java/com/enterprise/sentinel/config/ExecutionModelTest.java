@@ -0,0 +1,142 @@
+package com.enterprise.sentinel.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+@DisplayName("ExecutionModel Tests")
+class ExecutionModelTest {
+
+    private static final int CLIENTS = 2000;
+    private static final long BLOCKING_CALL_MS = 20;
+
+    private final List<ExecutionModel> models = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (ExecutionModel model : models) {
+            model.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should bound blocking I/O to io-threads in platform mode")
+    void testPlatformModeIsBounded() throws Exception {
+        // Arrange
+        ExecutionModel model = track(ExecutionModel.platform(64));
+
+        // Act
+        LoadResult result = runClients(model);
+
+        // Assert - every client is served, never more than 64 at a time
+        assertThat(model.isVirtual()).isFalse();
+        assertThat(result.completed()).isEqualTo(CLIENTS);
+        assertThat(result.maxConcurrent()).isLessThanOrEqualTo(64);
+    }
+
+    @Test
+    @DisplayName("Should serve thousands of concurrent blocking clients on virtual threads")
+    void testVirtualModeScales() throws Exception {
+        assumeTrue(ExecutionModel.virtualThreadsSupported(), "needs a Java 21+ runtime");
+
+        // Arrange
+        ExecutionModel model = track(new ExecutionModel("virtual", false, 64, 0));
+
+        // Act
+        LoadResult result = runClients(model);
+
+        // Assert - far more clients in flight than a platform pool would hold
+        assertThat(model.isVirtual()).isTrue();
+        assertThat(result.completed()).isEqualTo(CLIENTS);
+        assertThat(result.maxConcurrent()).isGreaterThan(1000);
+    }
+
+    @Test
+    @DisplayName("Should tell virtual threads from platform threads")
+    void testIsVirtualThread() throws Exception {
+        // Arrange
+        ExecutionModel model = track(new ExecutionModel("virtual", false, 4, 0));
+        ExecutorService executor = model.newIoExecutor("test-");
+
+        // Act
+        boolean onIoThread = executor.submit(ExecutionModel::isVirtualThread).get();
+        executor.shutdown();
+
+        // Assert - only an actual virtual thread counts, never the caller
+        assertThat(ExecutionModel.isVirtualThread()).isFalse();
+        assertThat(onIoThread).isEqualTo(ExecutionModel.virtualThreadsSupported());
+    }
+
+    @Test
+    @DisplayName("Should fall back to platform threads when the runtime has no virtual threads")
+    void testVirtualFallback() throws Exception {
+        assumeFalse(ExecutionModel.virtualThreadsSupported());
+
+        // Act
+        ExecutionModel model = track(new ExecutionModel("virtual", false, 4, 20));
+        ExecutorService executor = model.newIoExecutor("test-");
+        String threadName = executor.submit(() -> Thread.currentThread().getName()).get();
+        executor.shutdown();
+
+        // Assert
+        assertThat(model.isVirtual()).isFalse();
+        assertThat(threadName).startsWith("test-");
+        assertThat(model.getPinnedEvents()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown execution mode")
+    void testUnknownMode() {
+        assertThatThrownBy(() -> new ExecutionModel("green", false, 4, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("green");
+    }
+
+    // ====== HELPER METHODS ======
+
+    private ExecutionModel track(ExecutionModel model) {
+        models.add(model);
+        return model;
+    }
+
+    /**
+     * CLIENTS tasks that each block like a JPA call, submitted at once.
+     */
+    private LoadResult runClients(ExecutionModel model) throws InterruptedException {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(CLIENTS);
+        ExecutorService executor = model.newIoExecutor("load-");
+        for (int i = 0; i < CLIENTS; i++) {
+            executor.execute(() -> {
+                maxConcurrent.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(BLOCKING_CALL_MS);
+                    completed.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        return new LoadResult(completed.get(), maxConcurrent.get());
+    }
+
+    private record LoadResult(int completed, int maxConcurrent) {
+    }
+}
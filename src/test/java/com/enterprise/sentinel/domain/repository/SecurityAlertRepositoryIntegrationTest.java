@@ -8,19 +8,47 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
-
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.*;
 
 @DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @DisplayName("SecurityAlertRepository Integration Tests")
 class SecurityAlertRepositoryIntegrationTest {
 
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("sentinel_test").withUsername("test").withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
     @Autowired
     private SecurityAlertRepository securityAlertRepository;
 
@@ -33,6 +61,12 @@ class SecurityAlertRepositoryIntegrationTest {
     @Autowired
     private VideoRepository videoRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
     private GeofenceZone testZone;
     private DetectionEvent testDetection;
     private Video testVideo;
@@ -41,9 +75,10 @@ class SecurityAlertRepositoryIntegrationTest {
     void setUp() {
         // Create test video
         testVideo = Video.builder()
-                .sourceUrl("rtsp://test/stream")
-                .filename("test.mp4")
-                .mediaType("video/mp4")
+                .originalFilename("test.mp4")
+                .storagePath("rtsp://test/stream")
+                .checksum("0".repeat(64))
+                .sourceType(Video.SourceType.RTSP)
                 .build();
         videoRepository.save(testVideo);
 
@@ -61,11 +96,11 @@ class SecurityAlertRepositoryIntegrationTest {
 
         // Create test detection event
         testDetection = DetectionEvent.builder()
-                .videoId(testVideo.getId())
+                .video(testVideo)
                 .detectedClass("person")
                 .confidence(0.95)
                 .boundingBox("[100, 100, 200, 200]")
-                .inferenceData("{\"model\": \"yolov8n\"}")
+                .inferenceData(Map.of("model", "yolov8n"))
                 .build();
         detectionEventRepository.save(testDetection);
     }
@@ -77,6 +112,8 @@ class SecurityAlertRepositoryIntegrationTest {
         SecurityAlert alert = SecurityAlert.builder()
                 .geofenceZoneId(testZone.getId())
                 .detectionEventId(testDetection.getId())
+                .detectedClass("person")
+                .confidence(0.95)
                 .severity("HIGH")
                 .alertMessage("Test alert")
                 .acknowledged(false)
@@ -141,16 +178,9 @@ class SecurityAlertRepositoryIntegrationTest {
     @DisplayName("Should find alerts by severity")
     void testFindBySeverity() {
         // Arrange
-        SecurityAlert critical = createAlert(testZone, testDetection, false, null);
-        critical.setSeverity("CRITICAL");
-
-        SecurityAlert high = createAlert(testZone, testDetection, false, null);
-        high.setSeverity("HIGH");
-
-        SecurityAlert medium = createAlert(testZone, testDetection, false, null);
-        medium.setSeverity("MEDIUM");
-
-        securityAlertRepository.saveAll(List.of(critical, high, medium));
+        createAlert(testZone, testDetection, "CRITICAL", false, null);
+        createAlert(testZone, testDetection, "HIGH", false, null);
+        createAlert(testZone, testDetection, "MEDIUM", false, null);
 
         // Act
         List<SecurityAlert> criticalAlerts = securityAlertRepository.findBySeverityOrderByCreatedAtDesc("CRITICAL");
@@ -160,6 +190,25 @@ class SecurityAlertRepositoryIntegrationTest {
         assertThat(criticalAlerts.get(0).getSeverity()).isEqualTo("CRITICAL");
     }
 
+    @Test
+    @DisplayName("Should store severity upper case and normalize rows saved before that")
+    void testSeverityNormalized() {
+        // Arrange - one saved through the entity, one written as an older release stored it
+        SecurityAlert saved = createAlert(testZone, testDetection, "critical", false, null);
+        SecurityAlert legacy = createAlert(testZone, testDetection, "CRITICAL", false, null);
+        securityAlertRepository.flush();
+        jdbcTemplate.update("UPDATE security_alerts SET severity = 'Critical' WHERE id = ?", legacy.getId());
+        entityManager.clear();
+
+        // Act
+        int updated = securityAlertRepository.normalizeSeverities();
+        List<SecurityAlert> critical = securityAlertRepository.findBySeverityAndAcknowledgedFalseOrderByCreatedAtDesc("CRITICAL");
+
+        // Assert
+        assertThat(updated).isEqualTo(1);
+        assertThat(critical).extracting(SecurityAlert::getId).containsExactlyInAnyOrder(saved.getId(), legacy.getId());
+    }
+
     @Test
     @DisplayName("Should find alerts by time range")
     void testFindByTimeRange() {
@@ -200,9 +249,7 @@ class SecurityAlertRepositoryIntegrationTest {
     void testCountBySeverity() {
         // Arrange
         for (int i = 0; i < 3; i++) {
-            SecurityAlert alert = createAlert(testZone, testDetection, false, null);
-            alert.setSeverity("CRITICAL");
-            securityAlertRepository.save(alert);
+            createAlert(testZone, testDetection, "CRITICAL", false, null);
         }
 
         // Act
@@ -244,13 +291,149 @@ class SecurityAlertRepositoryIntegrationTest {
         assertThat(securityAlertRepository.findById(alert.getId())).isEmpty();
     }
 
-    // Helper method
+    @Test
+    @DisplayName("Should return every alert exactly once across keyset pages when timestamps tie")
+    void testKeysetScrollWithTiedTimestamps() {
+        // Arrange - seven alerts created in the same instant
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(createAlert(testZone, testDetection, false, null).getId());
+        }
+        LocalDateTime tie = LocalDateTime.of(2024, 5, 1, 12, 0);
+        setCreatedAt(ids, tie);
+
+        // Act
+        List<Window<SecurityAlert>> pages = scrollAll(position -> securityAlertRepository
+                .findByGeofenceZoneIdOrderByCreatedAtDescIdDesc(testZone.getId(), position, Limit.of(3)));
+
+        // Assert - the id breaks the tie, so no row is skipped or repeated at a page boundary
+        assertThat(pages).extracting(Window::size).containsExactly(3, 3, 1);
+        assertThat(alertIds(pages)).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(ids);
+        assertThat(pages).allSatisfy(page -> assertThat(page.getContent())
+                .allMatch(a -> a.getCreatedAt().equals(tie)));
+    }
+
+    @Test
+    @DisplayName("Should scroll only the requested zone")
+    void testKeysetScrollByZone() {
+        // Arrange
+        GeofenceZone zone2 = GeofenceZone.builder()
+                .zoneCode("ZONE_2")
+                .zoneName("Zone 2")
+                .triggerClass("car")
+                .confidenceThreshold(0.80)
+                .enabled(true)
+                .severity("MEDIUM")
+                .alertMessage("Car detected")
+                .build();
+        geofenceZoneRepository.save(zone2);
+        List<UUID> zoneIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            zoneIds.add(createAlert(testZone, testDetection, false, null).getId());
+            createAlert(zone2, testDetection, false, null);
+        }
+
+        // Act
+        List<Window<SecurityAlert>> pages = scrollAll(position -> securityAlertRepository
+                .findByGeofenceZoneIdOrderByCreatedAtDescIdDesc(testZone.getId(), position, Limit.of(3)));
+
+        // Assert
+        assertThat(alertIds(pages)).containsExactlyInAnyOrderElementsOf(zoneIds);
+    }
+
+    @Test
+    @DisplayName("Should scroll only the requested severity, newest first, with acknowledgement and time filters")
+    void testKeysetScrollBySeverity() {
+        // Arrange - two critical alerts an hour apart, one of them acknowledged
+        SecurityAlert older = createAlert(testZone, testDetection, "CRITICAL", false, null);
+        SecurityAlert newer = createAlert(testZone, testDetection, "CRITICAL", true, "admin");
+        createAlert(testZone, testDetection, "HIGH", false, null);
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        setCreatedAt(List.of(older.getId()), now.minusHours(1));
+        setCreatedAt(List.of(newer.getId()), now);
+
+        // Act
+        List<Window<SecurityAlert>> critical = scrollAll(position -> securityAlertRepository
+                .findBySeverityOrderByCreatedAtDescIdDesc("CRITICAL", position, Limit.of(1)));
+        List<Window<SecurityAlert>> open = scrollAll(position -> securityAlertRepository
+                .findBySeverityAndAcknowledgedFalseOrderByCreatedAtDescIdDesc("CRITICAL", position, Limit.of(1)));
+        List<Window<SecurityAlert>> lastHalfHour = scrollAll(position -> securityAlertRepository
+                .findBySeverityAndCreatedAtBetweenOrderByCreatedAtDescIdDesc(
+                        "CRITICAL", now.minusMinutes(30), now, position, Limit.of(1)));
+
+        // Assert
+        assertThat(alertIds(critical)).containsExactly(newer.getId(), older.getId());
+        assertThat(alertIds(open)).containsExactly(older.getId());
+        assertThat(alertIds(lastHalfHour)).containsExactly(newer.getId());
+    }
+
+    @Test
+    @DisplayName("Should end on the last full page without an empty extra page")
+    void testKeysetScrollLastPage() {
+        // Arrange - exactly two pages
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(createAlert(testZone, testDetection, false, null).getId());
+        }
+        LocalDateTime start = LocalDateTime.now().minusHours(1);
+        LocalDateTime end = LocalDateTime.now().plusHours(1);
+
+        // Act
+        List<Window<SecurityAlert>> pages = scrollAll(position -> securityAlertRepository
+                .findByCreatedAtBetweenOrderByCreatedAtDescIdDesc(start, end, position, Limit.of(3)));
+
+        // Assert
+        assertThat(pages).extracting(Window::size).containsExactly(3, 3);
+        assertThat(pages.get(0).hasNext()).isTrue();
+        assertThat(pages.get(1).hasNext()).isFalse();
+        assertThat(alertIds(pages)).containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    // Helper methods
+
+    /**
+     * Follow a keyset query from the first page until a window reports no next page.
+     */
+    private static List<Window<SecurityAlert>> scrollAll(Function<ScrollPosition, Window<SecurityAlert>> query) {
+        List<Window<SecurityAlert>> pages = new ArrayList<>();
+        Window<SecurityAlert> page = query.apply(ScrollPosition.keyset());
+        pages.add(page);
+        while (page.hasNext() && !page.isEmpty()) {
+            page = query.apply(page.positionAt(page.size() - 1));
+            pages.add(page);
+        }
+        return pages;
+    }
+
+    private static List<UUID> alertIds(List<Window<SecurityAlert>> pages) {
+        return pages.stream().flatMap(Window::stream).map(SecurityAlert::getId).toList();
+    }
+
+    /**
+     * createdAt is set by Hibernate on insert and not updatable through the entity.
+     */
+    private void setCreatedAt(List<UUID> ids, LocalDateTime createdAt) {
+        securityAlertRepository.flush();
+        for (UUID id : ids) {
+            jdbcTemplate.update("UPDATE security_alerts SET created_at = ? WHERE id = ?",
+                    Timestamp.valueOf(createdAt), id);
+        }
+        entityManager.clear();
+    }
+
     private SecurityAlert createAlert(GeofenceZone zone, DetectionEvent detection, 
                                      boolean acknowledged, String acknowledgedBy) {
+        return createAlert(zone, detection, "HIGH", acknowledged, acknowledgedBy);
+    }
+
+    private SecurityAlert createAlert(GeofenceZone zone, DetectionEvent detection, String severity,
+                                     boolean acknowledged, String acknowledgedBy) {
         SecurityAlert alert = SecurityAlert.builder()
                 .geofenceZoneId(zone.getId())
                 .detectionEventId(detection.getId())
-                .severity("HIGH")
+                .detectedClass(detection.getDetectedClass())
+                .confidence(detection.getConfidence())
+                .severity(severity)
                 .alertMessage("Test alert")
                 .acknowledged(acknowledged)
                 .acknowledgedBy(acknowledgedBy)
@@ -15,6 +15,7 @@ import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -39,7 +40,8 @@ class AlertEngineTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        alertEngine = new AlertEngine(geofenceZoneRepository, securityAlertRepository, eventPublisher);
+        alertEngine = new AlertEngine(geofenceZoneRepository, securityAlertRepository, eventPublisher,
+                new DetectionClassRegistry());
     }
 
     @Test
@@ -64,7 +66,7 @@ class AlertEngineTest {
                 .id(detectionId)
                 .detectedClass("person")
                 .confidence(0.95)
-                .inferenceData("{}")
+                .inferenceData(Map.of())
                 .createdAt(LocalDateTime.now())
                 .build();
 
@@ -103,7 +105,7 @@ class AlertEngineTest {
                 .id(detectionId)
                 .detectedClass("person")
                 .confidence(0.65) // Below 0.80 threshold
-                .inferenceData("{}")
+                .inferenceData(Map.of())
                 .build();
 
         when(geofenceZoneRepository.findByEnabledTrueOrderByZoneName())
@@ -133,7 +135,7 @@ class AlertEngineTest {
         DetectionEvent detection = DetectionEvent.builder()
                 .detectedClass("car") // Doesn't match "person"
                 .confidence(0.95)
-                .inferenceData("{}")
+                .inferenceData(Map.of())
                 .build();
 
         when(geofenceZoneRepository.findByEnabledTrueOrderByZoneName())
@@ -161,7 +163,7 @@ class AlertEngineTest {
         DetectionEvent detection = DetectionEvent.builder()
                 .detectedClass("person")
                 .confidence(0.95)
-                .inferenceData("{}")
+                .inferenceData(Map.of())
                 .build();
 
         when(geofenceZoneRepository.findByEnabledTrueOrderByZoneName())
@@ -239,14 +241,8 @@ class AlertEngineTest {
                 .acknowledged(false)
                 .build();
 
-        SecurityAlert highAlert = SecurityAlert.builder()
-                .id(UUID.randomUUID())
-                .severity("HIGH")
-                .acknowledged(false)
-                .build();
-
-        when(securityAlertRepository.findByAcknowledgedFalseOrderByCreatedAtDesc())
-                .thenReturn(List.of(criticalAlert, highAlert));
+        when(securityAlertRepository.findBySeverityAndAcknowledgedFalseOrderByCreatedAtDesc("CRITICAL"))
+                .thenReturn(List.of(criticalAlert));
 
         // Act
         List<SecurityAlert> critical = alertEngine.getCriticalUnacknowledgedAlerts();
@@ -256,6 +252,19 @@ class AlertEngineTest {
         assertThat(critical.get(0).getSeverity()).isEqualTo("CRITICAL");
     }
 
+    @Test
+    @DisplayName("Should normalize stored severities at startup")
+    void testNormalizeStoredSeverities() {
+        // Arrange
+        when(securityAlertRepository.normalizeSeverities()).thenReturn(3);
+
+        // Act
+        alertEngine.normalizeStoredSeverities();
+
+        // Assert
+        verify(securityAlertRepository).normalizeSeverities();
+    }
+
     @Test
     @DisplayName("Should create multiple alerts for multiple matching zones")
     void testProcessDetection_MultipleMatchingZones() {
@@ -286,7 +295,7 @@ class AlertEngineTest {
                 .id(detectionId)
                 .detectedClass("person")
                 .confidence(0.95)
-                .inferenceData("{}")
+                .inferenceData(Map.of())
                 .build();
 
         when(geofenceZoneRepository.findByEnabledTrueOrderByZoneName())
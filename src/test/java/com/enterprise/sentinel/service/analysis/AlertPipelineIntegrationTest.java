@@ -12,14 +12,21 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
@@ -38,17 +45,30 @@ import static org.assertj.core.api.Assertions.*;
  * 5. Repository queries work correctly
  */
 @DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @ActiveProfiles("test")
 @DisplayName("Alert Pipeline End-to-End Integration Test")
 class AlertPipelineIntegrationTest {
 
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("sentinel_test").withUsername("test").withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
     @TestConfiguration
     static class TestConfig {
         @Bean
         public AlertEngine alertEngine(GeofenceZoneRepository zoneRepo, 
                                        SecurityAlertRepository alertRepo,
                                        ApplicationEventPublisher publisher) {
-            return new AlertEngine(zoneRepo, alertRepo, publisher);
+            return new AlertEngine(zoneRepo, alertRepo, publisher, new DetectionClassRegistry());
         }
 
         @Bean
@@ -81,9 +101,10 @@ class AlertPipelineIntegrationTest {
     void setUp() {
         // Create test video
         testVideo = Video.builder()
-                .sourceUrl("rtsp://test/stream")
-                .filename("integration_test.mp4")
-                .mediaType("video/mp4")
+                .originalFilename("integration_test.mp4")
+                .storagePath("rtsp://test/stream")
+                .checksum("0".repeat(64))
+                .sourceType(Video.SourceType.RTSP)
                 .build();
         videoRepository.save(testVideo);
 
@@ -117,12 +138,12 @@ class AlertPipelineIntegrationTest {
     void testCompleteAlertPipeline() {
         // STEP 1: Create a high-confidence detection event
         DetectionEvent detection = DetectionEvent.builder()
-                .videoId(testVideo.getId())
+                .video(testVideo)
                 .timestampMs(System.currentTimeMillis())
                 .detectedClass("person")
                 .confidence(0.95) // High confidence
                 .boundingBox("[100, 100, 200, 200]")
-                .inferenceData(java.util.Map.of(
+                .inferenceData(Map.of(
                         "model", "yolov8n",
                         "class", "person",
                         "confidence", 0.95
@@ -153,12 +174,12 @@ class AlertPipelineIntegrationTest {
     void testLowConfidenceDetectionNoAlert() {
         // Create low-confidence detection
         DetectionEvent detection = DetectionEvent.builder()
-                .videoId(testVideo.getId())
+                .video(testVideo)
                 .timestampMs(System.currentTimeMillis())
                 .detectedClass("person")
                 .confidence(0.50) // Below 0.75 threshold
                 .boundingBox("[300, 300, 400, 400]")
-                .inferenceData(java.util.Map.of("confidence", 0.50))
+                .inferenceData(Map.of("confidence", 0.50))
                 .build();
 
         detectionEventRepository.save(detection);
@@ -177,11 +198,12 @@ class AlertPipelineIntegrationTest {
     void testClassMismatchNoAlert() {
         // Detection is "car", but RESTRICTED_A zone only triggers on "person"
         DetectionEvent detection = DetectionEvent.builder()
-                .videoId(testVideo.getId())
+                .video(testVideo)
                 .timestampMs(System.currentTimeMillis())
                 .detectedClass("car") // Doesn't match zone trigger class
                 .confidence(0.92)
                 .boundingBox("[100, 100, 200, 200]")
+                .inferenceData(Map.of("model", "yolov8n"))
                 .build();
 
         detectionEventRepository.save(detection);
@@ -197,11 +219,12 @@ class AlertPipelineIntegrationTest {
     void testMultipleZonesMultipleAlerts() {
         // Create forklift detection
         DetectionEvent forkliftDetection = DetectionEvent.builder()
-                .videoId(testVideo.getId())
+                .video(testVideo)
                 .timestampMs(System.currentTimeMillis())
                 .detectedClass("forklift")
                 .confidence(0.90)
                 .boundingBox("[100, 100, 200, 200]")
+                .inferenceData(Map.of("model", "yolov8n"))
                 .build();
 
         detectionEventRepository.save(forkliftDetection);
@@ -220,11 +243,12 @@ class AlertPipelineIntegrationTest {
     void testAlertAcknowledgment() {
         // Create and process detection
         DetectionEvent detection = DetectionEvent.builder()
-                .videoId(testVideo.getId())
+                .video(testVideo)
                 .timestampMs(System.currentTimeMillis())
                 .detectedClass("person")
                 .confidence(0.95)
                 .boundingBox("[100, 100, 200, 200]")
+                .inferenceData(Map.of("model", "yolov8n"))
                 .build();
 
         detectionEventRepository.save(detection);
@@ -253,11 +277,12 @@ class AlertPipelineIntegrationTest {
         // Create 5 detections in quick succession
         for (int i = 0; i < 5; i++) {
             DetectionEvent detection = DetectionEvent.builder()
-                    .videoId(testVideo.getId())
+                    .video(testVideo)
                     .timestampMs(System.currentTimeMillis() + (i * 100))
                     .detectedClass("person")
                     .confidence(0.90 + (i * 0.01)) // Gradually increasing confidence
                     .boundingBox("[" + (100 + i*10) + ", 100, " + (200 + i*10) + ", 200]")
+                    .inferenceData(Map.of("model", "yolov8n"))
                     .build();
 
             DetectionEvent saved = detectionEventRepository.save(detection);
@@ -279,12 +304,13 @@ class AlertPipelineIntegrationTest {
 
         // Create detection
         DetectionEvent detection = DetectionEvent.builder()
-                .videoId(testVideo.getId())
+                .video(testVideo)
                 .timestampMs(nowMs)
                 .detectedClass("person")
                 .confidence(0.95)
                 .boundingBox("[100, 100, 200, 200]")
                 .createdAt(now)
+                .inferenceData(Map.of("model", "yolov8n"))
                 .build();
 
         detectionEventRepository.save(detection);
@@ -310,11 +336,12 @@ class AlertPipelineIntegrationTest {
         // Create 3 detections
         for (int i = 0; i < 3; i++) {
             DetectionEvent detection = DetectionEvent.builder()
-                    .videoId(testVideo.getId())
+                    .video(testVideo)
                     .timestampMs(System.currentTimeMillis() + (i * 100))
                     .detectedClass("person")
                     .confidence(0.92)
                     .boundingBox("[100, 100, 200, 200]")
+                    .inferenceData(Map.of("model", "yolov8n"))
                     .build();
 
             DetectionEvent saved = detectionEventRepository.save(detection);
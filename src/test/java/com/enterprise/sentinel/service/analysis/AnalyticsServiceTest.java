@@ -1,7 +1,10 @@
 package com.enterprise.sentinel.service.analysis;
 
 import com.enterprise.sentinel.domain.model.DetectionEvent;
+import com.enterprise.sentinel.domain.model.DwellInterval;
 import com.enterprise.sentinel.domain.repository.DetectionEventRepository;
+import com.enterprise.sentinel.domain.repository.DwellIntervalRepository;
+import com.enterprise.sentinel.domain.repository.GeofenceZoneRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,6 +18,10 @@ import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @DisplayName("AnalyticsService Unit Tests")
@@ -23,21 +30,34 @@ class AnalyticsServiceTest {
     @Mock
     private DetectionEventRepository detectionEventRepository;
 
+    @Mock
+    private DwellIntervalRepository dwellIntervalRepository;
+
+    @Mock
+    private GeofenceZoneRepository geofenceZoneRepository;
+
+    @Mock
+    private DwellEngine dwellEngine;
+
+    private DetectionClassRegistry classRegistry;
     private AnalyticsService analyticsService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        analyticsService = new AnalyticsService(detectionEventRepository);
+        classRegistry = new DetectionClassRegistry();
+        analyticsService = newAnalyticsService(new RecentDetectionStore(1024, 60, classRegistry));
     }
 
     @Test
     @DisplayName("Should generate heatmap from detection events")
     void testGenerateHeatmap() {
         // Arrange
+        short person = (short) classRegistry.register("person");
         DetectionEvent event1 = DetectionEvent.builder()
                 .id(UUID.randomUUID())
                 .detectedClass("person")
+                .classId(person)
                 .confidence(0.95)
                 .boundingBox("[50, 100, 150, 200]")
                 .build();
@@ -45,11 +65,12 @@ class AnalyticsServiceTest {
         DetectionEvent event2 = DetectionEvent.builder()
                 .id(UUID.randomUUID())
                 .detectedClass("person")
+                .classId(person)
                 .confidence(0.88)
                 .boundingBox("[200, 250, 300, 350]")
                 .build();
 
-        when(detectionEventRepository.findByTimeRange(any(), any()))
+        when(detectionEventRepository.findByClassIdsAndTimeRange(eq(List.of(person)), any(), any()))
                 .thenReturn(List.of(event1, event2));
 
         // Act
@@ -68,21 +89,18 @@ class AnalyticsServiceTest {
     @Test
     @DisplayName("Should filter detections by class in heatmap")
     void testGenerateHeatmap_FiltersByClass() {
-        // Arrange
+        // Arrange - the class is filtered by the indexed query, so car rows never load
+        short person = (short) classRegistry.register("person");
+        classRegistry.register("car");
         DetectionEvent personEvent = DetectionEvent.builder()
                 .detectedClass("person")
+                .classId(person)
                 .confidence(0.95)
                 .boundingBox("[50, 100, 150, 200]")
                 .build();
 
-        DetectionEvent carEvent = DetectionEvent.builder()
-                .detectedClass("car")
-                .confidence(0.90)
-                .boundingBox("[200, 250, 300, 350]")
-                .build();
-
-        when(detectionEventRepository.findByTimeRange(any(), any()))
-                .thenReturn(List.of(personEvent, carEvent));
+        when(detectionEventRepository.findByClassIdsAndTimeRange(eq(List.of(person)), any(), any()))
+                .thenReturn(List.of(personEvent));
 
         // Act
         Map<String, Integer> heatmap = analyticsService.generateHeatmap(
@@ -96,69 +114,81 @@ class AnalyticsServiceTest {
         // Should only count person events, not car events
         long totalDetections = heatmap.values().stream().reduce(0, Integer::sum);
         assertThat(totalDetections).isGreaterThan(0);
+        verify(detectionEventRepository, never()).findByTimeRange(any(), any());
     }
 
     @Test
     @DisplayName("Should calculate dwell time for objects in zone")
     void testCalculateDwellTime() {
         // Arrange
-        long time1 = System.currentTimeMillis();
-        long time2 = time1 + 5000; // 5 seconds later
-
-        DetectionEvent event1 = DetectionEvent.builder()
-                .id(UUID.randomUUID())
-                .videoId(UUID.randomUUID())
-                .detectedClass("person")
-                .confidence(0.95)
-                .boundingBox("[100, 100, 200, 200]")
-                .timestampMs(time1)
+        short person = (short) classRegistry.register("person");
+        UUID videoId = UUID.randomUUID();
+        UUID zoneId = UUID.randomUUID();
+        LocalDateTime entered = LocalDateTime.now().minusMinutes(10);
+
+        DwellInterval firstStay = DwellInterval.builder()
+                .zoneId(zoneId)
+                .videoId(videoId)
+                .trackId(7)
+                .classId(person)
+                .enteredAt(entered)
+                .exitedAt(entered.plusSeconds(5))
+                .durationMs(5000)
+                .exitReason(DwellInterval.EXIT)
                 .build();
 
-        DetectionEvent event2 = DetectionEvent.builder()
-                .id(UUID.randomUUID())
-                .videoId(event1.getVideoId())
-                .detectedClass("person")
-                .confidence(0.92)
-                .boundingBox("[105, 105, 205, 205]") // Similar position
-                .timestampMs(time2)
+        DwellInterval reEntry = DwellInterval.builder()
+                .zoneId(zoneId)
+                .videoId(videoId)
+                .trackId(7)
+                .classId(person)
+                .enteredAt(entered.plusSeconds(30))
+                .exitedAt(entered.plusSeconds(32))
+                .durationMs(2000)
+                .exitReason(DwellInterval.TIMEOUT)
                 .build();
 
-        when(detectionEventRepository.findByTimeRange(any(), any()))
-                .thenReturn(List.of(event1, event2));
+        when(dwellIntervalRepository.findByClassIdAndExitedAtBetween(eq(person), any(), any()))
+                .thenReturn(List.of(firstStay, reEntry));
 
         // Act
         Map<String, Long> dwellTimes = analyticsService.calculateDwellTime(
                 "person",
-                "[0, 0, 1000, 1000]",
+                null,
                 LocalDateTime.now().minusHours(1),
                 LocalDateTime.now()
         );
 
         // Assert
-        assertThat(dwellTimes).isNotEmpty();
-        assertThat(dwellTimes.values().stream().findFirst().orElse(0L)).isGreaterThan(0);
+        assertThat(dwellTimes).containsExactly(Map.entry(videoId + "_7_" + zoneId, 7000L));
+        verify(detectionEventRepository, never()).findByTimeRange(any(), any());
     }
 
     @Test
     @DisplayName("Should analyze PPE compliance")
     void testAnalyzePPECompliance() {
         // Arrange
+        short person = (short) classRegistry.register("person");
+        short helmetId = (short) classRegistry.register("helmet");
         DetectionEvent person1 = DetectionEvent.builder()
                 .detectedClass("person")
+                .classId(person)
                 .confidence(0.95)
                 .build();
 
         DetectionEvent person2 = DetectionEvent.builder()
                 .detectedClass("person")
+                .classId(person)
                 .confidence(0.92)
                 .build();
 
         DetectionEvent helmet = DetectionEvent.builder()
                 .detectedClass("helmet")
+                .classId(helmetId)
                 .confidence(0.88)
                 .build();
 
-        when(detectionEventRepository.findByTimeRange(any(), any()))
+        when(detectionEventRepository.findByClassIdsAndTimeRange(eq(List.of(person, helmetId)), any(), any()))
                 .thenReturn(List.of(person1, person2, helmet));
 
         // Act
@@ -177,24 +207,18 @@ class AnalyticsServiceTest {
     @DisplayName("Should generate compliance report for restricted zones")
     void testGenerateComplianceReport() {
         // Arrange
+        short forklift = (short) classRegistry.register("forklift");
         DetectionEvent violation = DetectionEvent.builder()
                 .id(UUID.randomUUID())
                 .detectedClass("forklift")
+                .classId(forklift)
                 .confidence(0.92)
                 .boundingBox("[100, 100, 200, 200]")
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        DetectionEvent allowed = DetectionEvent.builder()
-                .id(UUID.randomUUID())
-                .detectedClass("person")
-                .confidence(0.95)
-                .boundingBox("[300, 300, 400, 400]")
-                .createdAt(LocalDateTime.now())
-                .build();
-
-        when(detectionEventRepository.findByTimeRange(any(), any()))
-                .thenReturn(List.of(violation, allowed));
+        when(detectionEventRepository.findByClassIdsAndTimeRange(eq(List.of(forklift)), any(), any()))
+                .thenReturn(List.of(violation));
 
         // Act
         List<Map<String, Object>> violations = analyticsService.generateComplianceReport(
@@ -295,4 +319,102 @@ class AnalyticsServiceTest {
             assertThat(heatmap).isEmpty();
         });
     }
+
+    @Test
+    @DisplayName("Should serve recent windows from the hot store without querying the database")
+    void testServesRecentWindowFromHotStore() {
+        // Arrange
+        RecentDetectionStore store = new RecentDetectionStore(1024, 60, classRegistry);
+        AnalyticsService hotAnalytics = newAnalyticsService(store);
+        int person = classRegistry.register("person");
+        int car = classRegistry.register("car");
+        LocalDateTime start = LocalDateTime.now();
+        long nowMs = System.currentTimeMillis();
+        store.record(UUID.randomUUID(), nowMs + 10, person, 0.9, RecentDetectionStore.NO_BBOX);
+        store.record(UUID.randomUUID(), nowMs + 20, person, 0.8, RecentDetectionStore.NO_BBOX);
+        store.record(null, nowMs + 30, car, 0.7, RecentDetectionStore.NO_BBOX);
+
+        // Act
+        Map<String, Long> frequency = hotAnalytics.getDetectionFrequency(start, LocalDateTime.now().plusMinutes(1));
+
+        // Assert
+        assertThat(frequency).containsEntry("person", 2L).containsEntry("car", 1L);
+        verify(detectionEventRepository, never()).findByTimeRange(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should report the same compliance violations from the hot store and from the database")
+    void testComplianceReportSameFromStoreAndDatabase() throws Exception {
+        // Arrange - labels in another case, a full-frame box, a detection without a box,
+        // and rows created two seconds after capture
+        RecentDetectionStore hotStore = new RecentDetectionStore(1024, 60, classRegistry);
+        int forklift = classRegistry.register("forklift");
+        int person = classRegistry.register("person");
+        Thread.sleep(5);
+        LocalDateTime start = LocalDateTime.now();
+        long capturedMs = System.currentTimeMillis() + 10;
+        Thread.sleep(5);
+        RecentDetectionStore coldStore = new RecentDetectionStore(1024, 60, classRegistry);
+
+        long fullFrame = RecentDetectionStore.packBoundingBox(1, 1, 1, 1);
+        long box = RecentDetectionStore.packBoundingBox(0.2, 0.2, 0.1, 0.1);
+        hotStore.record(null, capturedMs, forklift, 0.75, fullFrame);
+        hotStore.record(null, capturedMs + 1, forklift, 0.5, RecentDetectionStore.NO_BBOX);
+        hotStore.record(null, capturedMs + 2, person, 0.875, box);
+        hotStore.record(null, capturedMs + 3, forklift, 0.625, box);
+        when(detectionEventRepository.findByClassIdsAndTimeRange(eq(List.of((short) forklift)), any(), any()))
+                .thenReturn(List.of(
+                        persisted("Forklift", forklift, 0.75, "[0, 0, 640, 640]", capturedMs),
+                        persisted("forklift", forklift, 0.5, "", capturedMs + 1),
+                        persisted("FORKLIFT", forklift, 0.625, "[10, 10, 20, 20]", capturedMs + 3)));
+        LocalDateTime end = LocalDateTime.now().plusMinutes(1);
+        List<String> classes = List.of("FORKLIFT");
+        List<String> zones = List.of("RESTRICTED_ZONE_A");
+
+        // Act
+        List<Map<String, Object>> fromStore = newAnalyticsService(hotStore)
+                .generateComplianceReport(classes, zones, start, end);
+        List<Map<String, Object>> fromDatabase = newAnalyticsService(coldStore)
+                .generateComplianceReport(classes, zones, start, end);
+
+        // Assert
+        verify(detectionEventRepository).findByClassIdsAndTimeRange(any(), any(), any());
+        assertThat(fromStore).hasSize(2);
+        assertThat(fromDatabase).containsExactlyInAnyOrderElementsOf(fromStore);
+        assertThat(fromStore).extracting(v -> v.get("timestamp"))
+                .containsExactlyInAnyOrder(hotStore.toLocalDateTime(capturedMs), hotStore.toLocalDateTime(capturedMs + 3));
+    }
+
+    @Test
+    @DisplayName("Should give rows without a class id the id of their label at startup")
+    void testBackfillClassIds() {
+        // Arrange
+        int person = classRegistry.register("person");
+        when(detectionEventRepository.findLabelsWithoutClassId()).thenReturn(List.of("Person", "pallet"));
+        when(detectionEventRepository.backfillClassId(any(), anyShort())).thenReturn(4);
+
+        // Act
+        analyticsService.backfillClassIds();
+
+        // Assert - known labels keep their id, new ones are registered
+        verify(detectionEventRepository).backfillClassId("Person", (short) person);
+        verify(detectionEventRepository).backfillClassId("pallet", (short) classRegistry.idOf("pallet"));
+    }
+
+    private DetectionEvent persisted(String label, Integer classId, double confidence, String bbox, long capturedMs) {
+        return DetectionEvent.builder()
+                .id(UUID.randomUUID())
+                .detectedClass(label)
+                .classId(classId != null ? classId.shortValue() : null)
+                .confidence(confidence)
+                .boundingBox(bbox)
+                .timestampMs(capturedMs)
+                .createdAt(LocalDateTime.now().plusSeconds(2))
+                .build();
+    }
+
+    private AnalyticsService newAnalyticsService(RecentDetectionStore store) {
+        return new AnalyticsService(detectionEventRepository, store, classRegistry,
+                dwellIntervalRepository, geofenceZoneRepository, dwellEngine);
+    }
 }
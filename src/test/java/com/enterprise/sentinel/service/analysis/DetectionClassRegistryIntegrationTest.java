@@ -0,0 +1,86 @@
+package com.enterprise.sentinel.service.analysis;
+
+import com.enterprise.sentinel.domain.model.DetectionClass;
+import com.enterprise.sentinel.domain.repository.DetectionClassRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Class id claims against Postgres, where a failed statement aborts the
+ * surrounding transaction.
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("DetectionClassRegistry Integration Tests")
+class DetectionClassRegistryIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("sentinel_test").withUsername("test").withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        public DetectionClassRegistry detectionClassRegistry(DetectionClassRepository repository) {
+            return new DetectionClassRegistry(repository);
+        }
+    }
+
+    @Autowired
+    private DetectionClassRegistry registry;
+
+    @Autowired
+    private DetectionClassRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should take over an id claimed by another instance without breaking the caller's transaction")
+    void testLostClaimInsideTransaction() {
+        // Arrange - another instance committed the next id first
+        int next = registry.size();
+        TransactionTemplate otherInstance = new TransactionTemplate(transactionManager);
+        otherInstance.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        otherInstance.executeWithoutResult(status -> jdbcTemplate.update(
+                "INSERT INTO detection_classes (id, label_key, label) VALUES (?, 'helmet', 'helmet')", next));
+
+        // Act - this test's transaction stands in for AlertEngine's
+        int vest = registry.register("vest");
+
+        // Assert - the transaction still runs queries and commits
+        assertThat(vest).isEqualTo(next + 1);
+        assertThat(registry.idOf("helmet")).isEqualTo(next);
+        assertThat(repository.findAll()).extracting(DetectionClass::getLabelKey).contains("helmet", "vest");
+        TestTransaction.flagForCommit();
+        assertThatNoException().isThrownBy(TestTransaction::end);
+    }
+}
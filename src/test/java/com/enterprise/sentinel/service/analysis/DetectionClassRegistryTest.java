@@ -0,0 +1,170 @@
+package com.enterprise.sentinel.service.analysis;
+
+import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.ndarray.types.DataType;
+import com.enterprise.sentinel.domain.model.DetectionClass;
+import com.enterprise.sentinel.domain.repository.DetectionClassRepository;
+import com.enterprise.sentinel.service.model.ModelDescriptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("DetectionClassRegistry Unit Tests")
+class DetectionClassRegistryTest {
+
+    private DetectionClassRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new DetectionClassRegistry();
+    }
+
+    @Test
+    @DisplayName("Should assign ids in model output order")
+    void testRegisterAllKeepsModelOrder() {
+        // Act
+        int[] ids = registry.registerAll(List.of("person", "bicycle", "car"));
+
+        // Assert
+        assertThat(ids).containsExactly(0, 1, 2);
+        assertThat(registry.nameOf(2)).isEqualTo("car");
+        assertThat(registry.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should resolve labels case-insensitively")
+    void testCaseInsensitiveLookup() {
+        // Arrange
+        registry.registerAll(List.of("person", "car"));
+
+        // Act & Assert
+        assertThat(registry.idOf("PERSON")).isEqualTo(0);
+        assertThat(registry.idOf(" Car ")).isEqualTo(1);
+        assertThat(registry.register("Person")).isEqualTo(0);
+        assertThat(registry.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should return UNKNOWN for labels never registered")
+    void testUnknownLabel() {
+        assertThat(registry.idOf("forklift")).isEqualTo(DetectionClassRegistry.UNKNOWN);
+        assertThat(registry.idOf(null)).isEqualTo(DetectionClassRegistry.UNKNOWN);
+        assertThatThrownBy(() -> registry.nameOf(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should append non-model labels and build trigger masks")
+    void testMaskOfRegistersNewLabels() {
+        // Arrange
+        registry.registerAll(List.of("person", "car"));
+
+        // Act
+        BitSet mask = registry.maskOf(List.of("car", "weapon"));
+
+        // Assert
+        assertThat(registry.idOf("weapon")).isEqualTo(2);
+        assertThat(mask.get(1)).isTrue();
+        assertThat(mask.get(2)).isTrue();
+        assertThat(mask.get(0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep persisted ids across restarts, whatever order labels come back in")
+    void testIdsSurviveRestart() {
+        // Arrange - first run: COCO seeded, then a PPE model and a zone label
+        List<DetectionClass> table = new ArrayList<>();
+        DetectionClassRegistry first = new DetectionClassRegistry(repository(table));
+        first.load();
+        int helmet = first.register("helmet");
+        int forklift = first.register("Forklift");
+
+        // Act - second run registers them the other way round
+        DetectionClassRegistry second = new DetectionClassRegistry(repository(table));
+        second.load();
+        int forkliftAfter = second.register("forklift");
+        int helmetAfter = second.register("helmet");
+
+        // Assert
+        assertThat(first.idOf("person")).isZero();
+        assertThat(helmet).isEqualTo(ModelDescriptor.COCO_CLASSES.size());
+        assertThat(forkliftAfter).isEqualTo(forklift);
+        assertThat(helmetAfter).isEqualTo(helmet);
+        assertThat(second.nameOf(forklift)).isEqualTo("Forklift");
+        assertThat(table).hasSize(ModelDescriptor.COCO_CLASSES.size() + 2);
+    }
+
+    @Test
+    @DisplayName("Should take over an id another instance claimed first")
+    void testConcurrentClaimAcrossInstances() {
+        // Arrange - two instances on one database
+        List<DetectionClass> table = new ArrayList<>();
+        DetectionClassRegistry a = new DetectionClassRegistry(repository(table));
+        DetectionClassRegistry b = new DetectionClassRegistry(repository(table));
+        a.load();
+        b.load();
+
+        // Act - both want the next id
+        int helmet = a.register("helmet");
+        int vest = b.register("vest");
+
+        // Assert - b learned a's label and took the following id
+        assertThat(vest).isEqualTo(helmet + 1);
+        assertThat(b.idOf("helmet")).isEqualTo(helmet);
+        assertThat(b.register("helmet")).isEqualTo(helmet);
+    }
+
+    @Test
+    @DisplayName("Should carry registry ids from the model decode")
+    void testTranslatorEmitsClassIds() {
+        // Arrange - a two-class model whose labels were registered after others
+        registry.registerAll(List.of("person", "car"));
+        List<String> labels = List.of("helmet", "car");
+        YoloV8Translator translator = new YoloV8Translator(labels, 0.5f, 0.45f, false, DataType.FLOAT32,
+                registry.registerAll(labels));
+        float[] output = new float[(4 + labels.size()) * 8400];
+        output[0] = 320;
+        output[8400] = 320;
+        output[2 * 8400] = 64;
+        output[3 * 8400] = 64;
+        output[5 * 8400] = 0.9f; // anchor 0, class 1 ("car")
+
+        // Act
+        DetectedObjects detections = translator.decode(output);
+
+        // Assert
+        assertThat(detections).isInstanceOf(IdentifiedObjects.class);
+        assertThat(detections.getNumberOfObjects()).isEqualTo(1);
+        assertThat(IdentifiedObjects.classIdOf(detections, 0)).isEqualTo(registry.idOf("car")).isEqualTo(1);
+    }
+
+    // ====== HELPER METHODS ======
+
+    /**
+     * Repository over an in-memory table, rejecting taken ids and labels like the table's constraints.
+     */
+    private static DetectionClassRepository repository(List<DetectionClass> table) {
+        DetectionClassRepository repository = mock(DetectionClassRepository.class);
+        when(repository.findAll()).thenAnswer(invocation -> new ArrayList<>(table));
+        doAnswer(invocation -> {
+            short id = invocation.getArgument(0);
+            String key = invocation.getArgument(1);
+            if (table.stream().anyMatch(row -> row.getId() == id || row.getLabelKey().equals(key))) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            table.add(new DetectionClass(id, key, invocation.getArgument(2)));
+            return null;
+        }).when(repository).insert(anyShort(), anyString(), anyString());
+        return repository;
+    }
+}
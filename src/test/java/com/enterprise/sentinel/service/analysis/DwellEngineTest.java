@@ -0,0 +1,186 @@
+package com.enterprise.sentinel.service.analysis;
+
+import com.enterprise.sentinel.domain.model.DwellInterval;
+import com.enterprise.sentinel.domain.model.GeofenceZone;
+import com.enterprise.sentinel.domain.repository.DwellIntervalRepository;
+import com.enterprise.sentinel.domain.repository.GeofenceZoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DisplayName("DwellEngine Unit Tests")
+class DwellEngineTest {
+
+    @Mock
+    private GeofenceZoneRepository geofenceZoneRepository;
+
+    @Mock
+    private DwellIntervalRepository dwellIntervalRepository;
+
+    private DetectionClassRegistry classRegistry;
+    private DwellEngine dwellEngine;
+    private GeofenceZone leftHalf;
+    private int person;
+    private UUID camera;
+    private long t0;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        classRegistry = new DetectionClassRegistry();
+        person = classRegistry.register("person");
+
+        leftHalf = new GeofenceZone("ZONE_LEFT", "Left half", "person", 0.5, "LOW");
+        ReflectionTestUtils.setField(leftHalf, "id", UUID.randomUUID());
+        leftHalf.setRegion(0.0, 0.0, 0.5, 1.0);
+        when(geofenceZoneRepository.findByEnabledTrueOrderByZoneName()).thenReturn(List.of(leftHalf));
+
+        dwellEngine = new DwellEngine(geofenceZoneRepository, dwellIntervalRepository, classRegistry,
+                10, 0.3, 7);
+        dwellEngine.refreshZones();
+        camera = UUID.randomUUID();
+        t0 = System.currentTimeMillis();
+    }
+
+    @Test
+    @DisplayName("Should start a new track when a box jumps instead of closing the stay")
+    void testJumpStartsNewTrack() {
+        // Arrange: object drifts inside the zone
+        dwellEngine.onDetection(camera, person, t0, 0.10, 0.4, 0.1, 0.2);
+        dwellEngine.onDetection(camera, person, t0 + 2000, 0.15, 0.4, 0.1, 0.2);
+        dwellEngine.onDetection(camera, person, t0 + 4000, 0.20, 0.4, 0.1, 0.2);
+
+        // Act: a box far outside the zone does not overlap the track
+        dwellEngine.onDetection(camera, person, t0 + 6000, 0.72, 0.4, 0.1, 0.2);
+        dwellEngine.flush();
+
+        // Assert: the first stay stays open until it times out
+        assertThat(dwellEngine.getOpenStayCount()).isEqualTo(1);
+        verify(dwellIntervalRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should close a stay with EXIT when the tracked box crosses the boundary")
+    void testTrackedExit() {
+        // Arrange: overlapping boxes keep one track; centre crosses x = 0.5 at the last step
+        for (int step = 0; step <= 6; step++) {
+            dwellEngine.onDetection(camera, person, t0 + step * 1000L, 0.30 + step * 0.03, 0.4, 0.1, 0.2);
+        }
+
+        // Act
+        dwellEngine.flush();
+
+        // Assert
+        List<DwellInterval> saved = captureSaved();
+        assertThat(saved).hasSize(1);
+        assertThat(saved.get(0).getExitReason()).isEqualTo(DwellInterval.EXIT);
+        assertThat(saved.get(0).getDurationMs()).isEqualTo(5000);
+        assertThat(saved.get(0).getZoneId()).isEqualTo(leftHalf.getId());
+        assertThat(saved.get(0).getVideoId()).isEqualTo(camera);
+        assertThat(dwellEngine.getOpenStayCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should close stays with TIMEOUT when a track is no longer seen")
+    void testTimeoutClosesStay() {
+        // Arrange
+        dwellEngine.onDetection(camera, person, t0, 0.10, 0.4, 0.1, 0.2);
+        dwellEngine.onDetection(camera, person, t0 + 1500, 0.11, 0.4, 0.1, 0.2);
+
+        // Act
+        int closedEarly = dwellEngine.sweep(t0 + 5000);
+        int closed = dwellEngine.sweep(t0 + 20_000);
+        dwellEngine.flush();
+
+        // Assert
+        assertThat(closedEarly).isZero();
+        assertThat(closed).isEqualTo(1);
+        List<DwellInterval> saved = captureSaved();
+        assertThat(saved.get(0).getExitReason()).isEqualTo(DwellInterval.TIMEOUT);
+        assertThat(saved.get(0).getDurationMs()).isEqualTo(1500);
+    }
+
+    @Test
+    @DisplayName("Should not query zones on the detection path")
+    void testDetectionsUseZoneSnapshot() {
+        // Act: detections well past the refresh interval
+        for (int step = 0; step < 5; step++) {
+            dwellEngine.onDetection(camera, person, t0 + step * 60_000L, 0.10, 0.4, 0.1, 0.2);
+        }
+
+        // Assert: only the explicit refresh in setUp hit the repository
+        verify(geofenceZoneRepository, times(1)).findByEnabledTrueOrderByZoneName();
+        assertThat(dwellEngine.getOpenStayCount()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should close and persist open stays on shutdown")
+    void testShutdownPersistsOpenStays() {
+        // Arrange
+        dwellEngine.onDetection(camera, person, t0, 0.10, 0.4, 0.1, 0.2);
+        dwellEngine.onDetection(camera, person, t0 + 3000, 0.11, 0.4, 0.1, 0.2);
+
+        // Act
+        dwellEngine.shutdown();
+
+        // Assert
+        List<DwellInterval> saved = captureSaved();
+        assertThat(saved).hasSize(1);
+        assertThat(saved.get(0).getExitReason()).isEqualTo(DwellInterval.SHUTDOWN);
+        assertThat(saved.get(0).getDurationMs()).isEqualTo(3000);
+        assertThat(dwellEngine.getOpenStayCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should ignore classes the zone does not track")
+    void testIgnoresUntrackedClass() {
+        int car = classRegistry.register("car");
+
+        dwellEngine.onDetection(camera, car, t0, 0.10, 0.4, 0.1, 0.2);
+
+        assertThat(dwellEngine.getOpenStayCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should report percentiles from the zone histogram")
+    void testStatsFromHistogram() {
+        // Arrange: 100 separate objects staying 0.1..10 seconds
+        for (int i = 1; i <= 100; i++) {
+            UUID cam = UUID.randomUUID();
+            dwellEngine.onDetection(cam, person, t0, 0.1, 0.1, 0.1, 0.1);
+            dwellEngine.onDetection(cam, person, t0 + i * 100L, 0.1, 0.1, 0.1, 0.1);
+        }
+        dwellEngine.sweep(t0 + 200_000);
+
+        // Act
+        DwellEngine.DwellStats stats = dwellEngine.getStats(leftHalf.getId()).orElseThrow();
+
+        // Assert
+        assertThat(stats.count()).isEqualTo(100);
+        assertThat(stats.minMs()).isEqualTo(100);
+        assertThat(stats.maxMs()).isEqualTo(10_000);
+        assertThat(stats.p50Ms()).isBetween(5_000L, (long) (5_000 * 1.125));
+        assertThat(stats.p99Ms()).isBetween(9_900L, 10_000L);
+        List<DwellEngine.HistogramBucket> buckets = dwellEngine.getHistogram(leftHalf.getId());
+        assertThat(buckets.stream().mapToLong(DwellEngine.HistogramBucket::count).sum()).isEqualTo(100);
+        assertThat(buckets).hasSizeLessThan(100);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<DwellInterval> captureSaved() {
+        ArgumentCaptor<List<DwellInterval>> captor = ArgumentCaptor.forClass(List.class);
+        verify(dwellIntervalRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+}
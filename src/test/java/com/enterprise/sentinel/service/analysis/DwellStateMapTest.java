@@ -0,0 +1,61 @@
+package com.enterprise.sentinel.service.analysis;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("DwellStateMap Unit Tests")
+class DwellStateMapTest {
+
+    @Test
+    @DisplayName("Should find every remaining key after interleaved inserts and removals")
+    void testRandomizedAgainstHashMap() {
+        // Arrange
+        DwellStateMap map = new DwellStateMap(16);
+        Map<Long, Long> reference = new HashMap<>();
+        Random random = new Random(42);
+
+        // Act
+        for (int step = 0; step < 20_000; step++) {
+            long key = 1 + random.nextInt(2_000);
+            int slot = map.indexOf(key);
+            if (slot >= 0) {
+                assertThat(reference).containsKey(key);
+                assertThat(map.enteredMs[slot]).isEqualTo(reference.get(key));
+                map.removeAt(slot);
+                reference.remove(key);
+            } else {
+                assertThat(reference).doesNotContainKey(key);
+                map.insert(key, step, (short) 1, null);
+                reference.put(key, (long) step);
+            }
+        }
+
+        // Assert
+        assertThat(map.size()).isEqualTo(reference.size());
+        reference.forEach((key, entered) -> {
+            int slot = map.indexOf(key);
+            assertThat(slot).isNotNegative();
+            assertThat(map.enteredMs[slot]).isEqualTo(entered);
+        });
+    }
+
+    @Test
+    @DisplayName("Should grow while keeping entries")
+    void testGrowth() {
+        DwellStateMap map = new DwellStateMap(16);
+        int initialCapacity = map.capacity();
+
+        for (long key = 1; key <= 1_000; key++) {
+            map.insert(key << 12, key, (short) 0, null);
+        }
+
+        assertThat(map.capacity()).isGreaterThan(initialCapacity);
+        assertThat(map.enteredMs[map.indexOf(500L << 12)]).isEqualTo(500);
+    }
+}
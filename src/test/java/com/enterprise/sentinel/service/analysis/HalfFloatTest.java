@@ -0,0 +1,57 @@
+package com.enterprise.sentinel.service.analysis;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("HalfFloat Tests")
+class HalfFloatTest {
+
+    @Test
+    @DisplayName("Should convert exactly representable values both ways")
+    void testExactValues() {
+        assertThat(HalfFloat.fromFloat(1f)).isEqualTo((short) 0x3C00);
+        assertThat(HalfFloat.fromFloat(-2f)).isEqualTo((short) 0xC000);
+        assertThat(HalfFloat.fromFloat(65504f)).isEqualTo((short) 0x7BFF);
+        assertThat(HalfFloat.toFloat((short) 0x3555)).isEqualTo(0.333251953125f);
+        assertThat(HalfFloat.toFloat((short) 0x0001)).isEqualTo(0x1p-24f);
+        for (float value : new float[] {0f, 0.5f, 0.25f, 640f, 1f / 255, 0x1p-20f}) {
+            assertThat(HalfFloat.toFloat(HalfFloat.fromFloat(value))).isCloseTo(value, withinPercentage(0.1));
+        }
+    }
+
+    @Test
+    @DisplayName("Should round to nearest even and saturate to infinity")
+    void testRoundingAndRange() {
+        // 1 + 2^-11 is halfway between 1 and the next half: ties to the even mantissa (1)
+        assertThat(HalfFloat.fromFloat(1f + 0x1p-11f)).isEqualTo((short) 0x3C00);
+        assertThat(HalfFloat.fromFloat(1f + 0x1p-11f + 0x1p-20f)).isEqualTo((short) 0x3C01);
+        assertThat(HalfFloat.toFloat(HalfFloat.fromFloat(1e6f))).isEqualTo(Float.POSITIVE_INFINITY);
+        assertThat(HalfFloat.toFloat(HalfFloat.fromFloat(Float.NaN))).isNaN();
+        assertThat(HalfFloat.fromFloat(1e-9f)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should round-trip a pixel buffer within half precision")
+    void testBufferRoundTrip() {
+        // Arrange - every 8-bit pixel value, normalized as in preprocessing
+        float[] pixels = new float[256];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = i / 255f;
+        }
+
+        // Act
+        ByteBuffer halves = HalfFloat.encode(FloatBuffer.wrap(pixels), ByteBuffer.allocateDirect(pixels.length * 2));
+        float[] restored = HalfFloat.decode(halves);
+
+        // Assert
+        assertThat(restored).hasSize(256);
+        for (int i = 0; i < pixels.length; i++) {
+            assertThat(restored[i]).isCloseTo(pixels[i], within(0.0005f));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.enterprise.sentinel.service.analysis;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("RecentDetectionStore Unit Tests")
+class RecentDetectionStoreTest {
+
+    private DetectionClassRegistry classRegistry;
+    private RecentDetectionStore store;
+    private int person;
+    private int car;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        classRegistry = new DetectionClassRegistry();
+        store = new RecentDetectionStore(4, 60, classRegistry);
+        person = classRegistry.register("person");
+        car = classRegistry.register("car");
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    @DisplayName("Should return only records inside the scanned range")
+    void testRangeScan() {
+        UUID camera = UUID.randomUUID();
+        for (int i = 0; i < 4; i++) {
+            store.record(camera, now + i * 1000L, person, 0.9, RecentDetectionStore.NO_BBOX);
+        }
+
+        List<Long> seen = new ArrayList<>();
+        store.scan(toLocal(now + 1000), toLocal(now + 2000), (ts, classId, confidence, bbox) -> seen.add(ts));
+
+        assertThat(seen).containsExactly(now + 1000, now + 2000);
+    }
+
+    @Test
+    @DisplayName("Should evict oldest records and stop covering the evicted window")
+    void testCapacityEviction() {
+        UUID camera = UUID.randomUUID();
+        for (int i = 0; i < 6; i++) {
+            store.record(camera, now + i * 1000L, car, 0.8, RecentDetectionStore.NO_BBOX);
+        }
+
+        List<Long> seen = new ArrayList<>();
+        store.scan(toLocal(now), toLocal(now + 10_000), (ts, classId, confidence, bbox) -> seen.add(ts));
+
+        assertThat(seen).containsExactly(now + 2000, now + 3000, now + 4000, now + 5000);
+        assertThat(store.covers(toLocal(now + 1000), toLocal(now + 5000))).isFalse();
+        assertThat(store.covers(toLocal(now + 2000), toLocal(now + 5000))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not cover windows older than startup")
+    void testCoverageBeforeStartup() {
+        assertThat(store.covers(toLocal(now - 3_600_000), toLocal(now))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep the time index sorted when a record arrives late")
+    void testLateRecordClamped() {
+        UUID camera = UUID.randomUUID();
+        store.record(camera, now + 5000, person, 0.9, RecentDetectionStore.NO_BBOX);
+        store.record(camera, now + 1000, person, 0.7, RecentDetectionStore.NO_BBOX);
+
+        List<Long> seen = new ArrayList<>();
+        store.scan(toLocal(now + 5000), toLocal(now + 5000), (ts, classId, confidence, bbox) -> seen.add(ts));
+
+        assertThat(seen).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should pass registry class ids through to the scan visitor")
+    void testClassIdsPassedThrough() {
+        store.record(null, now, person, 0.9, RecentDetectionStore.NO_BBOX);
+        store.record(null, now, car, 0.9, RecentDetectionStore.NO_BBOX);
+
+        List<String> seen = new ArrayList<>();
+        store.scan(toLocal(now), toLocal(now), (ts, classId, confidence, bbox) ->
+                seen.add(classRegistry.nameOf(classId)));
+
+        assertThat(seen).containsExactly("person", "car");
+    }
+
+    @Test
+    @DisplayName("Should reject class ids that do not fit the smallint column")
+    void testRejectsOutOfRangeClassId() {
+        assertThatThrownBy(() -> store.record(null, now, Short.MAX_VALUE + 1, 0.9, RecentDetectionStore.NO_BBOX))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should round-trip packed bounding boxes within 16-bit precision")
+    void testBoundingBoxPacking() {
+        long packed = RecentDetectionStore.packBoundingBox(0.1, 0.25, 0.5, 0.75);
+        double[] box = RecentDetectionStore.unpackBoundingBox(packed);
+
+        assertThat(box[0]).isCloseTo(0.1, within(1e-4));
+        assertThat(box[1]).isCloseTo(0.25, within(1e-4));
+        assertThat(box[2]).isCloseTo(0.5, within(1e-4));
+        assertThat(box[3]).isCloseTo(0.75, within(1e-4));
+        assertThat(packed).isNotEqualTo(RecentDetectionStore.NO_BBOX);
+        assertThat(RecentDetectionStore.packBoundingBox(1, 1, 1, 1)).isNotEqualTo(RecentDetectionStore.NO_BBOX);
+        assertThat(RecentDetectionStore.unpackBoundingBox(RecentDetectionStore.packBoundingBox(1, 1, 1, 1)))
+                .containsExactly(1.0, 1.0, 1.0, 1.0);
+    }
+
+    private LocalDateTime toLocal(long epochMs) {
+        return LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli(epochMs), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,152 @@
+package com.enterprise.sentinel.service.analysis;
+
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import ai.djl.modality.cv.output.BoundingBox;
+import ai.djl.modality.cv.output.DetectedObjects;
+import com.enterprise.sentinel.domain.model.GeofenceZone;
+import com.enterprise.sentinel.domain.repository.GeofenceZoneRepository;
+import com.enterprise.sentinel.service.model.ModelDescriptor;
+import com.enterprise.sentinel.service.model.ModelLease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DisplayName("RoiDetector Tests")
+class RoiDetectorTest {
+
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+
+    private ObjectDetectionService detectionService;
+    private GeofenceZoneRepository zoneRepository;
+    private final List<GeofenceZone> zones = new ArrayList<>();
+    private final UUID doorCamera = UUID.randomUUID();
+    private final UUID otherCamera = UUID.randomUUID();
+    private final ModelLease lease = new ModelLease(new ModelDescriptor("yolov8n", "test", Path.of("yolov8n.onnx"),
+            ModelDescriptor.COCO_CLASSES, 0.5f, 0.45f, false, ModelDescriptor.Precision.FP32), null, () -> { });
+
+    @BeforeEach
+    void setUp() {
+        detectionService = mock(ObjectDetectionService.class);
+        zoneRepository = mock(GeofenceZoneRepository.class);
+        when(zoneRepository.findByEnabledTrueOrderByZoneName()).thenReturn(zones);
+    }
+
+    @Test
+    @DisplayName("Should crop a camera's frame to its zone region plus margin")
+    void testCropToCameraZone() {
+        // Arrange - a doorway on the right of the door camera
+        zones.add(zone(doorCamera, 0.6, 0.2, 0.2, 0.6));
+
+        // Act
+        List<Rectangle> crops = detector(1).cropsFor(doorCamera, image());
+
+        // Assert - 0.58..0.82 x 0.14..0.86 of the frame
+        assertThat(crops).containsExactly(new Rectangle(1113, 151, 462, 778));
+        assertThat(detector(1).cropsFor(otherCamera, image())).isEmpty();
+        assertThat(detector(1).cropsFor(null, image())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should process the whole frame when a zone of the camera has no region")
+    void testWholeFrameZone() {
+        // Arrange
+        zones.add(zone(doorCamera, 0.6, 0.2, 0.2, 0.6));
+        zones.add(zone(null, null, null, null, null));
+
+        // Act & Assert
+        assertThat(detector(1).cropsFor(doorCamera, image())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should crop distant regions separately only when allowed and their union is mostly empty")
+    void testPlan() {
+        // Arrange - two small regions in opposite corners
+        List<Rectangle2D.Double> corners = List.of(new Rectangle2D.Double(0, 0, 0.1, 0.1),
+                new Rectangle2D.Double(0.8, 0.8, 0.2, 0.2));
+
+        // Act
+        List<Rectangle> union = RoiDetector.plan(corners, WIDTH, HEIGHT, 1, 0.8);
+        List<Rectangle> near = RoiDetector.plan(List.of(new Rectangle2D.Double(0.1, 0.1, 0.2, 0.2),
+                new Rectangle2D.Double(0.2, 0.2, 0.2, 0.2)), WIDTH, HEIGHT, 2, 0.8);
+        List<Rectangle> separate = RoiDetector.plan(corners, WIDTH, HEIGHT, 2, 0.8);
+        List<Rectangle> covering = RoiDetector.plan(List.of(new Rectangle2D.Double(0, 0, 0.95, 0.95)),
+                WIDTH, HEIGHT, 1, 0.8);
+
+        // Assert - one crop around both would be the whole frame
+        assertThat(union).isEmpty();
+        assertThat(separate).containsExactly(new Rectangle(0, 0, 192, 108), new Rectangle(1536, 864, 384, 216));
+        assertThat(near).containsExactly(new Rectangle(192, 108, 576, 324));
+        assertThat(covering).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should map boxes found in a crop back to full-frame coordinates")
+    void testDetectMapsBack() throws Exception {
+        // Arrange - the model sees a person in the middle of the crop
+        when(detectionService.detectBatch(any(), anyList(), anyInt())).thenAnswer(invocation -> {
+            List<Image> inputs = invocation.getArgument(1);
+            assertThat(inputs.get(0).getWidth()).isEqualTo(960);
+            List<BoundingBox> boxes = List.of(new ai.djl.modality.cv.output.Rectangle(0.25, 0.25, 0.5, 0.5));
+            return List.of(new DetectedObjects(List.of("person"), List.of(0.9), boxes));
+        });
+        RoiDetector detector = detector(1);
+
+        // Act - crop: right half of the frame
+        DetectedObjects detections = detector.detect(lease, image(), List.of(new Rectangle(960, 0, 960, 1080)), null);
+
+        // Assert
+        ai.djl.modality.cv.output.Rectangle box = detections.<DetectedObjects.DetectedObject>item(0)
+                .getBoundingBox().getBounds();
+        assertThat(box.getX()).isCloseTo(0.625, within(1e-9));
+        assertThat(box.getY()).isCloseTo(0.25, within(1e-9));
+        assertThat(box.getWidth()).isCloseTo(0.25, within(1e-9));
+        assertThat(box.getHeight()).isCloseTo(0.5, within(1e-9));
+        assertThat(detector.getCroppedFrameCount()).isEqualTo(1);
+        assertThat(detector.getCropPassCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should never crop when disabled")
+    void testDisabled() {
+        zones.add(zone(doorCamera, 0.6, 0.2, 0.2, 0.6));
+        RoiDetector disabled = new RoiDetector(detectionService, zoneRepository, false, 0.1, 1, 0.8, 1, 30);
+
+        assertThat(disabled.cropsFor(doorCamera, image())).isEmpty();
+        verifyNoInteractions(zoneRepository);
+    }
+
+    // ====== HELPER METHODS ======
+
+    private RoiDetector detector(int maxCrops) {
+        return new RoiDetector(detectionService, zoneRepository, true, 0.1, maxCrops, 0.8, 1, 30);
+    }
+
+    private static Image image() {
+        return ImageFactory.getInstance().fromImage(new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB));
+    }
+
+    private static GeofenceZone zone(UUID cameraId, Double x, Double y, Double width, Double height) {
+        GeofenceZone zone = new GeofenceZone("ZONE_" + UUID.randomUUID(), "Zone", "person", 0.5, "HIGH");
+        zone.setCameraId(cameraId);
+        if (x != null) {
+            zone.setRegion(x, y, width, height);
+        }
+        return zone;
+    }
+}
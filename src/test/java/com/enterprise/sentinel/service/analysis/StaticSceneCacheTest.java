@@ -0,0 +1,196 @@
+package com.enterprise.sentinel.service.analysis;
+
+import com.enterprise.sentinel.service.analysis.StaticSceneCache.Decision;
+import com.enterprise.sentinel.service.analysis.StaticSceneCache.Observation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("StaticSceneCache Tests")
+class StaticSceneCacheTest {
+
+    private final DetectionClassRegistry classRegistry = new DetectionClassRegistry();
+    private final UUID cameraId = UUID.randomUUID();
+    private int car;
+    private int person;
+
+    @BeforeEach
+    void setUp() {
+        car = classRegistry.register("car");
+        person = classRegistry.register("person");
+    }
+
+    @Test
+    @DisplayName("Should suppress a parked car once it stayed put, with a periodic heartbeat")
+    void testParkedCarSuppressed() {
+        // Arrange - 5 s to become static, a heartbeat every 60 s
+        StaticSceneCache cache = cache(true);
+        List<Decision> decisions = new ArrayList<>();
+
+        // Act - two frames per second for 130 s, the box jittering slightly
+        for (long ms = 0; ms <= 130_000; ms += 500) {
+            double jitter = (ms / 500 % 2) * 0.002;
+            decisions.add(single(cache, ms, new Observation(car, 0.40 + jitter, 0.50, 0.10, 0.08)));
+        }
+
+        // Assert - persisted for the first 5 s, then as heartbeat at 65 s and 125 s
+        assertThat(decisions.subList(0, 10)).containsOnly(Decision.NEW);
+        assertThat(decisions.stream().filter(decision -> decision == Decision.HEARTBEAT)).hasSize(2);
+        assertThat(decisions.stream().filter(decision -> decision != Decision.STATIC)).hasSize(12);
+        assertThat(cache.getSuppressedCount()).isEqualTo(decisions.size() - 12);
+        assertThat(cache.getStaticObjects()).singleElement().satisfies(object -> {
+            assertThat(object.cameraId()).isEqualTo(cameraId);
+            assertThat(object.className()).isEqualTo("car");
+            assertThat(object.firstSeenMs()).isZero();
+            assertThat(object.lastSeenMs()).isEqualTo(130_000);
+        });
+    }
+
+    @Test
+    @DisplayName("Should let a moving object and a new object next to a static one through")
+    void testMovingAndNewObjectsFlow() {
+        // Arrange - a parked car
+        StaticSceneCache cache = cache(true);
+        Observation parked = new Observation(car, 0.10, 0.10, 0.10, 0.08);
+        for (long ms = 0; ms <= 6_000; ms += 500) {
+            single(cache, ms, parked);
+        }
+
+        // Act - the parked car, a car driving past, and the parked car pulling out
+        List<Decision> passing = new ArrayList<>();
+        for (long ms = 6_500; ms <= 12_000; ms += 500) {
+            double x = 0.30 + (ms - 6_500) / 500 * 0.03;
+            passing.addAll(cache.observe(cameraId, ms, List.of(parked, new Observation(car, x, 0.50, 0.10, 0.08))));
+        }
+        Decision pullingOut = single(cache, 12_500, new Observation(car, 0.14, 0.10, 0.10, 0.08));
+
+        // Assert
+        for (int i = 0; i < passing.size(); i += 2) {
+            assertThat(passing.get(i)).isEqualTo(Decision.STATIC);
+            assertThat(passing.get(i + 1)).isEqualTo(Decision.NEW);
+        }
+        assertThat(pullingOut).isEqualTo(Decision.NEW);
+    }
+
+    @Test
+    @DisplayName("Should never treat exempt classes or detections without a box as static")
+    void testExemptAndUnboxed() {
+        // Arrange
+        StaticSceneCache cache = cache(true);
+        List<Decision> decisions = new ArrayList<>();
+
+        // Act - a person standing still for 30 s
+        for (long ms = 0; ms <= 30_000; ms += 500) {
+            decisions.addAll(cache.observe(cameraId, ms,
+                    Arrays.asList(new Observation(person, 0.5, 0.5, 0.05, 0.2), null)));
+        }
+
+        // Assert
+        assertThat(decisions).containsOnly(Decision.NEW);
+        assertThat(cache.getStaticObjects()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should forget objects not seen for the expiry, per camera")
+    void testExpiryAndCameraIsolation() {
+        // Arrange - static on one camera
+        StaticSceneCache cache = cache(true);
+        Observation box = new Observation(car, 0.2, 0.2, 0.1, 0.1);
+        for (long ms = 0; ms <= 6_000; ms += 500) {
+            single(cache, ms, box);
+        }
+
+        // Act
+        Decision otherCamera = cache.observe(UUID.randomUUID(), 6_500, List.of(box)).get(0);
+        Decision afterGap = single(cache, 6_000 + 11_000, box);
+
+        // Assert
+        assertThat(otherCamera).isEqualTo(Decision.NEW);
+        assertThat(afterGap).isEqualTo(Decision.NEW);
+    }
+
+    @Test
+    @DisplayName("Should pass everything through when disabled")
+    void testDisabled() {
+        // Arrange
+        StaticSceneCache cache = cache(false);
+        Observation box = new Observation(car, 0.2, 0.2, 0.1, 0.1);
+
+        // Act
+        List<Decision> decisions = new ArrayList<>();
+        for (long ms = 0; ms <= 20_000; ms += 500) {
+            decisions.add(single(cache, ms, box));
+        }
+
+        // Assert
+        assertThat(decisions).containsOnly(Decision.NEW);
+        assertThat(cache.getStaticObjectCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should drop tracks of moving objects so a car parking later is still recognized")
+    void testMovingTracksEvicted() {
+        // Arrange - room for only a handful of tracks
+        StaticSceneCache cache = new StaticSceneCache(classRegistry, true, 0.85, 5, 10, 60, 3, 8, List.of("person"));
+
+        // Act - traffic: a car at a new position every frame for 30 s, then one parks
+        for (long ms = 0; ms < 30_000; ms += 500) {
+            single(cache, ms, new Observation(car, (ms / 500 % 50) * 0.018, 0.80, 0.05, 0.05));
+        }
+        Observation parked = new Observation(car, 0.40, 0.20, 0.10, 0.08);
+        List<Decision> decisions = new ArrayList<>();
+        for (long ms = 30_000; ms <= 40_000; ms += 500) {
+            decisions.add(single(cache, ms, parked));
+        }
+
+        // Assert
+        assertThat(cache.getUntrackedCount()).isZero();
+        assertThat(decisions).endsWith(Decision.STATIC);
+        assertThat(cache.getStaticObjectCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should count boxes left untracked once a camera hits its object limit")
+    void testObjectLimitCounted() {
+        // Arrange - two tracks per camera
+        StaticSceneCache cache = new StaticSceneCache(classRegistry, true, 0.85, 5, 10, 60, 5, 2, List.of("person"));
+        List<Observation> boxes = List.of(new Observation(car, 0.1, 0.1, 0.1, 0.1),
+                new Observation(car, 0.4, 0.4, 0.1, 0.1), new Observation(car, 0.7, 0.7, 0.1, 0.1));
+
+        // Act
+        List<Decision> decisions = cache.observe(cameraId, 0, boxes);
+
+        // Assert
+        assertThat(decisions).containsOnly(Decision.NEW);
+        assertThat(cache.getUntrackedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not register exempt classes until the first frame")
+    void testExemptClassesResolvedLazily() {
+        // Act
+        StaticSceneCache cache = new StaticSceneCache(classRegistry, true, 0.85, 5, 10, 60, 5, 1024, List.of("forklift"));
+
+        // Assert
+        assertThat(classRegistry.idOf("forklift")).isEqualTo(DetectionClassRegistry.UNKNOWN);
+        single(cache, 0, new Observation(car, 0.1, 0.1, 0.1, 0.1));
+        assertThat(classRegistry.idOf("forklift")).isNotEqualTo(DetectionClassRegistry.UNKNOWN);
+    }
+
+    // ====== HELPER METHODS ======
+
+    private StaticSceneCache cache(boolean enabled) {
+        return new StaticSceneCache(classRegistry, enabled, 0.85, 5, 10, 60, 5, 1024, List.of("person"));
+    }
+
+    private Decision single(StaticSceneCache cache, long timestampMs, Observation observation) {
+        return cache.observe(cameraId, timestampMs, List.of(observation)).get(0);
+    }
+}
@@ -0,0 +1,221 @@
+package com.enterprise.sentinel.service.analysis;
+
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import ai.djl.modality.cv.output.BoundingBox;
+import ai.djl.modality.cv.output.DetectedObjects;
+import com.enterprise.sentinel.service.model.ModelDescriptor;
+import com.enterprise.sentinel.service.model.ModelLease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DisplayName("TiledDetector Tests")
+class TiledDetectorTest {
+
+    private static final int WIDTH = 3840;
+    private static final int HEIGHT = 2160;
+
+    private ObjectDetectionService detectionService;
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final UUID cameraId = UUID.randomUUID();
+    private final ModelLease lease = new ModelLease(new ModelDescriptor("yolov8n", "test", Path.of("yolov8n.onnx"),
+            ModelDescriptor.COCO_CLASSES, 0.5f, 0.45f, false, ModelDescriptor.Precision.FP32), null, () -> { });
+
+    @BeforeEach
+    void setUp() throws Exception {
+        detectionService = mock(ObjectDetectionService.class);
+        // Every pass sees one small "person" in the middle of its input
+        when(detectionService.detectBatch(any(), anyList(), anyInt())).thenAnswer(invocation -> {
+            List<Image> images = invocation.getArgument(1);
+            batchSizes.add(images.size());
+            List<DetectedObjects> results = new ArrayList<>();
+            for (int i = 0; i < images.size(); i++) {
+                results.add(person(0.45, 0.45, 0.1, 0.1, 0.9));
+            }
+            return results;
+        });
+    }
+
+    @Test
+    @DisplayName("Should cover a 4K frame with overlapping tiles inside the frame")
+    void testGridCoversFrame() {
+        // Act
+        List<Rectangle> tiles = TilePlanner.grid(WIDTH, HEIGHT, 640, 64);
+
+        // Assert - 7 columns x 4 rows, each pair of neighbours shares at least the overlap
+        assertThat(tiles).hasSize(28);
+        assertThat(tiles).allSatisfy(tile -> {
+            assertThat(tile.width).isEqualTo(640);
+            assertThat(new Rectangle(0, 0, WIDTH, HEIGHT).contains(tile)).isTrue();
+        });
+        assertThat(tiles.get(0).x).isZero();
+        assertThat(tiles.get(6).x + 640).isEqualTo(WIDTH);
+        assertThat(tiles.get(0).x + 640 - tiles.get(1).x).isGreaterThanOrEqualTo(64);
+        assertThat(tiles.get(27).y + 640).isEqualTo(HEIGHT);
+    }
+
+    @Test
+    @DisplayName("Should select tiles by covered area, up to the cap")
+    void testSelectOrdersAndCaps() {
+        // Arrange - a large region in the middle, a small one in the top-left corner
+        List<Rectangle> regions = List.of(new Rectangle(1800, 1000, 300, 300), new Rectangle(10, 10, 20, 20));
+
+        // Act
+        List<Rectangle> all = TilePlanner.select(WIDTH, HEIGHT, 640, 64, regions, 10);
+        List<Rectangle> capped = TilePlanner.select(WIDTH, HEIGHT, 640, 64, regions, 1);
+
+        // Assert
+        assertThat(all.get(all.size() - 1)).isEqualTo(new Rectangle(0, 0, 640, 640));
+        assertThat(capped).hasSize(1);
+        assertThat(capped.get(0).intersects(regions.get(0))).isTrue();
+        assertThat(TilePlanner.select(WIDTH, HEIGHT, 640, 64, List.of(), 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should only report grid cells where the frame changed")
+    void testMotionGrid() {
+        // Arrange
+        MotionGrid grid = new MotionGrid(12);
+        BufferedImage before = frameWithBox(400, 400);
+        BufferedImage after = frameWithBox(2400, 1400);
+
+        // Act
+        List<Rectangle> first = grid.update(before);
+        List<Rectangle> still = grid.update(frameWithBox(400, 400));
+        List<Rectangle> moved = grid.update(after);
+
+        // Assert - motion where the box left and where it arrived, nowhere else
+        assertThat(first).isEmpty();
+        assertThat(still).isEmpty();
+        assertThat(moved).isNotEmpty();
+        assertThat(moved).allMatch(cell -> cell.intersects(new Rectangle(400, 400, 200, 200))
+                || cell.intersects(new Rectangle(2400, 1400, 200, 200)));
+    }
+
+    @Test
+    @DisplayName("Should run the full frame first, then only tiles around the previous detection")
+    void testTilesFollowDetections() throws Exception {
+        // Arrange
+        TiledDetector detector = detector(5);
+        Image frame = image(frameWithBox(400, 400));
+
+        // Act
+        DetectedObjects first = detector.detect(cameraId, lease, frame, null);
+        DetectedObjects second = detector.detect(cameraId, lease, image(frameWithBox(400, 400)), null);
+
+        // Assert - first: full frame only (nothing known yet); second: tiles around the frame centre
+        assertThat(batchSizes.get(0)).isEqualTo(1);
+        assertThat(detector.getFullFramePassCount()).isEqualTo(1);
+        assertThat(first.getNumberOfObjects()).isEqualTo(1);
+        assertThat(detector.getTilePassCount()).isPositive();
+        assertThat(second.getNumberOfObjects()).isPositive();
+        verify(detectionService, times(2)).detectBatch(eq(lease), anyList(), eq(1));
+    }
+
+    @Test
+    @DisplayName("Should skip inference on a static frame with nothing to track")
+    void testStaticSceneSkipped() throws Exception {
+        // Arrange - the model finds nothing
+        when(detectionService.detectBatch(any(), anyList(), anyInt()))
+                .thenAnswer(invocation -> List.of(new DetectedObjects(List.of(), List.of(), List.of())));
+        TiledDetector detector = detector(5);
+
+        // Act
+        detector.detect(cameraId, lease, image(frameWithBox(400, 400)), null);
+        DetectedObjects second = detector.detect(cameraId, lease, image(frameWithBox(400, 400)), null);
+
+        // Assert
+        assertThat(second.getNumberOfObjects()).isZero();
+        assertThat(detector.getSkippedFrameCount()).isEqualTo(1);
+        verify(detectionService, times(1)).detectBatch(any(), anyList(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should merge duplicates and tile-edge fragments per class")
+    void testMergeAcrossPasses() {
+        // Arrange - same person from the full frame and a tile, a fragment cut by a tile edge, a car
+        List<TiledDetector.Candidate> candidates = List.of(
+                new TiledDetector.Candidate("person", 0.9, 0.50, 0.50, 0.05, 0.10),
+                new TiledDetector.Candidate("person", 0.7, 0.505, 0.50, 0.05, 0.10),
+                new TiledDetector.Candidate("person", 0.8, 0.50, 0.50, 0.02, 0.10),
+                new TiledDetector.Candidate("car", 0.6, 0.50, 0.50, 0.05, 0.10));
+
+        // Act
+        List<TiledDetector.Candidate> kept = TiledDetector.merge(candidates);
+
+        // Assert
+        assertThat(kept).extracting(TiledDetector.Candidate::className).containsExactly("person", "car");
+        assertThat(kept.get(0).probability()).isEqualTo(0.9);
+    }
+
+    @Test
+    @DisplayName("Should keep decoded class ids through the merge")
+    void testMergeKeepsClassIds() {
+        // Arrange - two passes over the same frame, with ids from the decode
+        List<TiledDetector.Candidate> candidates = new ArrayList<>();
+        IdentifiedObjects pass = new IdentifiedObjects(List.of("person", "car"), new int[] {0, 2}, List.of(0.9, 0.8),
+                List.of(new ai.djl.modality.cv.output.Rectangle(0.1, 0.1, 0.1, 0.2),
+                        new ai.djl.modality.cv.output.Rectangle(0.5, 0.5, 0.2, 0.1)));
+        TiledDetector.collect(pass, new Rectangle(0, 0, WIDTH, HEIGHT), WIDTH, HEIGHT, candidates);
+        TiledDetector.collect(pass, new Rectangle(0, 0, WIDTH, HEIGHT), WIDTH, HEIGHT, candidates);
+
+        // Act
+        DetectedObjects merged = TiledDetector.toDetectedObjects(TiledDetector.merge(candidates));
+
+        // Assert
+        assertThat(merged.getNumberOfObjects()).isEqualTo(2);
+        assertThat(IdentifiedObjects.classIdOf(merged, 0)).isZero();
+        assertThat(IdentifiedObjects.classIdOf(merged, 1)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should only tile frames larger than the model input when enabled")
+    void testAppliesTo() {
+        assertThat(detector(5).appliesTo(image(new BufferedImage(640, 640, BufferedImage.TYPE_INT_RGB)))).isFalse();
+        assertThat(detector(5).appliesTo(image(new BufferedImage(1920, 1080, BufferedImage.TYPE_INT_RGB)))).isTrue();
+        TiledDetector disabled = new TiledDetector(detectionService, false, 64, 5, 6, 1, 12);
+        assertThat(disabled.appliesTo(image(new BufferedImage(1920, 1080, BufferedImage.TYPE_INT_RGB)))).isFalse();
+    }
+
+    // ====== HELPER METHODS ======
+
+    private TiledDetector detector(int fullFrameEvery) {
+        return new TiledDetector(detectionService, true, 64, fullFrameEvery, 6, 1, 12);
+    }
+
+    private static Image image(BufferedImage frame) {
+        return ImageFactory.getInstance().fromImage(frame);
+    }
+
+    private static BufferedImage frameWithBox(int x, int y) {
+        BufferedImage frame = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = frame.createGraphics();
+        graphics.setColor(Color.DARK_GRAY);
+        graphics.fillRect(0, 0, WIDTH, HEIGHT);
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(x, y, 200, 200);
+        graphics.dispose();
+        return frame;
+    }
+
+    private static DetectedObjects person(double x, double y, double width, double height, double probability) {
+        List<BoundingBox> boxes = List.of(new ai.djl.modality.cv.output.Rectangle(x, y, width, height));
+        return new DetectedObjects(List.of("person"), List.of(probability), boxes);
+    }
+}
@@ -0,0 +1,151 @@
+package com.enterprise.sentinel.service.analysis;
+
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.output.BoundingBox;
+import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.modality.cv.output.Rectangle;
+import com.enterprise.sentinel.config.ExecutionModel;
+import com.enterprise.sentinel.domain.model.DetectionEvent;
+import com.enterprise.sentinel.domain.repository.DetectionEventRepository;
+import com.enterprise.sentinel.domain.repository.DwellIntervalRepository;
+import com.enterprise.sentinel.domain.repository.GeofenceZoneRepository;
+import com.enterprise.sentinel.domain.repository.VideoRepository;
+import com.enterprise.sentinel.service.metrics.LatencyTracker;
+import com.enterprise.sentinel.service.metrics.SentinelMetrics;
+import com.enterprise.sentinel.service.model.ModelDescriptor;
+import com.enterprise.sentinel.service.model.ModelLease;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Drives live frames through the real pipeline stages, with the model and
+ * the database mocked.
+ */
+@DisplayName("VideoProcessor Pipeline Tests")
+class VideoProcessorPipelineTest {
+
+    private static final ModelDescriptor MODEL = new ModelDescriptor("yolov8n", "test", Path.of("yolov8n.onnx"),
+            ModelDescriptor.COCO_CLASSES, ModelDescriptor.DEFAULT_CONFIDENCE, ModelDescriptor.DEFAULT_NMS_IOU, true,
+            ModelDescriptor.Precision.FP32);
+
+    @Mock
+    private ObjectDetectionService detectionService;
+
+    @Mock
+    private TiledDetector tiledDetector;
+
+    @Mock
+    private RoiDetector roiDetector;
+
+    @Mock
+    private AlertEngine alertEngine;
+
+    @Mock
+    private DetectionEventRepository detectionEventRepository;
+
+    @Mock
+    private VideoRepository videoRepository;
+
+    @Mock
+    private DwellEngine dwellEngine;
+
+    @Mock
+    private DwellIntervalRepository dwellIntervalRepository;
+
+    @Mock
+    private GeofenceZoneRepository geofenceZoneRepository;
+
+    @Mock
+    private LatencyTracker latencyTracker;
+
+    @Mock
+    private SentinelMetrics metrics;
+
+    private final DetectionClassRegistry classRegistry = new DetectionClassRegistry();
+    private final List<DetectionEvent> persisted = Collections.synchronizedList(new ArrayList<>());
+    private RecentDetectionStore recentDetectionStore;
+    private VideoProcessor videoProcessor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(detectionService.acquire(any())).thenReturn(new ModelLease(MODEL, null, () -> { }));
+        when(detectionEventRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<DetectionEvent> events = invocation.getArgument(0);
+            persisted.addAll(events);
+            return events;
+        });
+        recentDetectionStore = new RecentDetectionStore(1024, 60, classRegistry);
+        // Static after 5 s, a heartbeat every 10 s
+        StaticSceneCache staticSceneCache = new StaticSceneCache(classRegistry, true, 0.85, 5, 30, 10, 5, 1024, List.of("person"));
+        videoProcessor = new VideoProcessor(detectionService, tiledDetector, roiDetector, staticSceneCache,
+                mock(FrameRateLimiter.class), alertEngine, detectionEventRepository, recentDetectionStore,
+                classRegistry, dwellEngine, videoRepository, latencyTracker, metrics,
+                ExecutionModel.platform(2), new MockEnvironment());
+    }
+
+    @AfterEach
+    void tearDown() {
+        videoProcessor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should count a parked car the same from the hot store and from the database")
+    void testStaticObjectFrequencyMatchesDatabase() {
+        // Arrange - a parked car and a person walking past, two frames per second for 30 s
+        UUID cameraId = UUID.randomUUID();
+        LocalDateTime start = LocalDateTime.now();
+        long firstFrameMs = System.currentTimeMillis() + 1000;
+        int frames = 60;
+
+        // Act
+        for (int i = 0; i < frames; i++) {
+            double personX = 0.05 + i * 0.01;
+            when(detectionService.detect(any(ModelLease.class), any(Image.class), any())).thenReturn(new DetectedObjects(
+                    List.of("car", "person"), List.of(0.9, 0.8),
+                    List.<BoundingBox>of(new Rectangle(0.40, 0.50, 0.10, 0.08), new Rectangle(personX, 0.20, 0.05, 0.20))));
+            assertThat(videoProcessor.submitFrame(cameraId, frame(), firstFrameMs + i * 500L)).isTrue();
+            verify(latencyTracker, timeout(5000).times(i + 1)).record(any(), any());
+        }
+
+        // Assert - dashboards over the hot window and over the database agree
+        LocalDateTime end = LocalDateTime.now().plusMinutes(1);
+        when(detectionEventRepository.findByTimeRange(any(), any())).thenReturn(List.copyOf(persisted));
+        Map<String, Long> fromStore = analytics(recentDetectionStore).getDetectionFrequency(start, end);
+        RecentDetectionStore coldStore = new RecentDetectionStore(1024, 60, classRegistry);
+        Map<String, Long> fromDatabase = analytics(coldStore).getDetectionFrequency(start, end);
+
+        verify(detectionEventRepository).findByTimeRange(any(), any());
+        assertThat(fromStore).isEqualTo(fromDatabase);
+        assertThat(fromStore.get("person")).isEqualTo((long) frames);
+        assertThat(fromStore.get("car")).isLessThan(frames / 2);
+        verify(dwellEngine, times(frames * 2)).onDetection(any(), anyInt(), anyLong(),
+                anyDouble(), anyDouble(), anyDouble(), anyDouble());
+    }
+
+    private AnalyticsService analytics(RecentDetectionStore store) {
+        return new AnalyticsService(detectionEventRepository, store, classRegistry,
+                dwellIntervalRepository, geofenceZoneRepository, dwellEngine);
+    }
+
+    private static BufferedImage frame() {
+        return new BufferedImage(64, 48, BufferedImage.TYPE_3BYTE_BGR);
+    }
+}
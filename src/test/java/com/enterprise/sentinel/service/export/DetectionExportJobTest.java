@@ -0,0 +1,76 @@
+package com.enterprise.sentinel.service.export;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("DetectionExportJob Unit Tests")
+class DetectionExportJobTest {
+
+    @Mock
+    private DetectionExportService exportService;
+
+    private DetectionExportJob job;
+    private LocalDateTime currentHour;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        job = new DetectionExportJob(exportService);
+        ReflectionTestUtils.setField(job, "hourlyEnabled", true);
+        ReflectionTestUtils.setField(job, "backfillHours", 24);
+        currentHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @Test
+    @DisplayName("Should catch up from the checkpoint after an outage longer than the backfill window")
+    void testCatchesUpFromCheckpoint() throws Exception {
+        // Arrange - down for three days
+        LocalDateTime exportedUntil = currentHour.minusDays(3);
+        when(exportService.getCheckpoint(DetectionExportJob.HOURLY_JOB)).thenReturn(Optional.of(exportedUntil));
+
+        // Act
+        job.exportCompletedHours();
+
+        // Assert
+        verify(exportService).exportRange(eq(DetectionExportJob.HOURLY_JOB), eq(exportedUntil), any());
+    }
+
+    @Test
+    @DisplayName("Should start the backfill window back on the first run")
+    void testFirstRunBackfills() throws Exception {
+        // Arrange
+        when(exportService.getCheckpoint(DetectionExportJob.HOURLY_JOB)).thenReturn(Optional.empty());
+
+        // Act
+        job.exportCompletedHours();
+
+        // Assert
+        verify(exportService).exportRange(eq(DetectionExportJob.HOURLY_JOB),
+                argThat(start -> !start.isAfter(currentHour.minusHours(24))), any());
+    }
+
+    @Test
+    @DisplayName("Should not export again once the last hour is exported")
+    void testNothingToExport() throws Exception {
+        // Arrange
+        when(exportService.getCheckpoint(DetectionExportJob.HOURLY_JOB)).thenReturn(Optional.of(currentHour));
+
+        // Act
+        job.exportCompletedHours();
+
+        // Assert
+        verify(exportService, never()).exportRange(anyString(), any(), any());
+    }
+}
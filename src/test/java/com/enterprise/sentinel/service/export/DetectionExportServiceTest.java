@@ -0,0 +1,229 @@
+package com.enterprise.sentinel.service.export;
+
+import com.enterprise.sentinel.domain.model.DetectionEvent;
+import com.enterprise.sentinel.domain.repository.DetectionEventRepository;
+import jakarta.persistence.EntityManager;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("DetectionExportService Unit Tests")
+class DetectionExportServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 1, 13, 0);
+
+    @Mock
+    private DetectionEventRepository detectionEventRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path exportRoot;
+
+    private DetectionExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        exportService = new DetectionExportService(detectionEventRepository, entityManager,
+                transactionManager, exportRoot.toString(), 2, 64);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        exportService.close();
+    }
+
+    @Test
+    @DisplayName("Should write one Arrow file per camera per hour and checkpoint the range")
+    void testExportPartitionsByCameraAndHour() throws Exception {
+        // Arrange
+        UUID cameraA = UUID.randomUUID();
+        UUID cameraB = UUID.randomUUID();
+        when(detectionEventRepository.streamByCreatedAtRange(START, START.plusHours(1)))
+                .thenReturn(Stream.of(
+                        event(cameraA, START.plusMinutes(1)),
+                        event(cameraA, START.plusMinutes(2)),
+                        event(cameraA, START.plusMinutes(3)),
+                        event(cameraB, START.plusMinutes(4))));
+        when(detectionEventRepository.streamByCreatedAtRange(START.plusHours(1), START.plusHours(2)))
+                .thenReturn(Stream.of(event(cameraA, START.plusMinutes(61))));
+
+        // Act
+        DetectionExportService.ExportResult result = exportService.exportRange("job", START, START.plusHours(2));
+
+        // Assert
+        assertThat(result.rows()).isEqualTo(5);
+        assertThat(result.files()).isEqualTo(3);
+
+        Path day = exportRoot.resolve("job").resolve("day=2024-05-01");
+        assertThat(countRows(day.resolve("camera=" + cameraA).resolve("hour=13/part-0000-3600.arrow"))).isEqualTo(3);
+        assertThat(countRows(day.resolve("camera=" + cameraB).resolve("hour=13/part-0000-3600.arrow"))).isEqualTo(1);
+        assertThat(countRows(day.resolve("camera=" + cameraA).resolve("hour=14/part-0000-3600.arrow"))).isEqualTo(1);
+        assertThat(ExportCheckpoint.load(exportRoot.resolve("job"))).contains(START.plusHours(2));
+        verify(entityManager, times(5)).detach(any(DetectionEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should resume from the checkpoint and skip committed hours")
+    void testResumeFromCheckpoint() throws Exception {
+        // Arrange
+        ExportCheckpoint.save(exportRoot.resolve("job"), START.plusHours(1));
+        when(detectionEventRepository.streamByCreatedAtRange(any(), any())).thenReturn(Stream.empty());
+
+        // Act
+        exportService.exportRange("job", START, START.plusHours(2));
+
+        // Assert
+        verify(detectionEventRepository, never()).streamByCreatedAtRange(eq(START), any());
+        verify(detectionEventRepository).streamByCreatedAtRange(START.plusHours(1), START.plusHours(2));
+    }
+
+    @Test
+    @DisplayName("Should keep the first part of an hour when a later run exports the rest")
+    void testPartialHourSlicesDoNotOverwrite() throws Exception {
+        // Arrange
+        UUID camera = UUID.randomUUID();
+        LocalDateTime halfPast = START.plusMinutes(30);
+        when(detectionEventRepository.streamByCreatedAtRange(START, halfPast))
+                .thenReturn(Stream.of(event(camera, START.plusMinutes(5)), event(camera, START.plusMinutes(10))));
+        when(detectionEventRepository.streamByCreatedAtRange(halfPast, START.plusHours(1)))
+                .thenReturn(Stream.of(event(camera, START.plusMinutes(45))));
+
+        // Act - the job first runs up to mid-hour, then to the end of the hour
+        exportService.exportRange("job", START, halfPast);
+        DetectionExportService.ExportResult rest = exportService.exportRange("job", START, START.plusHours(1));
+
+        // Assert
+        assertThat(rest.rows()).isEqualTo(1);
+        Path cameraDir = exportRoot.resolve("job").resolve("day=2024-05-01").resolve("camera=" + camera);
+        assertThat(countRows(cameraDir.resolve("hour=13/part-0000-1800.arrow"))).isEqualTo(2);
+        assertThat(countRows(cameraDir.resolve("hour=13/part-1800-3600.arrow"))).isEqualTo(1);
+        assertThat(ExportCheckpoint.load(exportRoot.resolve("job"))).contains(START.plusHours(1));
+    }
+
+    @Test
+    @DisplayName("Should reject a range that ends before the job's checkpoint")
+    void testRejectRangeBeforeCheckpoint() throws Exception {
+        // Arrange
+        ExportCheckpoint.save(exportRoot.resolve("job"), START.plusHours(2));
+
+        // Act & Assert
+        assertThatThrownBy(() -> exportService.exportRange("job", START, START.plusHours(1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("already exported");
+        verify(detectionEventRepository, never()).streamByCreatedAtRange(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should discard half-written files left by a crashed run")
+    void testDiscardIncompleteFiles() throws Exception {
+        // Arrange
+        Path leftover = exportRoot.resolve("job").resolve("day=2024-05-01").resolve("camera=x")
+                .resolve("hour=13").resolve("part-0000-3600.arrow" + ArrowPartitionWriter.IN_PROGRESS_SUFFIX);
+        Files.createDirectories(leftover.getParent());
+        Files.writeString(leftover, "partial");
+        when(detectionEventRepository.streamByCreatedAtRange(any(), any())).thenReturn(Stream.empty());
+
+        // Act
+        exportService.exportRange("job", START, START.plusHours(1));
+
+        // Assert
+        assertThat(leftover).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should reject an empty range")
+    void testRejectEmptyRange() {
+        assertThatThrownBy(() -> exportService.exportRange("job", START, START))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should run a submitted export in the background and report its outcome")
+    void testSubmitRunsInBackground() throws Exception {
+        // Arrange
+        UUID camera = UUID.randomUUID();
+        when(detectionEventRepository.streamByCreatedAtRange(START, START.plusHours(1)))
+                .thenReturn(Stream.of(event(camera, START.plusMinutes(1))));
+
+        // Act
+        DetectionExportService.RunStatus queued = exportService.submit("job", START, START.plusHours(1));
+        DetectionExportService.RunStatus done = awaitRun("job");
+
+        // Assert
+        assertThat(queued.job()).isEqualTo("job");
+        assertThat(done.state()).isEqualTo("COMPLETED");
+        assertThat(done.rows()).isEqualTo(1);
+        assertThat(done.files()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject a bad range when submitting, before anything runs")
+    void testSubmitValidatesUpFront() {
+        assertThatThrownBy(() -> exportService.submit("job", START, START))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(exportService.getRunStatus("job")).isEmpty();
+    }
+
+    private DetectionExportService.RunStatus awaitRun(String job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        DetectionExportService.RunStatus status = exportService.getRunStatus(job).orElseThrow();
+        while (!status.state().equals("COMPLETED") && !status.state().equals("FAILED")
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            status = exportService.getRunStatus(job).orElseThrow();
+        }
+        return status;
+    }
+
+    private DetectionEvent event(UUID camera, LocalDateTime createdAt) {
+        return DetectionEvent.builder()
+                .id(UUID.randomUUID())
+                .videoId(camera)
+                .timestampMs(1000L)
+                .detectedClass("person")
+                .confidence(0.9)
+                .boundingBox("[10, 20, 30, 40]")
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private long countRows(Path file) throws Exception {
+        try (RootAllocator allocator = new RootAllocator();
+             FileChannel channel = FileChannel.open(file);
+             ArrowFileReader reader = new ArrowFileReader(channel, allocator, CommonsCompressionFactory.INSTANCE)) {
+            long rows = 0;
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            while (reader.loadNextBatch()) {
+                rows += root.getRowCount();
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.enterprise.sentinel.service.ingestion;
+
+import com.enterprise.sentinel.domain.model.AlertClip;
+import com.enterprise.sentinel.domain.model.DetectionEvent;
+import com.enterprise.sentinel.domain.repository.AlertClipRepository;
+import com.enterprise.sentinel.domain.repository.DetectionEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("AlertClipService Tests")
+class AlertClipServiceTest {
+
+    private static final int CHUNK_BYTES = 1_000;
+
+    @TempDir
+    Path storageRoot;
+
+    @Mock
+    private DetectionEventRepository detectionEventRepository;
+
+    @Mock
+    private AlertClipRepository alertClipRepository;
+
+    private AlertClipService service;
+    private UUID cameraId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        cameraId = UUID.randomUUID();
+        when(detectionEventRepository.findById(any())).thenReturn(Optional.of(
+                DetectionEvent.builder().videoId(cameraId).build()));
+        // 2 s pre-roll, 1 s post-roll, 1 MB rings within 2 MB
+        service = new AlertClipService(detectionEventRepository, alertClipRepository,
+                storageRoot.toString(), 2, 1, 120, 1, 2);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should write the GOPs from the keyframe before the pre-roll through the post-roll")
+    @SuppressWarnings("unchecked")
+    void testClipSpansPreAndPostRoll() throws Exception {
+        // Arrange - a chunk every 500 ms, keyframe every second, already past the post-roll
+        long alertMs = System.currentTimeMillis();
+        PacketRing ring = service.openRing(cameraId);
+        fill(ring, alertMs - 5_000, alertMs + 3_000);
+        UUID alertId = UUID.randomUUID();
+
+        // Act
+        service.addAlert(alertId, UUID.randomUUID(), alertMs);
+
+        // Assert
+        ArgumentCaptor<List<AlertClip>> rows = ArgumentCaptor.forClass(List.class);
+        verify(alertClipRepository, timeout(5_000)).saveAll(rows.capture());
+        AlertClip clip = rows.getValue().get(0);
+        assertThat(clip.getAlertId()).isEqualTo(alertId);
+        assertThat(clip.getCameraId()).isEqualTo(cameraId);
+        assertThat(clip.getStartMs()).isEqualTo(alertMs - 2_000);
+        assertThat(clip.getEndMs()).isEqualTo(alertMs + 1_000);
+        assertThat(Files.readAllBytes(Path.of(clip.getStoragePath())))
+                .isEqualTo(expected(alertMs - 2_000, alertMs + 1_000));
+    }
+
+    @Test
+    @DisplayName("Should anchor the clip on the detection's capture time when the alert arrives late")
+    @SuppressWarnings("unchecked")
+    void testClipAnchoredOnDetectionTime() throws Exception {
+        // Arrange - the frame was captured 3 s before the alert reached the clip service
+        long receivedMs = System.currentTimeMillis();
+        long detectedMs = receivedMs - 3_000;
+        when(detectionEventRepository.findById(any())).thenReturn(Optional.of(
+                DetectionEvent.builder().videoId(cameraId).timestampMs(detectedMs).build()));
+        PacketRing ring = service.openRing(cameraId);
+        fill(ring, detectedMs - 5_000, receivedMs + 1_000);
+
+        // Act
+        service.addAlert(UUID.randomUUID(), UUID.randomUUID(), receivedMs);
+
+        // Assert - pre-roll leads into the detected frame, not into the arrival
+        ArgumentCaptor<List<AlertClip>> rows = ArgumentCaptor.forClass(List.class);
+        verify(alertClipRepository, timeout(5_000)).saveAll(rows.capture());
+        AlertClip clip = rows.getValue().get(0);
+        assertThat(clip.getStartMs()).isEqualTo(detectedMs - 2_000);
+        assertThat(clip.getEndMs()).isEqualTo(detectedMs + 1_000);
+        assertThat(Files.readAllBytes(Path.of(clip.getStoragePath())))
+                .isEqualTo(expected(detectedMs - 2_000, detectedMs + 1_000));
+    }
+
+    @Test
+    @DisplayName("Should link alerts within a pending clip to the same, extended clip")
+    @SuppressWarnings("unchecked")
+    void testOverlappingAlertsShareClip() throws Exception {
+        // Arrange
+        long alertMs = System.currentTimeMillis();
+        PacketRing ring = service.openRing(cameraId);
+        fill(ring, alertMs - 5_000, alertMs + 3_000);
+
+        // Act
+        service.addAlert(UUID.randomUUID(), UUID.randomUUID(), alertMs);
+        service.addAlert(UUID.randomUUID(), UUID.randomUUID(), alertMs + 1_000);
+
+        // Assert - one file, end moved to the second alert's post-roll
+        ArgumentCaptor<List<AlertClip>> rows = ArgumentCaptor.forClass(List.class);
+        verify(alertClipRepository, timeout(5_000)).saveAll(rows.capture());
+        assertThat(rows.getValue()).hasSize(2)
+                .allSatisfy(clip -> assertThat(clip.getEndMs()).isEqualTo(alertMs + 2_000))
+                .extracting(AlertClip::getStoragePath).containsOnly(rows.getValue().get(0).getStoragePath());
+    }
+
+    @Test
+    @DisplayName("Should keep the first pre-roll when alerts extend a clip past pre-roll + post-roll")
+    @SuppressWarnings("unchecked")
+    void testExtendedClipKeepsStart() throws Exception {
+        // Arrange - 25 s buffered, far beyond one pre- and post-roll (3 s) plus a GOP
+        long alertMs = System.currentTimeMillis();
+        PacketRing ring = service.openRing(cameraId);
+        fill(ring, alertMs - 5_000, alertMs + 20_000);
+
+        // Act - an alert every 2 s keeps extending the pending clip
+        for (long at = alertMs; at <= alertMs + 16_000; at += 2_000) {
+            service.addAlert(UUID.randomUUID(), UUID.randomUUID(), at);
+        }
+
+        // Assert - one clip from the first pre-roll through the last post-roll
+        ArgumentCaptor<List<AlertClip>> rows = ArgumentCaptor.forClass(List.class);
+        verify(alertClipRepository, timeout(5_000)).saveAll(rows.capture());
+        AlertClip clip = rows.getValue().get(0);
+        assertThat(rows.getValue()).hasSize(9);
+        assertThat(clip.getStartMs()).isEqualTo(alertMs - 2_000);
+        assertThat(clip.getEndMs()).isEqualTo(alertMs + 17_000);
+        assertThat(Files.readAllBytes(Path.of(clip.getStoragePath())))
+                .isEqualTo(expected(alertMs - 2_000, alertMs + 17_000));
+        assertThat(service.windowMs()).isEqualTo(2_000 + 120_000 + 10_000);
+    }
+
+    @Test
+    @DisplayName("Should skip alerts of cameras that are not recorded")
+    void testNoClipWithoutRing() throws Exception {
+        // Act
+        service.addAlert(UUID.randomUUID(), UUID.randomUUID(), System.currentTimeMillis());
+        Thread.sleep(1_500);
+
+        // Assert
+        verify(alertClipRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should bound the ring to its capacity and never return a clip without a keyframe")
+    void testRingEvictsOverwrittenChunks() throws Exception {
+        // Arrange - 10 KB ring, 15 chunks of 1 KB
+        PacketRing ring = new PacketRing(10 * CHUNK_BYTES, 60_000);
+        fill(ring, 0, 7_000);
+
+        // Act
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Optional<PacketRing.Extent> extent = ring.copyTo(Channels.newChannel(out), 0, Long.MAX_VALUE);
+
+        // Assert - chunks 0..4 were overwritten; the clip starts at the oldest retained keyframe (3 s)
+        assertThat(extent).isPresent();
+        assertThat(extent.get().startMs()).isEqualTo(3_000);
+        assertThat(out.toByteArray()).isEqualTo(expected(3_000, 7_000));
+
+        PacketRing keyless = new PacketRing(10 * CHUNK_BYTES, 60_000);
+        keyless.append(0, false, chunk(0), 0, CHUNK_BYTES);
+        assertThat(keyless.copyTo(Channels.newChannel(new ByteArrayOutputStream()), 0, 1_000)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should write a clip still waiting for its post-roll on shutdown")
+    @SuppressWarnings("unchecked")
+    void testShutdownWritesPendingClip() throws Exception {
+        // Arrange - post-roll not buffered yet
+        long alertMs = System.currentTimeMillis();
+        PacketRing ring = service.openRing(cameraId);
+        fill(ring, alertMs - 5_000, alertMs);
+        service.addAlert(UUID.randomUUID(), UUID.randomUUID(), alertMs);
+
+        // Act
+        service.shutdown();
+
+        // Assert - cut from what the ring held, not dropped
+        ArgumentCaptor<List<AlertClip>> rows = ArgumentCaptor.forClass(List.class);
+        verify(alertClipRepository).saveAll(rows.capture());
+        assertThat(Files.readAllBytes(Path.of(rows.getValue().get(0).getStoragePath())))
+                .isEqualTo(expected(alertMs - 2_000, alertMs));
+    }
+
+    @Test
+    @DisplayName("Should not allocate rings past the memory budget until one is closed")
+    void testRingBudget() {
+        // Arrange
+        PacketRing first = service.openRing(cameraId);
+        service.openRing(UUID.randomUUID());
+
+        // Act & Assert
+        assertThat(service.openRing(UUID.randomUUID())).isNull();
+        service.closeRing(cameraId, first);
+        assertThat(service.openRing(UUID.randomUUID())).isNotNull();
+    }
+
+    // ====== HELPER METHODS ======
+
+    private static void fill(PacketRing ring, long fromMs, long toMs) {
+        for (long ts = fromMs; ts <= toMs; ts += 500) {
+            ring.append(ts, Math.floorMod(ts - fromMs, 1_000) == 0, chunk(ts), 0, CHUNK_BYTES);
+        }
+    }
+
+    private static byte[] expected(long fromMs, long toMs) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (long ts = fromMs; ts <= toMs; ts += 500) {
+            out.writeBytes(chunk(ts));
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] chunk(long ts) {
+        byte[] data = new byte[CHUNK_BYTES];
+        Arrays.fill(data, (byte) (ts / 500));
+        return data;
+    }
+}
@@ -0,0 +1,231 @@
+package com.enterprise.sentinel.service.ingestion;
+
+import com.enterprise.sentinel.domain.model.Video;
+import com.enterprise.sentinel.domain.repository.VideoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ChunkedUploadService Tests")
+class ChunkedUploadServiceTest {
+
+    @TempDir
+    Path storageRoot;
+
+    @Mock
+    private VideoRepository videoRepository;
+
+    private ChunkedUploadService service;
+    private byte[] content;
+    private String contentSha256;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        when(videoRepository.findFirstByChecksumAndSourceType(anyString(), any())).thenReturn(Optional.empty());
+        when(videoRepository.save(any(Video.class))).thenAnswer(invocation -> {
+            Video video = invocation.getArgument(0);
+            video.setId(UUID.randomUUID());
+            return video;
+        });
+        service = newService();
+
+        content = new byte[1_000_000];
+        new Random(42).nextBytes(content);
+        contentSha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    @Test
+    @DisplayName("Should stream sequential chunks to disk and compute the checksum in the same pass")
+    void testSequentialUpload() throws Exception {
+        // Arrange
+        UUID uploadId = service.create("cam 01.MP4", content.length, null).uploadId();
+
+        // Act
+        ChunkedUploadService.UploadStatus status = null;
+        for (int offset = 0; offset < content.length; offset += 300_000) {
+            status = writeChunk(uploadId, offset, Math.min(300_000, content.length - offset));
+        }
+
+        // Assert
+        assertThat(status.state()).isEqualTo("COMPLETE");
+        assertThat(status.checksum()).isEqualTo(contentSha256);
+        Path stored = storageRoot.resolve("videos").resolve(contentSha256.substring(0, 2)).resolve(contentSha256 + ".mp4");
+        assertThat(Files.readAllBytes(stored)).isEqualTo(content);
+        verify(videoRepository).save(argThat(video -> video.getChecksum().equals(contentSha256)
+                && video.getOriginalFilename().equals("cam 01.MP4")
+                && video.getSourceType() == Video.SourceType.UPLOAD));
+        assertThat(Files.list(storageRoot.resolve(".uploads"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should accept chunks out of order and still produce the correct checksum")
+    void testOutOfOrderUpload() throws Exception {
+        // Arrange
+        UUID uploadId = service.create("clip.mp4", content.length, contentSha256).uploadId();
+
+        // Act: last chunk first, then the middle, then the head
+        ChunkedUploadService.UploadStatus afterTail = writeChunk(uploadId, 700_000, 300_000);
+        writeChunk(uploadId, 350_000, 350_000);
+        ChunkedUploadService.UploadStatus done = writeChunk(uploadId, 0, 350_000);
+
+        // Assert
+        assertThat(afterTail.state()).isEqualTo("RECEIVING");
+        assertThat(afterTail.nextOffset()).isZero();
+        assertThat(afterTail.received()).isEqualTo(300_000);
+        assertThat(done.state()).isEqualTo("COMPLETE");
+        assertThat(done.checksum()).isEqualTo(contentSha256);
+    }
+
+    @Test
+    @DisplayName("Should resume after a dropped connection and a restart")
+    void testResumesAfterRestart() throws Exception {
+        // Arrange: the connection drops 100 KB into the first chunk
+        UUID uploadId = service.create("clip.mp4", content.length, null).uploadId();
+        InputStream dropping = new ByteArrayInputStream(content, 0, 100_000) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                int read = super.read(b, off, len);
+                if (read < 0) {
+                    throw new RuntimeException(new IOException("Connection reset"));
+                }
+                return read;
+            }
+        };
+        assertThatThrownBy(() -> service.writeChunk(uploadId, 0, 500_000, dropping))
+                .hasRootCauseInstanceOf(IOException.class);
+
+        // Act: new instance, as after a restart
+        ChunkedUploadService restarted = newService();
+        long resumeAt = restarted.getStatus(uploadId).orElseThrow().nextOffset();
+        ChunkedUploadService.UploadStatus done = restarted.writeChunk(uploadId, resumeAt, content.length - resumeAt,
+                new ByteArrayInputStream(content, (int) resumeAt, content.length - (int) resumeAt));
+
+        // Assert
+        assertThat(resumeAt).isEqualTo(100_000);
+        assertThat(done.state()).isEqualTo("COMPLETE");
+        assertThat(done.checksum()).isEqualTo(contentSha256);
+    }
+
+    @Test
+    @DisplayName("Should report a chunk that finishes after a parallel chunk completed the upload as complete")
+    void testChunkFinishingAfterCompletion() throws Exception {
+        // Arrange - a retry of the tail chunk is still in flight, holding back its last bytes
+        UUID uploadId = service.create("clip.mp4", content.length, contentSha256).uploadId();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<ChunkedUploadService.UploadStatus> retry;
+        try {
+            retry = executor.submit(() -> service.writeChunk(uploadId, 500_000, 500_000,
+                    stalling(500_000, 500_000, release)));
+
+            // Act - head and tail complete the upload meanwhile, then the retry finishes
+            writeChunk(uploadId, 0, 500_000);
+            ChunkedUploadService.UploadStatus done = writeChunk(uploadId, 500_000, 500_000);
+            release.countDown();
+            ChunkedUploadService.UploadStatus late = retry.get(10, TimeUnit.SECONDS);
+
+            // Assert - one stored video, no second completion over a consumed digest
+            assertThat(done.state()).isEqualTo("COMPLETE");
+            assertThat(late.state()).isEqualTo("COMPLETE");
+            assertThat(late.videoId()).isEqualTo(done.videoId());
+            assertThat(late.checksum()).isEqualTo(contentSha256);
+            verify(videoRepository, times(1)).save(any(Video.class));
+            assertThat(Files.list(storageRoot.resolve(".uploads"))).isEmpty();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should dedupe by checksum before and after the transfer")
+    void testDedupesByChecksum() throws Exception {
+        // Arrange
+        Video existing = Video.builder().id(UUID.randomUUID()).checksum(contentSha256).build();
+        when(videoRepository.findFirstByChecksumAndSourceType(eq(contentSha256), eq(Video.SourceType.UPLOAD)))
+                .thenReturn(Optional.of(existing));
+
+        // Act
+        ChunkedUploadService.UploadStatus declared = service.create("a.mp4", content.length, contentSha256);
+        UUID uploadId = service.create("b.mp4", content.length, null).uploadId();
+        ChunkedUploadService.UploadStatus transferred = writeChunk(uploadId, 0, content.length);
+
+        // Assert: no new row, no stored copy
+        assertThat(declared.state()).isEqualTo("DUPLICATE");
+        assertThat(declared.videoId()).isEqualTo(existing.getId());
+        assertThat(declared.uploadId()).isNull();
+        assertThat(transferred.state()).isEqualTo("DUPLICATE");
+        assertThat(transferred.videoId()).isEqualTo(existing.getId());
+        verify(videoRepository, never()).save(any());
+        assertThat(storageRoot.resolve("videos")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should reject content that does not match the declared checksum")
+    void testRejectsChecksumMismatch() throws Exception {
+        // Arrange
+        UUID uploadId = service.create("clip.mp4", content.length, "0".repeat(64)).uploadId();
+
+        // Act & Assert
+        assertThatThrownBy(() -> writeChunk(uploadId, 0, content.length))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Checksum mismatch");
+        assertThat(service.getStatus(uploadId)).isEmpty();
+        verify(videoRepository, never()).save(any());
+    }
+
+    // ====== HELPER METHODS ======
+
+    /**
+     * Delivers a slice of the content, holding back its last 1000 bytes until released.
+     */
+    private InputStream stalling(int offset, int length, CountDownLatch release) {
+        return new ByteArrayInputStream(content, offset, length) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                if (available() > 1000) {
+                    return super.read(b, off, Math.min(len, available() - 1000));
+                }
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.read(b, off, len);
+            }
+        };
+    }
+
+    private ChunkedUploadService newService() throws IOException {
+        ChunkedUploadService instance = new ChunkedUploadService(videoRepository, storageRoot.toString(), 1, 24);
+        instance.loadSessions();
+        return instance;
+    }
+
+    private ChunkedUploadService.UploadStatus writeChunk(UUID uploadId, int offset, int length) throws IOException {
+        return service.writeChunk(uploadId, offset, length, new ByteArrayInputStream(content, offset, length));
+    }
+}
@@ -0,0 +1,252 @@
+package com.enterprise.sentinel.service.ingestion;
+
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.output.BoundingBox;
+import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.modality.cv.output.Rectangle;
+import com.enterprise.sentinel.config.ExecutionModel;
+import com.enterprise.sentinel.domain.model.Video;
+import com.enterprise.sentinel.domain.repository.DetectionEventRepository;
+import com.enterprise.sentinel.domain.repository.VideoRepository;
+import com.enterprise.sentinel.service.analysis.AlertEngine;
+import com.enterprise.sentinel.service.analysis.DetectionClassRegistry;
+import com.enterprise.sentinel.service.analysis.DwellEngine;
+import com.enterprise.sentinel.service.analysis.FrameRateLimiter;
+import com.enterprise.sentinel.service.analysis.ObjectDetectionService;
+import com.enterprise.sentinel.service.analysis.RecentDetectionStore;
+import com.enterprise.sentinel.service.analysis.RoiDetector;
+import com.enterprise.sentinel.service.analysis.StaticSceneCache;
+import com.enterprise.sentinel.service.analysis.TiledDetector;
+import com.enterprise.sentinel.service.analysis.VideoProcessor;
+import com.enterprise.sentinel.service.metrics.LatencyTracker;
+import com.enterprise.sentinel.service.metrics.SentinelMetrics;
+import com.enterprise.sentinel.service.model.ModelDescriptor;
+import com.enterprise.sentinel.service.model.ModelLease;
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.Java2DFrameConverter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("OfflineAnalysisService Tests")
+class OfflineAnalysisServiceTest {
+
+    private static final ModelDescriptor MODEL = new ModelDescriptor("yolov8n", "test", Path.of("yolov8n.onnx"),
+            ModelDescriptor.COCO_CLASSES, ModelDescriptor.DEFAULT_CONFIDENCE, ModelDescriptor.DEFAULT_NMS_IOU, true,
+            ModelDescriptor.Precision.FP32);
+
+    @TempDir
+    Path storageRoot;
+
+    @TempDir
+    Path checkpointRoot;
+
+    @Mock
+    private VideoProcessor videoProcessor;
+
+    @Mock
+    private VideoRepository videoRepository;
+
+    @Mock
+    private DetectionEventRepository detectionEventRepository;
+
+    private final List<Long> analyzedMediaMs = Collections.synchronizedList(new ArrayList<>());
+    private OfflineAnalysisService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(videoRepository.findFirstByChecksumAndSourceType(anyString(), any())).thenReturn(Optional.empty());
+        when(videoRepository.save(any(Video.class))).thenAnswer(invocation -> {
+            Video video = invocation.getArgument(0);
+            if (video.getId() == null) {
+                video.setId(UUID.randomUUID());
+            }
+            return video;
+        });
+        when(videoProcessor.analyzeRecordedFrame(any(), any(BufferedImage.class), anyLong())).thenAnswer(invocation -> {
+            analyzedMediaMs.add(invocation.getArgument(2));
+            return 1;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should shard a file across threads and analyze one frame per interval with media timestamps")
+    void testShardsFileWithMediaTimestamps() throws Exception {
+        // Arrange: 10 s at 10 FPS, 2 s minimum shard, 2 cores
+        service = newService(2, 2);
+        File video = writeTestVideo(storageRoot.resolve("clip.mp4").toFile(), 100, 10);
+
+        // Act
+        UUID jobId = service.start(video, 1000L);
+        OfflineAnalysisService.JobStatus status = awaitFinished(jobId);
+
+        // Assert: exactly the grid points, each once, across both shards
+        assertThat(status.state()).isEqualTo("COMPLETED");
+        assertThat(status.shards()).isEqualTo(2);
+        assertThat(analyzedMediaMs).containsExactlyInAnyOrder(0L, 1000L, 2000L, 3000L, 4000L,
+                5000L, 6000L, 7000L, 8000L, 9000L);
+        assertThat(status.framesAnalyzed()).isEqualTo(10);
+        assertThat(status.detections()).isEqualTo(10);
+        assertThat(status.progress()).isEqualTo(1.0);
+        assertThat(status.realtimeFactor()).isGreaterThan(1.0);
+        verify(videoProcessor, never()).submitFrame(any(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should seek to each sample point for long intervals instead of decoding every frame")
+    void testSeeksForLongIntervals() throws Exception {
+        // Arrange
+        service = newService(1, 60);
+        File video = writeTestVideo(storageRoot.resolve("clip.mp4").toFile(), 100, 10);
+
+        // Act
+        UUID jobId = service.start(video, 3000L);
+        OfflineAnalysisService.JobStatus status = awaitFinished(jobId);
+
+        // Assert: 4 samples, far fewer than 100 decoded frames
+        assertThat(analyzedMediaMs).containsExactly(0L, 3000L, 6000L, 9000L);
+        assertThat(status.framesDecoded()).isLessThan(100);
+    }
+
+    @Test
+    @DisplayName("Should resume from the checkpoint and drop detections saved after it")
+    void testResumesFromCheckpoint() throws Exception {
+        // Arrange: a previous run committed the first 6 s before crashing
+        service = newService(1, 60);
+        File video = writeTestVideo(storageRoot.resolve("clip.mp4").toFile(), 100, 10);
+        Video registered = Video.builder().id(UUID.randomUUID()).originalFilename("clip.mp4").build();
+        when(videoRepository.findFirstByChecksumAndSourceType(anyString(), eq(Video.SourceType.UPLOAD)))
+                .thenReturn(Optional.of(registered));
+        OfflineCheckpoint.save(checkpointRoot.resolve(registered.getId().toString()),
+                new OfflineCheckpoint.Plan(video.getAbsolutePath(), 1000, 10_000,
+                        List.of(new OfflineCheckpoint.Shard(0, 10_000, 6000))));
+
+        // Act
+        UUID jobId = service.start(video, 500L);
+        OfflineAnalysisService.JobStatus status = awaitFinished(jobId);
+
+        // Assert: keeps the original interval, analyzes only the rest
+        assertThat(jobId).isEqualTo(registered.getId());
+        verify(detectionEventRepository).deleteByVideoIdAndTimestampRange(registered.getId(), 6000, 10_000);
+        assertThat(analyzedMediaMs).containsExactly(6000L, 7000L, 8000L, 9000L);
+        assertThat(status.intervalMs()).isEqualTo(1000);
+        assertThat(OfflineCheckpoint.load(checkpointRoot.resolve(jobId.toString())))
+                .hasValueSatisfying(plan -> assertThat(plan.isComplete()).isTrue());
+    }
+
+    @Test
+    @DisplayName("Should count frames whose detections fail to persist as frame errors")
+    void testPersistFailureCountsAsFrameError() throws Exception {
+        // Arrange: the real pipeline with one detection per frame and a failing database
+        ObjectDetectionService detectionService = mock(ObjectDetectionService.class);
+        when(detectionService.acquire(any())).thenReturn(new ModelLease(MODEL, null, () -> { }));
+        when(detectionService.detect(any(ModelLease.class), any(Image.class), any())).thenReturn(new DetectedObjects(
+                List.of("person"), List.of(0.9), List.<BoundingBox>of(new Rectangle(0.1, 0.1, 0.2, 0.4))));
+        when(detectionEventRepository.saveAll(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        DetectionClassRegistry classRegistry = new DetectionClassRegistry();
+        VideoProcessor pipeline = new VideoProcessor(detectionService, mock(TiledDetector.class),
+                mock(RoiDetector.class), mock(StaticSceneCache.class), mock(FrameRateLimiter.class),
+                mock(AlertEngine.class), detectionEventRepository, new RecentDetectionStore(64, 60, classRegistry),
+                classRegistry, mock(DwellEngine.class), videoRepository, mock(LatencyTracker.class),
+                mock(SentinelMetrics.class), ExecutionModel.platform(1), new MockEnvironment());
+        service = new OfflineAnalysisService(new FileIngestionService(), pipeline, videoRepository,
+                detectionEventRepository, 1000, 2000, 60, 1, 2000, false,
+                checkpointRoot.toString(), storageRoot.toString());
+        File video = writeTestVideo(storageRoot.resolve("clip.mp4").toFile(), 30, 10);
+
+        try {
+            // Act
+            UUID jobId = service.start(video, 1000L);
+            OfflineAnalysisService.JobStatus status = awaitFinished(jobId);
+
+            // Assert: every sampled frame failed; none counts as analyzed without detections
+            assertThat(status.state()).isEqualTo("COMPLETED");
+            assertThat(status.frameErrors()).isEqualTo(3);
+            assertThat(status.framesAnalyzed()).isZero();
+            assertThat(status.detections()).isZero();
+            assertThat(status.lastError()).contains("connection refused");
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject files outside the storage root")
+    void testRejectsFileOutsideRoot(@TempDir Path elsewhere) {
+        service = newService(1, 60);
+        File outside = elsewhere.resolve("clip.mp4").toFile();
+
+        assertThatThrownBy(() -> service.start(outside, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(videoRepository, never()).save(any());
+    }
+
+    private OfflineAnalysisService newService(int parallelism, long minShardSeconds) {
+        return new OfflineAnalysisService(new FileIngestionService(), videoProcessor, videoRepository,
+                detectionEventRepository, 1000, 2000, minShardSeconds, parallelism, 2000, false,
+                checkpointRoot.toString(), storageRoot.toString());
+    }
+
+    private OfflineAnalysisService.JobStatus awaitFinished(UUID jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            OfflineAnalysisService.JobStatus status = service.getStatus(jobId).orElseThrow();
+            if (!"RUNNING".equals(status.state())) {
+                return status;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Offline job did not finish");
+    }
+
+    private File writeTestVideo(File file, int frames, int fps) throws Exception {
+        try (FFmpegFrameRecorder recorder = new FFmpegFrameRecorder(file, 320, 240);
+             Java2DFrameConverter converter = new Java2DFrameConverter()) {
+            recorder.setFormat("mp4");
+            recorder.setVideoCodec(avcodec.AV_CODEC_ID_MPEG4);
+            recorder.setFrameRate(fps);
+            recorder.setGopSize(fps);
+            recorder.start();
+            for (int i = 0; i < frames; i++) {
+                BufferedImage image = new BufferedImage(320, 240, BufferedImage.TYPE_3BYTE_BGR);
+                Graphics2D g = image.createGraphics();
+                g.setColor(Color.WHITE);
+                g.fillRect(i * 3, 100, 40, 40);
+                g.dispose();
+                recorder.record(converter.convert(image));
+            }
+        }
+        return file;
+    }
+}
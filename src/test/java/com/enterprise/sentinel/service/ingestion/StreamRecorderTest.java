@@ -0,0 +1,198 @@
+package com.enterprise.sentinel.service.ingestion;
+
+import com.enterprise.sentinel.config.ExecutionModel;
+import com.enterprise.sentinel.domain.model.AlertClip;
+import com.enterprise.sentinel.domain.model.DetectionEvent;
+import com.enterprise.sentinel.domain.model.Video;
+import com.enterprise.sentinel.domain.repository.AlertClipRepository;
+import com.enterprise.sentinel.domain.repository.DetectionEventRepository;
+import com.enterprise.sentinel.domain.repository.VideoRepository;
+import com.enterprise.sentinel.service.storage.SegmentStore;
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("StreamRecorder Tests")
+class StreamRecorderTest {
+
+    @TempDir
+    Path storageRoot;
+
+    @Mock
+    private VideoRepository videoRepository;
+
+    @Mock
+    private DetectionEventRepository detectionEventRepository;
+
+    @Mock
+    private AlertClipRepository alertClipRepository;
+
+    private SegmentStore segmentStore;
+    private AlertClipService alertClipService;
+    private StreamSupervisor supervisor;
+    private StreamRecorder recorder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        segmentStore = new SegmentStore(storageRoot.toString(), 1, 168, "test-key");
+        segmentStore.load();
+        // 1 s pre-roll and post-roll
+        alertClipService = new AlertClipService(detectionEventRepository, alertClipRepository,
+                storageRoot.toString(), 1, 1, 120, 8, 64);
+        supervisor = new StreamSupervisor(ExecutionModel.platform(2), 2, 10_000, 1_000, 60_000, 5);
+        recorder = new StreamRecorder(segmentStore, videoRepository, alertClipService, supervisor, 5000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        supervisor.shutdown();
+        alertClipService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should record a camera as per-GOP records playable from any keyframe")
+    void testRecordAndPlayBackFromKeyframe() throws Exception {
+        // Arrange - 3 s of H.264 at 10 fps, keyframe every second
+        UUID cameraId = registerCamera(writeTestVideo(storageRoot.resolve("cam.mp4").toFile(), 30, 10));
+
+        // Act
+        recorder.start(cameraId);
+        assertThatThrownBy(() -> recorder.start(cameraId)).isInstanceOf(IllegalStateException.class);
+        awaitRecordingEnded(cameraId);
+
+        // Assert - whole recording decodes
+        SegmentStore.StreamStats stats = segmentStore.getStats(cameraId).orElseThrow();
+        assertThat(stats.recording()).isFalse();
+        assertThat(stats.lastTimestampMs() - stats.firstTimestampMs()).isBetween(1_500L, 3_000L);
+        assertThat(decodeFrames(cameraId, stats.firstTimestampMs())).isEqualTo(30);
+
+        // Seeking into the last second starts playback at its keyframe
+        SegmentStore.SeekResult seek = segmentStore.seek(cameraId, stats.lastTimestampMs() + 500).orElseThrow();
+        assertThat(seek.keyframeTimestampMs()).isEqualTo(stats.lastTimestampMs());
+        assertThat(decodeFrames(cameraId, stats.lastTimestampMs() + 500)).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should cut a decodable pre/post-roll clip from the ring when an alert fires")
+    @SuppressWarnings("unchecked")
+    void testAlertClipFromRing() throws Exception {
+        // Arrange - 4 s of H.264, keyframe every second
+        UUID cameraId = registerCamera(writeTestVideo(storageRoot.resolve("cam.mp4").toFile(), 40, 10));
+        when(detectionEventRepository.findById(any())).thenReturn(Optional.of(
+                DetectionEvent.builder().videoId(cameraId).build()));
+        recorder.start(cameraId);
+        Thread.sleep(2_000);
+
+        // Act
+        UUID alertId = UUID.randomUUID();
+        alertClipService.addAlert(alertId, UUID.randomUUID(), System.currentTimeMillis());
+
+        // Assert - about 1 s before to 1 s after, remuxed as-is
+        ArgumentCaptor<List<AlertClip>> rows = ArgumentCaptor.forClass(List.class);
+        verify(alertClipRepository, timeout(10_000)).saveAll(rows.capture());
+        AlertClip clip = rows.getValue().get(0);
+        assertThat(clip.getAlertId()).isEqualTo(alertId);
+        int frames = 0;
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(clip.getStoragePath())) {
+            grabber.start();
+            while (grabber.grabImage() != null) {
+                frames++;
+            }
+        }
+        assertThat(frames).isBetween(10, 30);
+        awaitRecordingEnded(cameraId);
+    }
+
+    @Test
+    @DisplayName("Should refuse to record unknown cameras")
+    void testUnknownCamera() {
+        // Arrange
+        when(videoRepository.findById(any())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> recorder.start(UUID.randomUUID()))
+                .isInstanceOf(NoSuchElementException.class);
+        assertThat(recorder.getStatuses()).isEmpty();
+    }
+
+    // ====== HELPER METHODS ======
+
+    private UUID registerCamera(File source) {
+        UUID cameraId = UUID.randomUUID();
+        Video video = new Video();
+        video.setId(cameraId);
+        video.setStoragePath(source.getAbsolutePath());
+        video.setSourceType(Video.SourceType.UPLOAD);
+        when(videoRepository.findById(cameraId)).thenReturn(Optional.of(video));
+        return cameraId;
+    }
+
+    private void awaitRecordingEnded(UUID cameraId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (recorder.isRecording(cameraId) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(recorder.isRecording(cameraId)).isFalse();
+    }
+
+    private int decodeFrames(UUID cameraId, long fromMs) throws Exception {
+        int frames = 0;
+        try (InputStream content = segmentStore.openStream(cameraId, fromMs, Long.MAX_VALUE).orElseThrow();
+             FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(content, 0)) {
+            grabber.setFormat("mpegts");
+            grabber.start();
+            Frame frame;
+            while ((frame = grabber.grabImage()) != null) {
+                assertThat(frame.image).isNotNull();
+                frames++;
+            }
+        }
+        return frames;
+    }
+
+    private File writeTestVideo(File file, int frames, int fps) throws Exception {
+        try (FFmpegFrameRecorder videoRecorder = new FFmpegFrameRecorder(file, 320, 240);
+             Java2DFrameConverter converter = new Java2DFrameConverter()) {
+            videoRecorder.setFormat("mp4");
+            videoRecorder.setVideoCodec(avcodec.AV_CODEC_ID_H264);
+            videoRecorder.setFrameRate(fps);
+            videoRecorder.setGopSize(fps);
+            videoRecorder.start();
+            for (int i = 0; i < frames; i++) {
+                BufferedImage image = new BufferedImage(320, 240, BufferedImage.TYPE_3BYTE_BGR);
+                Graphics2D g = image.createGraphics();
+                g.setColor(Color.WHITE);
+                g.fillRect(i * 10, 100, 40, 40);
+                g.dispose();
+                videoRecorder.record(converter.convert(image));
+            }
+        }
+        return file;
+    }
+}
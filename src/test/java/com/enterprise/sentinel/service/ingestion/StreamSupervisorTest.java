@@ -0,0 +1,210 @@
+package com.enterprise.sentinel.service.ingestion;
+
+import com.enterprise.sentinel.config.ExecutionModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("StreamSupervisor Tests")
+class StreamSupervisorTest {
+
+    private StreamSupervisor supervisor;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        supervisor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should reconnect a live camera with exponential backoff and jitter")
+    void testReconnectBackoff() throws Exception {
+        // Arrange - first 4 connects fail; 40 ms initial backoff
+        supervisor = new StreamSupervisor(ExecutionModel.platform(2), 2, 10_000, 40, 1_000, 5);
+        FakeStream stream = new FakeStream();
+        stream.failOpens.set(4);
+        UUID cameraId = UUID.randomUUID();
+
+        // Act
+        supervisor.supervise(cameraId, "ingest", "cam", true, stream);
+        await(() -> stream.frames.get() > 0);
+
+        // Assert - gaps of 20-40, 40-80, 80-160, 160-320 ms
+        List<Long> opens = stream.openTimesMs;
+        assertThat(opens).hasSize(5);
+        for (int attempt = 1; attempt <= 4; attempt++) {
+            long gap = opens.get(attempt) - opens.get(attempt - 1);
+            long delay = 40L << (attempt - 1);
+            assertThat(gap).isBetween(delay / 2 - 5, delay + 100);
+        }
+        StreamHealth.Snapshot health = supervisor.getHealth(cameraId, "ingest").orElseThrow().snapshot();
+        assertThat(health.state()).isEqualTo(StreamHealth.State.RUNNING);
+        assertThat(health.reconnects()).isEqualTo(4);
+        assertThat(health.lastError()).isEqualTo("connection refused");
+    }
+
+    @Test
+    @DisplayName("Should flag a camera that stops delivering frames and reconnect it")
+    void testWatchdogDetectsStall() throws Exception {
+        // Arrange - the read blocks past the 200 ms stall timeout, then times out
+        supervisor = new StreamSupervisor(ExecutionModel.platform(2), 2, 200, 10, 100, 5);
+        FakeStream stream = new FakeStream();
+        stream.blockMs = 600;
+        UUID cameraId = UUID.randomUUID();
+        List<StreamHealth.State> states = new CopyOnWriteArrayList<>();
+
+        // Act
+        supervisor.supervise(cameraId, "ingest", "cam", true, stream);
+        await(() -> {
+            supervisor.getHealth(cameraId, "ingest").ifPresent(h -> states.add(h.getState()));
+            return stream.openTimesMs.size() >= 2;
+        });
+
+        // Assert - one read timeout was enough to reconnect once stalled
+        assertThat(states).contains(StreamHealth.State.STALLED);
+        assertThat(stream.stepErrors.get()).isEqualTo(1);
+        assertThat(supervisor.getHealth(cameraId, "ingest").orElseThrow().snapshot().decodeErrors()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should multiplex many cameras over a small pool")
+    void testManyCamerasShareThreads() throws Exception {
+        // Arrange
+        supervisor = new StreamSupervisor(ExecutionModel.platform(2), 2, 10_000, 1_000, 60_000, 5);
+        List<FakeStream> streams = new ArrayList<>();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        // Act - 50 cameras at ~20 FPS
+        for (int i = 0; i < 50; i++) {
+            FakeStream stream = new FakeStream();
+            stream.stepDelayMs = 50;
+            stream.threads = threads;
+            streams.add(stream);
+            supervisor.supervise(UUID.randomUUID(), "ingest", "cam" + i, true, stream);
+        }
+        await(() -> streams.stream().allMatch(stream -> stream.frames.get() >= 5));
+
+        // Assert
+        assertThat(threads).hasSizeLessThanOrEqualTo(2);
+        assertThat(supervisor.getHealth()).hasSize(50)
+                .allSatisfy(health -> assertThat(health.state()).isEqualTo(StreamHealth.State.RUNNING));
+    }
+
+    @Test
+    @DisplayName("Should end files at end of stream but reconnect live cameras")
+    void testEndOfStream() throws Exception {
+        // Arrange
+        supervisor = new StreamSupervisor(ExecutionModel.platform(2), 2, 10_000, 10, 100, 5);
+        FakeStream file = new FakeStream();
+        file.framesUntilEnd = 3;
+        FakeStream camera = new FakeStream();
+        camera.framesUntilEnd = 3;
+
+        // Act
+        supervisor.supervise(UUID.randomUUID(), "ingest", "file", false, file);
+        supervisor.supervise(UUID.randomUUID(), "ingest", "cam", true, camera);
+        await(() -> file.finishedState != null && camera.openTimesMs.size() >= 2);
+
+        // Assert
+        assertThat(file.finishedState).isEqualTo(StreamHealth.State.ENDED);
+        assertThat(file.closes.get()).isEqualTo(1);
+        assertThat(camera.finishedState).isNull();
+    }
+
+    @Test
+    @DisplayName("Should close a stopped camera, including one waiting to reconnect")
+    void testCancel() throws Exception {
+        // Arrange - a long backoff after the first failure
+        supervisor = new StreamSupervisor(ExecutionModel.platform(2), 2, 10_000, 60_000, 60_000, 5);
+        FakeStream stream = new FakeStream();
+        stream.failOpens.set(1);
+        UUID cameraId = UUID.randomUUID();
+        supervisor.supervise(cameraId, "ingest", "cam", true, stream);
+        await(() -> supervisor.getHealth(cameraId, "ingest")
+                .map(h -> h.getState() == StreamHealth.State.BACKOFF).orElse(false));
+
+        // Act
+        assertThat(supervisor.cancel(cameraId, "ingest")).isTrue();
+        await(() -> stream.finishedState != null);
+
+        // Assert
+        assertThat(stream.finishedState).isEqualTo(StreamHealth.State.STOPPED);
+        assertThat(supervisor.getHealth(cameraId, "ingest")).isEmpty();
+        assertThat(supervisor.cancel(cameraId, "ingest")).isFalse();
+    }
+
+    // ====== HELPER METHODS ======
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Scriptable connection: failing opens, blocking reads, end of stream.
+     */
+    private static final class FakeStream implements SupervisedStream {
+
+        final AtomicInteger failOpens = new AtomicInteger();
+        final List<Long> openTimesMs = new CopyOnWriteArrayList<>();
+        final AtomicInteger frames = new AtomicInteger();
+        final AtomicInteger stepErrors = new AtomicInteger();
+        final AtomicInteger closes = new AtomicInteger();
+        volatile long blockMs;
+        volatile long stepDelayMs;
+        volatile int framesUntilEnd = -1;
+        volatile Set<String> threads;
+        volatile StreamHealth.State finishedState;
+        private int framesThisConnection;
+
+        @Override
+        public void open() throws Exception {
+            openTimesMs.add(System.currentTimeMillis());
+            framesThisConnection = 0;
+            if (failOpens.getAndDecrement() > 0) {
+                throw new IllegalStateException("connection refused");
+            }
+        }
+
+        @Override
+        public long step(StreamHealth health) throws Exception {
+            if (threads != null) {
+                threads.add(Thread.currentThread().getName());
+            }
+            if (blockMs > 0 && openTimesMs.size() == 1) {
+                Thread.sleep(blockMs);
+                stepErrors.incrementAndGet();
+                throw new IllegalStateException("read timed out");
+            }
+            if (framesUntilEnd >= 0 && framesThisConnection >= framesUntilEnd) {
+                return -1;
+            }
+            framesThisConnection++;
+            health.frame(frames.incrementAndGet() * 50L);
+            return stepDelayMs;
+        }
+
+        @Override
+        public void close() {
+            closes.incrementAndGet();
+        }
+
+        @Override
+        public void finished(StreamHealth.State state) {
+            finishedState = state;
+        }
+    }
+}
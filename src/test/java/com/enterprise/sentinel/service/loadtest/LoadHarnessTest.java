@@ -0,0 +1,118 @@
+package com.enterprise.sentinel.service.loadtest;
+
+import com.enterprise.sentinel.service.analysis.VideoProcessor;
+import com.enterprise.sentinel.service.metrics.FrameTrace;
+import com.enterprise.sentinel.service.metrics.LatencyTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@DisplayName("LoadHarness Tests")
+class LoadHarnessTest {
+
+    private VideoProcessor videoProcessor;
+    private LatencyTracker latencyTracker;
+    private final AtomicLong processed = new AtomicLong();
+    private final List<UUID> cameras = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        videoProcessor = mock(VideoProcessor.class);
+        latencyTracker = new LatencyTracker();
+        when(videoProcessor.getProcessedFrameCount()).thenAnswer(invocation -> processed.get());
+    }
+
+    @Test
+    @DisplayName("Should ramp through every step when the pipeline keeps up")
+    void testAllStepsSustained() throws Exception {
+        // Arrange - every frame is accepted and analyzed at once
+        acceptWhen(cameraId -> true);
+
+        // Act
+        CapacityReport report = harness(List.of(1, 2)).run();
+
+        // Assert
+        assertThat(report.maxSustainedCameras()).isEqualTo(2);
+        assertThat(report.steps()).extracting(CapacityReport.Step::cameras).containsExactly(1, 2);
+        CapacityReport.Step two = report.steps().get(1);
+        assertThat(two.offeredFps()).isBetween(50.0, 150.0); // 2 cameras x 50 fps
+        assertThat(two.inferenceFps()).isGreaterThan(0);
+        assertThat(two.dropRatio()).isZero();
+        assertThat(two.latencyP99Ms()).isLessThan(1000);
+        assertThat(report.samples()).isNotEmpty();
+        assertThat(report.hardware().availableProcessors()).isPositive();
+        assertThat(cameras).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should stop the ramp at the first step that drops frames")
+    void testSaturationStopsRamp() throws Exception {
+        // Arrange - only the first camera's frames get in
+        acceptWhen(cameraId -> cameraId.equals(cameras.get(0)));
+
+        // Act
+        CapacityReport report = harness(List.of(1, 2, 4)).run();
+
+        // Assert
+        assertThat(report.maxSustainedCameras()).isEqualTo(1);
+        assertThat(report.steps()).hasSize(2);
+        assertThat(report.steps().get(1).sustained()).isFalse();
+        assertThat(report.steps().get(1).dropRatio()).isBetween(0.3, 0.7);
+    }
+
+    @Test
+    @DisplayName("Should reject an empty or non-positive ramp")
+    void testSettingsValidation() {
+        assertThatThrownBy(() -> settings(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> settings(List.of(0, 2)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(settings(List.of(4, 1, 2)).cameraSteps()).containsExactly(1, 2, 4);
+    }
+
+    // ====== HELPER METHODS ======
+
+    private LoadHarness harness(List<Integer> steps) {
+        return new LoadHarness(videoProcessor, latencyTracker, new SimpleMeterRegistry(), settings(steps), () -> {
+            UUID cameraId = UUID.randomUUID();
+            cameras.add(cameraId);
+            return cameraId;
+        });
+    }
+
+    private static LoadTestSettings settings(List<Integer> steps) {
+        return new LoadTestSettings(steps, 20, Duration.ZERO, Duration.ofMillis(400), Duration.ofMillis(100),
+                0.01, 1000, List.of(), "test", "stub");
+    }
+
+    /**
+     * Accepted frames go straight through: counted as inferred and traced.
+     */
+    private void acceptWhen(Predicate<UUID> accepts) {
+        when(videoProcessor.submitFrame(any(), any(), anyLong())).thenAnswer(invocation -> {
+            UUID cameraId = invocation.getArgument(0);
+            if (!accepts.test(cameraId)) {
+                return false;
+            }
+            FrameTrace trace = FrameTrace.capturedAt(invocation.getArgument(2));
+            trace.mark(FrameTrace.Stamp.ENQUEUE);
+            trace.mark(FrameTrace.Stamp.NMS);
+            latencyTracker.record(cameraId, trace);
+            processed.incrementAndGet();
+            return true;
+        });
+    }
+}
@@ -0,0 +1,100 @@
+package com.enterprise.sentinel.service.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("LatencyHistogram Tests")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Should keep every value within 1/32 of its bucket's reported value")
+    void testBucketPrecision() {
+        for (long value = 1; value < 100_000_000_000L; value = value * 3 / 2 + 1) {
+            // Act
+            long reported = LatencyHistogram.highestEquivalent(LatencyHistogram.indexOf(value));
+
+            // Assert
+            assertThat(reported).isGreaterThanOrEqualTo(value);
+            assertThat(reported - value).isLessThanOrEqualTo(value / 32);
+        }
+    }
+
+    @Test
+    @DisplayName("Should report p50/p99/p999 of a long-tailed distribution")
+    void testPercentiles() {
+        // Arrange - 1000 values of 1..1000 ms
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        // Act
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        // Assert - each within 1/32 above the exact value, never above the maximum
+        assertThat(snapshot.count()).isEqualTo(1000);
+        assertThat(snapshot.p50()).isBetween(500_000L, 500_000L * 33 / 32);
+        assertThat(snapshot.p99()).isBetween(990_000L, 990_000L * 33 / 32);
+        assertThat(snapshot.p999()).isBetween(999_000L, 1_000_000L);
+        assertThat(snapshot.max()).isEqualTo(1_000_000L);
+        assertThat(snapshot.mean()).isEqualTo(500_500.0);
+    }
+
+    @Test
+    @DisplayName("Should count every value recorded from concurrent threads")
+    void testConcurrentRecording() throws Exception {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i % 5000);
+                }
+            }));
+        }
+
+        // Act
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Assert
+        assertThat(histogram.snapshot().count()).isEqualTo(800_000);
+        histogram.reset();
+        assertThat(histogram.snapshot().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should split a frame trace into step intervals and a total")
+    void testTrackerSplitsTrace() throws Exception {
+        // Arrange - a frame that ends after NMS (no detections)
+        LatencyTracker tracker = new LatencyTracker();
+        UUID cameraId = UUID.randomUUID();
+        FrameTrace trace = FrameTrace.capturedAt(System.currentTimeMillis() - 20);
+        trace.mark(FrameTrace.Stamp.ENQUEUE);
+        trace.mark(FrameTrace.Stamp.DECODE);
+        trace.mark(FrameTrace.Stamp.PREPROCESS);
+        Thread.sleep(15);
+        trace.mark(FrameTrace.Stamp.INFER);
+        trace.mark(FrameTrace.Stamp.NMS);
+
+        // Act
+        tracker.record(cameraId, trace);
+        LatencyTracker.LatencyReport report = tracker.getReport();
+
+        // Assert
+        assertThat(report.steps().get("ENQUEUE").p50()).isBetween(15.0, 100.0);
+        assertThat(report.steps().get("INFER").p50()).isBetween(14.0, 100.0);
+        assertThat(report.steps().get("PERSIST").count()).isZero();
+        assertThat(report.steps().get(LatencyTracker.TOTAL).p50()).isBetween(34.0, 200.0);
+        assertThat(report.cameras().get(cameraId).get("NMS").count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,137 @@
+package com.enterprise.sentinel.service.metrics;
+
+import com.enterprise.sentinel.service.model.ModelDescriptor;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SentinelMetrics Tests")
+class SentinelMetricsTest {
+
+    private static final ModelDescriptor YOLO = model("yolov8n");
+    private static final ModelDescriptor PPE = model("ppe-int8");
+
+    private SimpleMeterRegistry registry;
+    private SentinelMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new SentinelMetrics(registry, 2);
+    }
+
+    @Test
+    @DisplayName("Should tag cameras past the limit as 'other'")
+    void testCameraTagLimit() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        // Act
+        String firstTag = metrics.cameraTag(first);
+        metrics.cameraTag(second);
+        String thirdTag = metrics.cameraTag(UUID.randomUUID());
+
+        // Assert
+        assertThat(firstTag).isEqualTo(first.toString());
+        assertThat(metrics.cameraTag(second)).isEqualTo(second.toString());
+        assertThat(thirdTag).isEqualTo(SentinelMetrics.OTHER_CAMERA);
+        assertThat(metrics.cameraTag(null)).isEqualTo(SentinelMetrics.DESKTOP_CAMERA);
+    }
+
+    @Test
+    @DisplayName("Should time each step and the whole frame per camera")
+    void testRecordFrame() throws Exception {
+        // Arrange - a frame that ends after NMS
+        UUID cameraId = UUID.randomUUID();
+        FrameTrace trace = FrameTrace.capturedAt(System.currentTimeMillis() - 20);
+        trace.mark(FrameTrace.Stamp.ENQUEUE);
+        trace.mark(FrameTrace.Stamp.DECODE);
+        trace.mark(FrameTrace.Stamp.PREPROCESS);
+        Thread.sleep(15);
+        trace.mark(FrameTrace.Stamp.INFER);
+        trace.mark(FrameTrace.Stamp.NMS);
+
+        // Act
+        metrics.recordFrame(cameraId, YOLO, trace);
+
+        // Assert
+        Timer infer = registry.get("sentinel.pipeline.step").tags("step", "INFER", "model", "yolov8n").timer();
+        assertThat(infer.count()).isEqualTo(1);
+        assertThat(infer.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(14);
+        assertThat(registry.find("sentinel.pipeline.step").tag("step", "PERSIST").timer()).isNull();
+        Timer camera = registry.get("sentinel.camera.frames").tag("camera", cameraId.toString()).timer();
+        assertThat(camera.count()).isEqualTo(1);
+        assertThat(camera.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(34);
+    }
+
+    @Test
+    @DisplayName("Should count detections, alerts and renderer frames")
+    void testCounters() {
+        // Arrange
+        UUID cameraId = UUID.randomUUID();
+        AtomicLong rendered = new AtomicLong(120);
+
+        // Act
+        metrics.countDetections(cameraId, YOLO, 3);
+        metrics.countDetections(cameraId, YOLO, 0);
+        metrics.countAlert(cameraId, "HIGH");
+        metrics.bindRenderer(rendered, AtomicLong::get, value -> 0);
+        rendered.addAndGet(30);
+
+        // Assert
+        assertThat(registry.get("sentinel.detections.persisted").tag("camera", cameraId.toString())
+                .counter().count()).isEqualTo(3.0);
+        assertThat(registry.get("sentinel.alerts.raised").tag("severity", "HIGH").counter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("sentinel.render.frames").functionCounter().count()).isEqualTo(150.0);
+    }
+
+    @Test
+    @DisplayName("Should tag frames and detections with the model that served them")
+    void testModelTagPerFrame() {
+        // Arrange - two cameras routed to different models
+        UUID entrance = UUID.randomUUID();
+        UUID loadingDock = UUID.randomUUID();
+
+        // Act
+        metrics.recordFrame(entrance, YOLO, finishedTrace());
+        metrics.recordFrame(loadingDock, PPE, finishedTrace());
+        metrics.recordFrame(null, null, finishedTrace());
+        metrics.countDetections(entrance, YOLO, 2);
+        metrics.countDetections(loadingDock, PPE, 5);
+
+        // Assert
+        assertThat(registry.get("sentinel.pipeline.step").tags("step", "TOTAL", "model", "yolov8n").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("sentinel.pipeline.step").tags("step", "TOTAL", "model", "ppe-int8").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("sentinel.camera.frames").tag("model", SentinelMetrics.NO_MODEL).timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("sentinel.detections.persisted").tag("model", "ppe-int8").counter().count())
+                .isEqualTo(5.0);
+        assertThat(registry.get("sentinel.detections.persisted").tag("model", "yolov8n").counter().count())
+                .isEqualTo(2.0);
+    }
+
+    private static FrameTrace finishedTrace() {
+        FrameTrace trace = FrameTrace.capturedAt(System.currentTimeMillis() - 5);
+        trace.mark(FrameTrace.Stamp.DECODE);
+        trace.mark(FrameTrace.Stamp.INFER);
+        return trace;
+    }
+
+    private static ModelDescriptor model(String id) {
+        return new ModelDescriptor(id, "1", Path.of(id + ".onnx"), ModelDescriptor.COCO_CLASSES,
+                ModelDescriptor.DEFAULT_CONFIDENCE, ModelDescriptor.DEFAULT_NMS_IOU, true, ModelDescriptor.Precision.FP32);
+    }
+}
@@ -0,0 +1,209 @@
+package com.enterprise.sentinel.service.model;
+
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.repository.zoo.ZooModel;
+import com.enterprise.sentinel.config.ExecutionModel;
+import com.enterprise.sentinel.domain.model.Video;
+import com.enterprise.sentinel.domain.repository.VideoRepository;
+import com.enterprise.sentinel.service.analysis.DetectionClassRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ModelRegistry and ModelRouter Tests")
+class ModelRegistryTest {
+
+    @TempDir
+    Path directory;
+
+    private ModelRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ModelRegistry(new DetectionClassRegistry(), new ObjectMapper(), directory.toString(),
+                "yolov8n", 2, 3, 0.15, 1000, ExecutionModel.platform(2), new MockEnvironment());
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.close();
+    }
+
+    @Test
+    @DisplayName("Should read version, labels and thresholds from the metadata file")
+    void testDescribeWithMetadata() throws Exception {
+        // Arrange
+        Path model = Files.write(directory.resolve("ppe.onnx"), new byte[] {1, 2, 3});
+        Files.writeString(directory.resolve("ppe.json"),
+                "{\"version\": \"2.1.0\", \"classes\": [\"helmet\", \"no-helmet\", \"vest\"], "
+                        + "\"confidence\": 0.6, \"dynamicBatch\": true}");
+
+        // Act
+        ModelDescriptor descriptor = registry.describe(model);
+
+        // Assert
+        assertThat(descriptor.id()).isEqualTo("ppe");
+        assertThat(descriptor.label()).isEqualTo("ppe:2.1.0");
+        assertThat(descriptor.classes()).containsExactly("helmet", "no-helmet", "vest");
+        assertThat(descriptor.confidence()).isEqualTo(0.6f);
+        assertThat(descriptor.nmsIou()).isEqualTo(ModelDescriptor.DEFAULT_NMS_IOU);
+        assertThat(descriptor.dynamicBatch()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should default to COCO labels and a content-hash version without metadata")
+    void testDescribeWithoutMetadata() throws Exception {
+        // Arrange
+        Path first = Files.write(directory.resolve("yolov8n.onnx"), new byte[] {1, 2, 3});
+        String before = registry.describe(first).version();
+        Files.write(first, new byte[] {4, 5, 6});
+
+        // Act
+        ModelDescriptor descriptor = registry.describe(first);
+
+        // Assert - the version follows the content
+        assertThat(descriptor.classes()).isEqualTo(ModelDescriptor.COCO_CLASSES);
+        assertThat(descriptor.version()).startsWith("sha256-").hasSize(19).isNotEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("Should keep serving nothing, without failing, when a model file does not load")
+    void testBrokenModelNotInstalled() throws Exception {
+        // Arrange - not an ONNX graph
+        Files.writeString(directory.resolve("yolov8n.onnx"), "not a model");
+
+        // Act
+        registry.loadAll();
+        registry.rescan();
+
+        // Assert
+        assertThat(registry.isLoaded("yolov8n")).isFalse();
+        assertThat(registry.acquire("yolov8n")).isNull();
+        assertThat(registry.getModels()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return from a rescan while a new model is still loading, and queue it only once")
+    void testRescanDoesNotWaitForLoad() throws Exception {
+        // Arrange - opening the model blocks until released
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger opens = new AtomicInteger();
+        ModelRegistry slow = new ModelRegistry(new DetectionClassRegistry(), new ObjectMapper(), directory.toString(),
+                "yolov8n", 2, 3, 0.15, 1000, ExecutionModel.platform(2), new MockEnvironment()) {
+            @Override
+            public ZooModel<Image, DetectedObjects> open(ModelDescriptor descriptor, SessionSettings session)
+                    throws Exception {
+                opens.incrementAndGet();
+                release.await(10, TimeUnit.SECONDS);
+                @SuppressWarnings("unchecked")
+                ZooModel<Image, DetectedObjects> model = mock(ZooModel.class);
+                return model;
+            }
+
+            @Override
+            ModelWarmup.Report warmUp(ZooModel<Image, DetectedObjects> model, ModelDescriptor descriptor) {
+                return new ModelWarmup.Report(1, 1.0, 1.0, true, 1);
+            }
+        };
+        slow.loadAll();
+        Files.write(directory.resolve("ppe.onnx"), new byte[] {1, 2, 3});
+
+        try {
+            // Act - the scheduler thread comes back while the load is blocked
+            long started = System.nanoTime();
+            slow.rescan();
+            slow.rescan();
+            long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+            // Assert
+            assertThat(elapsedMs).isLessThan(2000);
+            assertThat(slow.isLoaded("ppe")).isFalse();
+            release.countDown();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!slow.isLoaded("ppe") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(slow.isLoaded("ppe")).isTrue();
+            assertThat(opens).hasValue(1);
+        } finally {
+            release.countDown();
+            slow.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should release a lease once, however often it is closed")
+    void testLeaseReleasesOnce() {
+        // Arrange
+        AtomicInteger releases = new AtomicInteger();
+        ModelLease lease = new ModelLease(descriptor("yolov8n"), null, releases::incrementAndGet);
+
+        // Act
+        lease.close();
+        lease.close();
+
+        // Assert
+        assertThat(releases).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should route by explicit assignment, then the first matching rule, then the default")
+    void testRouting() {
+        // Arrange
+        ModelRegistry loaded = mock(ModelRegistry.class);
+        when(loaded.getDefaultModel()).thenReturn("yolov8n");
+        when(loaded.isLoaded(any())).thenAnswer(invocation -> List.of("yolov8n", "ppe", "vehicles")
+                .contains(invocation.<String>getArgument(0)));
+        VideoRepository videos = mock(VideoRepository.class);
+        UUID site = camera(videos, "site-north.example.com/stream1");
+        UUID lobby = camera(videos, "lobby.example.com/stream1");
+        UUID gate = camera(videos, "site-gate.example.com/stream1");
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.models.routes[0].match", "^site-")
+                .withProperty("app.models.routes[0].model", "ppe");
+        ModelRouter router = new ModelRouter(loaded, videos, environment);
+
+        // Act
+        router.assign(gate, "vehicles");
+
+        // Assert
+        assertThat(router.modelFor(site)).isEqualTo("ppe");
+        assertThat(router.modelFor(lobby)).isEqualTo("yolov8n");
+        assertThat(router.modelFor(gate)).isEqualTo("vehicles");
+        assertThat(router.modelFor(null)).isEqualTo("yolov8n");
+        assertThatThrownBy(() -> router.assign(lobby, "unknown"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ====== HELPER METHODS ======
+
+    private static ModelDescriptor descriptor(String id) {
+        return new ModelDescriptor(id, "1", Path.of(id + ".onnx"), ModelDescriptor.COCO_CLASSES,
+                ModelDescriptor.DEFAULT_CONFIDENCE, ModelDescriptor.DEFAULT_NMS_IOU, false,
+                ModelDescriptor.Precision.FP32);
+    }
+
+    private static UUID camera(VideoRepository videos, String name) {
+        UUID id = UUID.randomUUID();
+        when(videos.findById(id)).thenReturn(Optional.of(Video.builder().id(id).originalFilename(name).build()));
+        return id;
+    }
+}
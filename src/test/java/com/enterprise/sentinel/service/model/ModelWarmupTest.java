@@ -0,0 +1,59 @@
+package com.enterprise.sentinel.service.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ModelWarmup Tests")
+class ModelWarmupTest {
+
+    @Test
+    @DisplayName("Should stop once a round's p99 matches the previous round's")
+    void testSettles() throws Exception {
+        // Arrange - a slow first round (cold session), then steady passes
+        AtomicInteger passes = new AtomicInteger();
+        ModelWarmup warmup = new ModelWarmup(2, 10, 0.5, 10_000);
+
+        // Act
+        ModelWarmup.Report report = warmup.run(() -> Thread.sleep(passes.getAndIncrement() < 2 ? 60 : 10));
+
+        // Assert - cold round, first steady round, second steady round
+        assertThat(report.stable()).isTrue();
+        assertThat(report.passes()).isEqualTo(6);
+        assertThat(report.firstMs()).isGreaterThanOrEqualTo(60);
+        assertThat(report.p99Ms()).isLessThan(60);
+    }
+
+    @Test
+    @DisplayName("Should give up unsettled after the last round")
+    void testNeverSettles() throws Exception {
+        // Arrange - latency flips between rounds
+        AtomicInteger passes = new AtomicInteger();
+        ModelWarmup warmup = new ModelWarmup(2, 4, 0.15, 10_000);
+
+        // Act
+        ModelWarmup.Report report = warmup.run(() -> Thread.sleep(passes.getAndIncrement() / 2 % 2 == 0 ? 40 : 5));
+
+        // Assert
+        assertThat(report.stable()).isFalse();
+        assertThat(report.passes()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Should stop at the time budget")
+    void testBudget() throws Exception {
+        // Arrange - every round differs, budget shorter than one round
+        AtomicInteger passes = new AtomicInteger();
+        ModelWarmup warmup = new ModelWarmup(2, 100, 0.0, 1);
+
+        // Act
+        ModelWarmup.Report report = warmup.run(() -> Thread.sleep(1 + passes.getAndIncrement() * 3));
+
+        // Assert
+        assertThat(report.stable()).isFalse();
+        assertThat(report.passes()).isEqualTo(2);
+    }
+}
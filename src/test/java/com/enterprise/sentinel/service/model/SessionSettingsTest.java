@@ -0,0 +1,104 @@
+package com.enterprise.sentinel.service.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SessionSettings and SessionSweep Tests")
+class SessionSettingsTest {
+
+    @Test
+    @DisplayName("Should split the cores left for inference between the workers")
+    void testDerive() {
+        assertThat(SessionSettings.derive(8, 1).intraOpThreads()).isEqualTo(7);
+        assertThat(SessionSettings.derive(8, 2).intraOpThreads()).isEqualTo(3);
+        assertThat(SessionSettings.derive(2, 1).intraOpThreads()).isEqualTo(2);
+        assertThat(SessionSettings.derive(4, 8).intraOpThreads()).isEqualTo(1);
+        assertThat(SessionSettings.derive(8, 1).executionMode()).isEqualTo(SessionSettings.ExecutionMode.SEQUENTIAL);
+    }
+
+    @Test
+    @DisplayName("Should layer global and per-model properties over the derived defaults")
+    void testFromEnvironment() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.models.session.intra-op-threads", "0")
+                .withProperty("app.models.session.opt-level", "EXTENDED_OPT")
+                .withProperty("app.models.sessions.ppe.intra-op-threads", "2")
+                .withProperty("app.models.sessions.ppe.cpu-arena", "false");
+        SessionSettings defaults = SessionSettings.from(environment, "app.models.session",
+                SessionSettings.derive(8, 2));
+
+        // Act
+        SessionSettings ppe = SessionSettings.from(environment, "app.models.sessions.ppe", defaults);
+
+        // Assert
+        assertThat(defaults.intraOpThreads()).isEqualTo(3);
+        assertThat(defaults.optLevel()).isEqualTo(SessionSettings.OptLevel.EXTENDED_OPT);
+        assertThat(ppe.intraOpThreads()).isEqualTo(2);
+        assertThat(ppe.optLevel()).isEqualTo(SessionSettings.OptLevel.EXTENDED_OPT);
+        assertThat(ppe.cpuArena()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should pass the settings as OnnxRuntime engine options")
+    void testToOptions() {
+        SessionSettings settings = new SessionSettings(3, 1, SessionSettings.ExecutionMode.SEQUENTIAL,
+                SessionSettings.OptLevel.ALL_OPT, true, false);
+
+        assertThat(settings.toOptions())
+                .containsEntry("intraOpNumThreads", "3")
+                .containsEntry("interOpNumThreads", "1")
+                .containsEntry("executionMode", "SEQUENTIAL")
+                .containsEntry("optLevel", "ALL_OPT")
+                .containsEntry("memoryPatternOptimization", "true")
+                .containsEntry("cpuArenaAllocator", "false");
+        assertThatThrownBy(() -> new SessionSettings(0, 1, SessionSettings.ExecutionMode.SEQUENTIAL,
+                SessionSettings.OptLevel.ALL_OPT, true, true)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should only sweep combinations that fit in the cores")
+    void testCandidates() {
+        // Act
+        List<SessionSweep.Candidate> candidates = SessionSweep.candidates(4, SessionSweep.powersOfTwo(4),
+                SessionSweep.powersOfTwo(4), List.of(SessionSettings.ExecutionMode.SEQUENTIAL,
+                        SessionSettings.ExecutionMode.PARALLEL),
+                List.of(SessionSettings.OptLevel.ALL_OPT), List.of(true));
+
+        // Assert - (1,1) (1,2) (1,4) (2,1) (2,2) (4,1), in both modes
+        assertThat(SessionSweep.powersOfTwo(6)).containsExactly(1, 2, 4, 6);
+        assertThat(candidates).hasSize(12);
+        assertThat(candidates).allMatch(c -> c.workers() * c.session().intraOpThreads() <= 4);
+        assertThat(candidates).filteredOn(c -> c.session().executionMode() == SessionSettings.ExecutionMode.PARALLEL
+                        && c.workers() == 1 && c.session().intraOpThreads() == 2)
+                .singleElement().satisfies(c -> assertThat(c.session().interOpThreads()).isEqualTo(2));
+    }
+
+    @Test
+    @DisplayName("Should pick the best throughput within the latency budget, and the lowest latency")
+    void testSelection() {
+        // Arrange
+        SessionSweep.Result fastSingle = result(1, 4, 40, 30, 35);
+        SessionSweep.Result wide = result(4, 1, 90, 45, 60);
+        SessionSweep.Result overBudget = result(2, 2, 120, 80, 1500);
+        List<SessionSweep.Result> results = List.of(fastSingle, wide, overBudget);
+
+        // Act & Assert
+        assertThat(SessionSweep.bestThroughput(results, 1000)).isEqualTo(wide);
+        assertThat(SessionSweep.bestLatency(results)).isEqualTo(fastSingle);
+        assertThat(SessionSweep.bestThroughput(results, 10)).isNull();
+    }
+
+    // ====== HELPER METHODS ======
+
+    private static SessionSweep.Result result(int workers, int intra, double fps, double p50, double p99) {
+        return new SessionSweep.Result(new SessionSweep.Candidate(workers, new SessionSettings(intra, 1,
+                SessionSettings.ExecutionMode.SEQUENTIAL, SessionSettings.OptLevel.ALL_OPT, true, true)),
+                fps, p50, p99);
+    }
+}
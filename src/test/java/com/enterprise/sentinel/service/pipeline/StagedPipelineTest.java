@@ -0,0 +1,256 @@
+package com.enterprise.sentinel.service.pipeline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("StagedPipeline Tests")
+class StagedPipelineTest {
+
+    private static final ThreadFactory THREADS = runnable -> {
+        Thread thread = new Thread(runnable);
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    private StagedPipeline<Integer> pipeline;
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should pass items through every stage and count them per stage")
+    void testItemsFlowThroughStages() throws Exception {
+        // Arrange
+        List<Integer> out = new CopyOnWriteArrayList<>();
+        pipeline = StagedPipeline.<Integer>builder("test")
+                .stage("double", settings(8, 1, OverflowPolicy.BLOCK), THREADS, item -> true)
+                .stage("filter", settings(8, 2, OverflowPolicy.BLOCK), THREADS, item -> item % 2 == 0)
+                .stage("sink", settings(8, 1, OverflowPolicy.BLOCK), THREADS, out::add)
+                .build();
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            assertThat(pipeline.submit(i)).isTrue();
+        }
+        await(() -> out.size() == 5);
+
+        // Assert - odd items end at the filter
+        assertThat(out).containsExactlyInAnyOrder(0, 2, 4, 6, 8);
+        await(() -> pipeline.getStats().get(1).processed() == 10);
+        List<StageStats> stats = pipeline.getStats();
+        assertThat(stats).extracting(StageStats::name).containsExactly("double", "filter", "sink");
+        assertThat(stats).extracting(StageStats::processed).containsExactly(10L, 10L, 5L);
+        assertThat(stats.get(1).parallelism()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep items with the same key in order on a partitioned stage")
+    void testPartitionedStageKeepsKeyOrder() throws Exception {
+        // Arrange - four workers; items keyed by their remainder mod 3, odd ones slower
+        List<Integer> out = new CopyOnWriteArrayList<>();
+        pipeline = StagedPipeline.<Integer>builder("test")
+                .partitionedStage("persist", settings(64, 4, OverflowPolicy.BLOCK), THREADS, item -> {
+                    if (item % 2 == 1) {
+                        Thread.sleep(2);
+                    }
+                    return true;
+                }, item -> item % 3)
+                .stage("sink", settings(64, 1, OverflowPolicy.BLOCK), THREADS, out::add)
+                .build();
+
+        // Act
+        for (int i = 0; i < 60; i++) {
+            assertThat(pipeline.submit(i)).isTrue();
+        }
+        await(() -> out.size() == 60);
+
+        // Assert
+        for (int key = 0; key < 3; key++) {
+            int partition = key;
+            assertThat(out.stream().filter(item -> item % 3 == partition).toList()).isSorted();
+        }
+        assertThat(pipeline.getStats().get(0).capacity()).isEqualTo(64);
+    }
+
+    @Test
+    @DisplayName("Should back up a slow stage to the entry, which drops instead of losing items inside")
+    void testBackpressure() throws Exception {
+        // Arrange - the sink holds its first item until released
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> out = new CopyOnWriteArrayList<>();
+        pipeline = StagedPipeline.<Integer>builder("test")
+                .stage("entry", settings(2, 1, OverflowPolicy.DROP_NEWEST), THREADS, item -> true)
+                .stage("slow", settings(2, 1, OverflowPolicy.BLOCK), THREADS, item -> {
+                    release.await();
+                    return out.add(item);
+                })
+                .build();
+
+        // Act - slow: 1 in hand + 2 queued; entry: 1 blocked in hand-off + 2 queued
+        int accepted = 0;
+        for (int i = 0; i < 20; i++) {
+            if (pipeline.submit(i)) {
+                accepted++;
+            }
+            Thread.sleep(5);
+        }
+        StageStats entry = pipeline.getStats().get(0);
+        release.countDown();
+        int expected = accepted;
+        await(() -> out.size() == expected);
+
+        // Assert
+        assertThat(accepted).isBetween(5, 7);
+        assertThat(entry.dropped()).isEqualTo(20 - accepted);
+        assertThat(entry.queueDepth()).isEqualTo(2);
+        assertThat(pipeline.getStats().get(1).dropped()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep the newest items with DROP_OLDEST")
+    void testDropOldest() throws Exception {
+        // Arrange - the worker is parked on item 0 while 1..9 arrive
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        List<Integer> out = new CopyOnWriteArrayList<>();
+        pipeline = StagedPipeline.<Integer>builder("test")
+                .stage("latest", settings(3, 1, OverflowPolicy.DROP_OLDEST), THREADS, item -> {
+                    started.countDown();
+                    release.await();
+                    return out.add(item);
+                })
+                .build();
+
+        // Act
+        pipeline.submit(0);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i < 10; i++) {
+            assertThat(pipeline.submit(i)).isTrue();
+        }
+        release.countDown();
+        await(() -> out.size() == 4);
+
+        // Assert
+        assertThat(out).containsExactly(0, 7, 8, 9);
+        assertThat(pipeline.getStats().get(0).dropped()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Should count handler errors and keep processing")
+    void testErrorsAreIsolated() throws Exception {
+        // Arrange
+        List<Integer> out = new CopyOnWriteArrayList<>();
+        pipeline = StagedPipeline.<Integer>builder("test")
+                .stage("parse", settings(8, 1, OverflowPolicy.BLOCK), THREADS, item -> {
+                    if (item == 3) {
+                        throw new IllegalStateException("bad frame");
+                    }
+                    return true;
+                })
+                .stage("sink", settings(8, 1, OverflowPolicy.BLOCK), THREADS, out::add)
+                .build();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            pipeline.submit(i);
+        }
+        await(() -> out.size() == 4);
+
+        // Assert
+        assertThat(out).containsExactly(0, 1, 2, 4);
+        assertThat(pipeline.getErrors()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should run stages inline for callers that must not drop")
+    void testInlineProcessing() {
+        // Arrange
+        List<String> calls = new CopyOnWriteArrayList<>();
+        List<Integer> completed = new CopyOnWriteArrayList<>();
+        pipeline = StagedPipeline.<Integer>builder("test")
+                .onComplete(completed::add)
+                .stage("a", settings(1, 1, OverflowPolicy.DROP_NEWEST), THREADS, item -> calls.add("a" + item))
+                .stage("b", settings(1, 1, OverflowPolicy.DROP_NEWEST), THREADS, item -> calls.add("b" + item) && item > 0)
+                .stage("c", settings(1, 1, OverflowPolicy.DROP_NEWEST), THREADS, item -> calls.add("c" + item))
+                .build();
+
+        // Act
+        pipeline.process(0);
+        pipeline.process(1);
+
+        // Assert - item 0 ends at b; both ran on this thread in order
+        assertThat(calls).containsExactly("a0", "b0", "a1", "b1", "c1");
+        assertThat(completed).containsExactly(0, 1);
+        assertThat(pipeline.getStats().get(2).processed()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should count and rethrow a handler failure when running inline")
+    void testInlineProcessingRethrows() {
+        // Arrange
+        List<Integer> completed = new CopyOnWriteArrayList<>();
+        pipeline = StagedPipeline.<Integer>builder("test")
+                .onComplete(completed::add)
+                .stage("a", settings(1, 1, OverflowPolicy.DROP_NEWEST), THREADS, item -> true)
+                .stage("persist", settings(1, 1, OverflowPolicy.DROP_NEWEST), THREADS, item -> {
+                    throw new IOException("connection reset");
+                })
+                .build();
+
+        // Act & Assert - not completed, counted, and the caller sees the cause
+        assertThatThrownBy(() -> pipeline.process(1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("persist")
+                .hasCauseInstanceOf(IOException.class);
+        assertThat(completed).isEmpty();
+        assertThat(pipeline.getErrors()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should read stage settings from configuration with defaults")
+    void testSettingsFromEnvironment() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.pipeline.infer.parallelism", "3")
+                .withProperty("app.pipeline.infer.overflow", "DROP_OLDEST");
+
+        // Act
+        StageSettings settings = StageSettings.from(environment, "app.pipeline", "infer",
+                settings(2, 1, OverflowPolicy.BLOCK));
+
+        // Assert
+        assertThat(settings).isEqualTo(settings(2, 3, OverflowPolicy.DROP_OLDEST));
+        assertThatThrownBy(() -> settings(0, 1, OverflowPolicy.BLOCK))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ====== HELPER METHODS ======
+
+    private static StageSettings settings(int capacity, int parallelism, OverflowPolicy overflow) {
+        return new StageSettings(capacity, parallelism, overflow);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.enterprise.sentinel.service.quantization;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Quantization evaluation Tests")
+class QuantizationTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should score exact predictions 1 and ignore classes without ground truth")
+    void testPerfectPredictions() {
+        // Arrange
+        MeanAveragePrecision map = new MeanAveragePrecision();
+        List<MeanAveragePrecision.Box> truth = List.of(box("person", 1, 0.1), box("car", 1, 0.5));
+
+        // Act
+        map.add(truth, List.of(box("person", 0.9, 0.1), box("car", 0.8, 0.5), box("dog", 0.7, 0.3)));
+        MeanAveragePrecision.Result result = map.result();
+
+        // Assert
+        assertThat(result.map50()).isEqualTo(1.0);
+        assertThat(result.map50to95()).isEqualTo(1.0);
+        assertThat(result.ap50PerClass()).containsOnlyKeys("car", "person");
+    }
+
+    @Test
+    @DisplayName("Should rank a confident false positive against precision")
+    void testFalsePositiveRankedFirst() {
+        // Arrange - the wrong box outscores the right one; a second object is missed
+        MeanAveragePrecision map = new MeanAveragePrecision();
+        List<MeanAveragePrecision.Box> truth = List.of(box("person", 1, 0.1), box("person", 1, 0.6));
+
+        // Act
+        map.add(truth, List.of(box("person", 0.9, 0.35), box("person", 0.5, 0.1)));
+        MeanAveragePrecision.Result result = map.result();
+
+        // Assert - recall 0.5 reached at precision 0.5: 51 of 101 recall levels
+        assertThat(result.map50()).isCloseTo(0.5 * 51 / 101, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should count a loose box at IoU 0.5 but not at the stricter thresholds")
+    void testLooseBox() {
+        // Arrange - same size, shifted by a fifth of its width: IoU 0.667
+        MeanAveragePrecision map = new MeanAveragePrecision();
+
+        // Act
+        map.add(List.of(box("person", 1, 0.1)),
+                List.of(new MeanAveragePrecision.Box("person", 0.9, 0.14, 0.1, 0.2, 0.2)));
+        MeanAveragePrecision.Result result = map.result();
+
+        // Assert - true positive at 0.50 to 0.65 only
+        assertThat(result.map50()).isEqualTo(1.0);
+        assertThat(result.map50to95()).isCloseTo(0.4, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should read YOLO labels by class id and treat a missing label file as no objects")
+    void testLoadLabeledSet() throws Exception {
+        // Arrange
+        Files.createDirectories(directory.resolve("images"));
+        Files.createDirectories(directory.resolve("labels"));
+        Files.write(directory.resolve("images/a.jpg"), new byte[0]);
+        Files.write(directory.resolve("images/b.png"), new byte[0]);
+        Files.write(directory.resolve("images/notes.txt"), new byte[0]);
+        Files.writeString(directory.resolve("labels/a.txt"), "1 0.5 0.5 0.2 0.4\n\n0 0.1 0.1 0.1 0.1\n");
+
+        // Act
+        List<LabeledImageSet.Sample> samples = LabeledImageSet.load(directory, List.of("person", "car"));
+
+        // Assert
+        assertThat(samples).extracting(sample -> sample.image().getFileName().toString())
+                .containsExactly("a.jpg", "b.png");
+        MeanAveragePrecision.Box car = samples.get(0).truth().get(0);
+        assertThat(car.label()).isEqualTo("car");
+        assertThat(car.x()).isCloseTo(0.4, within(1e-9));
+        assertThat(car.y()).isCloseTo(0.3, within(1e-9));
+        assertThat(samples.get(1).truth()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject a label whose class id the model does not have")
+    void testUnknownClassRejected() throws Exception {
+        // Arrange
+        Files.createDirectories(directory.resolve("images"));
+        Files.createDirectories(directory.resolve("labels"));
+        Files.write(directory.resolve("images/a.jpg"), new byte[0]);
+        Files.writeString(directory.resolve("labels/a.txt"), "5 0.5 0.5 0.2 0.4\n");
+
+        // Act & Assert
+        assertThatThrownBy(() -> LabeledImageSet.load(directory, List.of("person", "car")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("a.txt:1");
+    }
+
+    @Test
+    @DisplayName("Should write calibration tensors as aligned little-endian float32 .npy")
+    void testWriteNpy() throws Exception {
+        // Arrange
+        Path file = directory.resolve("frame.npy");
+
+        // Act
+        CalibrationExporter.writeNpy(file, FloatBuffer.wrap(new float[] {0.25f, 1f, 0f, 0.5f, 0.75f, 1f}), 1, 2, 3);
+
+        // Assert
+        byte[] bytes = Files.readAllBytes(file);
+        int headerLength = (bytes[8] & 0xFF) | (bytes[9] & 0xFF) << 8;
+        String header = new String(bytes, 10, headerLength, StandardCharsets.US_ASCII);
+        assertThat((10 + headerLength) % 64).isZero();
+        assertThat(header).startsWith("{'descr': '<f4', 'fortran_order': False, 'shape': (1, 2, 3), }")
+                .endsWith("\n");
+        ByteBuffer data = ByteBuffer.wrap(bytes, 10 + headerLength, 24).order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(data.getFloat()).isEqualTo(0.25f);
+        assertThat(bytes).hasSize(10 + headerLength + 6 * Float.BYTES);
+    }
+
+    // ====== HELPER METHODS ======
+
+    private static MeanAveragePrecision.Box box(String label, double score, double x) {
+        return new MeanAveragePrecision.Box(label, score, x, 0.1, 0.2, 0.2);
+    }
+}
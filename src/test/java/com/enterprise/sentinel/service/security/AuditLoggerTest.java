@@ -10,10 +10,15 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.when;
 
 class AuditLoggerTest {
 
@@ -38,7 +43,7 @@ class AuditLoggerTest {
 
         auditLogger.logUserAction(username, action, videoId, filename, details);
 
-        verify(auditLogRepository, times(1)).save(any(AuditLogEntry.class));
+        verify(auditLogRepository, times(1)).saveAndFlush(any(AuditLogEntry.class));
     }
 
     @Test
@@ -47,31 +52,84 @@ class AuditLoggerTest {
         
         auditLogger.logViewVideo("operator", videoId, "surveillance.mp4");
 
-        verify(auditLogRepository, times(1)).save(any(AuditLogEntry.class));
+        verify(auditLogRepository, times(1)).saveAndFlush(any(AuditLogEntry.class));
     }
 
     @Test
     void shouldLogDeleteVideo() {
         UUID videoId = UUID.randomUUID();
         
-        auditLogger.logDeleteVideo("admin", videoId, "archive.mp4", "Compliance retention policy");
+        assertTrue(auditLogger.logDeleteVideo("admin", videoId, "archive.mp4", "Compliance retention policy"));
 
-        verify(auditLogRepository, times(1)).save(any(AuditLogEntry.class));
+        verify(auditLogRepository, times(1)).saveAndFlush(any(AuditLogEntry.class));
     }
 
     @Test
     void shouldLogExportVideo() {
         UUID videoId = UUID.randomUUID();
         
-        auditLogger.logExportVideo("analyst", videoId, "evidence.mp4", "MP4");
+        assertTrue(auditLogger.logExportVideo("analyst", videoId, "evidence.mp4", "MP4"));
 
-        verify(auditLogRepository, times(1)).save(any(AuditLogEntry.class));
+        verify(auditLogRepository, times(1)).saveAndFlush(any(AuditLogEntry.class));
     }
 
     @Test
     void shouldLogDataAccess() {
         auditLogger.logDataAccess("auditor", "AUDIT_LOGS", "Generated compliance report");
 
-        verify(auditLogRepository, times(1)).save(any(AuditLogEntry.class));
+        verify(auditLogRepository, times(1)).saveAndFlush(any(AuditLogEntry.class));
+    }
+
+    @Test
+    void shouldReportFailedDeleteToCaller() {
+        when(auditLogRepository.saveAndFlush(any(AuditLogEntry.class))).thenThrow(new IllegalStateException("db down"));
+
+        assertFalse(auditLogger.logDeleteVideo("admin", UUID.randomUUID(), "archive.mp4", null));
+        assertEquals(1, auditLogger.getFailedCount());
+    }
+
+    @Test
+    void shouldDrainQueuedWritesBeforeShutdown() throws Exception {
+        // Writes block until released; drain() must wait for all of them
+        CountDownLatch release = new CountDownLatch(1);
+        when(auditLogRepository.saveAndFlush(any(AuditLogEntry.class))).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AuditLogger queued = new AuditLogger(auditLogRepository, executor);
+        for (int i = 0; i < 50; i++) {
+            queued.logDataAccess("auditor", "AUDIT_LOGS", "report " + i);
+        }
+
+        Thread drain = new Thread(() -> {
+            try {
+                queued.drain();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        drain.start();
+        drain.join(200);
+        assertTrue(drain.isAlive(), "drain returned with writes still queued");
+
+        release.countDown();
+        drain.join(10_000);
+        assertFalse(drain.isAlive());
+        assertEquals(50, queued.getWrittenCount());
+        assertEquals(0, queued.getPendingCount());
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldWriteOnCallerThreadOnceExecutorStopped() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        AuditLogger stopped = new AuditLogger(auditLogRepository, executor);
+
+        stopped.logSecurityEvent("SECURITY_ALERT", "HIGH", "Zone breach");
+
+        verify(auditLogRepository, times(1)).saveAndFlush(any(AuditLogEntry.class));
+        assertEquals(0, stopped.getPendingCount());
     }
 }
@@ -0,0 +1,226 @@
+package com.enterprise.sentinel.service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SegmentStore Tests")
+class SegmentStoreTest {
+
+    private static final int RECORD_BYTES = 400_000; // ~3 records per 1 MB segment
+
+    @TempDir
+    Path storageRoot;
+
+    private SegmentStore store;
+    private UUID streamId;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = newStore();
+        streamId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should seek to the last keyframe at or before a time across segments")
+    void testSeekAcrossSegments() throws IOException {
+        // Arrange - one record per second, keyframe every other record
+        writeRecords(10, 0);
+
+        // Act
+        SegmentStore.SeekResult mid = store.seek(streamId, 5_500).orElseThrow();
+        SegmentStore.SeekResult exact = store.seek(streamId, 8_000).orElseThrow();
+        SegmentStore.SeekResult before = store.seek(streamId, -1_000).orElseThrow();
+
+        // Assert
+        assertThat(store.getStats(streamId).orElseThrow().segments()).isGreaterThan(1);
+        assertThat(mid.keyframeTimestampMs()).isEqualTo(4_000);
+        assertThat(exact.keyframeTimestampMs()).isEqualTo(8_000);
+        assertThat(exact.segment()).isGreaterThan(mid.segment());
+        assertThat(before.keyframeTimestampMs()).isZero();
+        assertThat(store.seek(UUID.randomUUID(), 0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should decrypt the records of a time range from its keyframe onwards")
+    void testOpenStreamRange() throws IOException {
+        // Arrange
+        writeRecords(10, 0);
+
+        // Act
+        byte[] content;
+        try (InputStream input = store.openStream(streamId, 3_000, 5_000).orElseThrow()) {
+            content = input.readAllBytes();
+        }
+
+        // Assert - starts at keyframe 2, ends with the last record starting by 5 s
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        for (int i = 2; i <= 5; i++) {
+            expected.write(record(i));
+        }
+        assertThat(content).isEqualTo(expected.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Should store records encrypted and reject tampered records")
+    void testTamperedRecordFailsAuthentication() throws IOException {
+        // Arrange
+        writeRecords(2, 0);
+        Path dataFile = firstDataFile();
+        byte[] stored = Files.readAllBytes(dataFile);
+        assertThat(indexOf(stored, Arrays.copyOf(record(0), 64))).isNegative();
+
+        // Act - flip one ciphertext byte of the first record
+        stored[100] ^= 1;
+        Files.write(dataFile, stored);
+
+        // Assert
+        assertThatThrownBy(() -> {
+            try (InputStream input = store.openStream(streamId, 0, Long.MAX_VALUE).orElseThrow()) {
+                input.readAllBytes();
+            }
+        }).isInstanceOf(IOException.class).hasMessageContaining("authentication");
+    }
+
+    @Test
+    @DisplayName("Should drop a partially written record after an unclean shutdown")
+    void testRecoveryTruncatesTornRecord() throws IOException {
+        // Arrange - complete records, then a torn one: data half written, index entry complete
+        writeRecords(2, 0);
+        Path dataFile = firstDataFile();
+        Path indexFile = dataFile.resolveSibling(dataFile.getFileName().toString().replace(".seg", ".idx"));
+        long dataSize = Files.size(dataFile);
+        try (FileChannel data = FileChannel.open(dataFile, StandardOpenOption.APPEND);
+             FileChannel index = FileChannel.open(indexFile, StandardOpenOption.WRITE)) {
+            data.write(ByteBuffer.wrap(new byte[1_000]));
+            SegmentIndex.append(index, new SegmentIndex.Entry(2_000, dataSize, 5_000, true));
+            index.write(ByteBuffer.wrap(new byte[10]), index.size()); // Torn entry
+        }
+
+        // Act
+        SegmentStore reloaded = newStore();
+
+        // Assert
+        assertThat(Files.size(dataFile)).isEqualTo(dataSize);
+        assertThat(Files.size(indexFile)).isEqualTo(2L * SegmentIndex.ENTRY_BYTES);
+        try (InputStream input = reloaded.openStream(streamId, 0, Long.MAX_VALUE).orElseThrow()) {
+            assertThat(input.readAllBytes()).hasSize(2 * RECORD_BYTES);
+        }
+    }
+
+    @Test
+    @DisplayName("Should delete whole expired segments but never the segment being written")
+    void testRetentionDeletesWholeSegments() throws IOException {
+        // Arrange - 8 days ago: several segments; writer still open on the last one
+        long now = System.currentTimeMillis();
+        long old = now - TimeUnit.DAYS.toMillis(8);
+        SegmentWriter writer = store.openWriter(streamId);
+        for (int i = 0; i < 10; i++) {
+            byte[] data = record(i);
+            writer.append(old + i * 1_000L, i % 2 == 0, data, 0, data.length);
+        }
+        int segments = store.getStats(streamId).orElseThrow().segments();
+
+        // Act
+        int deleted = store.enforceRetention(now);
+
+        // Assert
+        assertThat(deleted).isEqualTo(segments - 1);
+        try (var files = Files.list(firstDataFile().getParent())) {
+            assertThat(files.count()).isEqualTo(2); // .seg + .idx of the active segment
+        }
+
+        // Once closed, the last one expires too
+        writer.close();
+        assertThat(store.enforceRetention(now)).isEqualTo(1);
+        assertThat(store.getStats(streamId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should seek within a 24-hour recording in well under a millisecond per lookup")
+    void testSeekInDayLongRecording() throws IOException {
+        // Arrange - one small record per second for 24 h, keyframe every 2 s
+        SegmentWriter writer = store.openWriter(streamId);
+        byte[] data = new byte[64];
+        int seconds = (int) TimeUnit.DAYS.toSeconds(1);
+        for (int i = 0; i < seconds; i++) {
+            writer.append(i * 1_000L, i % 2 == 0, data, 0, data.length);
+        }
+        writer.close();
+        Random random = new Random(7);
+        for (int i = 0; i < 100; i++) {
+            store.seek(streamId, random.nextInt(seconds) * 1_000L); // Warm up
+        }
+
+        // Act
+        int lookups = 2_000;
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            long at = random.nextInt(seconds * 1_000);
+            SegmentStore.SeekResult result = store.seek(streamId, at).orElseThrow();
+            assertThat(at - result.keyframeTimestampMs()).isBetween(0L, 1_999L);
+        }
+        long averageMicros = (System.nanoTime() - startNanos) / 1_000 / lookups;
+
+        // Assert - generous bound for slow CI machines
+        assertThat(averageMicros).isLessThan(1_000);
+    }
+
+    // ====== HELPER METHODS ======
+
+    private SegmentStore newStore() throws IOException {
+        SegmentStore segmentStore = new SegmentStore(storageRoot.toString(), 1, 168, "test-key");
+        segmentStore.load();
+        return segmentStore;
+    }
+
+    private void writeRecords(int count, long startMs) throws IOException {
+        try (SegmentWriter writer = store.openWriter(streamId)) {
+            for (int i = 0; i < count; i++) {
+                byte[] data = record(i);
+                writer.append(startMs + i * 1_000L, i % 2 == 0, data, 0, data.length);
+            }
+        }
+    }
+
+    private static byte[] record(int i) {
+        byte[] data = new byte[RECORD_BYTES];
+        new Random(i).nextBytes(data);
+        return data;
+    }
+
+    private Path firstDataFile() throws IOException {
+        try (var files = Files.list(storageRoot.resolve("segments").resolve(streamId.toString()))) {
+            return files.filter(f -> f.toString().endsWith(".seg")).sorted().findFirst().orElseThrow();
+        }
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle) {
+        outer:
+        for (int i = 0; i <= haystack.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
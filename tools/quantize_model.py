@@ -0,0 +1,89 @@
+#!/usr/bin/env python3
+"""Quantize a YOLOv8 ONNX export into a variant the model registry can serve.
+
+Modes:
+  static   INT8 weights and activations (QDQ). Activation ranges come from
+           calibration tensors written by the application itself
+           (--app.quantization.enabled=true --app.quantization.calibration-images=<dir>),
+           i.e. exactly the preprocessing used when serving.
+  dynamic  INT8 weights, activations quantized at run time. No calibration set.
+  fp16     Float16 weights, inputs and outputs (for CPUs/GPUs with native FP16).
+
+  pip install onnx onnxruntime onnxconverter-common numpy
+  python tools/quantize_model.py models/yolov8n.onnx --mode static --calibration ./calibration
+
+Writes models/yolov8n-int8.onnx (or -int8dyn, -fp16) and its metadata file,
+copying classes and thresholds from models/yolov8n.json when present.
+"""
+import argparse
+import json
+import pathlib
+
+import numpy as np
+
+SUFFIXES = {"static": "int8", "dynamic": "int8dyn", "fp16": "fp16"}
+
+
+def calibration_reader(directory, input_name):
+    from onnxruntime.quantization import CalibrationDataReader
+
+    class Reader(CalibrationDataReader):
+        def __init__(self):
+            self.files = iter(sorted(pathlib.Path(directory).glob("*.npy")))
+
+        def get_next(self):
+            path = next(self.files, None)
+            return None if path is None else {input_name: np.load(path)}
+
+    return Reader()
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("model", type=pathlib.Path, help="FP32 ONNX export")
+    parser.add_argument("--mode", choices=sorted(SUFFIXES), default="static")
+    parser.add_argument("--calibration", type=pathlib.Path, help="Directory of .npy tensors (static mode)")
+    parser.add_argument("--output", type=pathlib.Path, help="Target .onnx (default: <model>-<suffix>.onnx)")
+    args = parser.parse_args()
+
+    source = args.model
+    target = args.output or source.with_name(f"{source.stem}-{SUFFIXES[args.mode]}.onnx")
+
+    if args.mode == "static":
+        if args.calibration is None:
+            parser.error("--calibration is required for static quantization")
+        import onnxruntime
+        from onnxruntime.quantization import QuantFormat, QuantType, quantize_static
+        from onnxruntime.quantization.shape_inference import quant_pre_process
+
+        prepared = target.with_suffix(".prep.onnx")
+        quant_pre_process(str(source), str(prepared))
+        input_name = onnxruntime.InferenceSession(str(prepared), providers=["CPUExecutionProvider"]) \
+            .get_inputs()[0].name
+        quantize_static(str(prepared), str(target), calibration_reader(args.calibration, input_name),
+                        quant_format=QuantFormat.QDQ, per_channel=True,
+                        activation_type=QuantType.QUInt8, weight_type=QuantType.QInt8)
+        prepared.unlink()
+        precision = "INT8"
+    elif args.mode == "dynamic":
+        from onnxruntime.quantization import QuantType, quantize_dynamic
+
+        quantize_dynamic(str(source), str(target), weight_type=QuantType.QUInt8)
+        precision = "INT8"
+    else:
+        import onnx
+        from onnxconverter_common import float16
+
+        onnx.save(float16.convert_float_to_float16(onnx.load(str(source)), keep_io_types=False), str(target))
+        precision = "FP16"
+
+    source_metadata = source.with_suffix(".json")
+    metadata = json.loads(source_metadata.read_text()) if source_metadata.exists() else {}
+    metadata["version"] = f"{metadata.get('version', source.stem)}-{SUFFIXES[args.mode]}"
+    metadata["precision"] = precision
+    target.with_suffix(".json").write_text(json.dumps(metadata, indent=2) + "\n")
+    print(f"Wrote {target} ({precision})")
+
+
+if __name__ == "__main__":
+    main()